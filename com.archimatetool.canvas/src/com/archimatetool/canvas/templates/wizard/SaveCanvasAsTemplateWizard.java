@@ -32,6 +32,7 @@ import com.archimatetool.canvas.templates.model.CanvasModelTemplate;
 import com.archimatetool.canvas.templates.model.CanvasTemplateManager;
 import com.archimatetool.editor.diagram.commands.DiagramCommandFactory;
 import com.archimatetool.editor.model.IArchiveManager;
+import com.archimatetool.editor.utils.ZipFileCache;
 import com.archimatetool.editor.utils.ZipUtils;
 import com.archimatetool.jdom.JDOMUtils;
 import com.archimatetool.model.IArchimateFactory;
@@ -136,6 +137,9 @@ public class SaveCanvasAsTemplateWizard extends Wizard {
     private void createZipFile(File zipFile) throws IOException {
         ZipOutputStream zOut = null;
         
+        // If we are replacing a template file it might be open
+        ZipFileCache.close(zipFile);
+        
         try {
             // Make sure parent folder exists
             File parent = zipFile.getParentFile();
@@ -0,0 +1,339 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.commandline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.widgets.Display;
+
+import com.archimatetool.commandline.providers.LoadModelFromFileProvider;
+import com.archimatetool.editor.model.IEditorModelManager;
+import com.archimatetool.model.IArchimateModel;
+
+
+/**
+ * Runs the command line providers once for each model in a batch of models.
+ *
+ * The model files are listed in a manifest file, one per line. A line can have a wildcard pattern in its file name
+ * such as "models/*.archimate". Each model is loaded and processed by all providers on its own thread and several
+ * models are processed in parallel. "{model}" in option values is replaced by the model file's name without its
+ * extension so that each model's output can be written to a different place.
+ *
+ * @author Phillip Beauvoir
+ */
+class BatchRunner {
+
+    static final String OPTION_BATCH = "batch"; //$NON-NLS-1$
+    static final String OPTION_BATCH_THREADS = "batchThreads"; //$NON-NLS-1$
+
+    static final String MODEL_NAME_VARIABLE = "{model}"; //$NON-NLS-1$
+
+    static final int DEFAULT_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * The outcome of processing one model
+     */
+    static class BatchResult {
+        File file;
+        boolean failed;
+        boolean skipped;
+        long time;
+
+        BatchResult(File file) {
+            this.file = file;
+        }
+    }
+
+    private Collection<ICommandLineProvider> fProviders;
+    private Options fOptions;
+    private List<String> fArgs;
+    private boolean fAbortOnException;
+
+    private volatile boolean fAborted;
+
+    /**
+     * @param providers The providers in the order they are run
+     * @param options All options
+     * @param args The arguments given to the application
+     * @param abortOnException If true a model's remaining providers are not run after an exception and no more models are started
+     */
+    BatchRunner(Collection<ICommandLineProvider> providers, Options options, List<String> args, boolean abortOnException) {
+        fProviders = providers;
+        fOptions = options;
+        fArgs = args;
+        fAbortOnException = abortOnException;
+    }
+
+    /**
+     * Process the models listed in a manifest file and print a summary
+     * @param manifestFile The manifest file
+     * @param threads The number of models to process in parallel
+     * @return EXIT_OK if all models were processed without an exception, otherwise -1
+     */
+    int run(File manifestFile, int threads) throws IOException {
+        List<File> files = readManifest(manifestFile);
+
+        if(files.isEmpty()) {
+            System.err.println(NLS.bind(Messages.BatchRunner_0, manifestFile));
+            return -1;
+        }
+
+        System.out.println(NLS.bind(Messages.BatchRunner_1, files.size(), threads));
+
+        long startTime = System.currentTimeMillis();
+
+        // The parser changes the shared options so parse them all first
+        List<BatchResult> results = new ArrayList<>();
+        List<CommandLine> commandLines = new ArrayList<>();
+        for(File file : files) {
+            BatchResult result = new BatchResult(file);
+            results.add(result);
+            try {
+                commandLines.add(parse(getModelArgs(file)));
+            }
+            catch(ParseException ex) {
+                System.err.println(ex.getMessage());
+                result.failed = true;
+                commandLines.add(null);
+            }
+        }
+
+        Display display = Display.getDefault();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Model Batch"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+
+            for(int i = 0; i < files.size(); i++) {
+                BatchResult result = results.get(i);
+                CommandLine commandLine = commandLines.get(i);
+                if(commandLine != null) {
+                    tasks.add(executor.submit(() -> runModel(commandLine, result, display)));
+                }
+            }
+
+            // Keep the Display running as diagram images are rendered on the Display thread
+            while(!isDone(tasks)) {
+                if(!display.readAndDispatch()) {
+                    display.sleep();
+                }
+            }
+
+            for(Future<?> task : tasks) {
+                try {
+                    task.get();
+                }
+                catch(InterruptedException | ExecutionException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        return printSummary(results, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Run the providers for one model on this thread and then close the model
+     */
+    private void runModel(CommandLine commandLine, BatchResult result, Display display) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            if(fAborted) {
+                result.skipped = true;
+                return;
+            }
+
+            for(ICommandLineProvider provider : fProviders) {
+                try {
+                    provider.run(commandLine);
+                }
+                catch(Exception ex) {
+                    System.err.println(result.file.getPath());
+                    ex.printStackTrace();
+                    result.failed = true;
+
+                    if(fAbortOnException) {
+                        fAborted = true;
+                        break;
+                    }
+                }
+            }
+        }
+        finally {
+            closeModel();
+            result.time = System.currentTimeMillis() - startTime;
+
+            // Wake up the Display thread to check if all models are done
+            display.wake();
+        }
+    }
+
+    /**
+     * Close this thread's model so that it can be garbage collected
+     */
+    private void closeModel() {
+        IArchimateModel model = CommandLineState.getModel();
+        CommandLineState.setModel(null);
+
+        if(model != null) {
+            try {
+                IEditorModelManager.INSTANCE.closeModel(model);
+            }
+            catch(IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private int printSummary(List<BatchResult> results, long time) {
+        int failed = 0;
+
+        System.out.println();
+        System.out.println(Messages.BatchRunner_5);
+        System.out.println("-------------"); //$NON-NLS-1$
+
+        for(BatchResult result : results) {
+            String status = result.skipped ? Messages.BatchRunner_4 : result.failed ? Messages.BatchRunner_3 : Messages.BatchRunner_2;
+            System.out.println(NLS.bind(Messages.BatchRunner_6, new Object[] { status, result.time, result.file.getPath() }));
+            if(result.failed || result.skipped) {
+                failed++;
+            }
+        }
+
+        System.out.println();
+        System.out.println(NLS.bind(Messages.BatchRunner_7, new Object[] { results.size(), failed, time }));
+
+        return failed == 0 ? IApplication.EXIT_OK : -1;
+    }
+
+    private boolean isDone(List<Future<?>> tasks) {
+        for(Future<?> task : tasks) {
+            if(!task.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CommandLine parse(List<String> args) throws ParseException {
+        return new DefaultParser().parse(fOptions, args.toArray(new String[args.size()]), false);
+    }
+
+    /**
+     * @return The arguments for a model. The model is loaded from file, batch options are removed and
+     *         "{model}" is replaced by the model file's name without its extension.
+     */
+    List<String> getModelArgs(File file) {
+        String modelName = file.getName();
+        int index = modelName.lastIndexOf('.');
+        if(index > 0) {
+            modelName = modelName.substring(0, index);
+        }
+
+        List<String> args = new ArrayList<>();
+        args.add("--" + LoadModelFromFileProvider.OPTION_LOAD_FILE_MODEL); //$NON-NLS-1$
+        args.add(file.getPath());
+
+        for(int i = 0; i < fArgs.size(); i++) {
+            String arg = fArgs.get(i);
+
+            // The option's value can be in the same argument as "--option=value"
+            int equalsIndex = arg.startsWith("-") ? arg.indexOf('=') : -1; //$NON-NLS-1$
+            Option option = fOptions.getOption(equalsIndex > 0 ? arg.substring(0, equalsIndex) : arg);
+
+            if(option != null && isBatchOption(option)) {
+                if(option.hasArg() && equalsIndex == -1) {
+                    i++;
+                }
+                continue;
+            }
+
+            args.add(arg.replace(MODEL_NAME_VARIABLE, modelName));
+        }
+
+        return args;
+    }
+
+    private boolean isBatchOption(Option option) {
+        String name = option.getLongOpt();
+        return OPTION_BATCH.equals(name) || OPTION_BATCH_THREADS.equals(name) || LoadModelFromFileProvider.OPTION_LOAD_FILE_MODEL.equals(name);
+    }
+
+    /**
+     * Read the model files listed in a manifest file.
+     * Empty lines and lines starting with "#" are ignored and relative paths are relative to the manifest file's folder.
+     * @return The model files in the order listed with duplicates removed
+     */
+    static List<File> readManifest(File manifestFile) throws IOException {
+        File baseFolder = manifestFile.getAbsoluteFile().getParentFile();
+        Set<File> files = new LinkedHashSet<>();
+
+        for(String line : Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if(line.isEmpty() || line.startsWith("#")) { //$NON-NLS-1$
+                continue;
+            }
+
+            File file = new File(line);
+            if(!file.isAbsolute()) {
+                file = new File(baseFolder, line);
+            }
+
+            if(isPattern(file.getName())) {
+                List<File> matches = new ArrayList<>();
+                try(DirectoryStream<Path> stream = Files.newDirectoryStream(file.getParentFile().toPath(), file.getName())) {
+                    for(Path path : stream) {
+                        if(Files.isRegularFile(path)) {
+                            matches.add(path.toFile());
+                        }
+                    }
+                }
+                Collections.sort(matches);
+                files.addAll(matches);
+            }
+            else {
+                files.add(file);
+            }
+        }
+
+        return new ArrayList<>(files);
+    }
+
+    private static boolean isPattern(String name) {
+        return name.indexOf('*') != -1 || name.indexOf('?') != -1 || name.indexOf('[') != -1 || name.indexOf('{') != -1;
+    }
+}
@@ -5,6 +5,7 @@
  */
 package com.archimatetool.commandline;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
@@ -27,6 +28,7 @@ import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.widgets.Display;
 
 import com.archimatetool.editor.utils.StringUtils;
@@ -61,6 +63,9 @@ public class CentralScrutinizer implements IApplication {
 
     private Map<ICommandLineProvider, ProviderInfo> providers;
     
+    private Options allOptions;
+    private List<String> applicationArgs;
+    
     @Override
     public Object start(IApplicationContext context) throws Exception {
         // Register providers
@@ -78,6 +83,11 @@ public class CentralScrutinizer implements IApplication {
             return EXIT_OK;
         }
         
+        // Run provider options once for each model in a batch
+        if(commandLine.hasOption(BatchRunner.OPTION_BATCH)) {
+            return runBatch(commandLine);
+        }
+        
         // Run provider options
         return runProviderOptions(commandLine);
     }
@@ -138,6 +148,9 @@ public class CentralScrutinizer implements IApplication {
             nextArgument = options.hasOption(arg) && options.getOption(arg).hasArg();
         }
         
+        allOptions = options;
+        applicationArgs = args;
+        
         // Parse options
         CommandLineParser parser = new DefaultParser();
         return parser.parse(options, args.toArray(new String[args.size()]), false);
@@ -150,6 +163,20 @@ public class CentralScrutinizer implements IApplication {
         options.addOption("a", "abortOnException", false, Messages.CentralScrutinizer_1); //$NON-NLS-1$ //$NON-NLS-2$
         options.addOption("p", "pause", false, Messages.CentralScrutinizer_6); //$NON-NLS-1$ //$NON-NLS-2$
         
+        options.addOption(Option.builder()
+                .longOpt(BatchRunner.OPTION_BATCH)
+                .hasArg()
+                .argName(Messages.CentralScrutinizer_9)
+                .desc(Messages.CentralScrutinizer_8)
+                .build());
+        
+        options.addOption(Option.builder()
+                .longOpt(BatchRunner.OPTION_BATCH_THREADS)
+                .hasArg()
+                .argName(Messages.CentralScrutinizer_11)
+                .desc(NLS.bind(Messages.CentralScrutinizer_10, BatchRunner.DEFAULT_THREADS))
+                .build());
+        
         return options;
     }
     
@@ -182,6 +209,33 @@ public class CentralScrutinizer implements IApplication {
         return EXIT_OK;
     }
     
+    // Run providers' options for each model in a batch
+    private int runBatch(CommandLine commandLine) throws IOException, ParseException {
+        // Ensure Display is initialised
+        ensureDefaultDisplay();
+        
+        int threads = BatchRunner.DEFAULT_THREADS;
+        if(commandLine.hasOption(BatchRunner.OPTION_BATCH_THREADS)) {
+            try {
+                threads = Math.max(1, Integer.parseInt(commandLine.getOptionValue(BatchRunner.OPTION_BATCH_THREADS)));
+            }
+            catch(NumberFormatException ex) {
+                throw new ParseException(ex.getMessage());
+            }
+        }
+        
+        File manifestFile = new File(commandLine.getOptionValue(BatchRunner.OPTION_BATCH));
+        
+        BatchRunner runner = new BatchRunner(providers.keySet(), allOptions, applicationArgs, commandLine.hasOption("abortOnException")); //$NON-NLS-1$
+        int result = runner.run(manifestFile, threads);
+        
+        if(commandLine.hasOption("pause")) { //$NON-NLS-1$
+            pause();
+        }
+        
+        return result;
+    }
+    
     private void showHelp() {
         HelpFormatter formatter = new HelpFormatter();
         //formatter.setOptionComparator(null);
@@ -11,21 +11,29 @@ import com.archimatetool.model.IArchimateModel;
  * Command Line State
  * Represents current state across all Command Line Providers
  * 
+ * The state is held for each thread so that in batch mode the models processed in parallel
+ * each have their own state. All providers are run for a model on the same thread.
+ * 
  * @author Phillip Beauvoir
  */
 public class CommandLineState {
     
     /**
-     * The single loaded model
+     * The loaded model of the current thread
      */
-    private static IArchimateModel singletonModel;
+    private static ThreadLocal<IArchimateModel> threadModel = new ThreadLocal<IArchimateModel>();
     
     public static IArchimateModel getModel() {
-        return singletonModel;
+        return threadModel.get();
     }
     
     public static void setModel(IArchimateModel model) {
-        singletonModel = model;
+        if(model == null) {
+            threadModel.remove();
+        }
+        else {
+            threadModel.set(model);
+        }
     }
     
 }
@@ -6,6 +6,22 @@ public class Messages extends NLS {
 
     private static final String BUNDLE_NAME = "com.archimatetool.commandline.messages"; //$NON-NLS-1$
 
+    public static String BatchRunner_0;
+
+    public static String BatchRunner_1;
+
+    public static String BatchRunner_2;
+
+    public static String BatchRunner_3;
+
+    public static String BatchRunner_4;
+
+    public static String BatchRunner_5;
+
+    public static String BatchRunner_6;
+
+    public static String BatchRunner_7;
+
     public static String CentralScrutinizer_0;
 
     public static String CentralScrutinizer_1;
@@ -21,6 +37,14 @@ public class Messages extends NLS {
     public static String CentralScrutinizer_6;
 
     public static String CentralScrutinizer_7;
+
+    public static String CentralScrutinizer_8;
+
+    public static String CentralScrutinizer_9;
+
+    public static String CentralScrutinizer_10;
+
+    public static String CentralScrutinizer_11;
     static {
         // initialize resource bundle
         NLS.initializeMessages(BUNDLE_NAME, Messages.class);
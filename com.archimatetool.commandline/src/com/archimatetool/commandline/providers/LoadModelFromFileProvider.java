@@ -7,11 +7,13 @@ package com.archimatetool.commandline.providers;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.widgets.Display;
 
 import com.archimatetool.commandline.AbstractCommandLineProvider;
 import com.archimatetool.commandline.CommandLineState;
@@ -28,7 +30,7 @@ public class LoadModelFromFileProvider extends AbstractCommandLineProvider {
     
     static final String PREFIX = Messages.LoadModelFromFileProvider_0;
     
-    static final String OPTION_LOAD_FILE_MODEL = "loadModel"; //$NON-NLS-1$
+    public static final String OPTION_LOAD_FILE_MODEL = "loadModel"; //$NON-NLS-1$
 
     public LoadModelFromFileProvider() {
     }
@@ -55,7 +57,7 @@ public class LoadModelFromFileProvider extends AbstractCommandLineProvider {
             String filePath = commandLine.getOptionValue(OPTION_LOAD_FILE_MODEL);
             File file = new File(filePath);
             
-            IArchimateModel model = IEditorModelManager.INSTANCE.loadModel(file);
+            IArchimateModel model = loadModel(file);
             
             if(model == null) {
                 throw new IOException(Messages.LoadModelFromFileProvider_3);
@@ -67,6 +69,23 @@ public class LoadModelFromFileProvider extends AbstractCommandLineProvider {
         }
     }
     
+    /**
+     * In batch mode models are loaded on more than one thread at the same time so use the
+     * thread-safe asynchronous load and wait for it if this is not the Display thread
+     */
+    private IArchimateModel loadModel(File file) throws Exception {
+        if(Display.getCurrent() != null) {
+            return IEditorModelManager.INSTANCE.loadModel(file);
+        }
+        
+        try {
+            return IEditorModelManager.INSTANCE.loadModelAsync(file, null).get();
+        }
+        catch(ExecutionException ex) {
+            throw ex.getCause() instanceof Exception ? (Exception)ex.getCause() : ex;
+        }
+    }
+    
     @Override
     public int getPriority() {
         return PRIORITY_LOAD_OR_CREATE_MODEL;
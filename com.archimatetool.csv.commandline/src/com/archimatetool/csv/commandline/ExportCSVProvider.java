@@ -40,6 +40,7 @@ public class ExportCSVProvider extends AbstractCommandLineProvider {
     static final String OPTION_STRIP_NEW_LINES = "csv.exportStripNewLines"; //$NON-NLS-1$
     static final String OPTION_LEADING_CHARS_HACK = "csv.exportLeadingZeros"; //$NON-NLS-1$
     static final String OPTION_ENCODING = "csv.exportEncoding"; //$NON-NLS-1$
+    static final String OPTION_GZIP = "csv.exportGzip"; //$NON-NLS-1$
 
     
     public ExportCSVProvider() {
@@ -109,6 +110,9 @@ public class ExportCSVProvider extends AbstractCommandLineProvider {
 
         // Strip newlines
         exporter.setStripNewLines(commandLine.hasOption(OPTION_STRIP_NEW_LINES));
+        
+        // Gzip
+        exporter.setGzip(commandLine.hasOption(OPTION_GZIP));
 
         logMessage(NLS.bind(Messages.ExportCSVProvider_4, model.getName(), folderOutput.getPath()));
         exporter.export(folderOutput);
@@ -167,6 +171,12 @@ public class ExportCSVProvider extends AbstractCommandLineProvider {
                 .build();
         options.addOption(option);
         
+        option = Option.builder()
+                .longOpt(OPTION_GZIP)
+                .desc(Messages.ExportCSVProvider_16)
+                .build();
+        options.addOption(option);
+        
         return options;
     }
     
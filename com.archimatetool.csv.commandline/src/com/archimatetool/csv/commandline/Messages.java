@@ -22,6 +22,8 @@ public class Messages extends NLS {
 
     public static String ExportCSVProvider_15;
 
+    public static String ExportCSVProvider_16;
+
     public static String ExportCSVProvider_2;
 
     public static String ExportCSVProvider_3;
@@ -5,16 +5,24 @@
  */
 package com.archimatetool.csv.export;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.emf.ecore.EObject;
 
@@ -41,6 +49,23 @@ import com.archimatetool.model.IProperty;
  */
 public class CSVExporter implements CSVConstants {
     
+    static final String GZIP_EXTENSION = ".gz"; //$NON-NLS-1$
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * Folders that elements are written from, in order
+     */
+    private static final FolderType[] ELEMENT_FOLDER_TYPES = {
+            FolderType.STRATEGY,
+            FolderType.BUSINESS,
+            FolderType.APPLICATION,
+            FolderType.TECHNOLOGY,
+            FolderType.MOTIVATION,
+            FolderType.IMPLEMENTATION_MIGRATION,
+            FolderType.OTHER
+    };
+    
     private char fDelimiter = ',';
     private String fFilePrefix = ""; //$NON-NLS-1$
     
@@ -51,6 +76,8 @@ public class CSVExporter implements CSVConstants {
     
     private String fEncoding = "UTF-8"; //$NON-NLS-1$
     
+    private boolean fGzip = false;
+    
     /*
      * Internal option. BUT...
      * If one exports to the csv files with a model that has properties, then edits the model and removes all properties,
@@ -67,9 +94,63 @@ public class CSVExporter implements CSVConstants {
     }
     
     public void export(File folder) throws IOException {
-        writeModelAndElements(new File(folder, createElementsFileName()));
-        writeRelationships(new File(folder, createRelationsFileName()));
-        writeProperties(new File(folder, createPropertiesFileName()));
+        // Get all concepts in one pass of the model
+        Map<FolderType, List<IArchimateConcept>> folderConcepts = new EnumMap<FolderType, List<IArchimateConcept>>(FolderType.class);
+        List<IArchimateConcept> allConcepts = new ArrayList<IArchimateConcept>();
+        
+        for(IFolder folder : fModel.getFolders()) {
+            // Only top level folders of a type are exported
+            if(!folderConcepts.containsKey(folder.getType())) {
+                List<IArchimateConcept> concepts = new ArrayList<IArchimateConcept>();
+                getConcepts(folder, concepts);
+                folderConcepts.put(folder.getType(), concepts);
+            }
+            
+            // Properties are written in model content order
+            getConceptsInContentOrder(folder, allConcepts);
+        }
+        
+        // Write the files at the same time
+        List<ForkJoinTask<Void>> tasks = new ArrayList<ForkJoinTask<Void>>();
+        
+        tasks.add(submit(() -> writeModelAndElements(new File(folder, createElementsFileName()), folderConcepts)));
+        tasks.add(submit(() -> writeRelationships(new File(folder, createRelationsFileName()), folderConcepts.get(FolderType.RELATIONS))));
+        tasks.add(submit(() -> writeProperties(new File(folder, createPropertiesFileName()), allConcepts)));
+        
+        // Wait for all of them to finish and throw the first exception
+        IOException exception = null;
+        
+        for(ForkJoinTask<Void> task : tasks) {
+            try {
+                task.get();
+            }
+            catch(ExecutionException ex) {
+                if(exception == null) {
+                    exception = ex.getCause() instanceof IOException ? (IOException)ex.getCause() : new IOException(ex.getCause());
+                }
+            }
+            catch(InterruptedException ex) {
+                if(exception == null) {
+                    exception = new InterruptedIOException();
+                }
+            }
+        }
+        
+        if(exception != null) {
+            throw exception;
+        }
+    }
+    
+    private interface WriteTask {
+        void write() throws IOException;
+    }
+    
+    private ForkJoinTask<Void> submit(WriteTask writeTask) {
+        Callable<Void> task = () -> {
+            writeTask.write();
+            return null;
+        };
+        return ForkJoinPool.commonPool().submit(task);
     }
     
     /**
@@ -103,47 +184,49 @@ public class CSVExporter implements CSVConstants {
         fEncoding = encoding;
     }
     
+    /**
+     * Set whether to compress the files with gzip. If set ".gz" is added to the file names.
+     * Default is false
+     * @param set
+     */
+    public void setGzip(boolean set) {
+        fGzip = set;
+    }
+    
     /**
      * Write the Model and All Elements
      */
-    private void writeModelAndElements(File file) throws IOException {
-        Writer writer = createOutputStreamWriter(file);
-        
-        // Write BOM
-        writeBOM(writer);
-        
-        // Write Header
-        String header = createHeader(MODEL_ELEMENTS_HEADER);
-        writer.write(header);
-        
-        // CRLF
-        writer.write(CRLF);
-        
-        // Write Model
-        String modelRow = createModelRow();
-        writer.write(modelRow);
-        
-        // Write Elements
-        writeElementsInFolder(writer, fModel.getFolder(FolderType.STRATEGY));
-        writeElementsInFolder(writer, fModel.getFolder(FolderType.BUSINESS));
-        writeElementsInFolder(writer, fModel.getFolder(FolderType.APPLICATION));
-        writeElementsInFolder(writer, fModel.getFolder(FolderType.TECHNOLOGY));
-        writeElementsInFolder(writer, fModel.getFolder(FolderType.MOTIVATION));
-        writeElementsInFolder(writer, fModel.getFolder(FolderType.IMPLEMENTATION_MIGRATION));
-        writeElementsInFolder(writer, fModel.getFolder(FolderType.OTHER));
-        
-        writer.close();
+    private void writeModelAndElements(File file, Map<FolderType, List<IArchimateConcept>> folderConcepts) throws IOException {
+        try(Writer writer = createWriter(file)) {
+            // Write BOM
+            writeBOM(writer);
+            
+            // Write Header
+            String header = createHeader(MODEL_ELEMENTS_HEADER);
+            writer.write(header);
+            
+            // CRLF
+            writer.write(CRLF);
+            
+            // Write Model
+            String modelRow = createModelRow();
+            writer.write(modelRow);
+            
+            // Write Elements
+            for(FolderType folderType : ELEMENT_FOLDER_TYPES) {
+                writeElements(writer, folderConcepts.get(folderType));
+            }
+        }
     }
     
     /**
-     * Write all elements in a given folder and its child folders to Writer
+     * Write all elements in a list of concepts to Writer
      */
-    private void writeElementsInFolder(Writer writer, IFolder folder) throws IOException {
-        if(folder == null) {
+    private void writeElements(Writer writer, List<IArchimateConcept> concepts) throws IOException {
+        if(concepts == null) {
             return;
         }
         
-        List<IArchimateConcept> concepts = getConcepts(folder);
         sort(concepts);
         
         for(IArchimateConcept concept : concepts) {
@@ -157,8 +240,11 @@ public class CSVExporter implements CSVConstants {
     /**
      * Write All Relationships
      */
-    private void writeRelationships(File file) throws IOException {
-        List<IArchimateConcept> concepts = getConcepts(fModel.getFolder(FolderType.RELATIONS));
+    private void writeRelationships(File file, List<IArchimateConcept> concepts) throws IOException {
+        if(concepts == null) {
+            concepts = new ArrayList<IArchimateConcept>();
+        }
+        
         sort(concepts);
         
         // Are there any to write?
@@ -166,56 +252,49 @@ public class CSVExporter implements CSVConstants {
             return;
         }
         
-        Writer writer = createOutputStreamWriter(file);
-        
-        // Write BOM
-        writeBOM(writer);
-        
-        // Write Header
-        String header = createHeader(RELATIONSHIPS_HEADER);
-        writer.write(header);
-        
-        // Write Relationships
-        for(IArchimateConcept concept : concepts) {
-            if(concept instanceof IArchimateRelationship) {
-                writer.write(CRLF);
-                writer.write(createRelationshipRow((IArchimateRelationship)concept));
+        try(Writer writer = createWriter(file)) {
+            // Write BOM
+            writeBOM(writer);
+            
+            // Write Header
+            String header = createHeader(RELATIONSHIPS_HEADER);
+            writer.write(header);
+            
+            // Write Relationships
+            for(IArchimateConcept concept : concepts) {
+                if(concept instanceof IArchimateRelationship) {
+                    writer.write(CRLF);
+                    writer.write(createRelationshipRow((IArchimateRelationship)concept));
+                }
             }
         }
-        
-        writer.close();
     }
     
     /**
      * Write All Properties
      */
-    private void writeProperties(File file) throws IOException {
+    private void writeProperties(File file, List<IArchimateConcept> concepts) throws IOException {
         // Are there any to write?
-        if(!fWriteEmptyFile && !hasProperties()) {
+        if(!fWriteEmptyFile && !hasProperties(concepts)) {
             return;
         }
         
-        Writer writer = createOutputStreamWriter(file);
-        
-        // Write BOM
-        writeBOM(writer);
-        
-        // Write Header
-        String header = createHeader(PROPERTIES_HEADER);
-        writer.write(header);
-        
-        // Write Model Properties
-        for(IProperty property : fModel.getProperties()) {
-            writer.write(CRLF);
-            writer.write(createPropertyRow(fModel.getId(), property));
-        }
-        
-        // Write Element and Relationship Properties
-        for(Iterator<EObject> iter = fModel.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
-            if(eObject instanceof IArchimateConcept) {
-                IArchimateConcept concept = (IArchimateConcept)eObject;
-                
+        try(Writer writer = createWriter(file)) {
+            // Write BOM
+            writeBOM(writer);
+            
+            // Write Header
+            String header = createHeader(PROPERTIES_HEADER);
+            writer.write(header);
+            
+            // Write Model Properties
+            for(IProperty property : fModel.getProperties()) {
+                writer.write(CRLF);
+                writer.write(createPropertyRow(fModel.getId(), property));
+            }
+            
+            // Write Element and Relationship Properties
+            for(IArchimateConcept concept : concepts) {
                 for(IProperty property : concept.getProperties()) {
                     writer.write(CRLF);
                     writer.write(createPropertyRow(concept.getId(), property));
@@ -225,8 +304,6 @@ public class CSVExporter implements CSVConstants {
                 writeSpecialProperties(writer, concept);
             }
         }
-        
-        writer.close();
     }
     
     private void writeSpecialProperties(Writer writer, IArchimateConcept concept) throws IOException {
@@ -267,20 +344,16 @@ public class CSVExporter implements CSVConstants {
     }
     
     /**
-     * @return true if the model has any user properties
+     * @return true if the model or any of the concepts have user properties
      */
-    boolean hasProperties() {
+    boolean hasProperties(List<IArchimateConcept> concepts) {
         if(!fModel.getProperties().isEmpty()) {
             return true;
         }
         
-        for(Iterator<EObject> iter = fModel.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
-            if(eObject instanceof IArchimateConcept) {
-                IArchimateConcept concept = (IArchimateConcept)eObject;
-                if(!concept.getProperties().isEmpty()) {
-                    return true;
-                }
+        for(IArchimateConcept concept : concepts) {
+            if(!concept.getProperties().isEmpty()) {
+                return true;
             }
         }
 
@@ -466,15 +539,9 @@ public class CSVExporter implements CSVConstants {
     }
     
     /**
-     * Return a list of all elements/relations in a given folder and its child folders
+     * Add all elements/relations in a given folder and then those in its child folders to list
      */
-    private List<IArchimateConcept> getConcepts(IFolder folder) {
-        List<IArchimateConcept> list = new ArrayList<IArchimateConcept>();
-        
-        if(folder == null) {
-            return list;
-        }
-        
+    private void getConcepts(IFolder folder, List<IArchimateConcept> list) {
         for(EObject object : folder.getElements()) {
             if(object instanceof IArchimateConcept) {
                 list.add((IArchimateConcept)object);
@@ -482,10 +549,24 @@ public class CSVExporter implements CSVConstants {
         }
         
         for(IFolder f : folder.getFolders()) {
-            list.addAll(getConcepts(f));
+            getConcepts(f, list);
+        }
+    }
+    
+    /**
+     * Add all elements/relations in a given folder and its child folders to list in model content order.
+     * This is the order of fModel.eAllContents() in which the child folders of a folder come before its elements.
+     */
+    private void getConceptsInContentOrder(IFolder folder, List<IArchimateConcept> list) {
+        for(IFolder f : folder.getFolders()) {
+            getConceptsInContentOrder(f, list);
         }
         
-        return list;
+        for(EObject object : folder.getElements()) {
+            if(object instanceof IArchimateConcept) {
+                list.add((IArchimateConcept)object);
+            }
+        }
     }
 
     /**
@@ -497,43 +578,81 @@ public class CSVExporter implements CSVConstants {
             return;
         }
         
-        Collections.sort(list, new Comparator<IArchimateConcept>() {
-            @Override
-            public int compare(IArchimateConcept o1, IArchimateConcept o2) {
-                if(o1.eClass().equals(o2.eClass())) {
-                    String name1 = StringUtils.safeString(o1.getName().toLowerCase().trim());
-                    String name2 = StringUtils.safeString(o2.getName().toLowerCase().trim());
-                    return name1.compareTo(name2);
-                }
-                
-                String name1 = o1.eClass().getName().toLowerCase();
-                String name2 = o2.eClass().getName().toLowerCase();
-                return name1.compareTo(name2);
-            }
-        });
+        // Create the sort keys once rather than in each comparison
+        List<SortKey> keys = new ArrayList<SortKey>(list.size());
+        for(IArchimateConcept concept : list) {
+            keys.add(new SortKey(concept));
+        }
+        
+        Collections.sort(keys);
+        
+        for(int i = 0; i < keys.size(); i++) {
+            list.set(i, keys.get(i).concept);
+        }
+    }
+    
+    private static class SortKey implements Comparable<SortKey> {
+        IArchimateConcept concept;
+        String className;
+        String name;
+        
+        SortKey(IArchimateConcept concept) {
+            this.concept = concept;
+            className = concept.eClass().getName().toLowerCase();
+            name = StringUtils.safeString(concept.getName()).toLowerCase().trim();
+        }
+        
+        @Override
+        public int compareTo(SortKey other) {
+            int result = className.compareTo(other.className);
+            return result != 0 ? result : name.compareTo(other.name);
+        }
     }
     
     String createElementsFileName() {
-        return fFilePrefix + ELEMENTS_FILENAME + FILE_EXTENSION;
+        return fFilePrefix + ELEMENTS_FILENAME + getFileExtension();
     }
     
     String createRelationsFileName() {
-        return fFilePrefix + RELATIONS_FILENAME + FILE_EXTENSION;
+        return fFilePrefix + RELATIONS_FILENAME + getFileExtension();
     }
     
     String createPropertiesFileName() {
-        return fFilePrefix + PROPERTIES_FILENAME + FILE_EXTENSION;
+        return fFilePrefix + PROPERTIES_FILENAME + getFileExtension();
     }
     
-    OutputStreamWriter createOutputStreamWriter(File file) throws IOException {
-        if("ANSI".equals(fEncoding)) { //$NON-NLS-1$
-            return new OutputStreamWriter(new FileOutputStream(file));
-        }
-        else if(fEncoding.startsWith("UTF-8")) { //$NON-NLS-1$
-            return new OutputStreamWriter(new FileOutputStream(file), "UTF-8"); //$NON-NLS-1$
+    private String getFileExtension() {
+        return fGzip ? FILE_EXTENSION + GZIP_EXTENSION : FILE_EXTENSION;
+    }
+    
+    /**
+     * @return A buffered writer for file in the encoding, compressed if gzip is set
+     */
+    Writer createWriter(File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        
+        try {
+            if(fGzip) {
+                out = new GZIPOutputStream(out, BUFFER_SIZE);
+            }
+            
+            OutputStreamWriter writer;
+            
+            if("ANSI".equals(fEncoding)) { //$NON-NLS-1$
+                writer = new OutputStreamWriter(out);
+            }
+            else if(fEncoding.startsWith("UTF-8")) { //$NON-NLS-1$
+                writer = new OutputStreamWriter(out, "UTF-8"); //$NON-NLS-1$
+            }
+            else {
+                writer = new OutputStreamWriter(out, fEncoding);
+            }
+            
+            return new BufferedWriter(writer, BUFFER_SIZE);
         }
-        else {
-            return new OutputStreamWriter(new FileOutputStream(file), fEncoding);
+        catch(IOException ex) {
+            out.close();
+            throw ex;
         }
     }
 }
@@ -5,12 +5,16 @@
  */
 package com.archimatetool.csv.importer;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -56,13 +60,33 @@ import com.archimatetool.model.util.ArchimateModelUtils;
  */
 public class CSVImporter implements CSVConstants {
     
+    /**
+     * Number of characters read from the start of a file to find its delimiter
+     */
+    static final int DELIMITER_SAMPLE_SIZE = 8192;
+    
+    /**
+     * Delimiters that a file might use, in order of preference
+     */
+    static final char[] DELIMITERS = { ',', ';', '\t' };
+    
+    /**
+     * Handles each record of a CSV file as it is parsed
+     */
+    private interface RecordHandler {
+        void handleRecord(CSVRecord csvRecord) throws CSVParseException;
+    }
+    
     private IArchimateModel fModel;
     
     // ID -> IArchimateConcept: new elements and relations added
-    Map<String, IArchimateConcept> newConcepts = new HashMap<String, IArchimateConcept>();
+    Map<String, IArchimateConcept> newConcepts = new LinkedHashMap<String, IArchimateConcept>();
     
     // IProperty -> IProperties object: new Property added
-    Map<IProperty, IProperties> newProperties = new HashMap<IProperty, IProperties>();
+    Map<IProperty, IProperties> newProperties = new LinkedHashMap<IProperty, IProperties>();
+    
+    // IProperties object -> [Key, IProperty]: existing Properties indexed by key when first looked up
+    private Map<IProperties, Map<String, IProperty>> propertyKeyIndex = new HashMap<IProperties, Map<String, IProperty>>();
     
     // IProperty -> Value: updated Property
     Map<IProperty, String> updatedProperties = new HashMap<IProperty, String>();
@@ -71,7 +95,7 @@ public class CSVImporter implements CSVConstants {
     Map<IArchimateConcept, Map<EAttribute, Object>> updatedConcepts = new HashMap<IArchimateConcept, Map<EAttribute, Object>>();
     
     // IArchimateRelationship -> Source/Target IDs in two String array objects [0] and [1]
-    Map<IArchimateRelationship, String[]> relationshipSourceTargets = new HashMap<IArchimateRelationship, String[]>();
+    Map<IArchimateRelationship, String[]> relationshipSourceTargets = new LinkedHashMap<IArchimateRelationship, String[]>();
 
     // CSV Model id. This might be set as a reference for Properties. Might be null.
     private String modelID;
@@ -136,25 +160,14 @@ public class CSVImporter implements CSVConstants {
             }
         }
         
-        // New elements/relations
-        for(final IArchimateConcept concept : newConcepts.values()) {
-            Command cmd = new Command() {
-                IFolder folder = fModel.getDefaultFolderForObject(concept);
-                
-                @Override
-                public void execute() {
-                    folder.getElements().add(concept);
-                }
-                
-                @Override
-                public void undo() {
-                    folder.getElements().remove(concept);
-                }
-            };
-            
-            if(cmd.canExecute()) {
-                compoundCommand.add(cmd);
-            }
+        // New elements/relations added to each folder in one go
+        Map<IFolder, List<EObject>> folderConcepts = new LinkedHashMap<IFolder, List<EObject>>();
+        for(IArchimateConcept concept : newConcepts.values()) {
+            folderConcepts.computeIfAbsent(fModel.getDefaultFolderForObject(concept), folder -> new ArrayList<EObject>()).add(concept);
+        }
+        
+        for(Entry<IFolder, List<EObject>> entry : folderConcepts.entrySet()) {
+            compoundCommand.add(new AddAllCommand<EObject>(entry.getKey().getElements(), entry.getValue()));
         }
         
         // Updated concepts' features
@@ -167,26 +180,14 @@ public class CSVImporter implements CSVConstants {
             }
         }
 
-        // New Properties
+        // New Properties added to each object in one go
+        Map<IProperties, List<IProperty>> objectProperties = new LinkedHashMap<IProperties, List<IProperty>>();
         for(Entry<IProperty, IProperties> entry : newProperties.entrySet()) {
-            Command cmd = new Command() {
-                IProperty property = entry.getKey();
-                IProperties propertiesObject = entry.getValue();
-                
-                @Override
-                public void execute() {
-                    propertiesObject.getProperties().add(property);
-                }
-                
-                @Override
-                public void undo() {
-                    propertiesObject.getProperties().remove(property);
-                }
-            };
-            
-            if(cmd.canExecute()) {
-                compoundCommand.add(cmd);
-            }
+            objectProperties.computeIfAbsent(entry.getValue(), propertiesObject -> new ArrayList<IProperty>()).add(entry.getKey());
+        }
+        
+        for(Entry<IProperties, List<IProperty>> entry : objectProperties.entrySet()) {
+            compoundCommand.add(new AddAllCommand<IProperty>(entry.getKey().getProperties(), entry.getValue()));
         }
         
         // Updated Property Value
@@ -200,6 +201,30 @@ public class CSVImporter implements CSVConstants {
         return compoundCommand;
     }
     
+    /**
+     * Adds a list of objects to a model list with one notification rather than one per object
+     */
+    private static class AddAllCommand<T> extends Command {
+        private List<T> list;
+        private List<? extends T> objects;
+        
+        AddAllCommand(List<T> list, List<? extends T> objects) {
+            this.list = list;
+            this.objects = objects;
+        }
+        
+        @Override
+        public void execute() {
+            list.addAll(objects);
+        }
+        
+        @Override
+        public void undo() {
+            // Use a Set for fast look up of the objects to remove
+            list.removeAll(new HashSet<T>(objects));
+        }
+    }
+    
     // -------------------------------- Import Model and Elements --------------------------------
     
     /**
@@ -209,21 +234,14 @@ public class CSVImporter implements CSVConstants {
      * @throws CSVParseException
      */
     void importElements(File file) throws IOException, CSVParseException {
-        List<CSVRecord> records = getRecords(file);
-        
-        // Should have at least one record
-        if(records.isEmpty()) {
-            throw new CSVParseException(Messages.CSVImporter_1);
-        }
-        
-        for(CSVRecord csvRecord : records) {
+        long recordCount = parseRecords(file, csvRecord -> {
             if(!isElementsRecordCorrectSize(csvRecord)) {
                 throw new CSVParseException(Messages.CSVImporter_2);
             }
 
             // Header
             if(isHeaderRecord(csvRecord, MODEL_ELEMENTS_HEADER)) {
-                continue;
+                return;
             }
 
             // Model (this is optional)
@@ -234,6 +252,11 @@ public class CSVImporter implements CSVConstants {
             else {
                 createElementFromRecord(csvRecord);
             }
+        });
+        
+        // Should have at least one record
+        if(recordCount == 0) {
+            throw new CSVParseException(Messages.CSVImporter_1);
         }
     }
     
@@ -315,39 +338,37 @@ public class CSVImporter implements CSVConstants {
      * @throws CSVParseException
      */
     void importRelations(File file) throws IOException, CSVParseException {
-        for(CSVRecord csvRecord : getRecords(file)) {
+        parseRecords(file, csvRecord -> {
             if(!isRelationsRecordCorrectSize(csvRecord)) {
                 throw new CSVParseException(Messages.CSVImporter_2);
             }
 
             // Header
             if(isHeaderRecord(csvRecord, RELATIONSHIPS_HEADER)) {
-                continue;
+                return;
             }
             // Relation
             else {
                 createRelationFromRecord(csvRecord);
             }
-        }
+        });
         
-        // Now connect the relations
-        for(Entry<String, IArchimateConcept> entry : newConcepts.entrySet()) {
-            if(entry.getValue() instanceof IArchimateRelationship) {
-                IArchimateRelationship relation = (IArchimateRelationship)entry.getValue();
-                
-                // Get the source and target ids from the lookup table
-                String[] sourceTargets = relationshipSourceTargets.get(relation);
-                IArchimateConcept source = findReferencedConcept(sourceTargets[0]);
-                IArchimateConcept target = findReferencedConcept(sourceTargets[1]);
-                
-                // Is it a valid relationship?
-                if(!ArchimateModelUtils.isValidRelationship(source.eClass(), target.eClass(), relation.eClass())) {
-                    throw new CSVParseException(Messages.CSVImporter_5 + relation.getId());
-                }
-                
-                // Connect
-                relation.connect(source, target);
+        // Now connect the new relations
+        for(Entry<IArchimateRelationship, String[]> entry : relationshipSourceTargets.entrySet()) {
+            IArchimateRelationship relation = entry.getKey();
+            
+            // Get the source and target ids from the lookup table
+            String[] sourceTargets = entry.getValue();
+            IArchimateConcept source = findReferencedConcept(sourceTargets[0]);
+            IArchimateConcept target = findReferencedConcept(sourceTargets[1]);
+            
+            // Is it a valid relationship?
+            if(!ArchimateModelUtils.isValidRelationship(source.eClass(), target.eClass(), relation.eClass())) {
+                throw new CSVParseException(Messages.CSVImporter_5 + relation.getId());
             }
+            
+            // Connect
+            relation.connect(source, target);
         }
     }
     
@@ -412,20 +433,20 @@ public class CSVImporter implements CSVConstants {
      * @throws CSVParseException
      */
     void importProperties(File file) throws IOException, CSVParseException {
-        for(CSVRecord csvRecord : getRecords(file)) {
+        parseRecords(file, csvRecord -> {
             if(!isPropertiesRecordCorrectSize(csvRecord)) {
                 throw new CSVParseException(Messages.CSVImporter_2);
             }
 
             // Header
             if(isHeaderRecord(csvRecord, PROPERTIES_HEADER)) {
-                continue;
+                return;
             }
             // Property
             else {
                 createPropertyFromRecord(csvRecord);
             }
-        }
+        });
     }
     
     private boolean isPropertiesRecordCorrectSize(CSVRecord csvRecord) {
@@ -517,60 +538,91 @@ public class CSVImporter implements CSVConstants {
     // -------------------------------- Helpers --------------------------------
     
     /**
-     * Get all records for a CSV file.
-     * This is a brute-force approach to try with a comma delimiter first. If that fails then
-     * try a semicolon, and if that fails, a tab.
+     * Parse a CSV file once, passing each record to the handler as it is read.
      * 
      * @param file The file to open
-     * @return Records, which may be empty but never null
+     * @param handler The handler for each record
+     * @return The number of records
      * @throws IOException
+     * @throws CSVParseException
      */
-    List<CSVRecord> getRecords(File file) throws IOException {
-        List<CSVRecord> records = new ArrayList<CSVRecord>(); 
-        CSVParser parser = null;
-        
-        String errorMessage = "invalid char between encapsulated token and delimiter"; //$NON-NLS-1$
+    long parseRecords(File file, RecordHandler handler) throws IOException, CSVParseException {
+        try(CSVParser parser = createParser(file)) {
+            for(CSVRecord csvRecord : parser) {
+                handler.handleRecord(csvRecord);
+            }
+            return parser.getRecordNumber();
+        }
+        catch(IllegalStateException ex) {
+            // The parser's iterator wraps an IOException
+            if(ex.getCause() instanceof IOException) {
+                throw (IOException)ex.getCause();
+            }
+            throw ex;
+        }
+    }
+    
+    /**
+     * Create a CSV parser for a file using the delimiter found in the file
+     */
+    CSVParser createParser(File file) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(new BOMInputStream(new FileInputStream(file)), "UTF-8")); //$NON-NLS-1$
         
         try {
-            InputStreamReader is = new InputStreamReader(new BOMInputStream(new FileInputStream(file)), "UTF-8"); //$NON-NLS-1$
-            parser = new CSVParser(is, CSVFormat.DEFAULT);
-            records = parser.getRecords();
+            char delimiter = sniffDelimiter(reader);
+            return new CSVParser(reader, CSVFormat.DEFAULT.withDelimiter(delimiter));
         }
         catch(IOException ex) {
-            if(parser != null) {
-                parser.close();
-            }
-            if(ex.getMessage() != null && ex.getMessage().contains(errorMessage)) {
-                try {
-                    InputStreamReader is = new InputStreamReader(new BOMInputStream(new FileInputStream(file)), "UTF-8"); //$NON-NLS-1$
-                    parser = new CSVParser(is, CSVFormat.DEFAULT.withDelimiter(';'));
-                    records = parser.getRecords();
+            reader.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Find the delimiter used in the first record of a CSV file by counting the candidate delimiters that are not in quotes.
+     * The reader is reset to where it was.
+     * 
+     * @param reader The reader which must support mark()
+     * @return The delimiter, or a comma if none is found
+     */
+    char sniffDelimiter(Reader reader) throws IOException {
+        int[] counts = new int[DELIMITERS.length];
+        boolean inQuotes = false;
+        
+        reader.mark(DELIMITER_SAMPLE_SIZE);
+        
+        try {
+            int c;
+            for(int i = 0; i < DELIMITER_SAMPLE_SIZE && (c = reader.read()) != -1; i++) {
+                if(c == '"') {
+                    inQuotes = !inQuotes;
                 }
-                catch(IOException ex2) {
-                    if(parser != null) {
-                        parser.close();
+                else if(!inQuotes) {
+                    // End of first record
+                    if(c == '\r' || c == '\n') {
+                        break;
                     }
-                    if(ex2.getMessage() != null && ex2.getMessage().contains(errorMessage)) {
-                        InputStreamReader is = new InputStreamReader(new BOMInputStream(new FileInputStream(file)), "UTF-8"); //$NON-NLS-1$
-                        parser = new CSVParser(is, CSVFormat.DEFAULT.withDelimiter('\t'));
-                        records = parser.getRecords();
-                    }
-                    else {
-                        throw ex2;
+                    
+                    for(int j = 0; j < DELIMITERS.length; j++) {
+                        if(c == DELIMITERS[j]) {
+                            counts[j]++;
+                        }
                     }
                 }
             }
-            else {
-                throw ex;
-            }
         }
         finally {
-            if(parser != null) {
-                parser.close();
+            reader.reset();
+        }
+        
+        int best = 0;
+        for(int j = 1; j < DELIMITERS.length; j++) {
+            if(counts[j] > counts[best]) {
+                best = j;
             }
         }
         
-        return records;
+        return DELIMITERS[best];
     }
     
     /**
@@ -751,14 +803,21 @@ public class CSVImporter implements CSVConstants {
         return false;
     }
     
+    /**
+     * @return The first existing property with key. Properties are indexed by key the first time an object is looked up.
+     */
     IProperty getProperty(IProperties propertiesObject, String key) {
-        for(IProperty property : propertiesObject.getProperties()) {
-            if(property.getKey().equals(key)) {
-                return property;
+        Map<String, IProperty> index = propertyKeyIndex.get(propertiesObject);
+        
+        if(index == null) {
+            index = new HashMap<String, IProperty>();
+            for(IProperty property : propertiesObject.getProperties()) {
+                index.putIfAbsent(property.getKey(), property);
             }
+            propertyKeyIndex.put(propertiesObject, index);
         }
         
-        return null;
+        return index.get(key);
     }
     
     void storeUpdatedConceptFeature(IArchimateConcept concept, EAttribute feature, Object value) {
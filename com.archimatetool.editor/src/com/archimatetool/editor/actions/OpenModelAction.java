@@ -6,18 +6,25 @@
 package com.archimatetool.editor.actions;
 
 import java.io.File;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.custom.BusyIndicator;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.actions.ActionFactory.IWorkbenchAction;
 
+import com.archimatetool.editor.ArchiPlugin;
 import com.archimatetool.editor.model.IEditorModelManager;
 import com.archimatetool.editor.ui.IArchiImages;
 import com.archimatetool.editor.utils.PlatformUtils;
@@ -65,12 +72,29 @@ implements IWorkbenchAction
                 return;
             }
             
-            BusyIndicator.showWhile(Display.getCurrent(), new Runnable() {
+            // Load the model in the background with progress in the status line
+            Job job = new Job(Messages.OpenModelAction_2) {
                 @Override
-                public void run() {
-                    IEditorModelManager.INSTANCE.openModel(file);
+                protected IStatus run(IProgressMonitor monitor) {
+                    try {
+                        IEditorModelManager.INSTANCE.openModelAsync(file, monitor).join();
+                    }
+                    catch(CancellationException ex) {
+                        return Status.CANCEL_STATUS;
+                    }
+                    catch(CompletionException ex) {
+                        if(ex.getCause() instanceof CancellationException) {
+                            return Status.CANCEL_STATUS;
+                        }
+                        return new Status(IStatus.ERROR, ArchiPlugin.PLUGIN_ID, ex.getCause().getMessage(), ex.getCause());
+                    }
+                    
+                    return Status.OK_STATUS;
                 }
-            });
+            };
+            
+            job.setUser(true);
+            job.schedule();
         }
     }
     
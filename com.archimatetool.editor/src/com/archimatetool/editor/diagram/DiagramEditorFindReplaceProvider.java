@@ -240,7 +240,7 @@ public class DiagramEditorFindReplaceProvider extends AbstractFindReplaceProvide
         }
         
         String string = getStringFromEditPart(editPart);
-        return string != null && string.matches(getSearchStringPattern(toFind));
+        return isMatch(string, toFind);
     }
     
     private EditPart getFirstSelectedEditPart() {
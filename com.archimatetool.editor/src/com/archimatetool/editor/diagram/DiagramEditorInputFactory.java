@@ -8,6 +8,7 @@ package com.archimatetool.editor.diagram;
 import java.io.File;
 
 import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.ui.IElementFactory;
 import org.eclipse.ui.IMemento;
 
@@ -47,10 +48,9 @@ public class DiagramEditorInputFactory implements IElementFactory {
             File file = new File(fileName);
             for(IArchimateModel model : IEditorModelManager.INSTANCE.getModels()) {
                 if(file.equals(model.getFile())) {
-                    for(IDiagramModel diagramModel : model.getDiagramModels()) {
-                        if(viewID.equals(diagramModel.getId())) {
-                            return new DiagramEditorInput(diagramModel);
-                        }
+                    EObject eObject = model.getObjectByID(viewID);
+                    if(eObject instanceof IDiagramModel) {
+                        return new DiagramEditorInput((IDiagramModel)eObject);
                     }
                 }
             }
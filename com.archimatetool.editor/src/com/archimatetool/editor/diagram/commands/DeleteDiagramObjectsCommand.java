@@ -0,0 +1,27 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.commands;
+
+import java.util.Collection;
+
+import com.archimatetool.editor.model.commands.RemoveListObjectsCommand;
+import com.archimatetool.model.IDiagramModelContainer;
+import com.archimatetool.model.IDiagramModelObject;
+
+
+
+/**
+ * Command for deleting many Objects from their parent container in one operation.
+ * It puts them back at the index positions from where they were removed.
+ * 
+ * @author Phillip Beauvoir
+ */
+class DeleteDiagramObjectsCommand extends RemoveListObjectsCommand<IDiagramModelObject> {
+
+    public DeleteDiagramObjectsCommand(IDiagramModelContainer parent, Collection<IDiagramModelObject> objects) {
+        super(null, parent.getChildren(), objects);
+    }
+}
@@ -5,6 +5,13 @@
  */
 package com.archimatetool.editor.diagram.commands;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CompoundCommand;
 
@@ -56,6 +63,53 @@ public final class DiagramCommandFactory {
         }
     }
     
+    /**
+     * Create a Command to delete many diagram objects. The objects are removed from each parent container
+     * in one operation so that the parent container is notified once.
+     * @param objects The diagram objects
+     * @return A new Delete Diagram Objects Command
+     */
+    public static Command createDeleteDiagramObjectsCommand(Collection<? extends IDiagramModelObject> objects) {
+        Map<IDiagramModelContainer, Collection<IDiagramModelObject>> parents = new LinkedHashMap<>();
+        Set<IDiagramModelConnection> connections = new LinkedHashSet<>();
+        
+        for(IDiagramModelObject object : objects) {
+            __addDiagramObjectsToDelete(object, parents, connections);
+        }
+        
+        CompoundCommand result = new CompoundCommand();
+        
+        for(Entry<IDiagramModelContainer, Collection<IDiagramModelObject>> entry : parents.entrySet()) {
+            result.add(new DeleteDiagramObjectsCommand(entry.getKey(), entry.getValue()));
+        }
+        
+        for(IDiagramModelConnection connection : connections) {
+            result.add(createDeleteDiagramConnectionCommand(connection));
+        }
+        
+        return result.unwrap();
+    }
+    
+    /**
+     * Recurse and add the object and its child objects grouped by parent, and their connections
+     */
+    private static void __addDiagramObjectsToDelete(IDiagramModelObject object, Map<IDiagramModelContainer, Collection<IDiagramModelObject>> parents,
+            Set<IDiagramModelConnection> connections) {
+        
+        if(object.eContainer() instanceof IDiagramModelContainer) {
+            parents.computeIfAbsent((IDiagramModelContainer)object.eContainer(), parent -> new LinkedHashSet<>()).add(object);
+        }
+        
+        connections.addAll(object.getSourceConnections());
+        connections.addAll(object.getTargetConnections());
+        
+        if(object instanceof IDiagramModelContainer) {
+            for(IDiagramModelObject child : ((IDiagramModelContainer)object).getChildren()) {
+                __addDiagramObjectsToDelete(child, parents, connections);
+            }
+        }
+    }
+    
     /**
      * @param connection
      * @return A new Delete Diagram Connection Command
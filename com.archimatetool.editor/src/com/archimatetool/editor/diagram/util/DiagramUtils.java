@@ -100,8 +100,17 @@ public final class DiagramUtils {
      * @return ModelReferencedImage wrapper class containing a Scaled Image from the given Diagram Model and offset bounds
      *         Clients must dispose of the Image when done.
      *         If model has no children a blank image of 100x100 is returned
+     *         If this is not the Display thread the image is created on the Display thread
      */
     public static ModelReferencedImage createModelReferencedImage(IDiagramModel model, double scale, int margin) {
+        // The viewer's Shell can only be created on the Display thread
+        Display display = Display.getDefault();
+        if(display.getThread() != Thread.currentThread()) {
+            ModelReferencedImage[] image = new ModelReferencedImage[1];
+            display.syncExec(() -> image[0] = createModelReferencedImage(model, scale, margin));
+            return image[0];
+        }
+        
         Shell shell = new Shell();
         shell.setLayout(new FillLayout());
         
@@ -16,10 +16,10 @@ import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 
 import com.archimatetool.editor.preferences.ConnectionPreferences;
-import com.archimatetool.model.FolderType;
 import com.archimatetool.model.IArchimateConcept;
 import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IArchimateRelationship;
 import com.archimatetool.model.IBounds;
 import com.archimatetool.model.IConnectable;
@@ -72,7 +72,7 @@ public class DiagramModelUtils {
             return false;
         }
         
-        return !archimateConcept.getReferencingDiagramComponents().isEmpty();
+        return archimateConcept.hasReferencingDiagramComponents();
     }
 
 
@@ -218,16 +218,8 @@ public class DiagramModelUtils {
      * @return true if referenced
      */
     public static boolean hasDiagramModelReference(IDiagramModel diagramModel) {
-        if(diagramModel.getArchimateModel() != null) {
-            for(Iterator<EObject> iter = diagramModel.getArchimateModel().getFolder(FolderType.DIAGRAMS).eAllContents(); iter.hasNext();) {
-                EObject eObject = iter.next();
-                if(eObject instanceof IDiagramModelReference && ((IDiagramModelReference)eObject).getReferencedModel() == diagramModel) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
+        IArchimateModel model = diagramModel.getArchimateModel();
+        return model != null && !model.getDiagramModelReferences(diagramModel).isEmpty();
     }
     
     /**
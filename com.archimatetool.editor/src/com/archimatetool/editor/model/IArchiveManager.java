@@ -8,7 +8,6 @@ package com.archimatetool.editor.model;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
-import java.util.zip.ZipFile;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.swt.graphics.Image;
@@ -41,23 +40,11 @@ public interface IArchiveManager {
          * @return True if file is a zip archive file
          */
         public static boolean isArchiveFile(File file) {
-            ZipFile zipFile = null;
-            
             try {
-                zipFile = new ZipFile(file);
-                return zipFile.getEntry("model.xml") != null; //$NON-NLS-1$
+                return ZipFileCache.read(file, zipFile -> zipFile.getEntry("model.xml") != null); //$NON-NLS-1$
             }
             catch(Exception ex) {
             }
-            finally {
-                try {
-                    if(zipFile != null) {
-                        zipFile.close();
-                    }
-                }
-                catch(IOException ex) {
-                }
-            }
             
             return false;
         }
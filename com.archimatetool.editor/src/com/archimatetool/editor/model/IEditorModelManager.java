@@ -9,6 +9,9 @@ import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.core.runtime.IProgressMonitor;
 
 import com.archimatetool.editor.model.impl.EditorModelManager;
 import com.archimatetool.model.IArchimateModel;
@@ -38,6 +41,7 @@ public interface IEditorModelManager {
     /*
      *  Notification that many ECore events will be fired in succession.
      *  Listeners can choose to then ignore the events and then update when notified of end.
+     *  Nested starts and ends are not sent.
      */
     String PROPERTY_ECORE_EVENTS_START = "IEditorModelManager.ecore.events.start"; //$NON-NLS-1$
     String PROPERTY_ECORE_EVENTS_END = "IEditorModelManager.ecore.events.end"; //$NON-NLS-1$
@@ -82,6 +86,14 @@ public interface IEditorModelManager {
      */
     void openModel(IArchimateModel model);
     
+    /**
+     * Open a model by loading it in the background and opening it in the model tree
+     * @param file
+     * @param monitor Progress monitor that shows the load phases and can cancel the load. May be null.
+     * @return A future that completes on the UI thread with the newly opened model, or null if the file cannot be opened
+     */
+    CompletableFuture<IArchimateModel> openModelAsync(File file, IProgressMonitor monitor);
+    
     /**
      * Load a model
      * @param file
@@ -89,6 +101,16 @@ public interface IEditorModelManager {
      */
     IArchimateModel loadModel(File file);
     
+    /**
+     * Load a model in the background. The file is read, its compatibility is fixed and its images are loaded
+     * on a background thread and then the model is registered on the UI thread.
+     * Cancelling the future or the monitor cancels the load.
+     * @param file
+     * @param monitor Progress monitor that shows the load phases and can cancel the load. May be null.
+     * @return A future that completes with the newly loaded model, or null if the file cannot be loaded
+     */
+    CompletableFuture<IArchimateModel> loadModelAsync(File file, IProgressMonitor monitor);
+    
     /**
      * Close a model
      * @param model
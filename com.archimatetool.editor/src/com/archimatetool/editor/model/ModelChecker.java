@@ -6,13 +6,19 @@
 package com.archimatetool.editor.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.swt.widgets.Shell;
 
@@ -38,6 +44,11 @@ import com.archimatetool.model.IIdentifier;
  * @author Phillip Beauvoir
  */
 public class ModelChecker {
+    
+    /**
+     * Maximum number of folders, concepts and diagrams checked by one task
+     */
+    private static final int SPLIT_SIZE = 64;
 
     private IArchimateModel fModel;
     
@@ -48,50 +59,65 @@ public class ModelChecker {
     }
     
     /**
+     * Check all objects in the model.
+     * The folders, concepts and diagrams of the model are split between tasks that are run on a fork-join pool.
      * @return True if OK, false if not OK
      */
     public boolean checkAll() {
-        fErrorMessages = new ArrayList<String>();
+        // fErrorMessages.addAll(checkFolderStructure()); // not that important
         
-        // Instance count map
-        Map<IArchimateConcept, Integer> dmcMap = new HashMap<IArchimateConcept, Integer>();
+        // The folders and the top level objects in folders in model order
+        List<EObject> roots = new ArrayList<EObject>();
+        addRoots(fModel, roots);
         
-        // fErrorMessages.addAll(checkFolderStructure()); // not that important
+        CheckResult result = ForkJoinPool.commonPool().invoke(new CheckTask(roots, 0, roots.size()));
         
-        // Iterate through all objects in the model...
-        for(Iterator<EObject> iter = fModel.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
-            
-            // Identifier
-            if(eObject instanceof IIdentifier) {
-                fErrorMessages.addAll(checkHasIdentifier((IIdentifier)eObject));
+        fErrorMessages = result.messages;
+        
+        // Now check Diagram Model Object reference count
+        fErrorMessages.addAll(checkDiagramComponentInstanceCount(result.instanceCounts));
+        
+        return fErrorMessages.isEmpty();
+    }
+    
+    /**
+     * Check only the given objects, such as those changed since the model was last saved.
+     * The contents of the objects are not checked and objects that are not in the model are ignored.
+     * @return True if OK, false if not OK
+     */
+    public boolean checkObjects(Collection<? extends EObject> objects) {
+        CheckResult result = new CheckResult();
+        Set<IArchimateConcept> concepts = new HashSet<IArchimateConcept>();
+        
+        for(EObject eObject : objects) {
+            if(!EcoreUtil.isAncestor(fModel, eObject)) {
+                continue;
             }
             
-            // Relation
-            if(eObject instanceof IArchimateRelationship) {
-                fErrorMessages.addAll(checkRelationship((IArchimateRelationship)eObject));
-            }
+            checkObject(eObject, result);
             
-            // Diagram Model Object
-            if(eObject instanceof IDiagramModelArchimateObject) {
-                fErrorMessages.addAll(checkDiagramModelArchimateObject((IDiagramModelArchimateObject)eObject));
-                incrementInstanceCount((IDiagramModelArchimateComponent)eObject, dmcMap);
+            if(eObject instanceof IArchimateConcept) {
+                concepts.add((IArchimateConcept)eObject);
             }
-            
-            // Diagram Model Connection
-            if(eObject instanceof IDiagramModelArchimateConnection) {
-                fErrorMessages.addAll(checkDiagramModelArchimateConnection((IDiagramModelArchimateConnection)eObject));
-                incrementInstanceCount((IDiagramModelArchimateConnection)eObject, dmcMap);
+            else if(eObject instanceof IDiagramModelArchimateComponent) {
+                IArchimateConcept concept = ((IDiagramModelArchimateComponent)eObject).getArchimateConcept();
+                if(concept != null && !concept.getReferencingDiagramComponents().contains(eObject)) {
+                    result.messages.add(Messages.ModelChecker_24 + " (" + concept.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
             }
-            
-            // Folder
-            if(eObject instanceof IFolder) {
-                fErrorMessages.addAll(checkFolder((IFolder)eObject));
+        }
+        
+        // The diagram components that a concept reports must be in the model and reference it
+        for(IArchimateConcept concept : concepts) {
+            for(IDiagramModelArchimateComponent dmc : concept.getReferencingDiagramComponents()) {
+                if(dmc.getArchimateConcept() != concept || !EcoreUtil.isAncestor(fModel, dmc)) {
+                    result.messages.add(Messages.ModelChecker_24 + " (" + concept.getId() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+                    break;
+                }
             }
         }
         
-        // Now check Diagram Model Object reference count
-        fErrorMessages.addAll(checkDiagramComponentInstanceCount(dmcMap));
+        fErrorMessages = result.messages;
         
         return fErrorMessages.isEmpty();
     }
@@ -269,6 +295,106 @@ public class ModelChecker {
         return messages;
     }
     
+    /**
+     * Add folders and their child objects in the same order as eAllContents().
+     * A folder is checked on its own and any other object is checked together with its contents.
+     */
+    private void addRoots(EObject parent, List<EObject> roots) {
+        for(EObject eObject : parent.eContents()) {
+            roots.add(eObject);
+            if(eObject instanceof IFolder) {
+                addRoots(eObject, roots);
+            }
+        }
+    }
+    
+    private void checkObject(EObject eObject, CheckResult result) {
+        // Identifier
+        if(eObject instanceof IIdentifier) {
+            result.messages.addAll(checkHasIdentifier((IIdentifier)eObject));
+        }
+        
+        // Relation
+        if(eObject instanceof IArchimateRelationship) {
+            result.messages.addAll(checkRelationship((IArchimateRelationship)eObject));
+        }
+        
+        // Diagram Model Object
+        if(eObject instanceof IDiagramModelArchimateObject) {
+            result.messages.addAll(checkDiagramModelArchimateObject((IDiagramModelArchimateObject)eObject));
+            incrementInstanceCount((IDiagramModelArchimateComponent)eObject, result.instanceCounts);
+        }
+        
+        // Diagram Model Connection
+        if(eObject instanceof IDiagramModelArchimateConnection) {
+            result.messages.addAll(checkDiagramModelArchimateConnection((IDiagramModelArchimateConnection)eObject));
+            incrementInstanceCount((IDiagramModelArchimateConnection)eObject, result.instanceCounts);
+        }
+        
+        // Folder
+        if(eObject instanceof IFolder) {
+            result.messages.addAll(checkFolder((IFolder)eObject));
+        }
+    }
+    
+    /**
+     * Messages and diagram component instance counts of some checked objects
+     */
+    private static class CheckResult {
+        List<String> messages = new ArrayList<String>();
+        Map<IArchimateConcept, Integer> instanceCounts = new HashMap<IArchimateConcept, Integer>();
+        
+        CheckResult merge(CheckResult other) {
+            messages.addAll(other.messages);
+            for(Entry<IArchimateConcept, Integer> entry : other.instanceCounts.entrySet()) {
+                instanceCounts.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+            return this;
+        }
+    }
+    
+    /**
+     * Checks a range of root objects, splitting the range in two until it is small enough.
+     * The results are merged in order so that messages are in model order.
+     */
+    @SuppressWarnings("serial")
+    private class CheckTask extends RecursiveTask<CheckResult> {
+        private List<EObject> roots;
+        private int start, end;
+        
+        CheckTask(List<EObject> roots, int start, int end) {
+            this.roots = roots;
+            this.start = start;
+            this.end = end;
+        }
+        
+        @Override
+        protected CheckResult compute() {
+            if(end - start > SPLIT_SIZE) {
+                int middle = (start + end) >>> 1;
+                CheckTask left = new CheckTask(roots, start, middle);
+                left.fork();
+                CheckResult right = new CheckTask(roots, middle, end).compute();
+                return left.join().merge(right);
+            }
+            
+            CheckResult result = new CheckResult();
+            
+            for(int i = start; i < end; i++) {
+                EObject root = roots.get(i);
+                checkObject(root, result);
+                
+                if(!(root instanceof IFolder)) {
+                    for(Iterator<EObject> iter = root.eAllContents(); iter.hasNext();) {
+                        checkObject(iter.next(), result);
+                    }
+                }
+            }
+            
+            return result;
+        }
+    }
+    
     /**
      * For each IDiagramModelArchimateComponent encountered increment the instance count
      */
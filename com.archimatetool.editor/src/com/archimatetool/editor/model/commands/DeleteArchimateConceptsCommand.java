@@ -0,0 +1,68 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.commands;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+
+import com.archimatetool.model.IArchimateConcept;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IFolder;
+
+
+
+/**
+ * Delete many Archimate Elements and Relationships from a folder in one operation
+ * 
+ * @author Phillip Beauvoir
+ */
+public class DeleteArchimateConceptsCommand extends RemoveListObjectsCommand<EObject> {
+    
+    private List<IArchimateRelationship> fRelationships = new ArrayList<>();
+    
+    /**
+     * @param folder The folder containing the concepts
+     * @param concepts The concepts to delete
+     */
+    public DeleteArchimateConceptsCommand(IFolder folder, Collection<? extends IArchimateConcept> concepts) {
+        super(Messages.DeleteArchimateConceptsCommand_0, folder.getElements(), concepts);
+        
+        for(IArchimateConcept concept : concepts) {
+            if(concept instanceof IArchimateRelationship) {
+                fRelationships.add((IArchimateRelationship)concept);
+            }
+        }
+    }
+    
+    @Override
+    public void execute() {
+        super.execute();
+        
+        // Disconnect source/target references
+        for(IArchimateRelationship relationship : fRelationships) {
+            relationship.disconnect();
+        }
+    }
+    
+    @Override
+    public void undo() {
+        super.undo();
+        
+        // Reconnect source/target references
+        for(IArchimateRelationship relationship : fRelationships) {
+            relationship.reconnect();
+        }
+    }
+    
+    @Override
+    public void dispose() {
+        super.dispose();
+        fRelationships = null;
+    }
+}
@@ -13,7 +13,8 @@ import com.archimatetool.editor.model.IEditorModelManager;
 
 /**
  * Compound Command that will set a property to listeners to ignore notifications.
- * Used where many commands might cause excessive amounts of responses in clients listening to model changes. 
+ * Used where many commands might cause excessive amounts of responses in clients listening to model changes.
+ * The end property is always sent so that the notifications held by the IEditorModelManager are released.
  * 
  * @author Phillip Beauvoir
  */
@@ -31,10 +32,13 @@ public class NonNotifyingCompoundCommand extends CompoundCommand {
         IEditorModelManager.INSTANCE.firePropertyChange(this,
                 IEditorModelManager.PROPERTY_ECORE_EVENTS_START, false, true);
         
-        super.execute();
-        
-        IEditorModelManager.INSTANCE.firePropertyChange(this,
-                IEditorModelManager.PROPERTY_ECORE_EVENTS_END, false, true);
+        try {
+            super.execute();
+        }
+        finally {
+            IEditorModelManager.INSTANCE.firePropertyChange(this,
+                    IEditorModelManager.PROPERTY_ECORE_EVENTS_END, false, true);
+        }
     }
     
     @Override
@@ -42,10 +46,13 @@ public class NonNotifyingCompoundCommand extends CompoundCommand {
         IEditorModelManager.INSTANCE.firePropertyChange(this,
                 IEditorModelManager.PROPERTY_ECORE_EVENTS_START, false, true);
         
-        super.undo();
-        
-        IEditorModelManager.INSTANCE.firePropertyChange(this,
-                IEditorModelManager.PROPERTY_ECORE_EVENTS_END, false, true);
+        try {
+            super.undo();
+        }
+        finally {
+            IEditorModelManager.INSTANCE.firePropertyChange(this,
+                    IEditorModelManager.PROPERTY_ECORE_EVENTS_END, false, true);
+        }
     }
     
     @Override
@@ -53,9 +60,12 @@ public class NonNotifyingCompoundCommand extends CompoundCommand {
         IEditorModelManager.INSTANCE.firePropertyChange(this,
                 IEditorModelManager.PROPERTY_ECORE_EVENTS_START, false, true);
         
-        super.redo();
-        
-        IEditorModelManager.INSTANCE.firePropertyChange(this,
-                IEditorModelManager.PROPERTY_ECORE_EVENTS_END, false, true);
+        try {
+            super.redo();
+        }
+        finally {
+            IEditorModelManager.INSTANCE.firePropertyChange(this,
+                    IEditorModelManager.PROPERTY_ECORE_EVENTS_END, false, true);
+        }
     }
 }
@@ -0,0 +1,106 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.commands;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.gef.commands.Command;
+
+
+
+/**
+ * Removes many objects from a list in one operation so that listeners are sent one REMOVE_MANY notification
+ * instead of one notification for each object.
+ * On undo the objects are put back at their index positions with one ADD_MANY notification for each run of
+ * adjacent objects.
+ *
+ * @author Phillip Beauvoir
+ */
+public class RemoveListObjectsCommand<T> extends Command {
+
+    private EList<T> fList;
+    private Set<T> fObjects;
+
+    private List<T> fRemovedObjects;
+    private int[] fIndexes;
+
+    /**
+     * @param label The label
+     * @param list The list to remove the objects from
+     * @param objects The objects to remove
+     */
+    public RemoveListObjectsCommand(String label, EList<T> list, Collection<? extends T> objects) {
+        super(label);
+        fList = list;
+        fObjects = new LinkedHashSet<>(objects);
+    }
+
+    @Override
+    public boolean canExecute() {
+        return fList != null && !fObjects.isEmpty();
+    }
+
+    @Override
+    public void execute() {
+        // Ensure the indexes are stored just before execute because if this is part of a composite delete action
+        // then the index positions will have changed
+        fRemovedObjects = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+
+        for(int i = 0; i < fList.size(); i++) {
+            T object = fList.get(i);
+            if(fObjects.contains(object)) { // might be already be deleted from Command in CompoundCommand
+                fRemovedObjects.add(object);
+                indexes.add(i);
+            }
+        }
+
+        fIndexes = new int[indexes.size()];
+        for(int i = 0; i < fIndexes.length; i++) {
+            fIndexes[i] = indexes.get(i);
+        }
+
+        if(!fRemovedObjects.isEmpty()) {
+            fList.removeAll(fRemovedObjects);
+        }
+    }
+
+    @Override
+    public void undo() {
+        // Add back in index order, each run of adjacent objects at once
+        int start = 0;
+
+        while(start < fIndexes.length) {
+            int end = start + 1;
+            while(end < fIndexes.length && fIndexes[end] == fIndexes[end - 1] + 1) {
+                end++;
+            }
+
+            fList.addAll(fIndexes[start], fRemovedObjects.subList(start, end));
+            start = end;
+        }
+    }
+
+    /**
+     * @return The objects that were removed when this command was executed
+     */
+    protected List<T> getRemovedObjects() {
+        return fRemovedObjects;
+    }
+
+    @Override
+    public void dispose() {
+        fList = null;
+        fObjects = null;
+        fRemovedObjects = null;
+        fIndexes = null;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.compatibility;
+
+import org.eclipse.emf.ecore.EObject;
+
+import com.archimatetool.model.IArchimateModel;
+
+/**
+ * Compatibility Handler that fixes a model one object at a time.
+ * 
+ * ModelCompatibility visits all objects of the model once and passes each object to all applicable
+ * handlers of this type rather than calling fixCompatibility(Resource) on each of them.
+ * 
+ * @author Phillip Beauvoir
+ */
+public interface IObjectCompatibilityHandler extends ICompatibilityHandler {
+    
+    /**
+     * @param model The model
+     * @return true if the model needs to be fixed by this handler, usually because of its version
+     */
+    boolean isApplicable(IArchimateModel model);
+
+    /**
+     * Fix an object in the model
+     * @param eObject The object
+     * @throws CompatibilityHandlerException
+     */
+    void fixObject(EObject eObject) throws CompatibilityHandlerException;
+}
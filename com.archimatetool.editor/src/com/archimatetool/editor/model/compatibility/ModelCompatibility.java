@@ -6,12 +6,21 @@
 package com.archimatetool.editor.model.compatibility;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
 import org.eclipse.emf.ecore.xmi.ClassNotFoundException;
@@ -39,6 +48,8 @@ public class ModelCompatibility {
     // Too noisy converting from A2 to A3 models
     boolean doLog = false;
     
+    private Map<String, Long> fHandlerTimes = new LinkedHashMap<>();
+    
     public ModelCompatibility(Resource resource) {
         fResource = resource;
     }
@@ -117,10 +128,10 @@ public class ModelCompatibility {
 
         // Allow a FeatureNotFoundException because a feature might get deprecated
         
-        // Last case is a Sax parse error
+        // Last case is a Sax parse error or a StAX parse error from the streaming loader
         if(diagnostic instanceof XMIException) {
             XMIException ex = (XMIException)diagnostic;
-            if(ex.getCause() instanceof SAXParseException) {
+            if(ex.getCause() instanceof SAXParseException || ex.getCause() instanceof XMLStreamException) {
                 return true;
             }
         }
@@ -129,21 +140,82 @@ public class ModelCompatibility {
     }
     
     /**
-     * Fix any compatibility issues in registered handlers
+     * Fix any compatibility issues in registered handlers.
+     * Handlers that fix the model as a whole are called first in turn, then the objects of the model are
+     * visited once and passed to each applicable IObjectCompatibilityHandler.
      * @throws CompatibilityHandlerException 
      */
     public void fixCompatibility() throws CompatibilityHandlerException {
+        fHandlerTimes.clear();
+        
+        List<IObjectCompatibilityHandler> objectHandlers = new ArrayList<>();
+        
         IExtensionRegistry registry = Platform.getExtensionRegistry();
         for(IConfigurationElement configurationElement : registry.getConfigurationElementsFor(ICompatibilityHandler.EXTENSION_ID)) {
             try {
                 ICompatibilityHandler handler = (ICompatibilityHandler)configurationElement.createExecutableExtension("class"); //$NON-NLS-1$
-                if(handler != null) {
+                if(handler instanceof IObjectCompatibilityHandler) {
+                    objectHandlers.add((IObjectCompatibilityHandler)handler);
+                }
+                else if(handler != null) {
+                    long startTime = System.nanoTime();
                     handler.fixCompatibility(fResource);
+                    fHandlerTimes.put(handler.getClass().getName(), System.nanoTime() - startTime);
                 }
             } 
             catch(CoreException ex) {
                 ex.printStackTrace();
             } 
         }
+        
+        fixObjects(objectHandlers);
+        
+        if(doLog) {
+            for(Entry<String, Long> entry : fHandlerTimes.entrySet()) {
+                Logger.logInfo(entry.getKey() + ": " + TimeUnit.NANOSECONDS.toMillis(entry.getValue()) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+    }
+    
+    /**
+     * Visit all objects in the model once and pass them to the handlers that apply to the model
+     */
+    void fixObjects(List<IObjectCompatibilityHandler> handlers) throws CompatibilityHandlerException {
+        IArchimateModel model = (IArchimateModel)fResource.getContents().get(0);
+        
+        // Skip handlers that don't apply to this model's version
+        List<IObjectCompatibilityHandler> applicableHandlers = new ArrayList<>();
+        for(IObjectCompatibilityHandler handler : handlers) {
+            if(handler.isApplicable(model)) {
+                applicableHandlers.add(handler);
+            }
+        }
+        
+        if(applicableHandlers.isEmpty()) {
+            return;
+        }
+        
+        long[] times = new long[applicableHandlers.size()];
+        
+        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
+            EObject eObject = iter.next();
+            
+            for(int i = 0; i < times.length; i++) {
+                long startTime = System.nanoTime();
+                applicableHandlers.get(i).fixObject(eObject);
+                times[i] += System.nanoTime() - startTime;
+            }
+        }
+        
+        for(int i = 0; i < times.length; i++) {
+            fHandlerTimes.put(applicableHandlers.get(i).getClass().getName(), times[i]);
+        }
+    }
+    
+    /**
+     * @return The time in nanoseconds taken by each handler that fixed the model in the last call to fixCompatibility(), keyed by handler class name
+     */
+    public Map<String, Long> getHandlerTimes() {
+        return Collections.unmodifiableMap(fHandlerTimes);
     }
 }
@@ -11,7 +11,7 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 
 import com.archimatetool.editor.model.compatibility.CompatibilityHandlerException;
-import com.archimatetool.editor.model.compatibility.ICompatibilityHandler;
+import com.archimatetool.editor.model.compatibility.IObjectCompatibilityHandler;
 import com.archimatetool.editor.utils.StringUtils;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IDiagramModelArchimateObject;
@@ -27,7 +27,7 @@ import com.archimatetool.model.ITextAlignment;
  * 
  * @author Phillip Beauvoir
  */
-public class DefaultTextAlignmentHandler implements ICompatibilityHandler {
+public class DefaultTextAlignmentHandler implements IObjectCompatibilityHandler {
     
     @Override
     public void fixCompatibility(Resource resource) throws CompatibilityHandlerException {
@@ -38,6 +38,11 @@ public class DefaultTextAlignmentHandler implements ICompatibilityHandler {
         }
     }
     
+    @Override
+    public boolean isApplicable(IArchimateModel model) {
+        return isVersion(model);
+    }
+    
     public boolean isVersion(IArchimateModel model) {
         String version = model.getVersion();
         return version != null && StringUtils.compareVersionNumbers(version, "4.4.0") < 0; //$NON-NLS-1$
@@ -45,16 +50,19 @@ public class DefaultTextAlignmentHandler implements ICompatibilityHandler {
     
     private void convertTextPosition(IArchimateModel model) {
         for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
+            fixObject(iter.next());
+        }
+    }
+    
+    @Override
+    public void fixObject(EObject eObject) {
+        if((eObject instanceof IDiagramModelArchimateObject && ((IDiagramModelArchimateObject)eObject).getArchimateConcept() instanceof IGrouping)
+                || (eObject instanceof IDiagramModelGroup)) {
             
-            if((eObject instanceof IDiagramModelArchimateObject && ((IDiagramModelArchimateObject)eObject).getArchimateConcept() instanceof IGrouping)
-                    || (eObject instanceof IDiagramModelGroup)) {
-                
-                if(((IDiagramModelObject)eObject).getTextAlignment() == ITextAlignment.TEXT_ALIGNMENT_CENTER) {
-                    ((IDiagramModelObject)eObject).setTextAlignment(ITextAlignment.TEXT_ALIGNMENT_LEFT);
-                }
-                
+            if(((IDiagramModelObject)eObject).getTextAlignment() == ITextAlignment.TEXT_ALIGNMENT_CENTER) {
+                ((IDiagramModelObject)eObject).setTextAlignment(ITextAlignment.TEXT_ALIGNMENT_LEFT);
             }
+            
         }
     }
 }
@@ -12,7 +12,7 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 
 import com.archimatetool.editor.model.compatibility.CompatibilityHandlerException;
-import com.archimatetool.editor.model.compatibility.ICompatibilityHandler;
+import com.archimatetool.editor.model.compatibility.IObjectCompatibilityHandler;
 import com.archimatetool.editor.ui.factory.IGraphicalObjectUIProvider;
 import com.archimatetool.editor.ui.factory.ObjectUIFactory;
 import com.archimatetool.editor.utils.StringUtils;
@@ -31,7 +31,7 @@ import com.archimatetool.model.IJunction;
  * 
  * @author Phillip Beauvoir
  */
-public class FixDefaultSizesHandler implements ICompatibilityHandler {
+public class FixDefaultSizesHandler implements IObjectCompatibilityHandler {
     
     @Override
     public void fixCompatibility(Resource resource) throws CompatibilityHandlerException {
@@ -43,6 +43,11 @@ public class FixDefaultSizesHandler implements ICompatibilityHandler {
         }
     }
     
+    @Override
+    public boolean isApplicable(IArchimateModel model) {
+        return isVersion(model);
+    }
+    
     boolean isVersion(IArchimateModel model) {
         String version = model.getVersion();
         return version != null && StringUtils.compareVersionNumbers(version, "3.0.0") < 0; //$NON-NLS-1$
@@ -53,21 +58,24 @@ public class FixDefaultSizesHandler implements ICompatibilityHandler {
      */
     void fixMissingWidthAndHeight(IArchimateModel model) {
         for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
-            
-            // An Image width/height of -1, -1 signified the actual width/height of the image.
-            // However, here, Images with -1, -1 would be converted to a default box size of 200, 150. So ignore it.
-            if(eObject instanceof IDiagramModelImage) {
-                continue;
-            }
-            
-            if(eObject instanceof IDiagramModelObject) {
-                IDiagramModelObject dmo = (IDiagramModelObject)eObject;
-                Dimension d = getNewSize(dmo);
-                IBounds bounds = dmo.getBounds();
-                bounds.setWidth(d.width);
-                bounds.setHeight(d.height);
-            }
+            fixObject(iter.next());
+        }
+    }
+    
+    @Override
+    public void fixObject(EObject eObject) {
+        // An Image width/height of -1, -1 signified the actual width/height of the image.
+        // However, here, Images with -1, -1 would be converted to a default box size of 200, 150. So ignore it.
+        if(eObject instanceof IDiagramModelImage) {
+            return;
+        }
+        
+        if(eObject instanceof IDiagramModelObject) {
+            IDiagramModelObject dmo = (IDiagramModelObject)eObject;
+            Dimension d = getNewSize(dmo);
+            IBounds bounds = dmo.getBounds();
+            bounds.setWidth(d.width);
+            bounds.setHeight(d.height);
         }
     }
     
@@ -11,7 +11,7 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 
 import com.archimatetool.editor.model.compatibility.CompatibilityHandlerException;
-import com.archimatetool.editor.model.compatibility.ICompatibilityHandler;
+import com.archimatetool.editor.model.compatibility.IObjectCompatibilityHandler;
 import com.archimatetool.editor.utils.StringUtils;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IDiagramModelObject;
@@ -24,7 +24,7 @@ import com.archimatetool.model.IDiagramModelObject;
  * 
  * @author Phillip Beauvoir
  */
-public class OutlineOpacityHandler implements ICompatibilityHandler {
+public class OutlineOpacityHandler implements IObjectCompatibilityHandler {
     
     @Override
     public void fixCompatibility(Resource resource) throws CompatibilityHandlerException {
@@ -36,6 +36,11 @@ public class OutlineOpacityHandler implements ICompatibilityHandler {
         }
     }
     
+    @Override
+    public boolean isApplicable(IArchimateModel model) {
+        return isVersion(model);
+    }
+    
     boolean isVersion(IArchimateModel model) {
         String version = model.getVersion();
         return version != null && (StringUtils.compareVersionNumbers(version, "4.0.1") == 0 || //$NON-NLS-1$
@@ -44,11 +49,15 @@ public class OutlineOpacityHandler implements ICompatibilityHandler {
 
     void setDefaultOutlineOpacity(IArchimateModel model) {
         for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
-            if(eObject instanceof IDiagramModelObject) {
-                IDiagramModelObject dmo = (IDiagramModelObject)eObject;
-                dmo.setLineAlpha(dmo.getAlpha());
-            }
+            fixObject(iter.next());
+        }
+    }
+    
+    @Override
+    public void fixObject(EObject eObject) {
+        if(eObject instanceof IDiagramModelObject) {
+            IDiagramModelObject dmo = (IDiagramModelObject)eObject;
+            dmo.setLineAlpha(dmo.getAlpha());
         }
     }
     
@@ -12,15 +12,17 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Enumeration;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 import org.eclipse.emf.common.util.URI;
@@ -32,8 +34,9 @@ import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.widgets.Display;
 
 import com.archimatetool.editor.model.IArchiveManager;
+import com.archimatetool.editor.preferences.Preferences;
 import com.archimatetool.editor.utils.FileUtils;
-import com.archimatetool.editor.utils.ZipUtils;
+import com.archimatetool.editor.utils.ZipFileCache;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IDiagramModelImageProvider;
 import com.archimatetool.model.util.ArchimateResourceFactory;
@@ -113,19 +116,7 @@ public class ArchiveManager implements IArchiveManager {
     
     @Override
     public List<String> getImagePaths() {
-        Set<String> set = new HashSet<>();
-        
-        for(Iterator<EObject> iter = fModel.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IDiagramModelImageProvider) {
-                String imagePath = ((IDiagramModelImageProvider)element).getImagePath();
-                if(imagePath != null) {
-                    set.add(imagePath);
-                }
-            }
-        }
-        
-        return new ArrayList<>(set);
+        return new ArrayList<>(getImagePathsInModel());
     }
     
     @Override
@@ -138,34 +129,46 @@ public class ArchiveManager implements IArchiveManager {
      */
     @Override
     public void loadImages() throws IOException {
-        if(!fImagesLoaded && loadImagesFromModelFile(fModel.getFile())) {
+        if(!fImagesLoaded && loadImagesFromModelFile(fModel.getFile(), Preferences.loadImagesOnDemand())) {
             fImagesLoaded = true;
         }
     }
     
     @Override
     public boolean loadImagesFromModelFile(File file) throws IOException {
+        return loadImagesFromModelFile(file, false);
+    }
+    
+    /**
+     * Load images from an archive file
+     * @param file The archive file
+     * @param lazy If true the images' bytes are not kept in memory but are read from the archive file when needed
+     */
+    private boolean loadImagesFromModelFile(File file, boolean lazy) throws IOException {
         if(file == null || !file.exists() || !FACTORY.isArchiveFile(file)) {
             return false;
         }
         
-        ZipFile zipFile = new ZipFile(file);
-        
-        for(Enumeration<? extends ZipEntry> enm = zipFile.entries(); enm.hasMoreElements();) {
-            ZipEntry zipEntry = enm.nextElement();
-            String entryName = zipEntry.getName();
-            if(entryName.startsWith("images/")) { //$NON-NLS-1$
-                // Add to ByteArrayStorage
-                if(!byteArrayStorage.hasEntry(entryName)) {
-                    InputStream in = zipFile.getInputStream(zipEntry);
-                    byteArrayStorage.addStreamEntry(entryName, in);
+        return ZipFileCache.read(file, zipFile -> {
+            for(Enumeration<? extends ZipEntry> enm = zipFile.entries(); enm.hasMoreElements();) {
+                ZipEntry zipEntry = enm.nextElement();
+                String entryName = zipEntry.getName();
+                if(entryName.startsWith("images/")) { //$NON-NLS-1$
+                    // Add to ByteArrayStorage
+                    if(!byteArrayStorage.hasEntry(entryName)) {
+                        InputStream in = zipFile.getInputStream(zipEntry);
+                        if(lazy) {
+                            byteArrayStorage.addLazyArchiveEntry(entryName, file, in);
+                        }
+                        else {
+                            byteArrayStorage.addStreamEntry(entryName, in);
+                        }
+                    }
                 }
             }
-        }
-        
-        zipFile.close();
-        
-        return true;
+            
+            return true;
+        });
     }
     
     @Override
@@ -190,7 +193,8 @@ public class ArchiveManager implements IArchiveManager {
     @Override
     public String addByteContentEntry(String imagePath, byte[] bytes) throws IOException {
         // Is this already in the cache?
-        String entryName = byteArrayStorage.getKey(bytes);
+        String digest = ByteArrayStorage.getDigest(bytes);
+        String entryName = byteArrayStorage.getKeyForDigest(digest);
         
         // No
         if(entryName == null) {
@@ -199,7 +203,7 @@ public class ArchiveManager implements IArchiveManager {
            
             // Add it
             entryName = imagePath;
-            byteArrayStorage.addByteContentEntry(imagePath, bytes);
+            byteArrayStorage.addByteContentEntry(imagePath, bytes, digest);
         }
 
         return entryName;
@@ -222,11 +226,43 @@ public class ArchiveManager implements IArchiveManager {
             return;
         }
         
-        if(hasImages()) {
-            saveModelToArchiveFile(file);
+        // Get the image paths used in the model in one pass
+        Set<String> imagePaths = getImagePathsInModel();
+        
+        /*
+         * Write to a temporary file in the same folder, sync it to disk and then move it over the model file.
+         * This way a crash or error when saving never leaves a half-written model file.
+         */
+        File tmpFile = File.createTempFile("~" + file.getName(), ".tmp", file.getAbsoluteFile().getParentFile()); //$NON-NLS-1$ //$NON-NLS-2$
+        
+        try {
+            try(FileOutputStream fileOut = new FileOutputStream(tmpFile)) {
+                BufferedOutputStream out = new BufferedOutputStream(fileOut);
+                
+                // Archive format if the model has images
+                if(!imagePaths.isEmpty()) {
+                    ZipOutputStream zOut = new ZipOutputStream(out);
+                    saveModelToArchive(file, zOut, imagePaths);
+                    zOut.finish();
+                }
+                else {
+                    saveResource(file, out);
+                }
+                
+                out.flush();
+                fileOut.getFD().sync();
+            }
+            
+            // Any images that are read from the model file on demand and are not in the new file have to be read now
+            byteArrayStorage.loadLazyEntries(file, imagePaths);
+            
+            // The model file might be open in the Zip file cache
+            ZipFileCache.close(file);
+            
+            moveFile(tmpFile, file);
         }
-        else {
-            saveResource(file);
+        finally {
+            tmpFile.delete();
         }
     }
     
@@ -234,43 +270,36 @@ public class ArchiveManager implements IArchiveManager {
     public IArchiveManager clone(IArchimateModel model) {
         ArchiveManager archiveManager = new ArchiveManager(model);
         
-        for(Entry<String, byte[]> entry : byteArrayStorage.getEntrySet()) {
-            archiveManager.byteArrayStorage.addByteContentEntry(entry.getKey(), entry.getValue());
-        }
+        byteArrayStorage.copyEntries(archiveManager.byteArrayStorage);
         
         return archiveManager;
     }
     
     /**
-     * Save the model to Archive File format
+     * Save the model xml and any images directly to the zip stream
      */
-    private void saveModelToArchiveFile(File file) throws IOException {
-        // Temp file for xml model file
-        File tmpFile = File.createTempFile("archi-", null); //$NON-NLS-1$
-        tmpFile.deleteOnExit();
-        saveResource(tmpFile);
+    private void saveModelToArchive(File file, ZipOutputStream zOut, Set<String> imagePaths) throws IOException {
+        // Add the model xml file
+        zOut.putNextEntry(new ZipEntry("model.xml")); //$NON-NLS-1$
+        saveResource(file, zOut);
+        zOut.closeEntry();
         
-        // Create Zip File output stream to model's file
-        BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(file));
-        ZipOutputStream zOut = new ZipOutputStream(out);
-        
-        try {
-            // Add the model xml file
-            ZipUtils.addFileToZip(tmpFile, "model.xml", zOut); //$NON-NLS-1$
-            
-            // Add any images
-            saveImages(zOut);
-        }
-        finally {
-            tmpFile.delete();
-            zOut.close();
+        // Add any images
+        // Images that are read from an archive file on demand have to be readable or the save fails rather than losing them
+        for(String imagePath : imagePaths) {
+            byte[] bytes = byteArrayStorage.readEntry(imagePath);
+            if(bytes != null) {
+                zOut.putNextEntry(new ZipEntry(imagePath));
+                zOut.write(bytes);
+                zOut.closeEntry();
+            }
         }
     }
     
     /**
-     * Save the model to Resource
+     * Save the model's Resource to an output stream. The stream is not closed.
      */
-    private void saveResource(File file) throws IOException {
+    private void saveResource(File file, OutputStream out) throws IOException {
         Resource resource = fModel.eResource();
         
         // No parent Resource set, so create a new one
@@ -285,33 +314,42 @@ public class ArchiveManager implements IArchiveManager {
         
         // Catch *all* exceptions in case of XML errors
         try {
-            resource.save(null);
+            resource.save(out, null);
         }
         catch(Exception ex) {
             throw new IOException(ex);
         }
     }
     
-    private void saveImages(ZipOutputStream zOut) throws IOException {
-        List<String> added = new ArrayList<String>();
+    /**
+     * @return The set of image paths used in the model in the order that they are found
+     */
+    private Set<String> getImagePathsInModel() {
+        Set<String> set = new LinkedHashSet<>();
         
         for(Iterator<EObject> iter = fModel.eAllContents(); iter.hasNext();) {
             EObject eObject = iter.next();
             if(eObject instanceof IDiagramModelImageProvider) {
-                IDiagramModelImageProvider imageProvider = (IDiagramModelImageProvider)eObject;
-                String imagePath = imageProvider.getImagePath();
-                if(imagePath != null && !added.contains(imagePath)) {
-                    byte[] bytes = byteArrayStorage.getEntry(imagePath);
-                    if(bytes != null) {
-                        ZipEntry zipEntry = new ZipEntry(imagePath);
-                        zOut.putNextEntry(zipEntry);
-                        zOut.write(bytes);
-                        zOut.closeEntry();
-                        added.add(imagePath);
-                    }
+                String imagePath = ((IDiagramModelImageProvider)eObject).getImagePath();
+                if(imagePath != null) {
+                    set.add(imagePath);
                 }
             }
         }
+        
+        return set;
+    }
+    
+    /**
+     * Move the saved temporary file over the target file, atomically if the file system supports it
+     */
+    private void moveFile(File srcFile, File destFile) throws IOException {
+        try {
+            Files.move(srcFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch(AtomicMoveNotSupportedException ex) {
+            Files.move(srcFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
     }
     
     private String createArchiveImagePathname(File file) {
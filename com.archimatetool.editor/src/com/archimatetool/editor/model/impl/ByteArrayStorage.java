@@ -11,26 +11,87 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+
+import com.archimatetool.editor.Logger;
+import com.archimatetool.editor.utils.DigestUtils;
+import com.archimatetool.editor.utils.ZipFileCache;
 
 /**
  * Byte Array Storage Unit
- * 
+ *
+ * Entries are indexed by a digest of their content so that the same bytes added under a different
+ * entry name are found and re-used without comparing against every stored entry.
+ *
+ * Entries can also be added lazily from an archive file in which case their bytes are not held in memory
+ * but are read from the archive file when needed.
+ *
  * @author Phillip Beauvoir
  */
 public class ByteArrayStorage {
-    
-    private Map<String, byte[]> fdataTable = new HashMap<String, byte[]>();
-    
+
+    /**
+     * A stored entry. Either the bytes are held in memory or they are read from an entry in an archive file.
+     */
+    private static class StorageEntry {
+        String digest;
+        long size;
+
+        byte[] bytes;
+
+        File archiveFile;
+        String archiveEntryName;
+        SoftReference<byte[]> cachedBytes;
+
+        StorageEntry(String digest, byte[] bytes) {
+            this.digest = digest;
+            this.bytes = bytes;
+            size = bytes.length;
+        }
+
+        StorageEntry(String digest, long size, File archiveFile, String archiveEntryName) {
+            this.digest = digest;
+            this.size = size;
+            this.archiveFile = archiveFile;
+            this.archiveEntryName = archiveEntryName;
+        }
+
+        StorageEntry copy() {
+            StorageEntry entry = bytes != null ? new StorageEntry(digest, bytes) : new StorageEntry(digest, size, archiveFile, archiveEntryName);
+            entry.cachedBytes = cachedBytes;
+            return entry;
+        }
+
+        boolean isLazy() {
+            return bytes == null;
+        }
+    }
+
+    /**
+     * Entries keyed by entry name
+     */
+    private Map<String, StorageEntry> fdataTable = new HashMap<>();
+
+    /**
+     * Entry names keyed by content digest
+     */
+    private Map<String, String> fDigestTable = new HashMap<>();
+
     InputStream getInputStream(String entryName) {
         if(entryName != null) {
-            byte[] bytes = fdataTable.get(entryName);
+            byte[] bytes = getEntry(entryName);
             if(bytes != null) {
                 return new ByteArrayInputStream(bytes);
             }
@@ -38,31 +99,45 @@ public class ByteArrayStorage {
         return null;
     }
 
+    /**
+     * @return The entry name of stored bytes that are the same as bytes, or null if not found
+     */
     String getKey(byte[] bytes) {
-        for(Entry<String, byte[]> entry : fdataTable.entrySet()) {
-            byte[] entryBytes = entry.getValue();
-            if(Arrays.equals(bytes, entryBytes)) {
-                return entry.getKey();
-            }
-        }
-        
-        return null;
+        return getKeyForDigest(getDigest(bytes));
     }
-    
+
+    /**
+     * @param digest The content digest as returned by {@link #getDigest(byte[])}
+     * @return The entry name of stored bytes with the content digest, or null if not found
+     */
+    String getKeyForDigest(String digest) {
+        return fDigestTable.get(digest);
+    }
+
     long getEntrySize(String entryName) {
         if(entryName != null) {
-            byte[] bytes = fdataTable.get(entryName);
-            if(bytes != null) {
-                return bytes.length;
+            StorageEntry entry = fdataTable.get(entryName);
+            if(entry != null) {
+                return entry.size;
             }
         }
         return -1;
     }
-    
+
+    /**
+     * Note - this will read the bytes of any entries added lazily
+     * @return A set of entry names and their bytes
+     */
     Set<Entry<String, byte[]>> getEntrySet() {
-        return fdataTable.entrySet();
+        Set<Entry<String, byte[]>> set = new LinkedHashSet<>();
+
+        for(String entryName : fdataTable.keySet()) {
+            set.add(new SimpleEntry<>(entryName, getEntry(entryName)));
+        }
+
+        return set;
     }
-    
+
     List<String> getEntryNames() {
         return new ArrayList<>(fdataTable.keySet());
     }
@@ -70,43 +145,164 @@ public class ByteArrayStorage {
     boolean hasEntries() {
         return !fdataTable.isEmpty();
     }
-    
+
     boolean hasEntry(String entryName) {
         return fdataTable.containsKey(entryName);
     }
-    
+
     void removeEntry(String entryName) {
-        fdataTable.remove(entryName);
+        StorageEntry entry = fdataTable.remove(entryName);
+
+        // If this was the entry indexed by its digest then index another entry with the same digest, if there is one
+        if(entry != null && entryName.equals(fDigestTable.get(entry.digest))) {
+            fDigestTable.remove(entry.digest);
+
+            for(Entry<String, StorageEntry> mapEntry : fdataTable.entrySet()) {
+                if(entry.digest.equals(mapEntry.getValue().digest)) {
+                    fDigestTable.put(entry.digest, mapEntry.getKey());
+                    break;
+                }
+            }
+        }
     }
-    
+
     byte[] getEntry(String entryName) {
-        return fdataTable.get(entryName);
+        try {
+            return readEntry(entryName);
+        }
+        catch(IOException ex) {
+            Logger.logError("Could not read image", ex); //$NON-NLS-1$
+            return null;
+        }
     }
-    
+
+    /**
+     * @return The bytes of an entry or null if there is no entry
+     * @throws IOException if the entry was added lazily and can't be read from its archive file
+     */
+    byte[] readEntry(String entryName) throws IOException {
+        StorageEntry entry = fdataTable.get(entryName);
+        if(entry == null) {
+            return null;
+        }
+
+        if(!entry.isLazy()) {
+            return entry.bytes;
+        }
+
+        byte[] bytes = entry.cachedBytes != null ? entry.cachedBytes.get() : null;
+        if(bytes == null) {
+            bytes = readLazyEntry(entry);
+            entry.cachedBytes = new SoftReference<>(bytes);
+        }
+
+        return bytes;
+    }
+
     void addFileContentEntry(String entryName, File file) throws IOException {
         addStreamEntry(entryName, new FileInputStream(file));
     }
-    
+
     void addStreamEntry(String entryName, InputStream in) throws IOException {
         byte[] bytes = getBytesFromStream(in);
         addByteContentEntry(entryName, bytes);
     }
 
     void addByteContentEntry(String entryName, byte[] bytes) {
+        addByteContentEntry(entryName, bytes, getDigest(bytes));
+    }
+
+    /**
+     * Add bytes whose content digest has already been calculated so that they are not digested again
+     * @param digest The content digest of bytes as returned by {@link #getDigest(byte[])}
+     */
+    void addByteContentEntry(String entryName, byte[] bytes, String digest) {
+        putEntry(entryName, new StorageEntry(digest, bytes));
+    }
+
+    /**
+     * Add an entry from an archive file whose bytes are read from the archive file only when needed.
+     * The input stream for the archive entry is read once to index its content and is then closed.
+     *
+     * @param entryName The entry name in this storage and in the archive file
+     * @param archiveFile The archive file
+     * @param in The input stream of the entry in the archive file
+     */
+    void addLazyArchiveEntry(String entryName, File archiveFile, InputStream in) throws IOException {
+        MessageDigest messageDigest = DigestUtils.createSHA256Digest();
+        long size = 0;
+
+        try(DigestInputStream digestIn = new DigestInputStream(in, messageDigest)) {
+            byte[] buf = new byte[8192];
+            int read;
+            while((read = digestIn.read(buf)) != -1) {
+                size += read;
+            }
+        }
+
+        putEntry(entryName, new StorageEntry(DigestUtils.toHexString(messageDigest.digest()), size, archiveFile, entryName));
+    }
+
+    private void putEntry(String entryName, StorageEntry newEntry) {
         // Check if we have these bytes already. If we do then re-reference them
         // We might be adding the same set of bytes but from a different file
-        String key = getKey(bytes);
-        
+        String key = fDigestTable.get(newEntry.digest);
+
+        // Already stored under this entry name
+        if(entryName.equals(key)) {
+            return;
+        }
+
+        removeEntry(entryName);
+
         // Yes we have them, so re-use the bytes
         if(key != null) {
-            fdataTable.put(entryName, getEntry(key));
+            fdataTable.put(entryName, fdataTable.get(key).copy());
         }
         // No, so add the bytes
         else {
-            fdataTable.put(entryName, bytes);
+            fdataTable.put(entryName, newEntry);
+            fDigestTable.put(newEntry.digest, entryName);
+        }
+    }
+
+    /**
+     * Read into memory the bytes of lazy entries unless the same content will be in archiveFile under the same entry name.
+     * This should be called when saving to archiveFile before it is overwritten.
+     *
+     * @param archiveFile The archive file being saved
+     * @param savedEntryNames Names of the entries that are saved to archiveFile
+     */
+    void loadLazyEntries(File archiveFile, Collection<String> savedEntryNames) throws IOException {
+        for(StorageEntry entry : fdataTable.values()) {
+            if(entry.isLazy()) {
+                StorageEntry namedEntry = fdataTable.get(entry.archiveEntryName);
+                boolean isSameContent = namedEntry != null && entry.digest.equals(namedEntry.digest);
+
+                if(!isSameContent || !archiveFile.equals(entry.archiveFile) || !savedEntryNames.contains(entry.archiveEntryName)) {
+                    byte[] bytes = entry.cachedBytes != null ? entry.cachedBytes.get() : null;
+                    if(bytes == null) {
+                        bytes = readLazyEntry(entry);
+                    }
+                    entry.bytes = bytes;
+                    entry.archiveFile = null;
+                    entry.archiveEntryName = null;
+                    entry.cachedBytes = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy all entries to another storage. Lazy entries remain lazy.
+     */
+    void copyEntries(ByteArrayStorage target) {
+        for(Entry<String, StorageEntry> entry : fdataTable.entrySet()) {
+            target.fdataTable.put(entry.getKey(), entry.getValue().copy());
         }
+        target.fDigestTable.putAll(fDigestTable);
     }
-    
+
     byte[] getBytesFromFile(File file) throws IOException {
         // Get the bytes from the file
         if(file != null && file.exists()) {
@@ -115,12 +311,14 @@ public class ByteArrayStorage {
         }
         return null;
     }
-    
+
     void dispose() {
         fdataTable.clear();
         fdataTable = null;
+        fDigestTable.clear();
+        fDigestTable = null;
     }
-    
+
     /**
      * Read in a stream and return its contents as a byte array
      */
@@ -137,7 +335,36 @@ public class ByteArrayStorage {
             out.close();
             in.close();
         }
-        
+
         return out.toByteArray();
     }
+
+    /**
+     * Read the bytes of a lazy entry from its archive file
+     * @throws IOException if the archive file can't be read or no longer has the same entry
+     */
+    private byte[] readLazyEntry(StorageEntry entry) throws IOException {
+        byte[] bytes = readArchiveEntry(entry.archiveFile, entry.archiveEntryName);
+        if(bytes == null || bytes.length != entry.size) {
+            throw new IOException("Could not read image " + entry.archiveEntryName + " from archive file: " + entry.archiveFile); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return bytes;
+    }
+
+    /**
+     * Read the bytes of an entry in an archive file
+     */
+    private byte[] readArchiveEntry(File archiveFile, String archiveEntryName) throws IOException {
+        return ZipFileCache.read(archiveFile, zipFile -> {
+            ZipEntry zipEntry = zipFile.getEntry(archiveEntryName);
+            return zipEntry != null ? getBytesFromStream(zipFile.getInputStream(zipEntry)) : null;
+        });
+    }
+
+    /**
+     * @return The content digest of bytes as a hex string
+     */
+    static String getDigest(byte[] bytes) {
+        return DigestUtils.sha256Hex(bytes);
+    }
 }
@@ -11,8 +11,22 @@ import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -46,12 +60,14 @@ import com.archimatetool.editor.preferences.IPreferenceConstants;
 import com.archimatetool.editor.preferences.Preferences;
 import com.archimatetool.editor.ui.services.EditorManager;
 import com.archimatetool.editor.utils.FileUtils;
+import com.archimatetool.editor.utils.ZipFileCache;
 import com.archimatetool.jdom.JDOMUtils;
 import com.archimatetool.model.FolderType;
 import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IDiagramModel;
 import com.archimatetool.model.ModelVersion;
+import com.archimatetool.model.util.ArchimateResource;
 import com.archimatetool.model.util.ArchimateResourceFactory;
 import com.archimatetool.model.util.IModelContentListener;
 
@@ -76,6 +92,11 @@ implements IEditorModelManager {
      */
     private PropertyChangeSupport fListeners = new PropertyChangeSupport(this);
     
+    /**
+     * Depth of nested PROPERTY_ECORE_EVENTS_START and PROPERTY_ECORE_EVENTS_END pairs
+     */
+    private int fEcoreEventsBatchDepth;
+    
     /**
      * Listener
      */
@@ -86,6 +107,21 @@ implements IEditorModelManager {
      */
     private List<IArchimateModel> fModels;
     
+    /**
+     * Number of models that can be loaded at the same time
+     */
+    private static final int LOAD_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    
+    /**
+     * Loads models in the background
+     */
+    private ExecutorService fLoadExecutor;
+    
+    /**
+     * Models being loaded in the background keyed by file
+     */
+    private Map<File, CompletableFuture<IArchimateModel>> fLoadingModels = new HashMap<>();
+    
     /**
      * Backing File
      */
@@ -97,6 +133,8 @@ implements IEditorModelManager {
     private IWorkbenchListener workBenchListener = new IWorkbenchListener() {
         @Override
         public void postShutdown(IWorkbench workbench) {
+            // Close any zip files that are still open for reading
+            ZipFileCache.closeAll();
         }
 
         @Override
@@ -204,17 +242,7 @@ implements IEditorModelManager {
         model = loadModel(file);
         
         if(model != null) {
-            // Open Views of newly opened model if set in Preferences up to a maximum for safety
-            if(Preferences.doOpenDiagramsOnLoad()) {
-                int max = 0;
-                for(IDiagramModel dm : model.getDiagramModels()) {
-                    if(max++ < 30) {
-                        EditorManager.openDiagramEditor(dm);
-                    }
-                }
-            }
-            
-            firePropertyChange(this, PROPERTY_MODEL_OPENED, null, model);
+            modelOpened(model);
         }
         
         return model;
@@ -241,6 +269,47 @@ implements IEditorModelManager {
         firePropertyChange(this, PROPERTY_MODEL_OPENED, null, model);
     }
     
+    @Override
+    public CompletableFuture<IArchimateModel> openModelAsync(File file, IProgressMonitor monitor) {
+        if(file == null || !file.exists()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // If it is already loaded return it
+        IArchimateModel model = locateLoadedModel(file);
+        if(model != null) {
+            return CompletableFuture.completedFuture(model);
+        }
+        
+        // This might be called on the caller's thread if the future is already complete so open Views on the UI thread
+        return loadModelAsync(file, monitor).thenApply(loadedModel -> {
+            if(loadedModel != null) {
+                syncExec(() -> {
+                    modelOpened(loadedModel);
+                    return null;
+                });
+            }
+            return loadedModel;
+        });
+    }
+    
+    /**
+     * Open Views of a newly opened model and notify listeners
+     */
+    private void modelOpened(IArchimateModel model) {
+        // Open Views of newly opened model if set in Preferences up to a maximum for safety
+        if(Preferences.doOpenDiagramsOnLoad()) {
+            int max = 0;
+            for(IDiagramModel dm : model.getDiagramModels()) {
+                if(max++ < 30) {
+                    EditorManager.openDiagramEditor(dm);
+                }
+            }
+        }
+        
+        firePropertyChange(this, PROPERTY_MODEL_OPENED, null, model);
+    }
+    
     @Override
     public IArchimateModel loadModel(File file) {
         if(file == null || !file.exists()) {
@@ -253,6 +322,179 @@ implements IEditorModelManager {
             return model;
         }
         
+        LoadedModel loadedModel;
+        
+        try {
+            loadedModel = readModel(file);
+        }
+        catch(IncompatibleModelException ex) {
+            showLoadError(file, ex);
+            return null;
+        }
+        
+        // Once loaded - check for later model version
+        if(!confirmLoadModel(loadedModel)) {
+            return null;
+        }
+
+        // And then fix any backward compatibility issues
+        fixCompatibility(loadedModel);
+        
+        return registerLoadedModel(loadedModel);
+    }
+    
+    @Override
+    public CompletableFuture<IArchimateModel> loadModelAsync(File file, IProgressMonitor monitor) {
+        if(file == null || !file.exists()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // If it is already loaded return it
+        IArchimateModel model = locateLoadedModel(file);
+        if(model != null) {
+            return CompletableFuture.completedFuture(model);
+        }
+        
+        CompletableFuture<IArchimateModel> result;
+        
+        synchronized(fLoadingModels) {
+            // If it is already being loaded return that
+            CompletableFuture<IArchimateModel> future = fLoadingModels.get(file);
+            if(future != null) {
+                return future;
+            }
+            
+            result = new CompletableFuture<>();
+            fLoadingModels.put(file, result);
+        }
+        
+        getLoadExecutor().execute(() -> {
+            LoadedModel loadedModel = null;
+            Exception error = null;
+            
+            try {
+                loadedModel = loadModelInBackground(file, monitor, result::isCancelled);
+            }
+            catch(Exception ex) {
+                error = ex;
+            }
+            
+            LoadedModel finalLoadedModel = loadedModel;
+            Exception finalError = error;
+            
+            // Confirm and register the model on the UI thread
+            if(PlatformUI.isWorkbenchRunning()) {
+                Display.getDefault().asyncExec(() -> completeLoadModelAsync(file, finalLoadedModel, finalError, result));
+            }
+            else {
+                completeLoadModelAsync(file, finalLoadedModel, finalError, result);
+            }
+        });
+        
+        return result;
+    }
+    
+    /**
+     * Complete an asynchronous load by registering the model or reporting why it was not loaded
+     */
+    private void completeLoadModelAsync(File file, LoadedModel loadedModel, Exception error, CompletableFuture<IArchimateModel> future) {
+        synchronized(fLoadingModels) {
+            fLoadingModels.remove(file);
+        }
+        
+        if(error instanceof OperationCanceledException || future.isCancelled()) {
+            disposeLoadedModel(loadedModel);
+            future.cancel(false);
+            return;
+        }
+        
+        if(error instanceof IncompatibleModelException) {
+            showLoadError(file, (IncompatibleModelException)error);
+            future.complete(null);
+            return;
+        }
+        
+        if(error != null) {
+            Logger.logError("Could not load model: " + file, error); //$NON-NLS-1$
+            future.completeExceptionally(error);
+            return;
+        }
+        
+        // It might have been loaded while we were loading it
+        IArchimateModel model = locateLoadedModel(file);
+        if(model != null) {
+            disposeLoadedModel(loadedModel);
+            future.complete(model);
+            return;
+        }
+        
+        if(!confirmLoadModel(loadedModel)) {
+            disposeLoadedModel(loadedModel);
+            future.complete(null);
+            return;
+        }
+        
+        // And then fix any backward compatibility issues
+        fixCompatibility(loadedModel);
+        
+        future.complete(registerLoadedModel(loadedModel));
+    }
+    
+    /**
+     * Read a model file and load its images. This can be called on any thread.
+     * Compatibility issues are fixed after the user has confirmed loading the model.
+     * @param isCancelled Returns true if the load is cancelled
+     */
+    private LoadedModel loadModelInBackground(File file, IProgressMonitor monitor, BooleanSupplier isCancelled) throws IncompatibleModelException {
+        if(monitor == null) {
+            monitor = new NullProgressMonitor();
+        }
+        
+        try {
+            monitor.beginTask(NLS.bind(Messages.EditorModelManager_16, file.getName()), 2);
+            
+            monitor.subTask(Messages.EditorModelManager_17);
+            LoadedModel loadedModel = readModel(file);
+            monitor.worked(1);
+            checkCancelled(monitor, isCancelled);
+            
+            monitor.subTask(Messages.EditorModelManager_20);
+            loadedModel.model.setFile(file);
+            loadedModel.archiveManager = loadArchiveManager(loadedModel.model);
+            monitor.worked(1);
+            if(monitor.isCanceled() || isCancelled.getAsBoolean()) {
+                disposeLoadedModel(loadedModel);
+                throw new OperationCanceledException();
+            }
+            
+            return loadedModel;
+        }
+        finally {
+            monitor.done();
+        }
+    }
+    
+    private void checkCancelled(IProgressMonitor monitor, BooleanSupplier isCancelled) {
+        if(monitor.isCanceled() || isCancelled.getAsBoolean()) {
+            throw new OperationCanceledException();
+        }
+    }
+    
+    /**
+     * A model that has been read from file but is not yet registered
+     */
+    private static class LoadedModel {
+        File file;
+        IArchimateModel model;
+        ModelCompatibility modelCompatibility;
+        IArchiveManager archiveManager;
+    }
+    
+    /**
+     * Read a model file
+     * @throws IncompatibleModelException if the model could not be read
+     */
+    private LoadedModel readModel(File file) throws IncompatibleModelException {
         // Ascertain if this is an archive file
         boolean useArchiveFormat = IArchiveManager.FACTORY.isArchiveFile(file);
         
@@ -264,78 +506,94 @@ implements IEditorModelManager {
         // Check model compatibility
         ModelCompatibility modelCompatibility = new ModelCompatibility(resource);
         
-        // Load the model file
+        // Load the model file, with the streaming loader if set in Preferences
         try {
-            resource.load(null);
+            Map<Object, Object> loadOptions = new HashMap<>();
+            loadOptions.put(ArchimateResource.OPTION_USE_STREAMING_LOADER, Preferences.useStreamingModelLoader());
+            resource.load(loadOptions);
         }
         catch(IOException ex) {
-            // Error occured loading model. 
-            try {
-                modelCompatibility.checkErrors();
-            }
-            catch(IncompatibleModelException ex1) {
-                // Was it a disaster?
-                if(PlatformUI.isWorkbenchRunning()) {
-                    MessageDialog.openError(Display.getCurrent().getActiveShell(),
-                            Messages.EditorModelManager_2,
-                            NLS.bind(Messages.EditorModelManager_3, file)
-                            + "\n" + ex1.getMessage()); //$NON-NLS-1$
-                    
-                }
-
-                return null;
-            }
+            // Error occured loading model. Was it a disaster?
+            modelCompatibility.checkErrors();
         }
         
-        model = (IArchimateModel)resource.getContents().get(0);
-
-        // Once loaded - check for later model version
+        LoadedModel loadedModel = new LoadedModel();
+        loadedModel.file = file;
+        loadedModel.model = (IArchimateModel)resource.getContents().get(0);
+        loadedModel.modelCompatibility = modelCompatibility;
+        return loadedModel;
+    }
+    
+    private void showLoadError(File file, IncompatibleModelException ex) {
         if(PlatformUI.isWorkbenchRunning()) {
-            boolean isLaterModelVersion = modelCompatibility.isLaterModelVersion(ModelVersion.VERSION);
-            if(isLaterModelVersion) {
-                boolean answer = MessageDialog.openQuestion(Display.getCurrent().getActiveShell(),
-                        Messages.EditorModelManager_4,
-                        NLS.bind(Messages.EditorModelManager_5,
-                                file, model.getVersion()));
-                if(!answer) {
-                    return null;
-                }
-            }
-            // Check for unknown model features which might be OK to load
-            else {
-                List<Diagnostic> exceptions = modelCompatibility.getAcceptableExceptions();
-                if(!exceptions.isEmpty()) {
-                    String message = ""; //$NON-NLS-1$
-                    for(int i = 0; i < exceptions.size(); i++) {
-                        if(i == 3) {
-                            message += (exceptions.size() - 3) + " " + Messages.EditorModelManager_12; //$NON-NLS-1$
-                            break;
-                        }
-                        message += exceptions.get(i).getMessage() + "\n"; //$NON-NLS-1$
-                    }
-                    
-                    boolean answer = MessageDialog.openQuestion(Display.getCurrent().getActiveShell(),
-                            Messages.EditorModelManager_4,
-                            NLS.bind(Messages.EditorModelManager_13, file)
-                            + "\n\n" + message); //$NON-NLS-1$
-                    if(!answer) {
-                        return null;
-                    }
+            MessageDialog.openError(Display.getCurrent().getActiveShell(),
+                    Messages.EditorModelManager_2,
+                    NLS.bind(Messages.EditorModelManager_3, file)
+                    + "\n" + ex.getMessage()); //$NON-NLS-1$
+        }
+    }
+    
+    /**
+     * Ask the user whether to continue loading a later version model or one with unknown features
+     * @return false if the user chose not to continue
+     */
+    private boolean confirmLoadModel(LoadedModel loadedModel) {
+        if(!PlatformUI.isWorkbenchRunning()) {
+            return true;
+        }
+        
+        File file = loadedModel.file;
+        ModelCompatibility modelCompatibility = loadedModel.modelCompatibility;
+        
+        boolean isLaterModelVersion = modelCompatibility.isLaterModelVersion(ModelVersion.VERSION);
+        if(isLaterModelVersion) {
+            return MessageDialog.openQuestion(Display.getCurrent().getActiveShell(),
+                    Messages.EditorModelManager_4,
+                    NLS.bind(Messages.EditorModelManager_5,
+                            file, loadedModel.model.getVersion()));
+        }
+        
+        // Check for unknown model features which might be OK to load
+        List<Diagnostic> exceptions = modelCompatibility.getAcceptableExceptions();
+        if(!exceptions.isEmpty()) {
+            String message = ""; //$NON-NLS-1$
+            for(int i = 0; i < exceptions.size(); i++) {
+                if(i == 3) {
+                    message += (exceptions.size() - 3) + " " + Messages.EditorModelManager_12; //$NON-NLS-1$
+                    break;
                 }
+                message += exceptions.get(i).getMessage() + "\n"; //$NON-NLS-1$
             }
+            
+            return MessageDialog.openQuestion(Display.getCurrent().getActiveShell(),
+                    Messages.EditorModelManager_4,
+                    NLS.bind(Messages.EditorModelManager_13, file)
+                    + "\n\n" + message); //$NON-NLS-1$
         }
-
-        // And then fix any backward compatibility issues
+        
+        return true;
+    }
+    
+    private void fixCompatibility(LoadedModel loadedModel) {
         try {
-            modelCompatibility.fixCompatibility();
+            loadedModel.modelCompatibility.fixCompatibility();
         }
         catch(CompatibilityHandlerException ex) {
         }
-
-        model.setFile(file);
+    }
+    
+    /**
+     * Add a loaded model to the models and notify listeners
+     */
+    private IArchimateModel registerLoadedModel(LoadedModel loadedModel) {
+        IArchimateModel model = loadedModel.model;
+        
+        model.setFile(loadedModel.file);
         model.setDefaults();
         
-        getModels().add(model);
+        synchronized(this) {
+            getModels().add(model);
+        }
         
         // Register Ecore listener
         model.addModelContentListener(fEContentListener);
@@ -343,8 +601,13 @@ implements IEditorModelManager {
         // New Command Stack
         createNewCommandStack(model);
         
-        // New Archive Manager
-        createNewArchiveManager(model);
+        // New Archive Manager, unless the images were loaded in the background
+        if(loadedModel.archiveManager != null) {
+            model.setAdapter(IArchiveManager.class, loadedModel.archiveManager);
+        }
+        else {
+            createNewArchiveManager(model);
+        }
         
         // Initiate all diagram models to be marked as "saved" - this is for the editor view persistence
         markDiagramModelsAsSaved(model);
@@ -355,6 +618,26 @@ implements IEditorModelManager {
         return model;
     }
     
+    private void disposeLoadedModel(LoadedModel loadedModel) {
+        if(loadedModel != null && loadedModel.archiveManager != null) {
+            loadedModel.archiveManager.dispose();
+        }
+    }
+    
+    private ExecutorService getLoadExecutor() {
+        if(fLoadExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(LOAD_THREADS, LOAD_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "Model Loader"); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            fLoadExecutor = executor;
+        }
+        
+        return fLoadExecutor;
+    }
+    
     @Override
     public boolean closeModel(IArchimateModel model) throws IOException {
         if(model == null) {
@@ -373,7 +656,10 @@ implements IEditorModelManager {
         EditorManager.closeDiagramEditors(model);
         
         // Remove the model from the local list of open models
-        getModels().remove(model);
+        // Models can be loaded and closed on more than one thread when running from the command line in batch mode
+        synchronized(this) {
+            getModels().remove(model);
+        }
 
         // Fire this event *before* disposing of the model in case listeners need to access it or any of its members
         firePropertyChange(this, PROPERTY_MODEL_REMOVED, null, model);
@@ -383,6 +669,11 @@ implements IEditorModelManager {
   
         // Delete Archive Manager
         deleteArchiveManager(model);
+        
+        // Close the model's file if it is open for reading images
+        if(model.getFile() != null) {
+            ZipFileCache.close(model.getFile());
+        }
 
         // *at the very last* dispose of this model so its contents can be garbage collected
         // Some Eclipse components such as the Properties View might still reference the model or some of its contents
@@ -426,9 +717,11 @@ implements IEditorModelManager {
 
     @Override
     public boolean saveModel(IArchimateModel model) throws IOException {
-        // Check integrity
+        // Check integrity, only of the objects changed since the last save if set in Preferences
         ModelChecker checker = new ModelChecker(model);
-        if(!checker.checkAll()) {
+        ModelChangeTracker changeTracker = (ModelChangeTracker)model.getAdapter(ModelChangeTracker.class);
+        boolean checkChangedObjects = changeTracker != null && Preferences.STORE.getBoolean(IPreferenceConstants.CHECK_CHANGED_OBJECTS_ON_SAVE);
+        if(!(checkChangedObjects ? checker.checkObjects(changeTracker.getChangedObjects()) : checker.checkAll())) {
             if(PlatformUI.isWorkbenchRunning()) {
                 checker.showErrorDialog(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell());
             }
@@ -466,6 +759,11 @@ implements IEditorModelManager {
             firePropertyChange(model, COMMAND_STACK_CHANGED, true, false);
         }
         
+        // Changes are now tracked from this save point
+        if(changeTracker != null) {
+            changeTracker.reset();
+        }
+        
         // Set all diagram models to be marked as "saved" - this is for the editor view persistence
         markDiagramModelsAsSaved(model);
         
@@ -485,6 +783,11 @@ implements IEditorModelManager {
             return false;
         }
         
+        // Close the old file if it is open for reading images. It is opened again if images are read from it.
+        if(model.getFile() != null && !model.getFile().equals(file)) {
+            ZipFileCache.close(model.getFile());
+        }
+        
         // Set new file
         model.setFile(file);
         
@@ -498,15 +801,36 @@ implements IEditorModelManager {
     }
     
     private IArchimateModel locateLoadedModel(File file) {
-        if(file != null) {
-            for(IArchimateModel model : getModels()) {
-                if(file.equals(model.getFile())) {
-                    return model;
+        if(file == null) {
+            return null;
+        }
+        
+        // The open models are only changed on the UI thread so look there
+        // Without a workbench they can be changed on more than one thread so lock them as well
+        return syncExec(() -> {
+            synchronized(this) {
+                for(IArchimateModel model : getModels()) {
+                    if(file.equals(model.getFile())) {
+                        return model;
+                    }
                 }
             }
+            return null;
+        });
+    }
+    
+    /**
+     * Get a value on the UI thread and wait for it if the workbench is running and this is not the UI thread.
+     * Otherwise get it on this thread.
+     */
+    private <T> T syncExec(Supplier<T> supplier) {
+        if(!PlatformUI.isWorkbenchRunning() || Display.getCurrent() != null) {
+            return supplier.get();
         }
         
-        return null;
+        List<T> result = new ArrayList<>(1);
+        Display.getDefault().syncExec(() -> result.add(supplier.get()));
+        return result.isEmpty() ? null : result.get(0);
     }
 
     @Override
@@ -586,6 +910,9 @@ implements IEditorModelManager {
         }
         
         model.setAdapter(CommandStack.class, cmdStack);
+        
+        // Track the objects changed since the CommandStack's save point
+        model.setAdapter(ModelChangeTracker.class, new ModelChangeTracker(model));
     }
     
     /**
@@ -597,6 +924,11 @@ implements IEditorModelManager {
         if(stack != null) {
             stack.dispose();
         }
+        
+        ModelChangeTracker changeTracker = (ModelChangeTracker)model.getAdapter(ModelChangeTracker.class);
+        if(changeTracker != null) {
+            changeTracker.dispose();
+        }
     }
     
     /**
@@ -615,8 +947,16 @@ implements IEditorModelManager {
         // dispose any previous one
         deleteArchiveManager(model);
         
-        IArchiveManager archiveManager = IArchiveManager.FACTORY.createArchiveManager(model);
+        IArchiveManager archiveManager = loadArchiveManager(model);
         model.setAdapter(IArchiveManager.class, archiveManager);
+        return archiveManager;
+    }
+    
+    /**
+     * Create a new ArchiveManager for the model and load its images. This can be called on any thread.
+     */
+    private IArchiveManager loadArchiveManager(IArchimateModel model) {
+        IArchiveManager archiveManager = IArchiveManager.FACTORY.createArchiveManager(model);
         
         // Load images now
         try {
@@ -662,14 +1002,58 @@ implements IEditorModelManager {
         if(backingFile.exists()) {
             Document doc = JDOMUtils.readXMLFile(backingFile);
             if(doc.hasRootElement()) {
+                List<File> files = new ArrayList<>();
+                
                 Element rootElement = doc.getRootElement();
                 for(Object e : rootElement.getChildren("model")) { //$NON-NLS-1$
                     Element modelElement = (Element)e;
                     String filePath = modelElement.getAttributeValue("file"); //$NON-NLS-1$
                     if(filePath != null) {
-                        loadModel(new File(filePath));
+                        File file = new File(filePath);
+                        if(file.exists() && !files.contains(file)) {
+                            files.add(file);
+                        }
                     }
                 }
+                
+                loadModels(files);
+            }
+        }
+    }
+    
+    /**
+     * Load models at the same time and then register them in order on this thread
+     */
+    private void loadModels(List<File> files) {
+        List<Future<LoadedModel>> futures = new ArrayList<>();
+        for(File file : files) {
+            futures.add(getLoadExecutor().submit(() -> loadModelInBackground(file, null, () -> false)));
+        }
+        
+        for(int i = 0; i < files.size(); i++) {
+            File file = files.get(i);
+            
+            try {
+                LoadedModel loadedModel = futures.get(i).get();
+                if(confirmLoadModel(loadedModel)) {
+                    fixCompatibility(loadedModel);
+                    registerLoadedModel(loadedModel);
+                }
+                else {
+                    disposeLoadedModel(loadedModel);
+                }
+            }
+            catch(ExecutionException ex) {
+                if(ex.getCause() instanceof IncompatibleModelException) {
+                    showLoadError(file, (IncompatibleModelException)ex.getCause());
+                }
+                else {
+                    Logger.logError("Could not load model: " + file, ex.getCause()); //$NON-NLS-1$
+                }
+            }
+            catch(InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
             }
         }
     }
@@ -688,6 +1072,14 @@ implements IEditorModelManager {
     
     @Override
     public void firePropertyChange(Object source, String prop, Object oldValue, Object newValue) {
+        // Nested starts and ends are not sent so that listeners get one start and one end around the outermost batch
+        if(prop == PROPERTY_ECORE_EVENTS_START && fEcoreEventsBatchDepth++ > 0) {
+            return;
+        }
+        if(prop == PROPERTY_ECORE_EVENTS_END && fEcoreEventsBatchDepth > 0 && --fEcoreEventsBatchDepth > 0) {
+            return;
+        }
+        
         fListeners.firePropertyChange(new PropertyChangeEvent(source, prop, oldValue, newValue));
     }
     
@@ -27,10 +27,16 @@ public class Messages extends NLS {
 
     public static String EditorModelManager_15;
 
+    public static String EditorModelManager_16;
+
+    public static String EditorModelManager_17;
+
     public static String EditorModelManager_18;
 
     public static String EditorModelManager_2;
 
+    public static String EditorModelManager_20;
+
     public static String EditorModelManager_3;
 
     public static String EditorModelManager_4;
@@ -0,0 +1,141 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.impl;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+
+import com.archimatetool.model.IArchimateConcept;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IDiagramModelArchimateComponent;
+import com.archimatetool.model.util.IModelContentListener;
+
+
+/**
+ * Tracks the objects in a model that have changed since the model's CommandStack was last marked as saved
+ * so that only these objects need to be checked by the ModelChecker when the model is saved again.
+ *
+ * Changed objects are the notifiers of model changes and added objects and their contents.
+ * When objects are removed the concepts and diagram components that referenced them are also tracked
+ * as these might now be orphaned.
+ *
+ * @author Phillip Beauvoir
+ */
+class ModelChangeTracker {
+
+    private IArchimateModel fModel;
+
+    private Set<EObject> fChangedObjects = new HashSet<>();
+
+    private IModelContentListener fModelListener = this::modelChanged;
+
+    ModelChangeTracker(IArchimateModel model) {
+        fModel = model;
+        fModel.addModelContentListener(fModelListener);
+    }
+
+    /**
+     * @return The objects changed since the last reset
+     */
+    Set<EObject> getChangedObjects() {
+        return new HashSet<>(fChangedObjects);
+    }
+
+    /**
+     * Clear the changed objects when the model is saved
+     */
+    void reset() {
+        fChangedObjects.clear();
+    }
+
+    void dispose() {
+        fModel.removeModelContentListener(fModelListener);
+        fChangedObjects.clear();
+    }
+
+    private void modelChanged(Notification msg) {
+        if(msg.isTouch()) {
+            return;
+        }
+
+        if(msg.getNotifier() instanceof EObject) {
+            fChangedObjects.add((EObject)msg.getNotifier());
+        }
+
+        switch(msg.getEventType()) {
+            case Notification.ADD:
+                addObject(msg.getNewValue());
+                break;
+
+            case Notification.ADD_MANY:
+                for(Object o : (Collection<?>)msg.getNewValue()) {
+                    addObject(o);
+                }
+                break;
+
+            case Notification.REMOVE:
+                removeObject(msg.getOldValue());
+                break;
+
+            case Notification.REMOVE_MANY:
+                for(Object o : (Collection<?>)msg.getOldValue()) {
+                    removeObject(o);
+                }
+                break;
+
+            case Notification.SET:
+                removeObject(msg.getOldValue());
+                addObject(msg.getNewValue());
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private void addObject(Object object) {
+        if(object instanceof EObject) {
+            EObject eObject = (EObject)object;
+            fChangedObjects.add(eObject);
+            for(Iterator<EObject> iter = eObject.eAllContents(); iter.hasNext();) {
+                fChangedObjects.add(iter.next());
+            }
+        }
+    }
+
+    private void removeObject(Object object) {
+        if(object instanceof EObject) {
+            EObject eObject = (EObject)object;
+            addReferencingObjects(eObject);
+            for(Iterator<EObject> iter = eObject.eAllContents(); iter.hasNext();) {
+                addReferencingObjects(iter.next());
+            }
+        }
+    }
+
+    /**
+     * Add the objects that still reference a removed object
+     */
+    private void addReferencingObjects(EObject eObject) {
+        if(eObject instanceof IArchimateConcept) {
+            IArchimateConcept concept = (IArchimateConcept)eObject;
+            fChangedObjects.addAll(concept.getSourceRelationships());
+            fChangedObjects.addAll(concept.getTargetRelationships());
+            concept.forEachReferencingDiagramComponent(fChangedObjects::add);
+        }
+        else if(eObject instanceof IDiagramModelArchimateComponent) {
+            IArchimateConcept concept = ((IDiagramModelArchimateComponent)eObject).getArchimateConcept();
+            if(concept != null) {
+                fChangedObjects.add(concept);
+            }
+        }
+    }
+}
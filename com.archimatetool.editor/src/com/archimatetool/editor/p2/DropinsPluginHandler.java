@@ -34,6 +34,7 @@ import com.archimatetool.editor.ArchiPlugin;
 import com.archimatetool.editor.Logger;
 import com.archimatetool.editor.utils.FileUtils;
 import com.archimatetool.editor.utils.PlatformUtils;
+import com.archimatetool.editor.utils.ZipFileCache;
 import com.archimatetool.editor.utils.ZipUtils;
 
 
@@ -286,7 +287,13 @@ public class DropinsPluginHandler {
     }
 
     boolean isPluginZipFile(File file) throws IOException {
-        return ZipUtils.isZipFile(file) && ZipUtils.hasZipEntry(file, MAGIC_ENTRY);
+        try {
+            return ZipUtils.isZipFile(file) && ZipUtils.hasZipEntry(file, MAGIC_ENTRY);
+        }
+        finally {
+            // Don't keep the user's file open
+            ZipFileCache.close(file);
+        }
     }
     
     private File getDropinsFolder() throws IOException {
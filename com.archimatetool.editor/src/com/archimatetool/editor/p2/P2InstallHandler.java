@@ -32,6 +32,7 @@ import org.eclipse.swt.widgets.Shell;
 import com.archimatetool.editor.ArchiPlugin;
 import com.archimatetool.editor.utils.FileUtils;
 import com.archimatetool.editor.utils.PlatformUtils;
+import com.archimatetool.editor.utils.ZipFileCache;
 import com.archimatetool.editor.utils.ZipUtils;
 
 
@@ -166,7 +167,13 @@ public class P2InstallHandler {
     }
     
     private boolean isPluginZipFile(File file) throws IOException {
-        return ZipUtils.isZipFile(file) && ZipUtils.hasZipEntry(file, "artifacts.jar"); //$NON-NLS-1$
+        try {
+            return ZipUtils.isZipFile(file) && ZipUtils.hasZipEntry(file, "artifacts.jar"); //$NON-NLS-1$
+        }
+        finally {
+            // Don't keep the user's file open
+            ZipFileCache.close(file);
+        }
     }
     
     private File getPluginsFolder() throws IOException {
@@ -51,6 +51,9 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
     
     private Button fOpenDiagramsOnLoadButton;
     private Button fBackupOnSaveButton;
+    private Button fUseStreamingLoaderButton;
+    private Button fLoadImagesOnDemandButton;
+    private Button fCheckChangedObjectsOnSaveButton;
     
     private Spinner fMRUSizeSpinner;
     
@@ -110,6 +113,21 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
         fBackupOnSaveButton.setText(Messages.GeneralPreferencePage_5);
         fBackupOnSaveButton.setLayoutData(createHorizontalGridData(2));
         
+        // Streaming model loader
+        fUseStreamingLoaderButton = new Button(fileGroup, SWT.CHECK);
+        fUseStreamingLoaderButton.setText(Messages.GeneralPreferencePage_19);
+        fUseStreamingLoaderButton.setLayoutData(createHorizontalGridData(2));
+        
+        // Load images on demand
+        fLoadImagesOnDemandButton = new Button(fileGroup, SWT.CHECK);
+        fLoadImagesOnDemandButton.setText(Messages.GeneralPreferencePage_20);
+        fLoadImagesOnDemandButton.setLayoutData(createHorizontalGridData(2));
+        
+        // Only check changed objects on save
+        fCheckChangedObjectsOnSaveButton = new Button(fileGroup, SWT.CHECK);
+        fCheckChangedObjectsOnSaveButton.setText(Messages.GeneralPreferencePage_21);
+        fCheckChangedObjectsOnSaveButton.setLayoutData(createHorizontalGridData(2));
+        
         // Size of recently opened file list
         Label label = new Label(fileGroup, SWT.NULL);
         label.setText(Messages.GeneralPreferencePage_2);
@@ -225,6 +243,9 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
         setSpinnerValues();
         fBackupOnSaveButton.setSelection(getPreferenceStore().getBoolean(BACKUP_ON_SAVE));
         fOpenDiagramsOnLoadButton.setSelection(getPreferenceStore().getBoolean(OPEN_DIAGRAMS_ON_LOAD));
+        fUseStreamingLoaderButton.setSelection(getPreferenceStore().getBoolean(USE_STREAMING_MODEL_LOADER));
+        fLoadImagesOnDemandButton.setSelection(getPreferenceStore().getBoolean(LOAD_IMAGES_ON_DEMAND));
+        fCheckChangedObjectsOnSaveButton.setSelection(getPreferenceStore().getBoolean(CHECK_CHANGED_OBJECTS_ON_SAVE));
         
         fShowStatusLineButton.setSelection(getPreferenceStore().getBoolean(SHOW_STATUS_LINE));
         
@@ -271,6 +292,9 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
     public boolean performOk() {
         getPreferenceStore().setValue(BACKUP_ON_SAVE, fBackupOnSaveButton.getSelection());
         getPreferenceStore().setValue(OPEN_DIAGRAMS_ON_LOAD, fOpenDiagramsOnLoadButton.getSelection());
+        getPreferenceStore().setValue(USE_STREAMING_MODEL_LOADER, fUseStreamingLoaderButton.getSelection());
+        getPreferenceStore().setValue(LOAD_IMAGES_ON_DEMAND, fLoadImagesOnDemandButton.getSelection());
+        getPreferenceStore().setValue(CHECK_CHANGED_OBJECTS_ON_SAVE, fCheckChangedObjectsOnSaveButton.getSelection());
         getPreferenceStore().setValue(MRU_MAX, fMRUSizeSpinner.getSelection());
         
         getPreferenceStore().setValue(SHOW_STATUS_LINE, fShowStatusLineButton.getSelection());
@@ -294,6 +318,9 @@ implements IWorkbenchPreferencePage, IPreferenceConstants {
     protected void performDefaults() {
         fBackupOnSaveButton.setSelection(getPreferenceStore().getDefaultBoolean(BACKUP_ON_SAVE));
         fOpenDiagramsOnLoadButton.setSelection(getPreferenceStore().getDefaultBoolean(OPEN_DIAGRAMS_ON_LOAD));
+        fUseStreamingLoaderButton.setSelection(getPreferenceStore().getDefaultBoolean(USE_STREAMING_MODEL_LOADER));
+        fLoadImagesOnDemandButton.setSelection(getPreferenceStore().getDefaultBoolean(LOAD_IMAGES_ON_DEMAND));
+        fCheckChangedObjectsOnSaveButton.setSelection(getPreferenceStore().getDefaultBoolean(CHECK_CHANGED_OBJECTS_ON_SAVE));
         fMRUSizeSpinner.setSelection(getPreferenceStore().getDefaultInt(MRU_MAX));
         
         fShowStatusLineButton.setSelection(getPreferenceStore().getDefaultBoolean(SHOW_STATUS_LINE));
@@ -105,6 +105,9 @@ public interface IPreferenceConstants {
     
     String OPEN_DIAGRAMS_ON_LOAD = "openDiagramsOnLoad";
     String BACKUP_ON_SAVE = "backupOnSave";
+    String USE_STREAMING_MODEL_LOADER = "useStreamingModelLoader";
+    String LOAD_IMAGES_ON_DEMAND = "loadImagesOnDemand";
+    String CHECK_CHANGED_OBJECTS_ON_SAVE = "checkChangedObjectsOnSave";
     
     String THEME_AUTO = "themeAuto";
     String SHOW_STATUS_LINE = "showStatusLine";
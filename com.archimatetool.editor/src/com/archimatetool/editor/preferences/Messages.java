@@ -273,8 +273,14 @@ public class Messages extends NLS {
 
     public static String GeneralPreferencePage_18;
 
+    public static String GeneralPreferencePage_19;
+
     public static String GeneralPreferencePage_2;
 
+    public static String GeneralPreferencePage_20;
+
+    public static String GeneralPreferencePage_21;
+
     public static String GeneralPreferencePage_3;
 
     public static String GeneralPreferencePage_4;
@@ -111,6 +111,9 @@ implements IPreferenceConstants {
         
         store.setDefault(OPEN_DIAGRAMS_ON_LOAD, false);
         store.setDefault(BACKUP_ON_SAVE, true);
+        store.setDefault(USE_STREAMING_MODEL_LOADER, false);
+        store.setDefault(LOAD_IMAGES_ON_DEMAND, false);
+        store.setDefault(CHECK_CHANGED_OBJECTS_ON_SAVE, false);
 
         store.setDefault(THEME_AUTO, false);
         store.setDefault(SHOW_STATUS_LINE, true);
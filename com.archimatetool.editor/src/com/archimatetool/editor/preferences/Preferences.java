@@ -44,6 +44,14 @@ public class Preferences implements IPreferenceConstants {
         return STORE.getBoolean(OPEN_DIAGRAMS_ON_LOAD);
     }
     
+    public static boolean useStreamingModelLoader() {
+        return STORE.getBoolean(USE_STREAMING_MODEL_LOADER);
+    }
+    
+    public static boolean loadImagesOnDemand() {
+        return STORE.getBoolean(LOAD_IMAGES_ON_DEMAND);
+    }
+    
     public static boolean useAntiAliasing() {
         return STORE.getBoolean(ANTI_ALIAS);
     }
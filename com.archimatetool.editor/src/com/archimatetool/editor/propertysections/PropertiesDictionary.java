@@ -0,0 +1,290 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.propertysections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+
+import com.archimatetool.editor.utils.StringUtils;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IProperty;
+import com.archimatetool.model.util.IModelContentListener;
+
+
+/**
+ * Dictionary of the Property keys and values used in a model
+ *
+ * Each key has the Properties that use it and a count of each of its values. The dictionary is built once
+ * for a model, kept up to date from model notifications and held as an adapter of the model.
+ * Sorted keys and values are cached until they change.
+ *
+ * @author Phillip Beauvoir
+ */
+class PropertiesDictionary {
+
+    /**
+     * The Properties that use a key and the number of times each value is used
+     */
+    private static class KeyEntry {
+        Set<IProperty> properties = new LinkedHashSet<>();
+        Map<String, Integer> values = new HashMap<>();
+        String[] sortedValues;
+    }
+
+    private static final Comparator<String> IGNORE_CASE = String::compareToIgnoreCase;
+
+    /**
+     * @return The dictionary for model, created on first use
+     */
+    static PropertiesDictionary getInstance(IArchimateModel model) {
+        PropertiesDictionary dictionary = (PropertiesDictionary)model.getAdapter(PropertiesDictionary.class);
+        if(dictionary == null) {
+            dictionary = new PropertiesDictionary(model);
+            model.setAdapter(PropertiesDictionary.class, dictionary);
+        }
+        return dictionary;
+    }
+
+    private Map<String, KeyEntry> fKeys = new HashMap<>();
+
+    /**
+     * The key and value of each Property when it was indexed
+     */
+    private Map<IProperty, String[]> fProperties = new HashMap<>();
+
+    private String[] fSortedKeys;
+
+    private IModelContentListener fModelListener = this::modelChanged;
+
+    PropertiesDictionary(IArchimateModel model) {
+        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
+            EObject eObject = iter.next();
+            if(eObject instanceof IProperty) {
+                addProperty((IProperty)eObject);
+            }
+        }
+
+        model.addModelContentListener(fModelListener);
+    }
+
+    /**
+     * @return All keys that are set (sorted ignoring case)
+     */
+    String[] getSortedKeys() {
+        if(fSortedKeys == null) {
+            List<String> keys = new ArrayList<>();
+            for(String key : fKeys.keySet()) {
+                if(StringUtils.isSetAfterTrim(key)) {
+                    keys.add(key);
+                }
+            }
+            fSortedKeys = keys.toArray(new String[keys.size()]);
+            Arrays.sort(fSortedKeys, IGNORE_CASE);
+        }
+
+        return fSortedKeys.clone();
+    }
+
+    /**
+     * @return All values that are set for key (sorted ignoring case)
+     */
+    String[] getSortedValues(String key) {
+        KeyEntry entry = fKeys.get(key);
+        if(entry == null) {
+            return new String[0];
+        }
+
+        if(entry.sortedValues == null) {
+            List<String> values = new ArrayList<>();
+            for(String value : entry.values.keySet()) {
+                if(StringUtils.isSetAfterTrim(value)) {
+                    values.add(value);
+                }
+            }
+            entry.sortedValues = values.toArray(new String[values.size()]);
+            Arrays.sort(entry.sortedValues, IGNORE_CASE);
+        }
+
+        return entry.sortedValues.clone();
+    }
+
+    /**
+     * @return All keys including blank keys
+     */
+    Collection<String> getKeys() {
+        return Collections.unmodifiableSet(fKeys.keySet());
+    }
+
+    /**
+     * @return The number of Properties that use key
+     */
+    int getUsageCount(String key) {
+        KeyEntry entry = fKeys.get(key);
+        return entry != null ? entry.properties.size() : 0;
+    }
+
+    /**
+     * @return The number of Properties that use key with value
+     */
+    int getUsageCount(String key, String value) {
+        KeyEntry entry = fKeys.get(key);
+        Integer count = entry != null ? entry.values.get(value) : null;
+        return count != null ? count : 0;
+    }
+
+    /**
+     * @return A copy of the Properties that use key. Their owners are their containers.
+     */
+    List<IProperty> getProperties(String key) {
+        KeyEntry entry = fKeys.get(key);
+        return entry != null ? new ArrayList<>(entry.properties) : new ArrayList<>();
+    }
+
+    private void modelChanged(Notification msg) {
+        if(msg.isTouch()) {
+            return;
+        }
+
+        Object feature = msg.getFeature();
+
+        // A Property's key or value changed. It is not indexed yet if its key was null.
+        if(feature == IArchimatePackage.Literals.PROPERTY__KEY || feature == IArchimatePackage.Literals.PROPERTY__VALUE) {
+            IProperty property = (IProperty)msg.getNotifier();
+            removeProperty(property);
+            addProperty(property);
+            return;
+        }
+
+        // Only objects added to or removed from the model's containment tree
+        if(!(feature instanceof EReference) || !((EReference)feature).isContainment()) {
+            return;
+        }
+
+        switch(msg.getEventType()) {
+            case Notification.ADD:
+                addObject(msg.getNewValue());
+                break;
+
+            case Notification.ADD_MANY:
+                for(Object o : (Collection<?>)msg.getNewValue()) {
+                    addObject(o);
+                }
+                break;
+
+            case Notification.REMOVE:
+                removeObject(msg.getOldValue());
+                break;
+
+            case Notification.REMOVE_MANY:
+                for(Object o : (Collection<?>)msg.getOldValue()) {
+                    removeObject(o);
+                }
+                break;
+
+            case Notification.SET:
+                removeObject(msg.getOldValue());
+                addObject(msg.getNewValue());
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private void addObject(Object object) {
+        if(object instanceof IProperty) {
+            addProperty((IProperty)object);
+        }
+        else if(object instanceof EObject) {
+            for(Iterator<EObject> iter = ((EObject)object).eAllContents(); iter.hasNext();) {
+                EObject eObject = iter.next();
+                if(eObject instanceof IProperty) {
+                    addProperty((IProperty)eObject);
+                }
+            }
+        }
+    }
+
+    private void removeObject(Object object) {
+        if(object instanceof IProperty) {
+            removeProperty((IProperty)object);
+        }
+        else if(object instanceof EObject) {
+            for(Iterator<EObject> iter = ((EObject)object).eAllContents(); iter.hasNext();) {
+                EObject eObject = iter.next();
+                if(eObject instanceof IProperty) {
+                    removeProperty((IProperty)eObject);
+                }
+            }
+        }
+    }
+
+    private void addProperty(IProperty property) {
+        String key = property.getKey();
+        if(key == null || fProperties.containsKey(property)) {
+            return;
+        }
+
+        String value = property.getValue();
+        fProperties.put(property, new String[] { key, value });
+
+        KeyEntry entry = fKeys.get(key);
+        if(entry == null) {
+            entry = new KeyEntry();
+            fKeys.put(key, entry);
+            fSortedKeys = null;
+        }
+
+        entry.properties.add(property);
+
+        if(value != null && entry.values.merge(value, 1, Integer::sum) == 1) {
+            entry.sortedValues = null;
+        }
+    }
+
+    private void removeProperty(IProperty property) {
+        String[] indexed = fProperties.remove(property);
+        if(indexed == null) {
+            return;
+        }
+
+        String key = indexed[0];
+        String value = indexed[1];
+
+        KeyEntry entry = fKeys.get(key);
+        entry.properties.remove(property);
+
+        if(value != null) {
+            int count = entry.values.get(value) - 1;
+            if(count == 0) {
+                entry.values.remove(value);
+                entry.sortedValues = null;
+            }
+            else {
+                entry.values.put(value, count);
+            }
+        }
+
+        if(entry.properties.isEmpty()) {
+            fKeys.remove(key);
+            fSortedKeys = null;
+        }
+    }
+}
@@ -6,12 +6,10 @@
 package com.archimatetool.editor.propertysections;
 
 import java.util.Hashtable;
-import java.util.Iterator;
 import java.util.Map.Entry;
 
 import org.eclipse.draw2d.ColorConstants;
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.ecore.EObject;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CommandStack;
 import org.eclipse.gef.commands.CompoundCommand;
@@ -89,6 +87,8 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
     private TableViewer fTableViewer;
 
     private IArchimateModel fArchimateModel;
+    
+    private PropertiesDictionary fDictionary;
 
     private Hashtable<String, KeyEntry> fKeysTable = new Hashtable<String, KeyEntry>();
 
@@ -101,6 +101,7 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
         setShellStyle(getShellStyle() | SWT.RESIZE);
 
         fArchimateModel = model;
+        fDictionary = PropertiesDictionary.getInstance(model);
 
         getAllUniquePropertyKeysForModel();
     }
@@ -324,19 +325,10 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
     }
 
     private void getAllUniquePropertyKeysForModel() {
-        for(Iterator<EObject> iter = fArchimateModel.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty) {
-                String key = ((IProperty)element).getKey();
-                if(key != null) {
-                    if(fKeysTable.containsKey(key)) {
-                        fKeysTable.get(key).usedTimes++;
-                    }
-                    else {
-                        fKeysTable.put(key, new KeyEntry(key));
-                    }
-                }
-            }
+        for(String key : fDictionary.getKeys()) {
+            KeyEntry entry = new KeyEntry(key);
+            entry.usedTimes = fDictionary.getUsageCount(key);
+            fKeysTable.put(key, entry);
         }
     }
 
@@ -399,12 +391,9 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
      * Check for deletions
      */
     private void checkDeletions(CompoundCommand compoundCmd) {
-        for(Iterator<EObject> iter = fArchimateModel.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty) {
-                IProperty property = (IProperty)element;
-                String key = property.getKey();
-                if(key != null && !fKeysTable.containsKey(key)) {
+        for(String key : fDictionary.getKeys()) {
+            if(!fKeysTable.containsKey(key)) {
+                for(IProperty property : fDictionary.getProperties(key)) {
                     Command cmd = new DeletePropertyKeyCommand(((IProperties)property.eContainer()).getProperties(), property);
                     compoundCmd.add(cmd);
                 }
@@ -429,15 +418,9 @@ public class UserPropertiesManagerDialog extends ExtendedTitleAreaDialog {
      * Change all instances of key to new name
      */
     private void addKeyNameChangeCommands(CompoundCommand compoundCmd, String oldName, String newName) {
-        for(Iterator<EObject> iter = fArchimateModel.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty) {
-                String key = ((IProperty)element).getKey();
-                if(key != null && key.equals(oldName)) {
-                    Command cmd = new RenamePropertyKeyCommand((IProperty)element, oldName, newName);
-                    compoundCmd.add(cmd);
-                }
-            }
+        for(IProperty property : fDictionary.getProperties(oldName)) {
+            Command cmd = new RenamePropertyKeyCommand(property, oldName, newName);
+            compoundCmd.add(cmd);
         }
     }
 
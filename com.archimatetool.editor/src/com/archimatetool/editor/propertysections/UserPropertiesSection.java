@@ -7,12 +7,8 @@ package com.archimatetool.editor.propertysections;
 
 import java.net.MalformedURLException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
 import java.util.regex.Matcher;
 
 import org.eclipse.draw2d.ColorConstants;
@@ -20,7 +16,6 @@ import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.ECollections;
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.ecore.EObject;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CompoundCommand;
 import org.eclipse.jface.action.Action;
@@ -499,61 +494,14 @@ public class UserPropertiesSection extends AbstractECorePropertySection {
      * @return All unique Property Keys for an entire model (sorted)
      */
     private String[] getAllUniquePropertyKeysForModel() {
-        IArchimateModel model = getArchimateModel();
-
-        Set<String> set = new HashSet<String>();
-
-        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty) {
-                String key = ((IProperty)element).getKey();
-                if(StringUtils.isSetAfterTrim(key)) {
-                    set.add(key);
-                }
-            }
-        }
-
-        String[] items = set.toArray(new String[set.size()]);
-        Arrays.sort(items, new Comparator<String>() {
-            @Override
-            public int compare(String s1, String s2) {
-                return s1.compareToIgnoreCase(s2);
-            }
-        });
-
-        return items;
+        return PropertiesDictionary.getInstance(getArchimateModel()).getSortedKeys();
     }
     
     /**
      * @return All unique Property Values for an entire model (sorted)
      */
     private String[] getAllUniquePropertyValuesForKeyForModel(String key) {
-        IArchimateModel model = getArchimateModel();
-
-        Set<String> set = new HashSet<String>();
-
-        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IProperty) {
-                IProperty p = (IProperty)element;
-                if(p.getKey().equals(key)) {
-                    String value = p.getValue();
-                    if(StringUtils.isSetAfterTrim(value)) {
-                        set.add(value);
-                    }
-                }
-            }
-        }
-
-        String[] items = set.toArray(new String[set.size()]);
-        Arrays.sort(items, new Comparator<String>() {
-            @Override
-            public int compare(String s1, String s2) {
-                return s1.compareToIgnoreCase(s2);
-            }
-        });
-
-        return items;
+        return PropertiesDictionary.getInstance(getArchimateModel()).getSortedValues(key);
     }
 
 
@@ -5,7 +5,7 @@
  */
 package com.archimatetool.editor.ui.findreplace;
 
-import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import com.archimatetool.editor.utils.StringUtils;
 
@@ -19,14 +19,16 @@ public abstract class AbstractFindReplaceProvider implements IFindReplaceProvide
 
     private int parameter = 0;
     
+    private FindReplaceMatcher matcher;
+    
     @Override
     public boolean canFind(String toFind) {
-        return StringUtils.isSet(toFind);
+        return StringUtils.isSet(toFind) && getMatcher(toFind) != null;
     }
     
     @Override
     public boolean canFindAll(String toFind) {
-        return StringUtils.isSet(toFind);
+        return canFind(toFind);
     }
     
     @Override
@@ -92,43 +94,51 @@ public abstract class AbstractFindReplaceProvider implements IFindReplaceProvide
         return (getParameter() & PARAM_INCLUDE_RELATIONS) != 0;
     }
 
-    /**
-     * @param oldString The old string
-     * @param toFind The string to find in the old string
-     * @param toReplaceWith The string to replace with
-     * @return A new string based on the old string, replacing the part toFind with toReplaceWith
-     */
-    protected String getReplacedString(String oldString, String toFind, String toReplaceWith) {
-        toFind = Pattern.quote(toFind);
-
-        if(!isCaseSensitive()) {
-            toFind = "(?i:" + toFind + ")"; //$NON-NLS-1$ //$NON-NLS-2$
-        }
-        
-        return oldString.replaceAll(toFind, toReplaceWith);
+    public boolean isRegex() {
+        return (getParameter() & PARAM_REGEX) != 0;
     }
     
     /**
-     * @param searchString The string to search on
-     * @return The regex pattern to search on given the set search parameters
+     * @param toFind The string to find
+     * @return The matcher for toFind and the set search parameters, or null if toFind is not a valid regular expression.
+     *         The last matcher is kept so that a pattern is compiled once for all objects in a Find or Replace operation.
      */
-    protected String getSearchStringPattern(String searchString) {
-        searchString = Pattern.quote(searchString);
-        
-        // Match whole word
-        if(isWholeWord()) {
-            searchString = "\\b" + searchString + "\\b"; //$NON-NLS-1$ //$NON-NLS-2$
+    protected FindReplaceMatcher getMatcher(String toFind) {
+        if(toFind == null) {
+            return null;
         }
         
-        // (?s) = Ignore line-breaks, .* = contain string
-        searchString = "(?s).*" + searchString + ".*"; //$NON-NLS-1$ //$NON-NLS-2$
-        
-        // Ignore case
-        if(!isCaseSensitive()) {
-            searchString = "(?i:" + searchString + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+        if(matcher == null || !matcher.isFor(toFind, getParameter())) {
+            try {
+                matcher = new FindReplaceMatcher(toFind, getParameter());
+            }
+            catch(PatternSyntaxException ex) {
+                matcher = null;
+            }
         }
         
-        return searchString;
+        return matcher;
+    }
+    
+    /**
+     * @param text The text to search
+     * @param toFind The string to find
+     * @return True if toFind is found in text given the set search parameters
+     */
+    protected boolean isMatch(String text, String toFind) {
+        FindReplaceMatcher matcher = getMatcher(toFind);
+        return matcher != null && matcher.matches(text);
+    }
+
+    /**
+     * @param oldString The old string
+     * @param toFind The string to find in the old string
+     * @param toReplaceWith The string to replace with
+     * @return A new string based on the old string, replacing the part toFind with toReplaceWith
+     */
+    protected String getReplacedString(String oldString, String toFind, String toReplaceWith) {
+        FindReplaceMatcher matcher = getMatcher(toFind);
+        return matcher != null ? matcher.replace(oldString, toReplaceWith) : oldString;
     }
     
 }
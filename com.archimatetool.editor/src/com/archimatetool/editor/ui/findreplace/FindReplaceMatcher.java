@@ -0,0 +1,85 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.ui.findreplace;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+
+/**
+ * Find/Replace Matcher
+ *
+ * The string to find is compiled once into a Pattern and a Matcher is reset for each string that is searched
+ * so that a Find or Replace operation over many objects doesn't compile a regex for each object.
+ *
+ * @author Phillip Beauvoir
+ */
+public class FindReplaceMatcher {
+
+    private String fToFind;
+    private int fParameter;
+    private boolean fRegex;
+    private Matcher fMatcher;
+
+    /**
+     * @param toFind The string to find
+     * @param parameter The Find/Replace parameters. PARAM_CASE_SENSITIVE, PARAM_WHOLE_WORD and PARAM_REGEX are used.
+     * @throws PatternSyntaxException if PARAM_REGEX is set and toFind is not a valid regular expression
+     */
+    public FindReplaceMatcher(String toFind, int parameter) throws PatternSyntaxException {
+        fToFind = toFind;
+        fParameter = parameter & (IFindReplaceProvider.PARAM_CASE_SENSITIVE | IFindReplaceProvider.PARAM_WHOLE_WORD
+                | IFindReplaceProvider.PARAM_REGEX);
+        fRegex = (parameter & IFindReplaceProvider.PARAM_REGEX) != 0;
+
+        String regex = fRegex ? "(?:" + toFind + ")" : Pattern.quote(toFind); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // Match whole word
+        if((parameter & IFindReplaceProvider.PARAM_WHOLE_WORD) != 0) {
+            regex = "\\b" + regex + "\\b"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        // Ignore case
+        int flags = (parameter & IFindReplaceProvider.PARAM_CASE_SENSITIVE) != 0 ? 0 : Pattern.CASE_INSENSITIVE;
+
+        fMatcher = Pattern.compile(regex, flags).matcher(""); //$NON-NLS-1$
+    }
+
+    /**
+     * @return True if this matcher was created for toFind and the same case sensitive, whole word and regex parameters
+     */
+    public boolean isFor(String toFind, int parameter) {
+        return fToFind.equals(toFind) && fParameter == (parameter & (IFindReplaceProvider.PARAM_CASE_SENSITIVE
+                | IFindReplaceProvider.PARAM_WHOLE_WORD | IFindReplaceProvider.PARAM_REGEX));
+    }
+
+    /**
+     * @param text The text to search
+     * @return True if the string to find is found in text
+     */
+    public boolean matches(String text) {
+        return text != null && fMatcher.reset(text).find();
+    }
+
+    /**
+     * @param text The text to search
+     * @param toReplaceWith The replacement. If this is a regular expression matcher "$n" refers to a matched group.
+     * @return text with all instances of the string to find replaced, or text if the replacement is not valid
+     */
+    public String replace(String text, String toReplaceWith) {
+        if(text == null) {
+            return null;
+        }
+
+        try {
+            return fMatcher.reset(text).replaceAll(fRegex ? toReplaceWith : Matcher.quoteReplacement(toReplaceWith));
+        }
+        catch(IllegalArgumentException | IndexOutOfBoundsException ex) { // Bad group reference in replacement
+            return text;
+        }
+    }
+}
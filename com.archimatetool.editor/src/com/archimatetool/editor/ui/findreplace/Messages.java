@@ -28,6 +28,8 @@ public class Messages extends NLS {
 
     public static String FindReplaceDialog_18;
 
+    public static String FindReplaceDialog_19;
+
     public static String FindReplaceDialog_2;
 
     public static String FindReplaceDialog_3;
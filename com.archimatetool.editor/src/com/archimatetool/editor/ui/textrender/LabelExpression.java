@@ -0,0 +1,215 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.ui.textrender;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimateModelObject;
+import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelArchimateComponent;
+import com.archimatetool.model.IDiagramModelComponent;
+import com.archimatetool.model.IDocumentable;
+import com.archimatetool.model.IInfluenceRelationship;
+import com.archimatetool.model.IProperties;
+import com.archimatetool.model.IProperty;
+import com.archimatetool.model.ITextContent;
+
+/**
+ * A label expression that has been parsed once so that it can be rendered again without parsing it
+ *
+ * The expression is scanned for the values that it reads from the rendered object. A rendered result can be
+ * re-used for as long as those values have not changed, which is checked by comparing them with a snapshot
+ * taken when the result was rendered. Model objects in a snapshot are only weakly referenced so that a
+ * snapshot doesn't keep its rendered object or model from being garbage collected.
+ *
+ * @author Phillip Beauvoir
+ */
+@SuppressWarnings("nls")
+class LabelExpression {
+
+    private static final int NAME = 1;
+    private static final int DOCUMENTATION = 1 << 1;
+    private static final int PROPERTIES = 1 << 2;
+    private static final int CONTENT = 1 << 3;
+    private static final int STRENGTH = 1 << 4;
+    private static final int VIEWPOINT = 1 << 5;
+
+    private String text;
+    private boolean isLiteral;
+    private boolean isMemoizable;
+    private int dependencies;
+
+    /**
+     * @param expression The expression with escaped newline chars already removed
+     */
+    LabelExpression(String expression) {
+        text = expression;
+
+        // All expressions start with "$"
+        isLiteral = expression.indexOf('$') == -1;
+
+        // Only the rendered object and its concept are read if there are no prefixed expressions such as "$model{name}"
+        isMemoizable = true;
+        for(int i = expression.indexOf('$'); i != -1; i = expression.indexOf('$', i + 1)) {
+            if(i == expression.length() - 1 || expression.charAt(i + 1) != '{') {
+                isMemoizable = false;
+                break;
+            }
+        }
+
+        if(expression.contains("{name}")) {
+            dependencies |= NAME;
+        }
+        if(expression.contains("{doc")) {
+            dependencies |= DOCUMENTATION;
+        }
+        if(expression.contains("{propert")) {
+            dependencies |= PROPERTIES;
+        }
+        if(expression.contains("{content}")) {
+            dependencies |= CONTENT;
+        }
+        if(expression.contains("{strength}")) {
+            dependencies |= STRENGTH;
+        }
+        if(expression.contains("{viewpoint}")) {
+            dependencies |= VIEWPOINT;
+        }
+    }
+
+    /**
+     * @return The expression text
+     */
+    String getText() {
+        return text;
+    }
+
+    /**
+     * @return true if the expression has no expressions to render and is rendered as it is
+     */
+    boolean isLiteral() {
+        return isLiteral;
+    }
+
+    /**
+     * @return true if the expression only reads values from the rendered object and its concept so that its result can be re-used
+     */
+    boolean isMemoizable() {
+        return isMemoizable;
+    }
+
+    /**
+     * @return A snapshot of the values that this expression reads from object
+     */
+    Object[] getInputs(IArchimateModelObject object) {
+        Inputs inputs = new Inputs(null);
+        visitInputs(object, inputs);
+        return inputs.values.toArray();
+    }
+
+    /**
+     * @return true if the values that this expression reads from object are the same as in the snapshot
+     */
+    boolean isSameInputs(IArchimateModelObject object, Object[] snapshot) {
+        Inputs inputs = new Inputs(snapshot);
+        return visitInputs(object, inputs) && inputs.index == snapshot.length;
+    }
+
+    /**
+     * Visit the values that this expression reads from object in a fixed order.
+     * Values are compared by identity as the model's Strings are replaced when they are changed.
+     */
+    private boolean visitInputs(IArchimateModelObject object, Inputs inputs) {
+        IArchimateModelObject actualObject = object instanceof IDiagramModelArchimateComponent ? ((IDiagramModelArchimateComponent)object).getArchimateConcept() : object;
+
+        // The type is read from the actual object's class
+        if(!inputs.visit(actualObject)) {
+            return false;
+        }
+
+        if((dependencies & NAME) != 0 && actualObject != null && !inputs.visit(actualObject.getName())) {
+            return false;
+        }
+
+        if((dependencies & DOCUMENTATION) != 0) {
+            if(actualObject instanceof IDocumentable && !inputs.visit(((IDocumentable)actualObject).getDocumentation())) {
+                return false;
+            }
+            if(actualObject instanceof IArchimateModel && !inputs.visit(((IArchimateModel)actualObject).getPurpose())) {
+                return false;
+            }
+        }
+
+        if((dependencies & PROPERTIES) != 0 && actualObject instanceof IProperties) {
+            for(IProperty property : ((IProperties)actualObject).getProperties()) {
+                if(!inputs.visit(property) || !inputs.visit(property.getKey()) || !inputs.visit(property.getValue())) {
+                    return false;
+                }
+            }
+        }
+
+        if((dependencies & CONTENT) != 0 && actualObject instanceof ITextContent && !inputs.visit(((ITextContent)actualObject).getContent())) {
+            return false;
+        }
+
+        if((dependencies & STRENGTH) != 0 && actualObject instanceof IInfluenceRelationship && !inputs.visit(((IInfluenceRelationship)actualObject).getStrength())) {
+            return false;
+        }
+
+        if((dependencies & VIEWPOINT) != 0 && object instanceof IDiagramModelComponent) {
+            IDiagramModel dm = ((IDiagramModelComponent)object).getDiagramModel();
+            if(!inputs.visit(dm)) {
+                return false;
+            }
+            if(dm instanceof IArchimateDiagramModel && !inputs.visit(((IArchimateDiagramModel)dm).getViewpoint())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Either collects the visited values or compares them in turn with a snapshot
+     */
+    private static class Inputs {
+        Object[] snapshot;
+        List<Object> values;
+        int index;
+
+        Inputs(Object[] snapshot) {
+            this.snapshot = snapshot;
+            if(snapshot == null) {
+                values = new ArrayList<>();
+            }
+        }
+
+        boolean visit(Object value) {
+            if(snapshot == null) {
+                values.add(value instanceof EObject ? new WeakReference<>(value) : value);
+                return true;
+            }
+
+            if(index == snapshot.length) {
+                return false;
+            }
+
+            Object snapshotValue = snapshot[index++];
+            if(snapshotValue instanceof WeakReference) {
+                snapshotValue = ((WeakReference<?>)snapshotValue).get();
+                return snapshotValue != null && snapshotValue == value;
+            }
+
+            return snapshotValue == value;
+        }
+    }
+}
@@ -5,9 +5,13 @@
  */
 package com.archimatetool.editor.ui.textrender;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import com.archimatetool.editor.utils.StringUtils;
 import com.archimatetool.model.IArchimateModelObject;
@@ -30,6 +34,38 @@ public class TextRenderer {
 
     private Set<ITextRenderer> renderers = new LinkedHashSet<>();
     
+    /**
+     * Maximum number of parsed expressions that are cached
+     */
+    private static final int MAX_EXPRESSIONS = 256;
+    
+    /**
+     * Parsed expressions keyed by expression string, least recently used first
+     */
+    private Map<String, LabelExpression> expressions = Collections.synchronizedMap(new LinkedHashMap<String, LabelExpression>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LabelExpression> eldest) {
+            return size() > MAX_EXPRESSIONS;
+        }
+    });
+    
+    /**
+     * The last rendered result of an object
+     */
+    private static class RenderedResult {
+        LabelExpression expression;
+        Object[] inputs;
+        String text;
+    }
+    
+    private Map<IArchimateModelObject, RenderedResult> results = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    /**
+     * If renderers other than the internal renderers are registered then results can't be re-used
+     * as we don't know what they depend on
+     */
+    private volatile boolean hasExternalRenderers;
+    
     private static TextRenderer defaultTextRenderer = new TextRenderer();
     
     public static TextRenderer getDefault() {
@@ -49,6 +85,8 @@ public class TextRenderer {
         registerRenderer(new ViewpointRenderer());
         
         registerRenderer(new WordWrapRenderer());
+        
+        hasExternalRenderers = false;
     }
     
     /**
@@ -73,9 +111,52 @@ public class TextRenderer {
             return "";
         }
         
-        // Remove escapement of newline chars
-        String result = renderNewLines(formatExpression);
+        LabelExpression expression = getExpression(formatExpression);
+        
+        if(hasExternalRenderers) {
+            return render(object, expression.getText(), null);
+        }
+        
+        // Nothing to render
+        if(expression.isLiteral()) {
+            return expression.getText();
+        }
+        
+        if(!expression.isMemoizable()) {
+            return render(object, expression.getText(), null);
+        }
         
+        // Re-use the last result if the expression is the same and the values it reads have not changed
+        RenderedResult cached = results.get(object);
+        if(cached != null && cached.expression == expression && expression.isSameInputs(object, cached.inputs)) {
+            return cached.text;
+        }
+        
+        Object[] inputs = expression.getInputs(object);
+        
+        int[] passes = new int[1];
+        String result = render(object, expression.getText(), passes);
+        
+        // If the rendered values contained expressions then the result depends on more than the expression so don't keep it
+        if(passes[0] <= 2) {
+            RenderedResult renderedResult = new RenderedResult();
+            renderedResult.expression = expression;
+            renderedResult.inputs = inputs;
+            renderedResult.text = result;
+            results.put(object, renderedResult);
+        }
+        else {
+            results.remove(object);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Render text until the result no longer changes
+     * @param passes If not null the number of different results is set in passes[0]
+     */
+    private String render(IArchimateModelObject object, String result, int[] passes) {
         // Keep a list of results to check for circular recursion
         Set<String> resultSet = new HashSet<String>();
         
@@ -85,8 +166,11 @@ public class TextRenderer {
             // Add to result set
             resultSet.add(result);
             
-            // Check for max recursion
+            // Check for max recursion (and don't let the error be re-used as a result)
             if(resultSet.size() == MAX_RECURSION) {
+                if(passes != null) {
+                    passes[0] = resultSet.size();
+                }
                 return "*** Recursion Error in Label Expression ***";
             }
 
@@ -96,6 +180,10 @@ public class TextRenderer {
             }
             
         } while((!resultSet.contains(result)));
+        
+        if(passes != null) {
+            passes[0] = resultSet.size();
+        }
 
         return result;
     }
@@ -141,6 +229,8 @@ public class TextRenderer {
      */
     public void registerRenderer(ITextRenderer renderer) {
         renderers.add(renderer);
+        hasExternalRenderers = true;
+        results.clear();
     }
     
     /**
@@ -155,6 +245,21 @@ public class TextRenderer {
                 || object instanceof IFolder;
     }
     
+    /**
+     * @return The parsed expression for an expression string
+     */
+    private LabelExpression getExpression(String formatExpression) {
+        LabelExpression expression = expressions.get(formatExpression);
+        
+        if(expression == null) {
+            // Remove escapement of newline chars
+            expression = new LabelExpression(renderNewLines(formatExpression));
+            expressions.put(formatExpression, expression);
+        }
+        
+        return expression;
+    }
+    
     /**
      * Remove escapement of newline chars
      */
@@ -0,0 +1,66 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+
+
+/**
+ * SHA-256 Digest Utilities
+ *
+ * @author Phillip Beauvoir
+ */
+public final class DigestUtils {
+
+    private static final String SHA_256 = "SHA-256"; //$NON-NLS-1$
+
+    /**
+     * @return A new SHA-256 MessageDigest
+     */
+    public static MessageDigest createSHA256Digest() {
+        try {
+            return MessageDigest.getInstance(SHA_256);
+        }
+        catch(NoSuchAlgorithmException ex) {
+            // All Java platforms are required to support SHA-256
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * @return The SHA-256 digest of bytes as a lower case hex string
+     */
+    public static String sha256Hex(byte[] bytes) {
+        return toHexString(createSHA256Digest().digest(bytes));
+    }
+
+    /**
+     * @return The SHA-256 digest of the content of a file as a lower case hex string
+     */
+    public static String sha256Hex(File file) throws IOException {
+        return sha256Hex(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * @return bytes as a lower case hex string
+     */
+    public static String toHexString(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for(byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private DigestUtils() {
+    }
+}
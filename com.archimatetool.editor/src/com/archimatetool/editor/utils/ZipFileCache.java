@@ -0,0 +1,288 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.utils;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Cache of open Zip files
+ *
+ * A ZipFile reads the zip file's central directory when it is opened and can then read any entry directly
+ * without reading the file from the start. The most recently used zip files are kept open so that reading
+ * several entries from the same file does not open it and read its central directory each time.
+ * A cached zip file is opened again if the file has been modified since it was opened.
+ *
+ * An open zip file can't be replaced or deleted on some platforms so call close(File) before writing,
+ * moving or deleting a file that might have been read.
+ *
+ * A stream returned by getInputStream() keeps its zip file open until the stream is closed or has been read to the end.
+ * A stream that is neither closed nor read to the end keeps the zip file open, even after close(File) or closeAll(),
+ * so streams must always be closed.
+ *
+ * @author Phillip Beauvoir
+ */
+public final class ZipFileCache {
+
+    /**
+     * Maximum number of zip files kept open
+     */
+    public static final int MAX_OPEN_FILES = 8;
+
+    /**
+     * Reads a Zip File
+     */
+    @FunctionalInterface
+    public interface ZipFileReader<T> {
+        T read(ZipFile zipFile) throws IOException;
+    }
+
+    /**
+     * An open zip file and the number of readers using it
+     */
+    static class CachedZipFile {
+        private ZipFile zipFile;
+        private long lastModified;
+        private long length;
+        private int users;
+        private boolean closed;
+
+        ZipFile getZipFile() {
+            return zipFile;
+        }
+    }
+
+    private static final Map<File, CachedZipFile> cache = new LinkedHashMap<File, CachedZipFile>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, CachedZipFile> eldest) {
+            if(size() > MAX_OPEN_FILES) {
+                close(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Read a zip file
+     * @param file The zip file
+     * @param reader Reads the open ZipFile. The ZipFile must not be closed or used after this returns.
+     * @return The result of reader
+     * @throws IOException
+     */
+    public static <T> T read(File file, ZipFileReader<T> reader) throws IOException {
+        CachedZipFile cachedZipFile = acquire(file);
+        try {
+            return reader.read(cachedZipFile.getZipFile());
+        }
+        finally {
+            release(cachedZipFile);
+        }
+    }
+
+    /**
+     * Read a zip file whose entry names are encoded with charset.
+     * Cached zip files have UTF-8 entry names so if charset is another charset the zip file is opened for this read only.
+     * @param file The zip file
+     * @param charset The charset of the entry names. If null UTF-8 is used.
+     * @param reader Reads the open ZipFile. The ZipFile must not be closed or used after this returns.
+     * @return The result of reader
+     * @throws IOException
+     */
+    public static <T> T read(File file, Charset charset, ZipFileReader<T> reader) throws IOException {
+        if(charset == null || StandardCharsets.UTF_8.equals(charset)) {
+            return read(file, reader);
+        }
+
+        try(ZipFile zipFile = new ZipFile(file, charset)) {
+            return reader.read(zipFile);
+        }
+    }
+
+    /**
+     * @param file The zip file
+     * @param entryName The entry name
+     * @return An input stream for the entry or null if there is no entry.
+     *         The stream must be closed. Until it is closed or read to the end the zip file is kept open.
+     * @throws IOException
+     */
+    public static InputStream getInputStream(File file, String entryName) throws IOException {
+        CachedZipFile cachedZipFile = acquire(file);
+        ZipEntry zipEntry = cachedZipFile.getZipFile().getEntry(entryName);
+        return zipEntry != null ? getInputStream(cachedZipFile, zipEntry) : releaseAndReturnNull(cachedZipFile);
+    }
+
+    /**
+     * Close a zip file if it is open so that it can be written, moved or deleted.
+     * It is closed when the last reader using it has finished.
+     * @param file The zip file
+     */
+    public static synchronized void close(File file) {
+        CachedZipFile cachedZipFile = cache.remove(file.getAbsoluteFile());
+        if(cachedZipFile != null) {
+            close(cachedZipFile);
+        }
+    }
+
+    /**
+     * Close all open zip files
+     */
+    public static synchronized void closeAll() {
+        for(CachedZipFile cachedZipFile : new ArrayList<>(cache.values())) {
+            close(cachedZipFile);
+        }
+        cache.clear();
+    }
+
+    /**
+     * @return The number of open zip files
+     */
+    static synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Get an open zip file and register a user of it. release() must be called when done.
+     */
+    static synchronized CachedZipFile acquire(File file) throws IOException {
+        file = file.getAbsoluteFile();
+
+        CachedZipFile cachedZipFile = cache.get(file);
+
+        // Modified since it was opened
+        if(cachedZipFile != null && (cachedZipFile.lastModified != file.lastModified() || cachedZipFile.length != file.length())) {
+            cache.remove(file);
+            close(cachedZipFile);
+            cachedZipFile = null;
+        }
+
+        if(cachedZipFile == null) {
+            cachedZipFile = new CachedZipFile();
+            cachedZipFile.lastModified = file.lastModified();
+            cachedZipFile.length = file.length();
+            cachedZipFile.zipFile = new ZipFile(file);
+            cache.put(file, cachedZipFile);
+        }
+
+        cachedZipFile.users++;
+
+        return cachedZipFile;
+    }
+
+    /**
+     * Unregister a user of a zip file. If the zip file was removed from the cache it is closed when it has no more users.
+     */
+    static synchronized void release(CachedZipFile cachedZipFile) {
+        cachedZipFile.users--;
+        if(cachedZipFile.closed) {
+            closeIfUnused(cachedZipFile);
+        }
+    }
+
+    /**
+     * @return An input stream for an entry of an acquired zip file that releases the zip file when it is closed or read to the end
+     */
+    static InputStream getInputStream(CachedZipFile cachedZipFile, ZipEntry zipEntry) throws IOException {
+        InputStream in;
+        try {
+            in = cachedZipFile.getZipFile().getInputStream(zipEntry);
+        }
+        catch(IOException ex) {
+            release(cachedZipFile);
+            throw ex;
+        }
+
+        return new FilterInputStream(in) {
+            private boolean released;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if(b == -1) {
+                    doRelease();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if(read == -1) {
+                    doRelease();
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                }
+                finally {
+                    doRelease();
+                }
+            }
+
+            private void doRelease() {
+                if(!released) {
+                    released = true;
+                    release(cachedZipFile);
+                }
+            }
+        };
+    }
+
+    static <T> T releaseAndReturnNull(CachedZipFile cachedZipFile) {
+        release(cachedZipFile);
+        return null;
+    }
+
+    private static void close(CachedZipFile cachedZipFile) {
+        cachedZipFile.closed = true;
+        closeIfUnused(cachedZipFile);
+    }
+
+    private static void closeIfUnused(CachedZipFile cachedZipFile) {
+        if(cachedZipFile.users == 0) {
+            try {
+                cachedZipFile.zipFile.close();
+            }
+            catch(IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @return The entry with entryName in zipFile, ignoring case if there is no exact match, or null
+     */
+    static ZipEntry getEntryIgnoreCase(ZipFile zipFile, String entryName) {
+        ZipEntry zipEntry = zipFile.getEntry(entryName);
+
+        if(zipEntry == null) {
+            for(Iterator<? extends ZipEntry> iter = zipFile.stream().iterator(); iter.hasNext();) {
+                ZipEntry entry = iter.next();
+                if(entry.getName().equalsIgnoreCase(entryName)) {
+                    return entry;
+                }
+            }
+        }
+
+        return zipEntry;
+    }
+}
@@ -14,9 +14,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -31,6 +34,8 @@ import com.archimatetool.editor.ui.ImageFactory;
 
 /**
  * Some useful Zip Utilities
+ * 
+ * Entries are read from zip files with random access through the ZipFileCache
  *
  * @author Phillip Beauvoir
  */
@@ -238,34 +243,19 @@ public final class ZipUtils {
         zOut.closeEntry();
     }
 
-	/**
-	 * @param zipFile
-	 * @param entryName
-	 * @return True if the zip file has an entry
-	 * @throws IOException
-	 */
-	public static boolean hasZipEntry(File zipFile, String entryName) throws IOException {
-		ZipEntry zipEntry;
-		ZipInputStream zIn;
-		boolean foundEntry = false;
-		
-		BufferedInputStream in = new BufferedInputStream(new FileInputStream(zipFile));
-		zIn = new ZipInputStream(in);
-		
-		// Get zip entry
-		while((zipEntry = zIn.getNextEntry()) != null) {
-			String zipEntryName = zipEntry.getName();
-			if(zipEntryName.equalsIgnoreCase(entryName)) {
-				foundEntry = true;
-				break;
-			}
-			zIn.closeEntry();
-		}
-		
-		zIn.close();
-		
-		return foundEntry;
-	}
+    /**
+     * @param zipFile
+     * @param entryName
+     * @return True if the zip file has an entry, or false if the file is not a zip file
+     * @throws IOException
+     */
+    public static boolean hasZipEntry(File zipFile, String entryName) throws IOException {
+        if(!isZipFile(zipFile)) {
+            return false;
+        }
+        
+        return ZipFileCache.read(zipFile, zip -> ZipFileCache.getEntryIgnoreCase(zip, entryName) != null);
+    }
 
     /**
      * Extracts a named entry out of the zip file and returns the entry as a String
@@ -279,198 +269,117 @@ public final class ZipUtils {
         return extractZipEntry(zipFile, entryName, (Charset)null);
     }
     
-	/**
-	 * Extracts a named entry out of the zip file and returns the entry as a String
-	 * Returns null if weirdness happens
-	 * @param zipFile
-	 * @param entryName
-	 * @param charset
-	 * @return
-	 * @throws IOException
-	 */
-	public static String extractZipEntry(File zipFile, String entryName, Charset charset) throws IOException {
-		ZipEntry zipEntry;
-		ZipInputStream zIn;
-		
-		BufferedInputStream in = new BufferedInputStream(new FileInputStream(zipFile));
-		if(charset != null) {
-		    zIn = new ZipInputStream(in, charset);
-		}
-		else {
-		    zIn = new ZipInputStream(in);
-		}
-		
-		// Get zip entry
-		while((zipEntry = zIn.getNextEntry()) != null) {
-			String zipEntryName = zipEntry.getName();
-			if(zipEntryName.equalsIgnoreCase(entryName)) {
-				break;
-			}
-			zIn.closeEntry();
-		}
-		
-		// If we didn't get it return
-		if(zipEntry == null) {
-			try{
-				zIn.close();
-			}
-			catch(IOException ex) {}
-			return null;
-		}
-		
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        byte[] buffer = new byte[1024];
-        int read = 0;
-        while((read = zIn.read(buffer, 0, buffer.length)) > 0) {
-            baos.write(buffer, 0, read);
-        }
-        
-        String content;
-        if(charset != null) {
-            content = baos.toString(charset.name());
-        }
-        else {
-            content = baos.toString();
-        }
-        
-        baos.close();
-		zIn.close();
-		
-		return content;
-	}
-	
     /**
+     * Extracts a named entry out of the zip file and returns the entry as a String
+     * Returns null if weirdness happens
      * @param zipFile
      * @param entryName
-     * @return A Zip Entry Stream
+     * @param charset The charset of the entry names and of the entry's content. If null the defaults are used.
+     * @return
      * @throws IOException
      */
-    public static InputStream getZipEntryStream(File zipFile, String entryName) throws IOException {
-        ZipEntry zipEntry;
-        ZipInputStream zIn;
-        
-        BufferedInputStream in = new BufferedInputStream(new FileInputStream(zipFile));
-        zIn = new ZipInputStream(in);
-        
-        // Get zip entry
-        while((zipEntry = zIn.getNextEntry()) != null) {
-            String zipEntryName = zipEntry.getName();
-            if(zipEntryName.equalsIgnoreCase(entryName)) {
-                break;
+    public static String extractZipEntry(File zipFile, String entryName, Charset charset) throws IOException {
+        return ZipFileCache.read(zipFile, charset, zip -> {
+            ZipEntry zipEntry = ZipFileCache.getEntryIgnoreCase(zip, entryName);
+            
+            // If we didn't get it return
+            if(zipEntry == null) {
+                return null;
             }
-            zIn.closeEntry();
-        }
+            
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read = 0;
+            
+            try(InputStream in = zip.getInputStream(zipEntry)) {
+                while((read = in.read(buffer, 0, buffer.length)) > 0) {
+                    baos.write(buffer, 0, read);
+                }
+            }
+            
+            return charset != null ? baos.toString(charset.name()) : baos.toString();
+        });
+    }
+    
+    /**
+     * @param zipFile
+     * @param entryName
+     * @return A Zip Entry Stream which must be closed, or null if there is no entry
+     * @throws IOException
+     */
+    public static InputStream getZipEntryStream(File zipFile, String entryName) throws IOException {
+        ZipFileCache.CachedZipFile cachedZipFile = ZipFileCache.acquire(zipFile);
+        ZipEntry zipEntry = ZipFileCache.getEntryIgnoreCase(cachedZipFile.getZipFile(), entryName);
         
         // If we didn't get it return null
         if(zipEntry == null) {
-            try{
-                zIn.close();
-            }
-            catch(IOException ex) {}
-            return null;
+            return ZipFileCache.releaseAndReturnNull(cachedZipFile);
         }
         
-        return zIn;
+        return ZipFileCache.getInputStream(cachedZipFile, zipEntry);
     }
-	
-	/**
-	 * Extracts a named entry out of the zip file to the specified file
-	 * Returns the File ref if OK or null if weirdness happens
-	 * @param zipFile
-	 * @param entryName
-	 * @param outFile
-	 * @return
-	 * @throws IOException
-	 */
-	public static File extractZipEntry(File zipFile, String entryName, File outFile) throws IOException {
-		ZipInputStream zIn;
-		ZipEntry zipEntry;
-		int bytesRead;
-		final int bufSize = 8192;
-		byte buf[] = new byte[bufSize];
-		
-		// Ensure that the parent Folder exists
-		if(!outFile.getParentFile().exists()) {
-			outFile.getParentFile().mkdirs();
-		}
-		
-		BufferedInputStream in = new BufferedInputStream(new FileInputStream(zipFile), bufSize);
-		zIn = new ZipInputStream(in);
-		
-		// Find the entry
-		while((zipEntry = zIn.getNextEntry()) != null) {
-			String zipEntryName = zipEntry.getName();
-			if(zipEntryName.equalsIgnoreCase(entryName)) {
-				break;
-			}
-			zIn.closeEntry();
-		}
-		
-		// If we didn't get it return
-		if(zipEntry == null) {
-		    zIn.close();
-			return null;
-		} 
-		
-		// Extract it and save to outFile
-		BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(outFile), bufSize);
-		
-		while((bytesRead = zIn.read(buf)) != -1) {
-			out.write(buf, 0, bytesRead);
-		}
-		
-		out.flush();
-		out.close();
-		zIn.close();
-		
-		// Restore time stamp
-		outFile.setLastModified(zipEntry.getTime());
-		
-		return outFile;
-	}
-	
-	/**
-	 * Gets all entry names out of a zip file and returns a list of entry names excluding directories
-	 * @param zipFile
-	 * @return a list of entry names which may be empty if the zip file does not exist
-	 * @throws IOException
-	 */
-	public static List<String> getZipFileEntryNames(File zipFile) throws IOException {
-        List<String> fileList = new ArrayList<String>();
-
-        if(zipFile == null || !zipFile.canRead()) {
-            return fileList;
+    
+    /**
+     * Extracts a named entry out of the zip file to the specified file
+     * Returns the File ref if OK or null if weirdness happens
+     * @param zipFile
+     * @param entryName
+     * @param outFile
+     * @return
+     * @throws IOException
+     */
+    public static File extractZipEntry(File zipFile, String entryName, File outFile) throws IOException {
+        return ZipFileCache.read(zipFile, zip -> {
+            ZipEntry zipEntry = ZipFileCache.getEntryIgnoreCase(zip, entryName);
+            
+            // If we didn't get it return
+            if(zipEntry == null) {
+                return null;
+            }
+            
+            // Ensure that the parent Folder exists
+            if(!outFile.getParentFile().exists()) {
+                outFile.getParentFile().mkdirs();
+            }
+            
+            // Extract it and save to outFile
+            try(InputStream in = zip.getInputStream(zipEntry)) {
+                Files.copy(in, outFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            
+            // Restore time stamp
+            outFile.setLastModified(zipEntry.getTime());
+            
+            return outFile;
+        });
+    }
+    
+    /**
+     * Gets all entry names out of a zip file and returns a list of entry names excluding directories
+     * @param zipFile
+     * @return a list of entry names which may be empty if the zip file does not exist or is not a zip file
+     * @throws IOException
+     */
+    public static List<String> getZipFileEntryNames(File zipFile) throws IOException {
+        if(zipFile == null || !isZipFile(zipFile)) {
+            return new ArrayList<String>();
         }
         
-        ZipInputStream zIn = null;
-		ZipEntry zipEntry;
-		final int bufSize = 1024 * 16;
-		
-		BufferedInputStream in = new BufferedInputStream(new FileInputStream(zipFile), bufSize);
-		zIn = new ZipInputStream(in);
-		
-		try {
-			while((zipEntry = zIn.getNextEntry()) != null) {
-				// Don't add directories
-				if(!zipEntry.isDirectory()) {
-					String zipEntryName = zipEntry.getName();
-					fileList.add(zipEntryName);
-				}
-				zIn.closeEntry();
-			}
-		}
-		// We'll catch this exception to close the file otherwise it will remain locked
-		catch(IOException ex) {
-			zIn.close();
-			throw ex;
-		}
-		finally {
-            zIn.close();
-        }
-		
-		return fileList;
-	}
-	
+        return ZipFileCache.read(zipFile, zip -> {
+            List<String> fileList = new ArrayList<String>();
+            
+            for(Enumeration<? extends ZipEntry> enm = zip.entries(); enm.hasMoreElements();) {
+                ZipEntry zipEntry = enm.nextElement();
+                // Don't add directories
+                if(!zipEntry.isDirectory()) {
+                    fileList.add(zipEntry.getName());
+                }
+            }
+            
+            return fileList;
+        });
+    }
+    
 	/**
 	 * Extracts all entries out of the zip file to the specified folder
 	 * Target folder is created if it doesn't exist
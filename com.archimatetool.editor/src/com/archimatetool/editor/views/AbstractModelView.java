@@ -8,6 +8,7 @@ package com.archimatetool.editor.views;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -345,6 +346,12 @@ implements IContextProvider, PropertyChangeListener, ITabbedPropertySheetPageCon
                 }
             }
         }
+        // Many children added or removed in one operation
+        else if(type == Notification.ADD_MANY || type == Notification.REMOVE_MANY) {
+            if(msg.getNotifier() instanceof EObject) {
+                element = (EObject)msg.getNotifier();
+            }
+        }
         else if(type == Notification.SET) {
             // Need to refresh parent node on name or label expression change because of using a ViewerSorter
             if(msg.getNotifier() instanceof EObject) {
@@ -398,6 +405,17 @@ implements IContextProvider, PropertyChangeListener, ITabbedPropertySheetPageCon
         
         int type = msg.getEventType();
         
+        // Many children added or removed in one operation
+        if(type == Notification.ADD_MANY || type == Notification.REMOVE_MANY) {
+            Object value = type == Notification.ADD_MANY ? msg.getNewValue() : msg.getOldValue();
+            if(value instanceof Collection) {
+                for(Object element : (Collection<?>)value) {
+                    addElementsToUpdate(list, element);
+                }
+            }
+            return list;
+        }
+        
         Object element = null;
         
         if(type == Notification.REMOVE) {
@@ -410,10 +428,19 @@ implements IContextProvider, PropertyChangeListener, ITabbedPropertySheetPageCon
             element = msg.getNotifier();
         }
         
+        addElementsToUpdate(list, element);
+        
+        return list;
+    }
+    
+    /**
+     * Add the tree element nodes that may need updating when an object is added, removed or set
+     */
+    private void addElementsToUpdate(Set<Object> list, Object element) {
         // If it's a diagram object or a diagram dig in and treat it separately
         if(element instanceof IDiagramModelContainer) {
             getDiagramElementsToUpdate(list, (IDiagramModelContainer)element);
-            return list;
+            return;
         }
         
         // If it's a diagram connection get the relationship
@@ -430,8 +457,6 @@ implements IContextProvider, PropertyChangeListener, ITabbedPropertySheetPageCon
                 getRelationshipsToUpdate(list, (IArchimateElement)element);
             }
         }
-        
-        return list;
     }
     
     /**
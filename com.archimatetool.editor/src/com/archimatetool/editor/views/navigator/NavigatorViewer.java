@@ -168,7 +168,18 @@ public class NavigatorViewer extends TreeViewer {
 
         @Override
         public boolean hasChildren(Object element) {
-            return getChildren(element).length > 0;
+            // A relationship always has a source or target child
+            if(element instanceof IArchimateRelationship) {
+                return true;
+            }
+            
+            // Check without creating the children
+            if(element instanceof IArchimateElement) {
+                IArchimateElement archimateElement = (IArchimateElement)element;
+                return fShowTargetElements ? !archimateElement.getSourceRelationships().isEmpty() : !archimateElement.getTargetRelationships().isEmpty();
+            }
+            
+            return false;
         }
         
     }
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.help.HelpSystem;
 import org.eclipse.help.IContext;
 import org.eclipse.jface.action.Action;
@@ -633,6 +634,9 @@ implements ITreeModelView, IUIRequestListener {
         // Remove UI Request Listener
         UIRequestManager.INSTANCE.removeListener(this);
         
+        // Remove Search Filter's model listeners
+        fSearchFilter.dispose();
+        
         // Save Editor Model List
         try {
             IEditorModelManager.INSTANCE.saveState();
@@ -807,6 +811,9 @@ implements ITreeModelView, IUIRequestListener {
             }
         }
         
+        // Refreshing a parent node refreshes all of its child nodes so only refresh the top-most parents
+        refreshElements.removeIf(object -> hasAncestorIn(object, refreshElements));
+        
         try {
             getViewer().getControl().setRedraw(false);
 
@@ -824,6 +831,17 @@ implements ITreeModelView, IUIRequestListener {
         
         checkDrillDown();
     }
+    
+    private boolean hasAncestorIn(Object object, Set<Object> elements) {
+        if(object instanceof EObject) {
+            for(EObject parent = ((EObject)object).eContainer(); parent != null; parent = parent.eContainer()) {
+                if(elements.contains(parent)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
     // =================================================================================
     //                       Contextual Help support
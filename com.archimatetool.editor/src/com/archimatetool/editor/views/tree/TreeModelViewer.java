@@ -5,6 +5,7 @@
  */
 package com.archimatetool.editor.views.tree;
 
+import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -75,6 +76,17 @@ public class TreeModelViewer extends TreeViewer {
     private Font fontItalic = FontFactory.getItalic(getTree().getFont());
     private Font fontBold = FontFactory.getBold(getTree().getFont());;
     
+    /**
+     * Incremented when the tree is refreshed or a model changes so that cached orderings of tree elements can be discarded.
+     * Volatile as model events can be fired on other threads. Only a change of the count matters so a lost increment is OK.
+     */
+    private volatile int fChangeCount;
+    
+    /**
+     * Model Manager Listener
+     */
+    private PropertyChangeListener modelManagerListener = event -> fChangeCount++;
+    
     
     /**
      * Application Preferences Listener
@@ -198,10 +210,14 @@ public class TreeModelViewer extends TreeViewer {
         // Listen to Preferences
         Preferences.STORE.addPropertyChangeListener(prefsListener);
         
+        // Listen to Model changes
+        IEditorModelManager.INSTANCE.addPropertyChangeListener(modelManagerListener);
+        
         getTree().addDisposeListener(new DisposeListener() {
             @Override
             public void widgetDisposed(DisposeEvent e) {
                 Preferences.STORE.removePropertyChangeListener(prefsListener);
+                IEditorModelManager.INSTANCE.removePropertyChangeListener(modelManagerListener);
             }
         });
     }
@@ -279,6 +295,19 @@ public class TreeModelViewer extends TreeViewer {
         return super.getSortedChildren(parentElementOrTreePath);
     }
     
+    @Override
+    protected void internalRefresh(Object element, boolean updateLabels) {
+        fChangeCount++;
+        super.internalRefresh(element, updateLabels);
+    }
+    
+    /**
+     * @return A count that changes when the tree is refreshed or a model changes
+     */
+    int getChangeCount() {
+        return fChangeCount;
+    }
+    
     private void setTreeFonts() {
         UIUtils.setFontFromPreferences(getTree(), IPreferenceConstants.MODEL_TREE_FONT, false);
         fontItalic = FontFactory.getItalic(getTree().getFont());
@@ -6,7 +6,9 @@
 package com.archimatetool.editor.views.tree;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.StructuredSelection;
@@ -39,6 +41,15 @@ public class TreeModelViewerFindReplaceProvider extends AbstractFindReplaceProvi
      */
     boolean replaceSelection = false;
     
+    /**
+     * All elements in the TreeViewer in sorted and filtered order, their index positions, the root element they were collected from
+     * and the viewer's change count when they were collected
+     */
+    private List<INameable> fElements;
+    private Map<Object, Integer> fElementIndexes;
+    private Object fElementsRoot;
+    private int fElementsChangeCount;
+    
     public TreeModelViewerFindReplaceProvider(TreeModelViewer viewer) {
         fTreeModelViewer = viewer;
     }
@@ -140,7 +151,8 @@ public class TreeModelViewerFindReplaceProvider extends AbstractFindReplaceProvi
         
         // Find starting point from startElement, if we have one
         if(startElement != null) {
-            startIndex = elements.indexOf(startElement) + increment;
+            Integer index = fElementIndexes.get(startElement);
+            startIndex = (index != null ? index : -1) + increment;
         }
         
         // Iterate through all elements forwards or backwards until we find the next matching element
@@ -160,43 +172,59 @@ public class TreeModelViewerFindReplaceProvider extends AbstractFindReplaceProvi
      *          If a model is in scope use that as the starting/end point
      */
     List<INameable> getAllMatchingElements(String toFind) {
-        if(isAllModels()) {
-            return getMatchingElements(fTreeModelViewer.getInput(), toFind);
+        List<INameable> elements = getAllNameableElements();
+        
+        if(toFind == null) { // collect all
+            return new ArrayList<INameable>(elements);
         }
-        else {
-            return getMatchingElements(getModelInScope(), toFind);
+        
+        List<INameable> list = new ArrayList<INameable>();
+        
+        for(INameable element : elements) {
+            if(matches(element, toFind)) { // collect on match
+                list.add(element);
+            }
         }
+        
+        return list;
     }
     
     /**
-     * @param element The element to start searching from.
-     * @param toFind The string to find a match on. If this is null, then collect all elements in the tree viewer.
-     * @return A list of all matching elements in the viewer model as sorted and filtered by the TreeViewer model
+     * @return *all* elements in the TreeViewer of type INameable, in sorted and filtered order
+     *          The elements are collected once and then kept until the tree is refreshed, a model changes or the scope changes.
      */
-    private List<INameable> getMatchingElements(Object element, String toFind) {
-        List<INameable> list = new ArrayList<INameable>();
+    private List<INameable> getAllNameableElements() {
+        Object root = isAllModels() ? fTreeModelViewer.getInput() : getModelInScope();
         
-        if(element != null) {
-            if(toFind == null && element instanceof INameable) { // collect all
-                list.add((INameable)element);
-            }
-            else if(matches(element, toFind)) { // collect on match
-                list.add((INameable)element);
-            }
+        if(fElements == null || root != fElementsRoot || fTreeModelViewer.getChangeCount() != fElementsChangeCount) {
+            fElements = new ArrayList<INameable>();
+            collectElements(root, fElements);
             
-            for(Object object : fTreeModelViewer.getSortedChildren(element)) {
-                list.addAll(getMatchingElements(object, toFind));
+            fElementIndexes = new HashMap<Object, Integer>();
+            for(int i = 0; i < fElements.size(); i++) {
+                fElementIndexes.put(fElements.get(i), i);
             }
+            
+            fElementsRoot = root;
+            fElementsChangeCount = fTreeModelViewer.getChangeCount();
         }
         
-        return list;
+        return fElements;
     }
     
     /**
-     * @return *all* elements in the TreeViewer of type INameable, in sorted and filtered order
+     * Collect element and its child elements of type INameable as sorted and filtered by the TreeViewer model
      */
-    private List<INameable> getAllNameableElements() {
-        return getAllMatchingElements(null);
+    private void collectElements(Object element, List<INameable> list) {
+        if(element != null) {
+            if(element instanceof INameable) {
+                list.add((INameable)element);
+            }
+            
+            for(Object object : fTreeModelViewer.getSortedChildren(element)) {
+                collectElements(object, list);
+            }
+        }
     }
     
     /**
@@ -214,8 +242,7 @@ public class TreeModelViewerFindReplaceProvider extends AbstractFindReplaceProvi
         return (object instanceof INameable)
                 && RenameCommandHandler.canRename(object)
                 && StringUtils.isSet(toFind)
-                && ((INameable)object).getName() != null
-                && ((INameable)object).getName().matches(getSearchStringPattern(toFind));
+                && isMatch(((INameable)object).getName(), toFind);
     }
     
     /**
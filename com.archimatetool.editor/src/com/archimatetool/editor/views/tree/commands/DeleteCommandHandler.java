@@ -6,10 +6,9 @@
 package com.archimatetool.editor.views.tree.commands;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -24,22 +23,18 @@ import org.eclipse.swt.widgets.TreeItem;
 
 import com.archimatetool.editor.diagram.commands.DiagramCommandFactory;
 import com.archimatetool.editor.model.DiagramModelUtils;
-import com.archimatetool.editor.model.commands.DeleteArchimateElementCommand;
-import com.archimatetool.editor.model.commands.DeleteArchimateRelationshipCommand;
+import com.archimatetool.editor.model.commands.DeleteArchimateConceptsCommand;
 import com.archimatetool.editor.model.commands.DeleteDiagramModelCommand;
 import com.archimatetool.editor.model.commands.DeleteFolderCommand;
 import com.archimatetool.editor.views.tree.TreeModelViewer;
 import com.archimatetool.model.FolderType;
 import com.archimatetool.model.IAdapter;
 import com.archimatetool.model.IArchimateConcept;
-import com.archimatetool.model.IArchimateElement;
-import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IArchimateModelObject;
 import com.archimatetool.model.IArchimateRelationship;
 import com.archimatetool.model.IDiagramModel;
 import com.archimatetool.model.IDiagramModelConnection;
 import com.archimatetool.model.IDiagramModelObject;
-import com.archimatetool.model.IDiagramModelReference;
 import com.archimatetool.model.IFolder;
 import com.archimatetool.model.IFolderContainer;
 import com.archimatetool.model.util.ArchimateModelUtils;
@@ -77,9 +72,6 @@ public class DeleteCommandHandler {
     // The object to select in the tree after the deletion
     private Object fObjectToSelectAfterDeletion;
     
-    // A cache for a model's diagram references as getting them is slow if there are many diagrams
-    private Map<IArchimateModel, List<IDiagramModelReference>> fDiagramModelReferenceCache;
-    
     /**
      * @param element
      * @return True if we can delete this object
@@ -163,8 +155,6 @@ public class DeleteCommandHandler {
         // Actual elements to delete
         fObjectsToDelete = new HashSet<>();
         
-        fDiagramModelReferenceCache = new HashMap<>();
-        
         // Gather the objects to delete
         getObjectsToDelete();
         
@@ -201,8 +191,13 @@ public class DeleteCommandHandler {
         }
         
         /*
-         * Then the other types
+         * Then the other types.
+         * Concepts are deleted from each folder, and diagram objects from each parent, in one operation
+         * so that listeners get one notification for each folder or parent instead of one for each object.
          */
+        Map<IFolder, List<IArchimateConcept>> concepts = new LinkedHashMap<>();
+        Map<CompoundCommand, List<IDiagramModelObject>> diagramObjects = new LinkedHashMap<>();
+        
         for(Object object : fObjectsToDelete) {
             if(object instanceof IDiagramModel) { // already done
                 continue;
@@ -218,23 +213,28 @@ public class DeleteCommandHandler {
                 Command cmd = new DeleteFolderCommand((IFolder)object);
                 compoundCommand.add(cmd);
             }
-            else if(object instanceof IArchimateElement) {
-                Command cmd = new DeleteArchimateElementCommand((IArchimateElement)object);
-                compoundCommand.add(cmd);
-            }
-            else if(object instanceof IArchimateRelationship) {
-                Command cmd = new DeleteArchimateRelationshipCommand((IArchimateRelationship)object);
-                compoundCommand.add(cmd);
+            else if(object instanceof IArchimateConcept) {
+                IFolder folder = (IFolder)((IArchimateConcept)object).eContainer();
+                concepts.computeIfAbsent(folder, f -> new ArrayList<>()).add((IArchimateConcept)object);
             }
             else if(object instanceof IDiagramModelObject) {
-                Command cmd = DiagramCommandFactory.createDeleteDiagramObjectCommand((IDiagramModelObject)object);
-                compoundCommand.add(cmd);
+                diagramObjects.computeIfAbsent(compoundCommand, c -> new ArrayList<>()).add((IDiagramModelObject)object);
             }
             else if(object instanceof IDiagramModelConnection) {
                 Command cmd = DiagramCommandFactory.createDeleteDiagramConnectionCommand((IDiagramModelConnection)object);
                 compoundCommand.add(cmd);
             }
         }
+        
+        for(Entry<IFolder, List<IArchimateConcept>> entry : concepts.entrySet()) {
+            Command cmd = new DeleteArchimateConceptsCommand(entry.getKey(), entry.getValue());
+            getCompoundCommand(entry.getKey()).add(cmd);
+        }
+        
+        for(Entry<CompoundCommand, List<IDiagramModelObject>> entry : diagramObjects.entrySet()) {
+            Command cmd = DiagramCommandFactory.createDeleteDiagramObjectsCommand(entry.getValue());
+            entry.getKey().add(cmd);
+        }
     }
     
     /**
@@ -255,43 +255,16 @@ public class DeleteCommandHandler {
         for(IArchimateModelObject object : new ArrayList<>(fObjectsToDelete)) {
             // Archimate Concept to be deleted
             if(object instanceof IArchimateConcept) {
-                fObjectsToDelete.addAll(((IArchimateConcept)object).getReferencingDiagramComponents());
+                ((IArchimateConcept)object).forEachReferencingDiagramComponent(fObjectsToDelete::add);
             }
             
             // Diagram Model to be deleted so we also need to delete diagram model references, if any
             if(object instanceof IDiagramModel) {
-                getDiagramModelReferencesToDelete((IDiagramModel)object);
+                fObjectsToDelete.addAll(object.getArchimateModel().getDiagramModelReferences((IDiagramModel)object));
             }
         }
     }
     
-    private void getDiagramModelReferencesToDelete(IDiagramModel dm) {
-        // Iterating more than once can be slow so use a cache of diagram model references
-        List<IDiagramModelReference> refs = fDiagramModelReferenceCache.get(dm.getArchimateModel());
-        
-        // Not in the cache so create a new one
-        if(refs == null) {
-            refs = new ArrayList<>();
-            IFolder diagramsFolder = dm.getArchimateModel().getFolder(FolderType.DIAGRAMS);
-            if(diagramsFolder != null) {
-                for(Iterator<EObject> iter = diagramsFolder.eAllContents(); iter.hasNext();) {
-                    EObject eObject = iter.next();
-                    if(eObject instanceof IDiagramModelReference) {
-                        refs.add((IDiagramModelReference)eObject);
-                    }
-                }
-            }
-            fDiagramModelReferenceCache.put(dm.getArchimateModel(), refs);
-        }
-        
-        // Iterate through all refs
-        for(IDiagramModelReference ref : refs) {
-            if(ref.getReferencedModel() == dm) {
-                fObjectsToDelete.add(ref);
-            }
-        }
-    }
-
     /**
      * Gather elements in folders that need checking for referenced diagram objects and other checks
      */
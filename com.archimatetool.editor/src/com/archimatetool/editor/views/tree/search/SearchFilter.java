@@ -6,7 +6,14 @@
 package com.archimatetool.editor.views.tree.search;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
@@ -17,18 +24,17 @@ import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.widgets.Display;
 
-import com.archimatetool.editor.utils.StringUtils;
-import com.archimatetool.model.IDocumentable;
+import com.archimatetool.editor.model.IEditorModelManager;
+import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IFolder;
 import com.archimatetool.model.IFolderContainer;
-import com.archimatetool.model.INameable;
-import com.archimatetool.model.IProperties;
-import com.archimatetool.model.IProperty;
 
 
 /**
  * Search Filter
  * 
+ * Matching objects are found from a search index of each model and are kept until the filter or a model changes.
+ * 
  * @author Phillip Beauvoir
  */
 public class SearchFilter extends ViewerFilter {
@@ -36,6 +42,14 @@ public class SearchFilter extends ViewerFilter {
     private String fSearchText = ""; //$NON-NLS-1$
     private TreePath[] fExpanded;
 
+    private Map<IArchimateModel, SearchIndex> fIndexes = new HashMap<IArchimateModel, SearchIndex>();
+    
+    // Objects that match the filter and objects that are shown because they match or contain a match
+    private Set<EObject> fMatches;
+    private Set<EObject> fVisible;
+    
+    private boolean fRefreshPending;
+
     private boolean fFilterName;
     private boolean fFilterDocumentation;
 
@@ -59,9 +73,25 @@ public class SearchFilter extends ViewerFilter {
     }
 
     private void refresh() {
+        // Filter changed
+        resetResults();
+        
+        // Refresh once for many requests
+        if(fRefreshPending) {
+            return;
+        }
+        
+        fRefreshPending = true;
+        
         Display.getCurrent().asyncExec(new Runnable() {
             @Override
             public void run() {
+                fRefreshPending = false;
+                
+                if(fViewer.getTree().isDisposed()) {
+                    return;
+                }
+                
                 fViewer.getTree().setRedraw(false);
 
                 try {
@@ -95,6 +125,7 @@ public class SearchFilter extends ViewerFilter {
         fSearchText = ""; //$NON-NLS-1$
         resetFilters();
         fExpanded = null;
+        disposeIndexes();
     }
 
     public void resetFilters() {
@@ -115,97 +146,115 @@ public class SearchFilter extends ViewerFilter {
             return true;
         }
 
-        return isElementVisible(parentElement, element);
-    }
-
-    /**
-     * Query whether element is to be shown (or any children) when filtering
-     * This will also query child elements of element if it's a container
-     * @param element Any element including containers
-     * @return
-     */
-    private boolean isElementVisible(Object parentElement, Object element) {
-        if(element instanceof IFolderContainer) {
-            for(IFolder folder : ((IFolderContainer)element).getFolders()) {
-                if(isElementVisible(parentElement, folder)) {
-                    return true;
-                }
-            }
+        // Show all folders and the models that have them
+        if(isShowAllFolders() && element instanceof IFolderContainer && (element instanceof IFolder || !((IFolderContainer)element).getFolders().isEmpty())) {
+            return true;
         }
 
-        if(element instanceof IFolder) {
-            for(Object o : ((IFolder)element).getElements()) {
-                if(isElementVisible(parentElement, o)) {
-                    return true;
-                }
-            }
-
-            if(isShowAllFolders()) {
-                return true;
-            }
-        }
-        
-        return matchesFilter(element);
+        // Shown if it matches or contains a match
+        updateResults();
+        return fVisible.contains(element);
     }
-    
+
     /**
      * Query whether element matches filter criteria when filtering on node/leaf elements
      * @param element Any element, children will not be queried.
      * @return
      */
     public boolean matchesFilter(Object element) {
-        // EObject Type filter - do this first as the master filter
-        if(isObjectFiltered(element)) {
-            return false;
+        updateResults();
+        return fMatches.contains(element);
+    }
+    
+    /**
+     * Find the objects that match the filter if the filter or any models have changed since the last time
+     */
+    private void updateResults() {
+        List<IArchimateModel> models = IEditorModelManager.INSTANCE.getModels();
+        
+        if(fMatches != null && fIndexes.size() == models.size() && fIndexes.keySet().containsAll(models)) {
+            return;
         }
-
-        boolean textSearchResult = false;
-        boolean propertyKeyResult = false;
-
-        // Properties Key filter
-        if(isFilteringPropertyKeys() && element instanceof IProperties) {
-            for(IProperty property : ((IProperties)element).getProperties()) {
-                if(fPropertiesFilter.contains(property.getKey())) {
-                    propertyKeyResult = true;
-                    if(hasSearchText() && property.getValue().toLowerCase().contains(fSearchText.toLowerCase())) {
-                        textSearchResult = true;
-                    }
-                }
+        
+        // Remove indexes of closed models
+        for(Iterator<Entry<IArchimateModel, SearchIndex>> iter = fIndexes.entrySet().iterator(); iter.hasNext();) {
+            Entry<IArchimateModel, SearchIndex> entry = iter.next();
+            if(!models.contains(entry.getKey())) {
+                entry.getValue().dispose();
+                iter.remove();
             }
         }
-
-        // If has search Text and no text found yet
-        if(hasSearchText()) {
-            // Name...
-            if(fFilterName && !textSearchResult && element instanceof INameable) {
-                String name = StringUtils.safeString(((INameable)element).getName());
-                
-                // Normalise in case of multi-line text
-                name = StringUtils.normaliseNewLineCharacters(name);
-                
-                if(name.toLowerCase().contains(fSearchText.toLowerCase())) {
-                    textSearchResult = true;
-                }
+        
+        // Add indexes of opened models
+        for(IArchimateModel model : models) {
+            if(!fIndexes.containsKey(model)) {
+                fIndexes.put(model, new SearchIndex(model, this::indexChanged));
             }
-
-            // Then Documentation
-            if(fFilterDocumentation && !textSearchResult && element instanceof IDocumentable) {
-                String text = StringUtils.safeString(((IDocumentable)element).getDocumentation());
-                if(text.toLowerCase().contains(fSearchText.toLowerCase())) {
-                    textSearchResult = true;
+        }
+        
+        fMatches = new HashSet<EObject>();
+        fVisible = new HashSet<EObject>();
+        
+        String searchText = fSearchText.toLowerCase();
+        
+        for(SearchIndex index : fIndexes.values()) {
+            Collection<EObject> found;
+            
+            if(hasSearchText()) {
+                found = index.find(searchText, fFilterName, fFilterDocumentation, fPropertiesFilter);
+            }
+            else if(isFilteringPropertyKeys()) {
+                found = index.findPropertyKeys(fPropertiesFilter);
+            }
+            else {
+                found = index.getObjects();
+            }
+            
+            for(EObject eObject : found) {
+                // EObject Type filter
+                if(!isObjectFiltered(eObject)) {
+                    fMatches.add(eObject);
+                    
+                    // Show the match and its parents
+                    EObject o = eObject;
+                    while(o != null && fVisible.add(o)) {
+                        o = o.eContainer();
+                    }
                 }
             }
         }
-
-        if((hasSearchText())) {
-            return textSearchResult;
+    }
+    
+    private void resetResults() {
+        fMatches = null;
+        fVisible = null;
+    }
+    
+    /**
+     * A search index changed.
+     * The tree might have been refreshed for the change before the index was updated so refresh it again.
+     */
+    private void indexChanged() {
+        resetResults();
+        
+        if(isFiltering() && Display.getCurrent() != null) {
+            refresh();
         }
-
-        if(isFilteringPropertyKeys()) {
-            return propertyKeyResult;
+    }
+    
+    /**
+     * Dispose of the search indexes
+     */
+    public void dispose() {
+        disposeIndexes();
+    }
+    
+    private void disposeIndexes() {
+        for(SearchIndex index : fIndexes.values()) {
+            index.dispose();
         }
-
-        return !isObjectFiltered(element);
+        fIndexes.clear();
+        resetResults();
     }
 
     private boolean isObjectFiltered(Object element) {
@@ -227,6 +276,7 @@ public class SearchFilter extends ViewerFilter {
     void setFilterOnName(boolean set) {
         if(fFilterName != set) {
             fFilterName = set;
+            resetResults();
             if(isFiltering()) {
                 refresh();
             }
@@ -236,6 +286,7 @@ public class SearchFilter extends ViewerFilter {
     void setFilterOnDocumentation(boolean set) {
         if(fFilterDocumentation != set) {
             fFilterDocumentation = set;
+            resetResults();
             if(isFiltering()) {
                 refresh();
             }
@@ -0,0 +1,375 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.views.tree.search;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+
+import com.archimatetool.editor.utils.StringUtils;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IDocumentable;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.IFolderContainer;
+import com.archimatetool.model.INameable;
+import com.archimatetool.model.IProperties;
+import com.archimatetool.model.IProperty;
+import com.archimatetool.model.util.IModelContentListener;
+
+
+/**
+ * Search Index of the objects of a model that are shown in the Models Tree
+ *
+ * The lower case text of names, documentation and property values is held together with an index of the
+ * trigrams in the text. A search for some text looks up the objects that contain its trigrams and only
+ * those objects are checked. The index is kept up to date from model notifications.
+ *
+ * @author Phillip Beauvoir
+ */
+class SearchIndex {
+
+    /**
+     * Length of an n-gram in the index
+     */
+    static final int NGRAM_LENGTH = 3;
+
+    /**
+     * Searchable text of an object
+     */
+    private static class IndexEntry {
+        String name;
+        String documentation;
+        String[] propertyKeys;
+        String[] propertyValues;
+    }
+
+    private IArchimateModel fModel;
+    private Runnable fChangeListener;
+
+    private Map<EObject, IndexEntry> fEntries = new HashMap<>();
+
+    private Map<String, Set<EObject>> fNameGrams = new HashMap<>();
+    private Map<String, Set<EObject>> fDocumentationGrams = new HashMap<>();
+    private Map<String, Set<EObject>> fPropertyValueGrams = new HashMap<>();
+    private Map<String, Set<EObject>> fPropertyKeys = new HashMap<>();
+
+    private IModelContentListener fModelListener = this::modelChanged;
+
+    /**
+     * @param model The model
+     * @param changeListener Called when the index changes. May be null.
+     */
+    SearchIndex(IArchimateModel model, Runnable changeListener) {
+        fModel = model;
+        fChangeListener = changeListener;
+
+        addObject(model);
+
+        fModel.addModelContentListener(fModelListener);
+    }
+
+    /**
+     * @return All objects in the index
+     */
+    Collection<EObject> getObjects() {
+        return Collections.unmodifiableSet(fEntries.keySet());
+    }
+
+    /**
+     * Find objects that contain text
+     * @param text The lower case text to find
+     * @param name If true search in names
+     * @param documentation If true search in documentation
+     * @param propertyKeys Search in the values of properties with these keys
+     * @return The objects found
+     */
+    Set<EObject> find(String text, boolean name, boolean documentation, Collection<String> propertyKeys) {
+        Set<EObject> result = new HashSet<>();
+
+        if(!propertyKeys.isEmpty()) {
+            for(EObject eObject : getCandidates(fPropertyValueGrams, text)) {
+                IndexEntry entry = fEntries.get(eObject);
+                for(int i = 0; i < entry.propertyKeys.length; i++) {
+                    if(propertyKeys.contains(entry.propertyKeys[i]) && entry.propertyValues[i].contains(text)) {
+                        result.add(eObject);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if(name) {
+            for(EObject eObject : getCandidates(fNameGrams, text)) {
+                String s = fEntries.get(eObject).name;
+                if(s != null && s.contains(text)) {
+                    result.add(eObject);
+                }
+            }
+        }
+
+        if(documentation) {
+            for(EObject eObject : getCandidates(fDocumentationGrams, text)) {
+                String s = fEntries.get(eObject).documentation;
+                if(s != null && s.contains(text)) {
+                    result.add(eObject);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Objects that have a property with one of the keys
+     */
+    Set<EObject> findPropertyKeys(Collection<String> keys) {
+        Set<EObject> result = new HashSet<>();
+
+        for(String key : keys) {
+            Set<EObject> set = fPropertyKeys.get(key);
+            if(set != null) {
+                result.addAll(set);
+            }
+        }
+
+        return result;
+    }
+
+    void dispose() {
+        fModel.removeModelContentListener(fModelListener);
+        fEntries.clear();
+        fNameGrams.clear();
+        fDocumentationGrams.clear();
+        fPropertyValueGrams.clear();
+        fPropertyKeys.clear();
+    }
+
+    /**
+     * @return The objects that might contain text. If text is shorter than an n-gram this is all objects.
+     */
+    private Collection<EObject> getCandidates(Map<String, Set<EObject>> grams, String text) {
+        if(text.length() < NGRAM_LENGTH) {
+            return fEntries.keySet();
+        }
+
+        // Use the smallest set of objects that have one of the n-grams in text
+        Set<EObject> candidates = null;
+
+        for(int i = 0; i <= text.length() - NGRAM_LENGTH; i++) {
+            Set<EObject> set = grams.get(text.substring(i, i + NGRAM_LENGTH));
+            if(set == null) {
+                return Collections.emptySet();
+            }
+            if(candidates == null || set.size() < candidates.size()) {
+                candidates = set;
+            }
+        }
+
+        return candidates;
+    }
+
+    // ========================================= Maintain the index =========================================
+
+    private void modelChanged(Notification msg) {
+        if(msg.isTouch()) {
+            return;
+        }
+
+        Object feature = msg.getFeature();
+        boolean changed = false;
+
+        // Child folders or elements added or removed
+        if(feature == IArchimatePackage.Literals.FOLDER__ELEMENTS || feature == IArchimatePackage.Literals.FOLDER_CONTAINER__FOLDERS) {
+            switch(msg.getEventType()) {
+                case Notification.ADD:
+                    changed = addObject((EObject)msg.getNewValue());
+                    break;
+
+                case Notification.ADD_MANY:
+                    for(Object o : (Collection<?>)msg.getNewValue()) {
+                        changed |= addObject((EObject)o);
+                    }
+                    break;
+
+                case Notification.REMOVE:
+                    changed = removeObject((EObject)msg.getOldValue());
+                    break;
+
+                case Notification.REMOVE_MANY:
+                    for(Object o : (Collection<?>)msg.getOldValue()) {
+                        changed |= removeObject((EObject)o);
+                    }
+                    break;
+
+                case Notification.SET:
+                    changed = removeObject((EObject)msg.getOldValue());
+                    changed |= addObject((EObject)msg.getNewValue());
+                    break;
+
+                default:
+                    break;
+            }
+        }
+        // Property key or value changed
+        else if(msg.getNotifier() instanceof IProperty) {
+            changed = updateObject(((IProperty)msg.getNotifier()).eContainer());
+        }
+        // Name, documentation or properties list changed
+        else {
+            changed = updateObject(msg.getNotifier());
+        }
+
+        if(changed && fChangeListener != null) {
+            fChangeListener.run();
+        }
+    }
+
+    /**
+     * Add an object and its child folders and elements to the index
+     */
+    private boolean addObject(EObject eObject) {
+        if(eObject == null) {
+            return false;
+        }
+
+        putEntry(eObject);
+
+        if(eObject instanceof IFolderContainer) {
+            for(IFolder folder : ((IFolderContainer)eObject).getFolders()) {
+                addObject(folder);
+            }
+        }
+
+        if(eObject instanceof IFolder) {
+            for(EObject element : ((IFolder)eObject).getElements()) {
+                addObject(element);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Remove an object and its child folders and elements from the index unless it is still in the tree
+     */
+    private boolean removeObject(EObject eObject) {
+        if(eObject == null || !fEntries.containsKey(eObject)) {
+            return false;
+        }
+
+        // It was moved to another folder
+        if(fEntries.containsKey(eObject.eContainer())) {
+            return false;
+        }
+
+        removeEntry(eObject);
+
+        if(eObject instanceof IFolderContainer) {
+            for(IFolder folder : ((IFolderContainer)eObject).getFolders()) {
+                removeObject(folder);
+            }
+        }
+
+        if(eObject instanceof IFolder) {
+            for(EObject element : ((IFolder)eObject).getElements()) {
+                removeObject(element);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Index the text of an object again if it is in the index
+     */
+    private boolean updateObject(Object object) {
+        if(!fEntries.containsKey(object)) {
+            return false;
+        }
+
+        putEntry((EObject)object);
+        return true;
+    }
+
+    private void putEntry(EObject eObject) {
+        removeEntry(eObject);
+
+        IndexEntry entry = new IndexEntry();
+
+        if(eObject instanceof INameable) {
+            // Normalise in case of multi-line text
+            String name = StringUtils.normaliseNewLineCharacters(StringUtils.safeString(((INameable)eObject).getName()));
+            entry.name = name.toLowerCase();
+            addGrams(fNameGrams, entry.name, eObject);
+        }
+
+        if(eObject instanceof IDocumentable) {
+            entry.documentation = StringUtils.safeString(((IDocumentable)eObject).getDocumentation()).toLowerCase();
+            addGrams(fDocumentationGrams, entry.documentation, eObject);
+        }
+
+        List<IProperty> properties = eObject instanceof IProperties ? ((IProperties)eObject).getProperties() : Collections.emptyList();
+        entry.propertyKeys = new String[properties.size()];
+        entry.propertyValues = new String[properties.size()];
+
+        for(int i = 0; i < properties.size(); i++) {
+            IProperty property = properties.get(i);
+            entry.propertyKeys[i] = property.getKey();
+            entry.propertyValues[i] = StringUtils.safeString(property.getValue()).toLowerCase();
+            addGrams(fPropertyValueGrams, entry.propertyValues[i], eObject);
+            fPropertyKeys.computeIfAbsent(entry.propertyKeys[i], key -> new HashSet<>()).add(eObject);
+        }
+
+        fEntries.put(eObject, entry);
+    }
+
+    private void removeEntry(EObject eObject) {
+        IndexEntry entry = fEntries.remove(eObject);
+        if(entry == null) {
+            return;
+        }
+
+        removeGrams(fNameGrams, entry.name, eObject);
+        removeGrams(fDocumentationGrams, entry.documentation, eObject);
+
+        for(int i = 0; i < entry.propertyKeys.length; i++) {
+            removeGrams(fPropertyValueGrams, entry.propertyValues[i], eObject);
+            removeFromSet(fPropertyKeys, entry.propertyKeys[i], eObject);
+        }
+    }
+
+    private void addGrams(Map<String, Set<EObject>> grams, String text, EObject eObject) {
+        for(int i = 0; i <= text.length() - NGRAM_LENGTH; i++) {
+            grams.computeIfAbsent(text.substring(i, i + NGRAM_LENGTH), gram -> new HashSet<>()).add(eObject);
+        }
+    }
+
+    private void removeGrams(Map<String, Set<EObject>> grams, String text, EObject eObject) {
+        if(text != null) {
+            for(int i = 0; i <= text.length() - NGRAM_LENGTH; i++) {
+                removeFromSet(grams, text.substring(i, i + NGRAM_LENGTH), eObject);
+            }
+        }
+    }
+
+    private void removeFromSet(Map<String, Set<EObject>> map, String key, EObject eObject) {
+        Set<EObject> set = map.get(key);
+        if(set != null) {
+            set.remove(eObject);
+            if(set.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
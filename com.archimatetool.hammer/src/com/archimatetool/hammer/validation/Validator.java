@@ -6,12 +6,28 @@
 package com.archimatetool.hammer.validation;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
 
+import com.archimatetool.editor.model.DiagramModelUtils;
 import com.archimatetool.hammer.ArchiHammerPlugin;
 import com.archimatetool.hammer.preferences.IPreferenceConstants;
 import com.archimatetool.hammer.validation.checkers.DuplicateElementChecker;
@@ -32,19 +48,46 @@ import com.archimatetool.hammer.validation.issues.IIssueCategory;
 import com.archimatetool.hammer.validation.issues.OKType;
 import com.archimatetool.hammer.validation.issues.WarningType;
 import com.archimatetool.hammer.validation.issues.WarningsCategory;
+import com.archimatetool.model.IArchimateConcept;
 import com.archimatetool.model.IArchimateDiagramModel;
 import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimateModelObject;
 import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelArchimateComponent;
+import com.archimatetool.model.IDiagramModelComponent;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.util.ArchimateModelUtils;
+import com.archimatetool.model.util.IModelContentListener;
 
 
 /**
  * Validator
  * 
+ * Checkers are run concurrently on the common fork-join pool.
+ * 
+ * If set to incremental the Validator listens to model changes and each following validation
+ * only re-checks the elements, relations and views that have changed since the last validation.
+ * 
  * @author Phillip Beauvoir
  */
 public class Validator {
     
+    /**
+     * Checkers in the order that their issues are reported, keyed by preference
+     */
+    private static final String[] CHECKERS = {
+            IPreferenceConstants.PREFS_HAMMER_CHECK_INVALID_RELATIONS,
+            IPreferenceConstants.PREFS_HAMMER_CHECK_UNUSED_ELEMENTS,
+            IPreferenceConstants.PREFS_HAMMER_CHECK_UNUSED_RELATIONS,
+            IPreferenceConstants.PREFS_HAMMER_CHECK_EMPTY_VIEWS,
+            IPreferenceConstants.PREFS_HAMMER_CHECK_VIEWPOINT,
+            IPreferenceConstants.PREFS_HAMMER_CHECK_NESTING,
+            IPreferenceConstants.PREFS_HAMMER_CHECK_DUPLICATE_ELEMENTS,
+            IPreferenceConstants.PREFS_HAMMER_CHECK_JUNCTIONS
+    };
+    
     private IArchimateModel fModel;
     
     private List<IArchimateElement> fElements;
@@ -54,11 +97,50 @@ public class Validator {
     private List<ErrorType> fErrorList;
     private List<WarningType> fWarningList;
     private List<AdviceType> fAdviceList;
+    
+    // Incremental validation
+    private IModelContentListener fModelListener;
+    private IPropertyChangeListener fPreferenceListener;
+    private Map<String, List<IIssue>> fLastIssues;
+    private Set<EObject> fChangedObjects = new HashSet<>();
+    private boolean fStructureChanged;
 
     
     public Validator(IArchimateModel model) {
         fModel = model;
     }
+    
+    /**
+     * Set whether following validations are incremental.
+     * If true, model changes are tracked and only changed objects are re-checked on the next validation.
+     * Call dispose() when this Validator is no longer used.
+     */
+    public void setIncremental(boolean incremental) {
+        if(fModel == null || incremental == isIncremental()) {
+            return;
+        }
+        
+        if(incremental) {
+            fModelListener = this::modelChanged;
+            fModel.addModelContentListener(fModelListener);
+            
+            // Any preference change can change the issues so the next validation is in full
+            fPreferenceListener = event -> fLastIssues = null;
+            ArchiHammerPlugin.INSTANCE.getPreferenceStore().addPropertyChangeListener(fPreferenceListener);
+        }
+        else {
+            fModel.removeModelContentListener(fModelListener);
+            fModelListener = null;
+            ArchiHammerPlugin.INSTANCE.getPreferenceStore().removePropertyChangeListener(fPreferenceListener);
+            fPreferenceListener = null;
+            fLastIssues = null;
+            fChangedObjects.clear();
+        }
+    }
+    
+    public boolean isIncremental() {
+        return fModelListener != null;
+    }
 
     /**
      * @return The list of Issue Categories and Issues
@@ -68,25 +150,25 @@ public class Validator {
             return null;
         }
         
+        boolean incremental = isIncremental() && fLastIssues != null;
+        
         // Collect interesting objects
-        fElements = new ArrayList<IArchimateElement>();
-        fRelations = new ArrayList<IArchimateRelationship>();
-        fViews = new ArrayList<IArchimateDiagramModel>();
+        if(!incremental || fStructureChanged) {
+            collectObjects();
+        }
         
-        for(Iterator<EObject> iter = fModel.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
-            
-            if(eObject instanceof IArchimateRelationship) {
-                fRelations.add((IArchimateRelationship)eObject);
-            }
-            else if(eObject instanceof IArchimateElement) {
-                fElements.add((IArchimateElement)eObject);
-            }
-            else if(eObject instanceof IArchimateDiagramModel) {
-                fViews.add((IArchimateDiagramModel)eObject);
-            }
+        // Collect changed objects
+        Set<IArchimateElement> changedElements = new LinkedHashSet<>();
+        Set<IArchimateRelationship> changedRelations = new LinkedHashSet<>();
+        Set<IArchimateDiagramModel> changedViews = new LinkedHashSet<>();
+        
+        if(incremental) {
+            collectChangedObjects(changedElements, changedRelations, changedViews);
         }
         
+        fChangedObjects.clear();
+        fStructureChanged = false;
+        
         // Analyse
         List<Object> result = new ArrayList<Object>();
         
@@ -98,44 +180,62 @@ public class Validator {
         
         IPreferenceStore store = ArchiHammerPlugin.INSTANCE.getPreferenceStore();
         
-        // Invalid Relations
-        if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_INVALID_RELATIONS)) {
-            collectIssues(new InvalidRelationsChecker(getArchimateRelationships()));
-        }
-        
-        // Unused Elements
-        if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_UNUSED_ELEMENTS)) {
-            collectIssues(new UnusedElementsChecker(getArchimateElements()));
-        }
+        List<IArchimateElement> elements = Collections.unmodifiableList(fElements);
+        List<IArchimateRelationship> relations = Collections.unmodifiableList(fRelations);
+        List<IArchimateDiagramModel> views = Collections.unmodifiableList(fViews);
         
-        // Unused Relations
-        if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_UNUSED_RELATIONS)) {
-            collectIssues(new UnusedRelationsChecker(getArchimateRelationships()));
-        }
+        Map<String, ForkJoinTask<List<IIssue>>> tasks = new LinkedHashMap<>();
+        Map<String, List<IIssue>> keptIssues = new HashMap<>();
         
-        // Empty Views
-        if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_EMPTY_VIEWS)) {
-            collectIssues(new EmptyViewsChecker(getArchimateViews()));
+        for(String key : CHECKERS) {
+            if(!store.getBoolean(key)) {
+                continue;
+            }
+            
+            IChecker checker;
+            
+            // Possible duplicates depend on all elements so are always checked in full
+            List<IIssue> lastIssues = incremental && !IPreferenceConstants.PREFS_HAMMER_CHECK_DUPLICATE_ELEMENTS.equals(key) ? fLastIssues.get(key) : null;
+            
+            // Re-check changed objects and keep the issues of unchanged objects
+            if(lastIssues != null) {
+                checker = createChecker(key, new ArrayList<>(changedElements), new ArrayList<>(changedRelations), new ArrayList<>(changedViews));
+                
+                List<IIssue> kept = new ArrayList<>();
+                for(IIssue issue : lastIssues) {
+                    EObject owner = getOwner(issue);
+                    if(owner != null && !changedElements.contains(owner) && !changedRelations.contains(owner) && !changedViews.contains(owner)
+                            && ((IArchimateModelObject)owner).getArchimateModel() == fModel) {
+                        kept.add(issue);
+                    }
+                }
+                keptIssues.put(key, kept);
+            }
+            else {
+                checker = createChecker(key, elements, relations, views);
+            }
+            
+            Callable<List<IIssue>> task = checker::getIssues;
+            tasks.put(key, ForkJoinPool.commonPool().submit(task));
         }
         
-        // Components in wrong Viewpoints
-        if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_VIEWPOINT)) {
-            collectIssues(new ViewpointChecker(getArchimateViews()));
-        }
+        Map<String, List<IIssue>> issues = new HashMap<>();
         
-        // Nested elements
-        if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_NESTING)) {
-            collectIssues(new NestedElementsChecker(getArchimateViews()));
-        }
-
-        // Possible Duplicates
-        if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_DUPLICATE_ELEMENTS)) {
-            collectIssues(new DuplicateElementChecker(getArchimateElements()));
+        for(Entry<String, ForkJoinTask<List<IIssue>>> entry : tasks.entrySet()) {
+            List<IIssue> list = new ArrayList<>();
+            
+            if(keptIssues.containsKey(entry.getKey())) {
+                list.addAll(keptIssues.get(entry.getKey()));
+            }
+            
+            list.addAll(entry.getValue().join());
+            
+            issues.put(entry.getKey(), list);
+            collectIssues(list);
         }
         
-        // Junctions
-        if(store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_JUNCTIONS)) {
-            collectIssues(new JunctionsChecker(getArchimateElements()));
+        if(isIncremental()) {
+            fLastIssues = issues;
         }
 
         // ----------------------------------------------------------
@@ -163,7 +263,11 @@ public class Validator {
     }
     
     void collectIssues(IChecker checker) {
-        for(IIssue issue : checker.getIssues()) {
+        collectIssues(checker.getIssues());
+    }
+    
+    private void collectIssues(List<IIssue> issues) {
+        for(IIssue issue : issues) {
             if(issue instanceof ErrorType) {
                 fErrorList.add((ErrorType)issue);
             }
@@ -176,6 +280,182 @@ public class Validator {
         }
     }
     
+    private IChecker createChecker(String key, List<IArchimateElement> elements, List<IArchimateRelationship> relations, List<IArchimateDiagramModel> views) {
+        switch(key) {
+            // Invalid Relations
+            case IPreferenceConstants.PREFS_HAMMER_CHECK_INVALID_RELATIONS:
+                return new InvalidRelationsChecker(relations);
+                
+            // Unused Elements
+            case IPreferenceConstants.PREFS_HAMMER_CHECK_UNUSED_ELEMENTS:
+                return new UnusedElementsChecker(elements);
+                
+            // Unused Relations
+            case IPreferenceConstants.PREFS_HAMMER_CHECK_UNUSED_RELATIONS:
+                return new UnusedRelationsChecker(relations);
+                
+            // Empty Views
+            case IPreferenceConstants.PREFS_HAMMER_CHECK_EMPTY_VIEWS:
+                return new EmptyViewsChecker(views);
+                
+            // Components in wrong Viewpoints
+            case IPreferenceConstants.PREFS_HAMMER_CHECK_VIEWPOINT:
+                return new ViewpointChecker(views);
+                
+            // Nested elements
+            case IPreferenceConstants.PREFS_HAMMER_CHECK_NESTING:
+                return new NestedElementsChecker(views);
+                
+            // Possible Duplicates
+            case IPreferenceConstants.PREFS_HAMMER_CHECK_DUPLICATE_ELEMENTS:
+                return new DuplicateElementChecker(elements);
+                
+            // Junctions
+            case IPreferenceConstants.PREFS_HAMMER_CHECK_JUNCTIONS:
+                return new JunctionsChecker(elements);
+                
+            default:
+                throw new IllegalArgumentException("Unknown checker: " + key); //$NON-NLS-1$
+        }
+    }
+    
+    private void collectObjects() {
+        fElements = new ArrayList<IArchimateElement>();
+        fRelations = new ArrayList<IArchimateRelationship>();
+        fViews = new ArrayList<IArchimateDiagramModel>();
+        
+        for(Iterator<EObject> iter = fModel.eAllContents(); iter.hasNext();) {
+            EObject eObject = iter.next();
+            
+            if(eObject instanceof IArchimateRelationship) {
+                fRelations.add((IArchimateRelationship)eObject);
+            }
+            else if(eObject instanceof IArchimateElement) {
+                fElements.add((IArchimateElement)eObject);
+            }
+            else if(eObject instanceof IArchimateDiagramModel) {
+                fViews.add((IArchimateDiagramModel)eObject);
+            }
+        }
+    }
+    
+    /**
+     * Collect the elements, relations and views affected by the changes since the last validation and still in the model
+     */
+    private void collectChangedObjects(Set<IArchimateElement> elements, Set<IArchimateRelationship> relations, Set<IArchimateDiagramModel> views) {
+        for(EObject eObject : fChangedObjects) {
+            addChangedObject(eObject, elements, relations, views);
+        }
+        
+        // The issues of relations depend on their source and target elements
+        for(IArchimateElement element : elements) {
+            relations.addAll(ArchimateModelUtils.getAllRelationshipsForConcept(element));
+        }
+        
+        // The issues of views depend on their elements and the relations between them
+        for(IArchimateElement element : elements) {
+            addReferencingViews(element, views);
+        }
+        for(IArchimateRelationship relation : relations) {
+            addReferencingViews(relation, views);
+        }
+        
+        elements.removeIf(element -> element.getArchimateModel() != fModel);
+        relations.removeIf(relation -> relation.getArchimateModel() != fModel);
+        views.removeIf(view -> view.getArchimateModel() != fModel);
+    }
+    
+    private void addReferencingViews(IArchimateConcept concept, Set<IArchimateDiagramModel> views) {
+        for(IDiagramModel dm : DiagramModelUtils.findReferencedDiagramsForArchimateConcept(concept)) {
+            if(dm instanceof IArchimateDiagramModel) {
+                views.add((IArchimateDiagramModel)dm);
+            }
+        }
+    }
+    
+    private void addChangedObject(Object object, Set<IArchimateElement> elements, Set<IArchimateRelationship> relations, Set<IArchimateDiagramModel> views) {
+        if(object instanceof IArchimateElement) {
+            elements.add((IArchimateElement)object);
+        }
+        else if(object instanceof IArchimateRelationship) {
+            IArchimateRelationship relation = (IArchimateRelationship)object;
+            if(relations.add(relation)) {
+                // Source and target elements depend on their relations
+                addChangedObject(relation.getSource(), elements, relations, views);
+                addChangedObject(relation.getTarget(), elements, relations, views);
+            }
+        }
+        else if(object instanceof IArchimateDiagramModel) {
+            views.add((IArchimateDiagramModel)object);
+        }
+        else if(object instanceof IDiagramModelComponent) {
+            addChangedObject(((IDiagramModelComponent)object).getDiagramModel(), elements, relations, views);
+            
+            if(object instanceof IDiagramModelArchimateComponent) {
+                addChangedObject(((IDiagramModelArchimateComponent)object).getArchimateConcept(), elements, relations, views);
+            }
+        }
+    }
+    
+    /**
+     * @return The element, relation or view that an issue is reported for
+     */
+    private EObject getOwner(IIssue issue) {
+        Object object = issue.getObject();
+        
+        if(object instanceof IDiagramModelComponent) {
+            return ((IDiagramModelComponent)object).getDiagramModel();
+        }
+        
+        return object instanceof IArchimateModelObject ? (EObject)object : null;
+    }
+    
+    /**
+     * Model changed so record the changed objects
+     */
+    private void modelChanged(Notification msg) {
+        if(msg.getNotifier() instanceof EObject) {
+            fChangedObjects.add((EObject)msg.getNotifier());
+        }
+        
+        if(msg.getFeature() instanceof EReference) {
+            boolean isContainment = ((EReference)msg.getFeature()).isContainment();
+            addChangedValue(msg.getOldValue(), isContainment);
+            addChangedValue(msg.getNewValue(), isContainment);
+            
+            // Elements, relations and views are only added to or removed from folders.
+            // Other containment changes such as setting the bounds of a diagram object don't change the collected objects.
+            if(isContainment && (msg.getNotifier() instanceof IFolder || msg.getNotifier() instanceof IArchimateModel)) {
+                fStructureChanged = true;
+            }
+        }
+    }
+    
+    private void addChangedValue(Object value, boolean isContainment) {
+        if(value instanceof Collection) {
+            for(Object o : (Collection<?>)value) {
+                addChangedValue(o, isContainment);
+            }
+        }
+        else if(value instanceof EObject) {
+            fChangedObjects.add((EObject)value);
+            
+            // Added or removed objects and all of their child objects
+            if(isContainment) {
+                for(Iterator<EObject> iter = ((EObject)value).eAllContents(); iter.hasNext();) {
+                    fChangedObjects.add(iter.next());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Stop listening to model changes
+     */
+    public void dispose() {
+        setIncremental(false);
+    }
+    
     public IArchimateModel getModel() {
         return fModel;
     }
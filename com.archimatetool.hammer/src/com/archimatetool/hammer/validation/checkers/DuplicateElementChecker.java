@@ -6,8 +6,11 @@
 package com.archimatetool.hammer.validation.checkers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.osgi.util.NLS;
@@ -45,16 +48,23 @@ public class DuplicateElementChecker implements IChecker {
     List<IIssue> findDuplicateNamesElements() {
         List<IIssue> issues = new ArrayList<IIssue>();
         
+        // Group elements by type and name
+        Map<List<Object>, List<IArchimateElement>> groups = new HashMap<>();
+        
+        for(IArchimateElement element : fArchimateElements) {
+            // Ignore Junctions as these tend to just be called "Junction" or may well have a common name like "Or" or "And"
+            if(element.eClass() != IArchimatePackage.eINSTANCE.getJunction()) {
+                groups.computeIfAbsent(getKey(element), key -> new ArrayList<>()).add(element);
+            }
+        }
+        
+        // Elements in groups of more than one are duplicates, in the order that they appear
         Set<IArchimateElement> dupes = new LinkedHashSet<IArchimateElement>();
         
-        for(int i = 0; i < fArchimateElements.size(); i++) {
-            for(int j = i + 1; j < fArchimateElements.size(); j++) {
-                IArchimateElement element1 = fArchimateElements.get(i);
-                IArchimateElement element2 = fArchimateElements.get(j);
-                if(isDuplicate(element1, element2)) {
-                    dupes.add(element1);
-                    dupes.add(element2);
-                }
+        for(IArchimateElement element : fArchimateElements) {
+            List<IArchimateElement> group = groups.get(getKey(element));
+            if(group != null && group.size() > 1) {
+                dupes.addAll(group);
             }
         }
         
@@ -69,16 +79,10 @@ public class DuplicateElementChecker implements IChecker {
         return issues;
     }
     
-    private boolean isDuplicate(IArchimateElement element1, IArchimateElement element2) {
-        // Ignore Junctions as these tend to just be called "Junction" or may well have a common name like "Or" or "And"
-        if(element1.eClass() == IArchimatePackage.eINSTANCE.getJunction() &&
-                element2.eClass() == IArchimatePackage.eINSTANCE.getJunction()) {
-            return false;
-        }
-        
-        String name1 = StringUtils.safeString(element1.getName());
-        String name2 = StringUtils.safeString(element2.getName());
-        
-        return name1.equals(name2) && (element1.eClass() == element2.eClass());
+    /**
+     * @return The key of type and name for an element. Elements with equal keys are duplicates.
+     */
+    private List<Object> getKey(IArchimateElement element) {
+        return Arrays.asList(element.eClass(), StringUtils.safeString(element.getName()));
     }
 }
@@ -8,13 +8,13 @@ package com.archimatetool.hammer.validation.checkers;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.osgi.util.NLS;
 
 import com.archimatetool.editor.ui.ArchiLabelProvider;
 import com.archimatetool.hammer.validation.issues.ErrorType;
 import com.archimatetool.hammer.validation.issues.IIssue;
 import com.archimatetool.model.IArchimateElement;
-import com.archimatetool.model.IArchimateRelationship;
 import com.archimatetool.model.IJunction;
 import com.archimatetool.model.util.ArchimateModelUtils;
 
@@ -45,25 +45,30 @@ public class JunctionsChecker implements IChecker {
         List<IIssue> issues = new ArrayList<IIssue>();
         
         for(IArchimateElement element : fArchimateElements) {
-            if(element instanceof IJunction) {
+            if(element instanceof IJunction && hasMixedRelationships(element)) {
+                String name = ArchiLabelProvider.INSTANCE.getLabel(element);
+                String description = NLS.bind(DESCRIPTION, name);
+                String explanation = NLS.bind(EXPLANATION, name);
                 
-                IArchimateRelationship rel = null;
-                for(IArchimateRelationship relation : ArchimateModelUtils.getAllRelationshipsForConcept(element)) {
-                    if(rel != null && rel.eClass() != relation.eClass()) {
-                        String name = ArchiLabelProvider.INSTANCE.getLabel(element);
-                        String description = NLS.bind(DESCRIPTION, name);
-                        String explanation = NLS.bind(EXPLANATION, name);
-                        
-                        IIssue issue = new ErrorType(NAME, description, explanation, element);
-                        issues.add(issue);
-                        break;
-                    }
-                    
-                    rel = relation;
-                }
+                IIssue issue = new ErrorType(NAME, description, explanation, element);
+                issues.add(issue);
             }
         }
         
         return issues;
     }
+    
+    /**
+     * @return true if the junction's relationships are not all of the same type
+     */
+    private boolean hasMixedRelationships(IArchimateElement junction) {
+        EClass[] type = new EClass[1];
+        
+        return !ArchimateModelUtils.visitRelationships(junction, ArchimateModelUtils.RELATIONSHIPS_ALL, null, relation -> {
+            if(type[0] == null) {
+                type[0] = relation.eClass();
+            }
+            return type[0] == relation.eClass();
+        });
+    }
 }
@@ -99,34 +99,26 @@ public class NestedElementsChecker implements IChecker {
             return true;
         }
         
-        for(IArchimateRelationship r : ArchimateModelUtils.getAllRelationshipsForConcept(parentElement)) {
-            // Check for non-nested type relationships
-            if((r.getTarget() == childElement || r.getSource() == childElement) && !isNestedTypeRelationship(r)) {
-                return true;
-            }
-            
-            // Specialization relationship needs a special check as it goes the other way around
-            if(r instanceof ISpecializationRelationship) {
-                if(r.getTarget() == childElement) {
-                    return true;
-                }
-            }
-            else if(r.getSource() == childElement && isNestedTypeRelationship(r)) {
-                return true;
-            }
+        return !ArchimateModelUtils.visitRelationships(parentElement, ArchimateModelUtils.RELATIONSHIPS_ALL, null, r -> !isInvalidNestedRelationship(r, childElement));
+    }
+    
+    private boolean isInvalidNestedRelationship(IArchimateRelationship r, IArchimateElement childElement) {
+        // Check for non-nested type relationships
+        if((r.getTarget() == childElement || r.getSource() == childElement) && !isNestedTypeRelationship(r)) {
+            return true;
+        }
+        
+        // Specialization relationship needs a special check as it goes the other way around
+        if(r instanceof ISpecializationRelationship) {
+            return r.getTarget() == childElement;
         }
         
-        return false;
+        return r.getSource() == childElement && isNestedTypeRelationship(r);
     }
     
     private boolean hasParentChildRelationships(IArchimateElement parentElement, IArchimateElement childElement) {
-        for(IArchimateRelationship r : ArchimateModelUtils.getAllRelationshipsForConcept(parentElement)) {
-            if(r.getTarget() == childElement || r.getSource() == childElement) {
-                return true;
-            }
-        }
-        
-        return false;
+        return !ArchimateModelUtils.visitRelationships(parentElement, ArchimateModelUtils.RELATIONSHIPS_ALL, null,
+                r -> r.getTarget() != childElement && r.getSource() != childElement);
     }
     
     private boolean isNestedTypeRelationship(IArchimateRelationship r) {
@@ -83,6 +83,11 @@ implements IValidatorView, ISelectionListener, IContextProvider, ITabbedProperty
     
     private IArchimateModel fModel;
     
+    /**
+     * Validator for the current model. This is kept so that it can re-check only the changes on the next validation.
+     */
+    private Validator fValidator;
+    
     public ValidatorView() {
     }
 
@@ -351,8 +356,14 @@ implements IValidatorView, ISelectionListener, IContextProvider, ITabbedProperty
             @Override
             public void run() {
                 updateStatusBar();
-                Validator validator = new Validator(fModel);
-                List<Object> result = validator.validate();
+                
+                if(fValidator == null || fValidator.getModel() != fModel) {
+                    disposeValidator();
+                    fValidator = new Validator(fModel);
+                    fValidator.setIncremental(true);
+                }
+                
+                List<Object> result = fValidator.validate();
                 fViewer.setInput(result);
                 fViewer.expandAll();
             }
@@ -423,6 +434,7 @@ implements IValidatorView, ISelectionListener, IContextProvider, ITabbedProperty
         // Model Closed
         if(propertyName == IEditorModelManager.PROPERTY_MODEL_REMOVED) {
             if(fModel == newValue) {
+                disposeValidator();
                 fModel = null;
                 fViewer.setInput(null);
                 fActionValidate.setEnabled(false);
@@ -439,6 +451,15 @@ implements IValidatorView, ISelectionListener, IContextProvider, ITabbedProperty
         
         // Unregister us as a Model Manager Listener
         IEditorModelManager.INSTANCE.removePropertyChangeListener(this);
+        
+        disposeValidator();
+    }
+    
+    private void disposeValidator() {
+        if(fValidator != null) {
+            fValidator.dispose();
+            fValidator = null;
+        }
     }
     
     // =================================================================================
@@ -7,13 +7,23 @@ package com.archimatetool.jasperreports;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.osgi.util.NLS;
@@ -24,8 +34,10 @@ import org.eclipse.swt.graphics.ImageLoader;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.PlatformUI;
 
+import com.archimatetool.editor.ArchiPlugin;
 import com.archimatetool.editor.diagram.util.DiagramUtils;
 import com.archimatetool.editor.ui.ImageFactory;
+import com.archimatetool.editor.utils.DigestUtils;
 import com.archimatetool.editor.utils.FileUtils;
 import com.archimatetool.jasperreports.data.ArchimateModelDataSource;
 import com.archimatetool.model.IArchimateModel;
@@ -39,10 +51,15 @@ import net.sf.jasperreports.engine.JasperExportManager;
 import net.sf.jasperreports.engine.JasperFillManager;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.JRVirtualizer;
 import net.sf.jasperreports.engine.export.JRRtfExporter;
 import net.sf.jasperreports.engine.export.oasis.JROdtExporter;
 import net.sf.jasperreports.engine.export.ooxml.JRDocxExporter;
 import net.sf.jasperreports.engine.export.ooxml.JRPptxExporter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.JRSaver;
+import net.sf.jasperreports.engine.util.JRSwapFile;
 import net.sf.jasperreports.export.SimpleExporterInput;
 import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
 import net.sf.jasperreports.export.SimpleWriterExporterOutput;
@@ -68,6 +85,31 @@ public class JasperReportsExporter {
     public static final int EXPORT_RTF = 1 << 4;
     public static final int EXPORT_ODT = 1 << 5;
     
+    /**
+     * Compiled reports are cached in this folder keyed by a digest of their template file
+     */
+    static final File COMPILED_REPORTS_FOLDER = new File(ArchiPlugin.INSTANCE.getUserDataFolder(), "jasper-cache"); //$NON-NLS-1$
+    
+    /**
+     * Maximum number of compiled reports in the cache. The least recently used are deleted.
+     */
+    static final int MAX_COMPILED_REPORTS = 50;
+    
+    /**
+     * Number of filled pages kept in memory. Other pages are swapped to file.
+     */
+    static final int VIRTUALIZER_MAX_PAGES = 50;
+    
+    /**
+     * Number of threads that write diagram images and export reports
+     */
+    static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    
+    /**
+     * Milliseconds between progress updates while waiting for tasks
+     */
+    private static final long PROGRESS_INTERVAL = 100;
+    
     private boolean DELETE_TEMP_FILES = true;
     
     private IArchimateModel fModel;
@@ -79,7 +121,18 @@ public class JasperReportsExporter {
     
     private Locale fLocale;
     
+    private File fCompiledReportsFolder = COMPILED_REPORTS_FOLDER;
+    
     private IProgressMonitor progressMonitor;
+    
+    /**
+     * Swaps filled pages to file. This is created when filling and cleaned up after exporting.
+     */
+    private JRVirtualizer fVirtualizer;
+    
+    private interface ExportTask {
+        void run() throws IOException, JRException;
+    }
 
     /**
      * Export model to one or more Jasper Reports
@@ -122,42 +175,59 @@ public class JasperReportsExporter {
         File tmpFolder = new File(fExportFolder, "tmp"); //$NON-NLS-1$
         tmpFolder.mkdirs();
         
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        
         try {
-            writeDiagrams(tmpFolder);
+            writeDiagrams(tmpFolder, executor);
             
             JasperPrint jasperPrint = createJasperPrint(tmpFolder);
             
+            // Export all formats at the same time from the one Jasper Print
+            List<Future<?>> tasks = new ArrayList<>();
+            List<String> formats = new ArrayList<>();
+            
             if((fExportOptions & EXPORT_HTML) != 0) {
-                setProgressSubTask(Messages.JasperReportsExporter_3);
-                exportHTML(jasperPrint, new File(fExportFolder, fExportFileName + ".html")); //$NON-NLS-1$
+                formats.add(Messages.JasperReportsExporter_3);
+                tasks.add(submitTask(executor, () -> exportHTML(jasperPrint, new File(fExportFolder, fExportFileName + ".html")))); //$NON-NLS-1$
             }
 
             if((fExportOptions & EXPORT_PDF) != 0) {
-                setProgressSubTask(Messages.JasperReportsExporter_4);
-                exportPDF(jasperPrint, new File(fExportFolder, fExportFileName + ".pdf")); //$NON-NLS-1$
+                formats.add(Messages.JasperReportsExporter_4);
+                tasks.add(submitTask(executor, () -> exportPDF(jasperPrint, new File(fExportFolder, fExportFileName + ".pdf")))); //$NON-NLS-1$
             }
 
             if((fExportOptions & EXPORT_DOCX) != 0) {
-                setProgressSubTask(Messages.JasperReportsExporter_5);
-                exportDOCX(jasperPrint, new File(fExportFolder, fExportFileName + ".docx")); //$NON-NLS-1$
+                formats.add(Messages.JasperReportsExporter_5);
+                tasks.add(submitTask(executor, () -> exportDOCX(jasperPrint, new File(fExportFolder, fExportFileName + ".docx")))); //$NON-NLS-1$
             }
             
             if((fExportOptions & EXPORT_PPT) != 0) {
-                setProgressSubTask(Messages.JasperReportsExporter_6);
-                exportPPT(jasperPrint, new File(fExportFolder, fExportFileName + ".pptx")); //$NON-NLS-1$
+                formats.add(Messages.JasperReportsExporter_6);
+                tasks.add(submitTask(executor, () -> exportPPT(jasperPrint, new File(fExportFolder, fExportFileName + ".pptx")))); //$NON-NLS-1$
             }
             
             if((fExportOptions & EXPORT_RTF) != 0) {
-                setProgressSubTask(Messages.JasperReportsExporter_7);
-                exportRTF(jasperPrint, new File(fExportFolder, fExportFileName + ".rtf")); //$NON-NLS-1$
+                formats.add(Messages.JasperReportsExporter_7);
+                tasks.add(submitTask(executor, () -> exportRTF(jasperPrint, new File(fExportFolder, fExportFileName + ".rtf")))); //$NON-NLS-1$
             }
             
             if((fExportOptions & EXPORT_ODT) != 0) {
-                setProgressSubTask(Messages.JasperReportsExporter_8);
-                exportODT(jasperPrint, new File(fExportFolder, fExportFileName + ".odt")); //$NON-NLS-1$
+                formats.add(Messages.JasperReportsExporter_8);
+                tasks.add(submitTask(executor, () -> exportODT(jasperPrint, new File(fExportFolder, fExportFileName + ".odt")))); //$NON-NLS-1$
+            }
+            
+            setProgressSubTask(String.join(" ", formats)); //$NON-NLS-1$
+            
+            for(Future<?> task : tasks) {
+                waitForTask(task);
             }
         }
         finally {
+            // Tasks must have stopped before their swap files and images are deleted
+            shutdown(executor);
+            
+            cleanupVirtualizer();
+            
             if(DELETE_TEMP_FILES) {
                 setProgressSubTask(Messages.JasperReportsExporter_9);
                 FileUtils.deleteFolder(tmpFolder);
@@ -168,25 +238,56 @@ public class JasperReportsExporter {
     /**
      * Write the diagrams to temp files
      */
-    void writeDiagrams(File tmpFolder) throws IOException {
+    void writeDiagrams(File tmpFolder) throws IOException, JRException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            writeDiagrams(tmpFolder, executor);
+        }
+        finally {
+            shutdown(executor);
+        }
+    }
+    
+    /**
+     * Write the diagrams to temp files.
+     * Diagram images are rendered on this thread (which should be the Display thread) and written to file by the executor.
+     */
+    private void writeDiagrams(File tmpFolder, ExecutorService executor) throws IOException, JRException {
         List<IDiagramModel> diagramModels = fModel.getDiagramModels();
         int total = diagramModels.size();
         int i = 1;
+        
+        List<Future<?>> tasks = new ArrayList<>();
 
         for(IDiagramModel dm : diagramModels) {
             setProgressSubTask(NLS.bind(Messages.JasperReportsExporter_1, i++, total));
             
             Image image = DiagramUtils.createImage(dm, 1, 10);
             String diagramName = dm.getId() + ".png"; //$NON-NLS-1$
+            
+            ImageData imageData;
             try {
-                ImageLoader loader = new ImageLoader();
-                loader.data = new ImageData[] { image.getImageData(ImageFactory.getImageDeviceZoom()) };
-                File file = new File(tmpFolder, diagramName);
-                loader.save(file.getAbsolutePath(), SWT.IMAGE_PNG);
+                imageData = image.getImageData(ImageFactory.getImageDeviceZoom());
             }
             finally {
                 image.dispose();
             }
+            
+            File file = new File(tmpFolder, diagramName);
+            tasks.add(submitTask(executor, () -> {
+                ImageLoader loader = new ImageLoader();
+                loader.data = new ImageData[] { imageData };
+                loader.save(file.getAbsolutePath(), SWT.IMAGE_PNG);
+            }));
+            
+            // Don't hold too many images in memory
+            if(tasks.size() >= THREADS * 2) {
+                waitForTask(tasks.remove(0));
+            }
+        }
+        
+        for(Future<?> task : tasks) {
+            waitForTask(task);
         }
     }
     
@@ -234,21 +335,119 @@ public class JasperReportsExporter {
         // Compile Main Report
         setProgressSubTask(Messages.JasperReportsExporter_10);
         
-        JasperReport mainReport = JasperCompileManager.compileReport(fMainTemplateFile.getPath());
+        JasperReport mainReport = compileReport(fMainTemplateFile);
         
         // Compile sub-reports
         for(File file : reportFolder.listFiles()) {
             if(!file.equals(fMainTemplateFile) && file.getName().endsWith(".jrxml")) { //$NON-NLS-1$
                 //System.out.println("Compiling Sub-Report: " + file);
-                JasperReport jr = JasperCompileManager.compileReport(file.getPath());
+                JasperReport jr = compileReport(file);
                 params.put(jr.getName(), jr);
             }
         }
         
-        // Fill Report
-        setProgressSubTask(Messages.JasperReportsExporter_11);
+        // Swap pages to file rather than holding the whole report in memory
+        cleanupVirtualizer();
+        JRSwapFileVirtualizer virtualizer = new JRSwapFileVirtualizer(VIRTUALIZER_MAX_PAGES,
+                new JRSwapFile(System.getProperty("java.io.tmpdir"), 4096, 100), true); //$NON-NLS-1$
+        fVirtualizer = virtualizer;
+        params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+        
+        boolean filled = false;
+        
+        try {
+            // Fill Report
+            setProgressSubTask(Messages.JasperReportsExporter_11);
+            
+            JasperPrint jasperPrint = JasperFillManager.fillReport(mainReport, params, new ArchimateModelDataSource(fModel));
+            
+            // Pages are only read from now on and can be read by more than one exporter
+            virtualizer.setReadOnly(true);
+            
+            filled = true;
+            return jasperPrint;
+        }
+        finally {
+            // The pages of a filled report are needed until it has been exported
+            if(!filled) {
+                cleanupVirtualizer();
+            }
+        }
+    }
+    
+    /**
+     * Delete the swapped pages of the last filled report
+     */
+    void cleanupVirtualizer() {
+        if(fVirtualizer != null) {
+            fVirtualizer.cleanup();
+            fVirtualizer = null;
+        }
+    }
+    
+    /**
+     * Set the folder in which compiled reports are cached
+     */
+    void setCompiledReportsFolder(File folder) {
+        fCompiledReportsFolder = folder;
+    }
+    
+    /**
+     * Compile a report template, or load it from the cache of compiled reports if the template has not changed
+     */
+    JasperReport compileReport(File templateFile) throws JRException, IOException {
+        File compiledFile = new File(fCompiledReportsFolder, getDigest(templateFile) + ".jasper"); //$NON-NLS-1$
+        
+        if(compiledFile.exists()) {
+            try {
+                JasperReport report = (JasperReport)JRLoader.loadObject(compiledFile);
+                compiledFile.setLastModified(System.currentTimeMillis()); // Most recently used
+                return report;
+            }
+            catch(JRException | ClassCastException ex) {
+                // Compiled with a different version of Jasper Reports, so compile it again
+                compiledFile.delete();
+            }
+        }
+        
+        JasperReport report = JasperCompileManager.compileReport(templateFile.getPath());
+        
+        fCompiledReportsFolder.mkdirs();
         
-        return JasperFillManager.fillReport(mainReport, params, new ArchimateModelDataSource(fModel));
+        // Save to a temporary file first in case another export is reading the cache
+        File tmpFile = File.createTempFile("report", ".jasper", fCompiledReportsFolder); //$NON-NLS-1$ //$NON-NLS-2$
+        JRSaver.saveObject(report, tmpFile);
+        if(!tmpFile.renameTo(compiledFile)) {
+            tmpFile.delete();
+        }
+        
+        pruneCompiledReports();
+        
+        return report;
+    }
+    
+    /**
+     * Delete the least recently used compiled reports so that there are no more than MAX_COMPILED_REPORTS in the cache.
+     * A compiled report is no longer used when its template is changed or deleted.
+     */
+    void pruneCompiledReports() {
+        File[] files = fCompiledReportsFolder.listFiles((dir, name) -> name.endsWith(".jasper")); //$NON-NLS-1$
+        if(files == null || files.length <= MAX_COMPILED_REPORTS) {
+            return;
+        }
+        
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        
+        for(int i = 0; i < files.length - MAX_COMPILED_REPORTS; i++) {
+            files[i].delete();
+        }
+    }
+    
+    /**
+     * @return A hex digest of the content of a file
+     */
+    private String getDigest(File file) throws IOException {
+        return DigestUtils.sha256Hex(file);
     }
     
     void exportHTML(JasperPrint jasperPrint, File file) throws JRException {
@@ -287,6 +486,62 @@ public class JasperReportsExporter {
         exporter.exportReport();
     }
 
+    /**
+     * Stop the executor and wait for any running tasks to stop
+     */
+    private void shutdown(ExecutorService executor) {
+        executor.shutdownNow();
+        
+        // The Jasper exporters don't stop when interrupted so keep the UI responsive while waiting for them to finish
+        try {
+            while(!executor.awaitTermination(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS)) {
+                dispatchEvents();
+            }
+        }
+        catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Submit a task to run on a worker thread
+     */
+    private Future<?> submitTask(ExecutorService executor, ExportTask task) {
+        return executor.submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Wait for a task to complete, updating progress while waiting
+     * @throws IOException if the task failed or the user cancelled
+     * @throws JRException if the task failed
+     */
+    private void waitForTask(Future<?> task) throws IOException, JRException {
+        while(true) {
+            try {
+                task.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+                return;
+            }
+            catch(TimeoutException ex) {
+                updateProgress();
+            }
+            catch(InterruptedException ex) {
+                throw new InterruptedIOException();
+            }
+            catch(ExecutionException ex) {
+                if(ex.getCause() instanceof IOException) {
+                    throw (IOException)ex.getCause();
+                }
+                if(ex.getCause() instanceof JRException) {
+                    throw (JRException)ex.getCause();
+                }
+                throw new IOException(ex.getCause());
+            }
+        }
+    }
+    
     private void setProgressSubTask(String task) throws IOException {
         if(progressMonitor != null) {
             progressMonitor.subTask(task);
@@ -296,11 +551,20 @@ public class JasperReportsExporter {
     
     private void updateProgress() throws IOException {
         if(progressMonitor != null && PlatformUI.isWorkbenchRunning() && Display.getCurrent() != null) {
-            while(Display.getCurrent().readAndDispatch());
+            dispatchEvents();
             
             if(progressMonitor.isCanceled()) {
                 throw new CancelledException(Messages.JasperReportsExporter_12);
             }
         }
     }
+    
+    /**
+     * Dispatch UI events if this is the Display thread so that the progress dialog is updated
+     */
+    private void dispatchEvents() {
+        if(PlatformUI.isWorkbenchRunning() && Display.getCurrent() != null) {
+            while(Display.getCurrent().readAndDispatch());
+        }
+    }
 }
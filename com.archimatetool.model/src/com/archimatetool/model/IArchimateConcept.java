@@ -6,6 +6,7 @@
 package com.archimatetool.model;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.eclipse.emf.common.util.EList;
 
@@ -35,5 +36,22 @@ public interface IArchimateConcept extends IArchimateModelObject, ICloneable, ID
      * @return A list of diagram components that reference this concept
      */
     List<? extends IDiagramModelArchimateComponent> getReferencingDiagramComponents();
+    
+    /**
+     * Implementations should override this to avoid creating a new list
+     * @return true if there are diagram components that reference this concept
+     */
+    default boolean hasReferencingDiagramComponents() {
+        return !getReferencingDiagramComponents().isEmpty();
+    }
+    
+    /**
+     * Perform an action for each diagram component that references this concept.
+     * Implementations should override this to avoid creating a new list
+     * @param action The action
+     */
+    default void forEachReferencingDiagramComponent(Consumer<? super IDiagramModelArchimateComponent> action) {
+        getReferencingDiagramComponents().forEach(action);
+    }
 
 } // IArchimateConcept
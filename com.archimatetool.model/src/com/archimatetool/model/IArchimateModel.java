@@ -6,6 +6,7 @@
 package com.archimatetool.model;
 
 import java.io.File;
+import java.util.List;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EObject;
@@ -194,6 +195,22 @@ public interface IArchimateModel extends IFolderContainer, IArchimateModelObject
      */
     boolean removeModelContentListener(IModelContentListener listener);
     
+    /**
+     * Get an object in this model given its ID.
+     * An ID index is created on first use and is then kept up to date as the model changes.
+     * @param id The ID of the object to search for
+     * @return The matching object in the model given its ID or null if not found
+     */
+    EObject getObjectByID(String id);
+    
+    /**
+     * Get the diagram model references in this model that reference a diagram model.
+     * A reference index is created on first use and is then kept up to date as the model changes.
+     * @param diagramModel The referenced diagram model
+     * @return An unmodifiable list of the diagram model references, empty if there are none
+     */
+    List<IDiagramModelReference> getDiagramModelReferences(IDiagramModel diagramModel);
+    
     /**
      * Dispose of this model to free memory
      */
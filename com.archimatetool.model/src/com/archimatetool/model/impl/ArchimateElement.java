@@ -9,11 +9,13 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.eclipse.emf.ecore.EClass;
 
 import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IDiagramModelArchimateComponent;
 import com.archimatetool.model.IDiagramModelArchimateObject;
 
 
@@ -76,4 +78,24 @@ public abstract class ArchimateElement extends ArchimateConcept implements IArch
         return getReferencingDiagramObjects();
     }
     
+    @Override
+    public boolean hasReferencingDiagramComponents() {
+        for(IDiagramModelArchimateObject dmo : diagramObjects) {
+            if(dmo.getArchimateModel() != null) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    @Override
+    public void forEachReferencingDiagramComponent(Consumer<? super IDiagramModelArchimateComponent> action) {
+        for(IDiagramModelArchimateObject dmo : diagramObjects) {
+            if(dmo.getArchimateModel() != null) {
+                action.accept(dmo);
+            }
+        }
+    }
+    
 } //ArchimateElement
@@ -8,6 +8,7 @@ package com.archimatetool.model.impl;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -19,6 +20,7 @@ import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import org.eclipse.emf.ecore.impl.EObjectImpl;
@@ -36,6 +38,7 @@ import com.archimatetool.model.IArchimatePackage;
 import com.archimatetool.model.IArchimateRelationship;
 import com.archimatetool.model.IBusinessElement;
 import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelReference;
 import com.archimatetool.model.IFeature;
 import com.archimatetool.model.IFeatures;
 import com.archimatetool.model.IFeaturesEList;
@@ -218,6 +221,26 @@ public class ArchimateModel extends EObjectImpl implements IArchimateModel {
      */
     private List<IModelContentListener> fContentListeners = new ArrayList<IModelContentListener>();
     
+    /**
+     * Index of object IDs to objects in this model.
+     * This is created on first use and then kept in sync by the central eContentAdapter.
+     * If more than one object has the same ID the first one in the model's contents is indexed, as it is when iterating the model.
+     * Indexes are created under a lock and only published when complete so that the first use can be on any thread
+     * (such as when report pages are written on worker threads). The model must only be changed on one thread.
+     */
+    private volatile Map<String, EObject> fIDIndex;
+    
+    /**
+     * Set if the ID index was created when more than one object had the same ID
+     */
+    private boolean fIDIndexHasDuplicates;
+    
+    /**
+     * Index of diagram models to the diagram model references in this model that reference them.
+     * This is created on first use and then kept in sync by the central eContentAdapter
+     */
+    private volatile Map<IDiagramModel, List<IDiagramModelReference>> fDiagramModelReferenceIndex;
+    
     /**
      * One central EContentAdapter to listen to all model changes and forward on to listeners
      */
@@ -231,6 +254,11 @@ public class ArchimateModel extends EObjectImpl implements IArchimateModel {
                 return;
             }
             
+            // Update the indexes
+            if(fIDIndex != null || fDiagramModelReferenceIndex != null) {
+                updateIndexes(notification);
+            }
+            
             // Notify model listeners
             if(fContentListeners != null) {
                 for(IModelContentListener listener : new ArrayList<>(fContentListeners)) {
@@ -257,9 +285,7 @@ public class ArchimateModel extends EObjectImpl implements IArchimateModel {
             return false;
         }
         
-        if(!eAdapters().contains(eContentAdapter)) {
-            eAdapters().add(eContentAdapter);
-        }
+        addContentAdapter();
         
         return fContentListeners.contains(listener) ? false: fContentListeners.add(listener);
     }
@@ -273,6 +299,265 @@ public class ArchimateModel extends EObjectImpl implements IArchimateModel {
         return fContentListeners.remove(listener);
     }
     
+    /**
+     * Add the central EContentAdapter if it has not already been added
+     */
+    private void addContentAdapter() {
+        if(!eAdapters().contains(eContentAdapter)) {
+            eAdapters().add(eContentAdapter);
+        }
+    }
+    
+    @Override
+    public EObject getObjectByID(String id) {
+        if(id == null || fContentListeners == null) { // we might be disposed
+            return null;
+        }
+        
+        if(id.equals(getId())) {
+            return this;
+        }
+        
+        Map<String, EObject> index = fIDIndex;
+        if(index == null) {
+            index = createIDIndex();
+        }
+        
+        return index.get(id);
+    }
+    
+    /**
+     * Create the ID index with one iteration of the model's contents.
+     * From then on the eContentAdapter keeps it up to date.
+     */
+    private synchronized Map<String, EObject> createIDIndex() {
+        if(fIDIndex != null) {
+            return fIDIndex;
+        }
+        
+        addContentAdapter();
+        
+        Map<String, EObject> index = new HashMap<String, EObject>();
+        boolean hasDuplicates = false;
+        
+        for(Iterator<EObject> iter = eAllContents(); iter.hasNext();) {
+            EObject eObject = iter.next();
+            if(eObject instanceof IIdentifier) {
+                String id = ((IIdentifier)eObject).getId();
+                if(id != null && index.putIfAbsent(id, eObject) != null) {
+                    hasDuplicates = true;
+                }
+            }
+        }
+        
+        fIDIndexHasDuplicates = hasDuplicates;
+        fIDIndex = index;
+        return index;
+    }
+    
+    /**
+     * Add an object's ID to the ID index.
+     * If another object has the same ID the index is created again when next used so that the same object is indexed as on creation.
+     */
+    private void addToIDIndex(String id, EObject eObject) {
+        EObject existing = fIDIndex.putIfAbsent(id, eObject);
+        if(existing != null && existing != eObject) {
+            fIDIndex = null;
+        }
+    }
+    
+    /**
+     * Remove an object's ID from the ID index.
+     * If another object might have the same ID the index is created again when next used.
+     */
+    private void removeFromIDIndex(String id, EObject eObject) {
+        if(fIDIndex.remove(id, eObject) && fIDIndexHasDuplicates) {
+            fIDIndex = null;
+        }
+    }
+    
+    @Override
+    public List<IDiagramModelReference> getDiagramModelReferences(IDiagramModel diagramModel) {
+        if(diagramModel == null || fContentListeners == null) { // we might be disposed
+            return Collections.emptyList();
+        }
+        
+        Map<IDiagramModel, List<IDiagramModelReference>> index = fDiagramModelReferenceIndex;
+        if(index == null) {
+            index = createDiagramModelReferenceIndex();
+        }
+        
+        List<IDiagramModelReference> list = index.get(diagramModel);
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+    
+    /**
+     * Create the diagram model reference index with one iteration of the Views folder.
+     * From then on the eContentAdapter keeps it up to date.
+     */
+    private synchronized Map<IDiagramModel, List<IDiagramModelReference>> createDiagramModelReferenceIndex() {
+        if(fDiagramModelReferenceIndex != null) {
+            return fDiagramModelReferenceIndex;
+        }
+        
+        addContentAdapter();
+        
+        Map<IDiagramModel, List<IDiagramModelReference>> index = new HashMap<IDiagramModel, List<IDiagramModelReference>>();
+        
+        IFolder diagramsFolder = getFolder(FolderType.DIAGRAMS);
+        if(diagramsFolder != null) {
+            for(Iterator<EObject> iter = diagramsFolder.eAllContents(); iter.hasNext();) {
+                EObject eObject = iter.next();
+                if(eObject instanceof IDiagramModelReference) {
+                    IDiagramModelReference ref = (IDiagramModelReference)eObject;
+                    addToDiagramModelReferenceIndex(index, ref, ref.getReferencedModel());
+                }
+            }
+        }
+        
+        fDiagramModelReferenceIndex = index;
+        return index;
+    }
+    
+    private void addToDiagramModelReferenceIndex(IDiagramModelReference ref, IDiagramModel diagramModel) {
+        addToDiagramModelReferenceIndex(fDiagramModelReferenceIndex, ref, diagramModel);
+    }
+    
+    private static void addToDiagramModelReferenceIndex(Map<IDiagramModel, List<IDiagramModelReference>> index, IDiagramModelReference ref, IDiagramModel diagramModel) {
+        if(diagramModel != null) {
+            index.computeIfAbsent(diagramModel, dm -> new ArrayList<>(1)).add(ref);
+        }
+    }
+    
+    private void removeFromDiagramModelReferenceIndex(IDiagramModelReference ref, IDiagramModel diagramModel) {
+        List<IDiagramModelReference> list = diagramModel != null ? fDiagramModelReferenceIndex.get(diagramModel) : null;
+        if(list != null && list.remove(ref) && list.isEmpty()) {
+            fDiagramModelReferenceIndex.remove(diagramModel);
+        }
+    }
+    
+    /**
+     * Update the indexes when an object's ID changes, a diagram model reference changes
+     * or objects are added to or removed from the model
+     */
+    private void updateIndexes(Notification notification) {
+        Object feature = notification.getFeature();
+        
+        // A diagram model reference's referenced diagram model changed
+        if(feature == IArchimatePackage.Literals.DIAGRAM_MODEL_REFERENCE__REFERENCED_MODEL) {
+            if(fDiagramModelReferenceIndex != null) {
+                IDiagramModelReference ref = (IDiagramModelReference)notification.getNotifier();
+                removeFromDiagramModelReferenceIndex(ref, (IDiagramModel)notification.getOldValue());
+                addToDiagramModelReferenceIndex(ref, (IDiagramModel)notification.getNewValue());
+            }
+            return;
+        }
+        
+        // An object's ID changed
+        if(feature == IArchimatePackage.Literals.IDENTIFIER__ID) {
+            if(fIDIndex == null) {
+                return;
+            }
+            
+            Object notifier = notification.getNotifier();
+            if(notifier != this) {
+                String oldID = notification.getOldStringValue();
+                if(oldID != null) {
+                    removeFromIDIndex(oldID, (EObject)notifier);
+                }
+                String newID = notification.getNewStringValue();
+                if(newID != null && fIDIndex != null) {
+                    addToIDIndex(newID, (EObject)notifier);
+                }
+            }
+            return;
+        }
+        
+        // Objects were added or removed
+        if(feature instanceof EReference && ((EReference)feature).isContainment()) {
+            switch(notification.getEventType()) {
+                case Notification.ADD:
+                    addToIndexes(notification.getNewValue());
+                    break;
+
+                case Notification.ADD_MANY:
+                    for(Object o : (Collection<?>)notification.getNewValue()) {
+                        addToIndexes(o);
+                    }
+                    break;
+
+                case Notification.REMOVE:
+                    removeFromIndexes(notification.getOldValue());
+                    break;
+
+                case Notification.REMOVE_MANY:
+                    for(Object o : (Collection<?>)notification.getOldValue()) {
+                        removeFromIndexes(o);
+                    }
+                    break;
+
+                case Notification.SET:
+                case Notification.UNSET:
+                    removeFromIndexes(notification.getOldValue());
+                    addToIndexes(notification.getNewValue());
+                    break;
+
+                default:
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Add an object and its child objects to the indexes
+     */
+    private void addToIndexes(Object object) {
+        if(object instanceof EObject) {
+            EObject eObject = (EObject)object;
+            
+            addToIndexes(eObject);
+            
+            for(Iterator<EObject> iter = eObject.eAllContents(); iter.hasNext();) {
+                addToIndexes(iter.next());
+            }
+        }
+    }
+    
+    private void addToIndexes(EObject eObject) {
+        if(fIDIndex != null && eObject instanceof IIdentifier && ((IIdentifier)eObject).getId() != null) {
+            addToIDIndex(((IIdentifier)eObject).getId(), eObject);
+        }
+        
+        if(fDiagramModelReferenceIndex != null && eObject instanceof IDiagramModelReference) {
+            addToDiagramModelReferenceIndex((IDiagramModelReference)eObject, ((IDiagramModelReference)eObject).getReferencedModel());
+        }
+    }
+    
+    /**
+     * Remove an object and its child objects from the indexes
+     */
+    private void removeFromIndexes(Object object) {
+        if(object instanceof EObject) {
+            EObject eObject = (EObject)object;
+            
+            removeFromIndexes(eObject);
+            
+            for(Iterator<EObject> iter = eObject.eAllContents(); iter.hasNext();) {
+                removeFromIndexes(iter.next());
+            }
+        }
+    }
+    
+    private void removeFromIndexes(EObject eObject) {
+        if(fIDIndex != null && eObject instanceof IIdentifier && ((IIdentifier)eObject).getId() != null) {
+            removeFromIDIndex(((IIdentifier)eObject).getId(), eObject);
+        }
+        
+        if(fDiagramModelReferenceIndex != null && eObject instanceof IDiagramModelReference) {
+            removeFromDiagramModelReferenceIndex((IDiagramModelReference)eObject, ((IDiagramModelReference)eObject).getReferencedModel());
+        }
+    }
+    
     /**
      * <!-- begin-user-doc -->
      * <!-- end-user-doc -->
@@ -936,6 +1221,16 @@ public class ArchimateModel extends EObjectImpl implements IArchimateModel {
         fContentListeners.clear();
         fContentListeners = null;
         
+        if(fDiagramModelReferenceIndex != null) {
+            fDiagramModelReferenceIndex.clear();
+            fDiagramModelReferenceIndex = null;
+        }
+        
+        if(fIDIndex != null) {
+            fIDIndex.clear();
+            fIDIndex = null;
+        }
+        
         // Dispose of these in case they are referenced in an editor or similar
         for(IDiagramModel dm : getDiagramModels()) {
             dm.getProperties().clear();
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EClass;
@@ -18,6 +19,7 @@ import org.eclipse.emf.ecore.impl.ENotificationImpl;
 import com.archimatetool.model.IArchimateConcept;
 import com.archimatetool.model.IArchimatePackage;
 import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IDiagramModelArchimateComponent;
 import com.archimatetool.model.IDiagramModelArchimateConnection;
 
 /**
@@ -218,6 +220,26 @@ public abstract class ArchimateRelationship extends ArchimateConcept implements
     public List<IDiagramModelArchimateConnection> getReferencingDiagramComponents() {
         return getReferencingDiagramConnections();
     }
+    
+    @Override
+    public boolean hasReferencingDiagramComponents() {
+        for(IDiagramModelArchimateConnection dmc : diagramConnections) {
+            if(dmc.getArchimateModel() != null) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    @Override
+    public void forEachReferencingDiagramComponent(Consumer<? super IDiagramModelArchimateComponent> action) {
+        for(IDiagramModelArchimateConnection dmc : diagramConnections) {
+            if(dmc.getArchimateModel() != null) {
+                action.accept(dmc);
+            }
+        }
+    }
 
     /**
      * <!-- begin-user-doc -->
@@ -0,0 +1,84 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.impl;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.UniqueEList;
+
+import com.archimatetool.model.IArchimateRelationship;
+
+/**
+ * List of the relationships connected to a concept.
+ *
+ * Membership is hashed so that adding to and checking the list is not a linear scan
+ * when a concept has many relationships. The order of the relationships is kept.
+ *
+ * @author Phillip Beauvoir
+ */
+public class RelationshipsEList extends UniqueEList.FastCompare<IArchimateRelationship> {
+
+    private static final long serialVersionUID = 1L;
+
+    private Set<IArchimateRelationship> fSet = new HashSet<>();
+
+    public RelationshipsEList() {
+        super();
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return fSet.contains(object);
+    }
+
+    @Override
+    public int indexOf(Object object) {
+        return fSet.contains(object) ? super.indexOf(object) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object object) {
+        return fSet.contains(object) ? super.lastIndexOf(object) : -1;
+    }
+
+    @Override
+    protected void didAdd(int index, IArchimateRelationship newObject) {
+        fSet.add(newObject);
+        super.didAdd(index, newObject);
+    }
+
+    @Override
+    protected void didSet(int index, IArchimateRelationship newObject, IArchimateRelationship oldObject) {
+        fSet.remove(oldObject);
+        fSet.add(newObject);
+        super.didSet(index, newObject, oldObject);
+    }
+
+    @Override
+    protected void didRemove(int index, IArchimateRelationship oldObject) {
+        fSet.remove(oldObject);
+        super.didRemove(index, oldObject);
+    }
+
+    @Override
+    protected void didClear(int size, Object[] oldObjects) {
+        fSet.clear();
+    }
+
+    @Override
+    public void setData(int size, Object[] data) {
+        super.setData(size, data);
+        fSet = new HashSet<>(this);
+    }
+
+    @Override
+    public Object clone() {
+        RelationshipsEList clone = (RelationshipsEList)super.clone();
+        clone.fSet = new HashSet<>(fSet);
+        return clone;
+    }
+}
@@ -0,0 +1,441 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.util;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.ExtendedMetaData;
+import org.eclipse.emf.ecore.xmi.ClassNotFoundException;
+import org.eclipse.emf.ecore.xmi.FeatureNotFoundException;
+import org.eclipse.emf.ecore.xmi.IllegalValueException;
+import org.eclipse.emf.ecore.xmi.PackageNotFoundException;
+import org.eclipse.emf.ecore.xmi.UnresolvedReferenceException;
+import org.eclipse.emf.ecore.xmi.XMIException;
+
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IIdentifier;
+
+
+
+/**
+ * Streaming (StAX) reader for Archimate model XML files.<p>
+ *
+ * This is an alternative to loading a model through the EMF XMLResource and its SAX handler.
+ * Objects are created directly with IArchimateFactory as the XML is pulled from the stream,
+ * and ID references (source, target, archimateElement and so on) are recorded and then
+ * resolved in one pass at the end of the document from a single ID table.<p>
+ *
+ * The ExtendedMetaData used for the EMF loader is used here to map XML names to features and types
+ * so that older model formats are handled in the same way. Diagnostics are reported in the same way as
+ * the EMF loader so that a caller can check them with ModelCompatibility.
+ *
+ * @author Phillip Beauvoir
+ */
+public class ArchimateModelReader {
+
+    private static final String XSI_NAMESPACE = XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI;
+    private static final String XSI_TYPE = "type"; //$NON-NLS-1$
+
+    /**
+     * A reference to an object that is resolved at the end of the document
+     */
+    private static class PendingReference {
+        EObject eObject;
+        EReference eReference;
+        String value;
+        int line, column;
+
+        PendingReference(EObject eObject, EReference eReference, String value, int line, int column) {
+            this.eObject = eObject;
+            this.eReference = eReference;
+            this.value = value;
+            this.line = line;
+            this.column = column;
+        }
+    }
+
+    private ExtendedMetaData fExtendedMetaData;
+    private String fLocation;
+    private int fInitialCapacity;
+
+    private XMLStreamReader fReader;
+    private Map<String, EObject> fIDTable;
+    private List<PendingReference> fPendingReferences;
+    private List<Resource.Diagnostic> fErrors;
+
+    /**
+     * Cache of XML element and attribute names to features for each EClass
+     */
+    private Map<EClass, Map<String, EStructuralFeature>> fElementFeatures = new HashMap<>();
+    private Map<EClass, Map<String, EStructuralFeature>> fAttributeFeatures = new HashMap<>();
+
+    /**
+     * @param extendedMetaData The ExtendedMetaData used to map XML names to types and features. If null a ConverterExtendedMetadata is used.
+     * @param location The location of the model file used when reporting errors. Can be null.
+     * @param initialCapacity Initial capacity of the ID table. This should be an estimate of the number of objects in the model, or 0 for the default.
+     */
+    public ArchimateModelReader(ExtendedMetaData extendedMetaData, String location, int initialCapacity) {
+        fExtendedMetaData = extendedMetaData != null ? extendedMetaData : new ConverterExtendedMetadata();
+        fLocation = location;
+        fInitialCapacity = Math.max(16, initialCapacity);
+    }
+
+    /**
+     * Read a model from an input stream. The stream is not closed.
+     * Any errors are available from {@link #getErrors()} after reading.
+     * @param in The input stream
+     * @return The model or null if the XML could not be parsed or a catastrophic error occurred
+     */
+    public IArchimateModel read(InputStream in) {
+        fIDTable = new HashMap<>(fInitialCapacity);
+        fPendingReferences = new ArrayList<>();
+        fErrors = new ArrayList<>();
+
+        IArchimateModel model = null;
+
+        try {
+            fReader = createXMLInputFactory().createXMLStreamReader(in);
+
+            try {
+                model = readRootElement();
+                resolveReferences();
+            }
+            finally {
+                fReader.close();
+                fReader = null;
+            }
+        }
+        catch(XMLStreamException ex) {
+            int line = ex.getLocation() != null ? ex.getLocation().getLineNumber() : -1;
+            int column = ex.getLocation() != null ? ex.getLocation().getColumnNumber() : -1;
+            fErrors.add(new XMIException(ex, fLocation, line, column));
+        }
+        catch(CatastrophicException ex) {
+            // Already added to errors
+        }
+        finally {
+            fIDTable = null;
+            fPendingReferences = null;
+        }
+
+        return model;
+    }
+
+    /**
+     * @return The errors found when reading the model. This can include non-catastrophic errors such as unknown features.
+     */
+    public List<Resource.Diagnostic> getErrors() {
+        return fErrors != null ? fErrors : new ArrayList<>();
+    }
+
+    private XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+
+        // Don't allow DTD loading in case of XSS exploits
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+
+        return factory;
+    }
+
+    private IArchimateModel readRootElement() throws XMLStreamException, CatastrophicException {
+        fReader.nextTag();
+
+        String namespace = fReader.getNamespaceURI();
+        if(!IArchimatePackage.eNS_URI.equals(namespace)) {
+            fatalError(new PackageNotFoundException(namespace, fLocation, getLine(), getColumn()));
+        }
+
+        EClassifier eClassifier = fExtendedMetaData.getType(IArchimatePackage.eINSTANCE, fReader.getLocalName());
+        if(!(eClassifier instanceof EClass) || !IArchimatePackage.Literals.ARCHIMATE_MODEL.isSuperTypeOf((EClass)eClassifier)) {
+            fatalError(new ClassNotFoundException(fReader.getLocalName(), IArchimateFactory.eINSTANCE, fLocation, getLine(), getColumn()));
+        }
+
+        IArchimateModel model = (IArchimateModel)IArchimateFactory.eINSTANCE.create((EClass)eClassifier);
+        readObject(model);
+
+        return model;
+    }
+
+    /**
+     * Read the attributes and child elements of the current element into eObject
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(EObject eObject) throws XMLStreamException, CatastrophicException {
+        EClass eClass = eObject.eClass();
+
+        // Attributes
+        for(int i = 0; i < fReader.getAttributeCount(); i++) {
+            String namespace = fReader.getAttributeNamespace(i);
+            if(XSI_NAMESPACE.equals(namespace)) {
+                continue;
+            }
+
+            String name = fReader.getAttributeLocalName(i);
+            EStructuralFeature feature = getFeature(eClass, name, false);
+
+            if(feature == null) {
+                error(new FeatureNotFoundException(name, eObject, fLocation, getLine(), getColumn()));
+            }
+            else {
+                setFeatureValue(eObject, feature, fReader.getAttributeValue(i));
+            }
+        }
+
+        // Register the ID. If there are duplicate IDs the first one wins as it does for the EMF loader.
+        if(eObject instanceof IIdentifier) {
+            String id = ((IIdentifier)eObject).getId();
+            if(id != null) {
+                fIDTable.putIfAbsent(id, eObject);
+            }
+        }
+
+        // Child elements
+        while(fReader.hasNext()) {
+            int event = fReader.next();
+
+            if(event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+
+            if(event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            String name = fReader.getLocalName();
+            EStructuralFeature feature = getFeature(eClass, name, true);
+
+            // Unknown feature
+            if(feature == null) {
+                error(new FeatureNotFoundException(name, eObject, fLocation, getLine(), getColumn()));
+                skipElement();
+            }
+            // Containment reference
+            else if(feature instanceof EReference && ((EReference)feature).isContainment()) {
+                EClass childClass = getChildClass((EReference)feature);
+
+                EObject child = IArchimateFactory.eINSTANCE.create(childClass);
+
+                // Add to the parent first as the EMF loader does
+                if(feature.isMany()) {
+                    ((EList<EObject>)eObject.eGet(feature)).add(child);
+                }
+                else {
+                    eObject.eSet(feature, child);
+                }
+
+                readObject(child);
+            }
+            // Attribute or reference stored as element text such as "documentation"
+            else {
+                setFeatureValue(eObject, feature, fReader.getElementText());
+            }
+        }
+    }
+
+    /**
+     * @return The EClass for a child element of the containment reference, from its xsi:type or the reference type
+     */
+    private EClass getChildClass(EReference eReference) throws CatastrophicException {
+        String xsiType = fReader.getAttributeValue(XSI_NAMESPACE, XSI_TYPE);
+
+        EClassifier eClassifier = null;
+        String typeName = xsiType;
+
+        if(xsiType == null) {
+            eClassifier = eReference.getEReferenceType();
+        }
+        else {
+            String prefix = ""; //$NON-NLS-1$
+            int index = xsiType.indexOf(':');
+            if(index != -1) {
+                prefix = xsiType.substring(0, index);
+                typeName = xsiType.substring(index + 1);
+            }
+
+            String namespace = fReader.getNamespaceContext().getNamespaceURI(prefix);
+            if(!IArchimatePackage.eNS_URI.equals(namespace)) {
+                fatalError(new PackageNotFoundException(namespace, fLocation, getLine(), getColumn()));
+            }
+
+            eClassifier = fExtendedMetaData.getType(IArchimatePackage.eINSTANCE, typeName);
+        }
+
+        if(!(eClassifier instanceof EClass) || ((EClass)eClassifier).isAbstract() || ((EClass)eClassifier).isInterface()) {
+            fatalError(new ClassNotFoundException(typeName != null ? typeName : eReference.getName(), IArchimateFactory.eINSTANCE,
+                    fLocation, getLine(), getColumn()));
+        }
+
+        return (EClass)eClassifier;
+    }
+
+    /**
+     * Set the value of an attribute or record a pending reference
+     */
+    @SuppressWarnings("unchecked")
+    private void setFeatureValue(EObject eObject, EStructuralFeature feature, String value) {
+        if(feature instanceof EReference) {
+            // Containment references are elements, not values
+            if(!((EReference)feature).isContainment()) {
+                fPendingReferences.add(new PendingReference(eObject, (EReference)feature, value, getLine(), getColumn()));
+            }
+            return;
+        }
+
+        if(feature.isTransient()) {
+            return;
+        }
+
+        EDataType eDataType = ((EAttribute)feature).getEAttributeType();
+
+        try {
+            Object object = eDataType.getEPackage().getEFactoryInstance().createFromString(eDataType, value);
+
+            if(feature.isMany()) {
+                ((EList<Object>)eObject.eGet(feature)).add(object);
+            }
+            else {
+                eObject.eSet(feature, object);
+            }
+        }
+        catch(RuntimeException ex) {
+            // An illegal value will default to the default value
+            error(new IllegalValueException(eObject, feature, value, ex, fLocation, getLine(), getColumn()));
+        }
+    }
+
+    /**
+     * Resolve all ID references in the order that they were read
+     */
+    @SuppressWarnings("unchecked")
+    private void resolveReferences() {
+        for(PendingReference ref : fPendingReferences) {
+            if(ref.eReference.isMany()) {
+                EList<EObject> list = (EList<EObject>)ref.eObject.eGet(ref.eReference);
+
+                for(String id : ref.value.trim().split("\\s+")) { //$NON-NLS-1$
+                    if(id.length() > 0) {
+                        EObject target = resolveReference(ref, id);
+                        if(target != null) {
+                            list.add(target);
+                        }
+                    }
+                }
+            }
+            else {
+                EObject target = resolveReference(ref, ref.value.trim());
+                if(target != null) {
+                    ref.eObject.eSet(ref.eReference, target);
+                }
+            }
+        }
+    }
+
+    private EObject resolveReference(PendingReference ref, String id) {
+        EObject target = fIDTable.get(id);
+
+        if(target == null || !ref.eReference.getEReferenceType().isInstance(target)) {
+            error(new UnresolvedReferenceException(id, ref.eReference, ref.eObject, fLocation, ref.line, ref.column));
+            return null;
+        }
+
+        return target;
+    }
+
+    /**
+     * Get a feature for an XML element or attribute name using the ExtendedMetaData and cache it
+     */
+    private EStructuralFeature getFeature(EClass eClass, String name, boolean isElement) {
+        Map<EClass, Map<String, EStructuralFeature>> cache = isElement ? fElementFeatures : fAttributeFeatures;
+
+        Map<String, EStructuralFeature> features = cache.get(eClass);
+        if(features == null) {
+            features = new HashMap<>();
+            cache.put(eClass, features);
+        }
+
+        if(features.containsKey(name)) {
+            return features.get(name);
+        }
+
+        EStructuralFeature feature = isElement ? fExtendedMetaData.getElement(eClass, null, name) : fExtendedMetaData.getAttribute(eClass, null, name);
+
+        // Be lax as the EMF loader is
+        if(feature == null) {
+            feature = isElement ? fExtendedMetaData.getAttribute(eClass, null, name) : fExtendedMetaData.getElement(eClass, null, name);
+        }
+        if(feature == null) {
+            feature = eClass.getEStructuralFeature(name);
+        }
+
+        features.put(name, feature);
+
+        return feature;
+    }
+
+    /**
+     * Skip the current element and all of its content
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+
+        while(depth > 0 && fReader.hasNext()) {
+            int event = fReader.next();
+            if(event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            }
+            else if(event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private void error(Resource.Diagnostic diagnostic) {
+        fErrors.add(diagnostic);
+    }
+
+    private void fatalError(Resource.Diagnostic diagnostic) throws CatastrophicException {
+        fErrors.add(diagnostic);
+        throw new CatastrophicException();
+    }
+
+    private int getLine() {
+        return fReader.getLocation() != null ? fReader.getLocation().getLineNumber() : -1;
+    }
+
+    private int getColumn() {
+        return fReader.getLocation() != null ? fReader.getLocation().getColumnNumber() : -1;
+    }
+
+    /**
+     * Thrown to stop reading when a catastrophic error occurs. The error itself is in the errors list.
+     */
+    @SuppressWarnings("serial")
+    private static class CatastrophicException extends Exception {
+    }
+}
@@ -7,10 +7,8 @@ package com.archimatetool.model.util;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Predicate;
 
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
@@ -19,7 +17,6 @@ import com.archimatetool.model.IArchimateConcept;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IArchimatePackage;
 import com.archimatetool.model.IArchimateRelationship;
-import com.archimatetool.model.IIdentifier;
 
 
 
@@ -30,6 +27,21 @@ import com.archimatetool.model.IIdentifier;
  */
 public class ArchimateModelUtils {
     
+    /**
+     * Relationships where a concept is the source
+     */
+    public static final int RELATIONSHIPS_SOURCE = 1;
+    
+    /**
+     * Relationships where a concept is the target
+     */
+    public static final int RELATIONSHIPS_TARGET = 2;
+    
+    /**
+     * Relationships where a concept is the source or the target
+     */
+    public static final int RELATIONSHIPS_ALL = RELATIONSHIPS_SOURCE | RELATIONSHIPS_TARGET;
+    
     /**
      * Determine if a given relationship type is allowed as a source for an Archimate concept
      * @param sourceConcept The source concept
@@ -83,15 +95,7 @@ public class ArchimateModelUtils {
      * @return All valid relationship types between sourceType and targetType
      */
     public static EClass[] getValidRelationships(EClass sourceType, EClass targetType) {
-        List<EClass> list = new ArrayList<EClass>();
-        
-        for(EClass eClass : getRelationsClasses()) {
-            if(isValidRelationship(sourceType, targetType, eClass)) {
-                list.add(eClass); 
-            }
-        }
-        
-        return list.toArray(new EClass[list.size()]);
+        return RelationshipsMatrix.INSTANCE.getValidRelationships(sourceType, targetType);
     }
     
     /**
@@ -103,13 +107,13 @@ public class ArchimateModelUtils {
      */
     public static boolean hasDirectRelationship(IArchimateConcept concept1, IArchimateConcept concept2) {
         if(concept1 instanceof IArchimateRelationship) {
-            if(getAllRelationshipsForConcept(concept2).contains(concept1)) {
+            if(hasRelationship(concept2, (IArchimateRelationship)concept1)) {
                 return true;
             }
         }
         
         if(concept2 instanceof IArchimateRelationship) {
-            if(getAllRelationshipsForConcept(concept1).contains(concept2)) {
+            if(hasRelationship(concept1, (IArchimateRelationship)concept2)) {
                 return true;
             }
         }
@@ -117,15 +121,63 @@ public class ArchimateModelUtils {
         return false;
     }
     
+    /**
+     * @return True if relationship is connected to concept as source or target
+     */
+    private static boolean hasRelationship(IArchimateConcept concept, IArchimateRelationship relationship) {
+        // These lists have hashed look up
+        return concept.getSourceRelationships().contains(relationship) || concept.getTargetRelationships().contains(relationship);
+    }
+    
     /**
      * @param concept The Archimate concept to get relationships for
-     * @return A list of all relationships that a concept has, both as target and as source
+     * @return A list of all relationships that a concept has, both as source and as target
      */
     public static List<IArchimateRelationship> getAllRelationshipsForConcept(IArchimateConcept concept) {
-        Set<IArchimateRelationship> set = new HashSet<IArchimateRelationship>();
-        set.addAll(concept.getSourceRelationships());
-        set.addAll(concept.getTargetRelationships());
-        return new ArrayList<>(set);
+        List<IArchimateRelationship> list = new ArrayList<>(concept.getSourceRelationships().size() + concept.getTargetRelationships().size());
+        visitRelationships(concept, RELATIONSHIPS_ALL, null, list::add);
+        return list;
+    }
+    
+    /**
+     * Visit the relationships of a concept in place without copying them to a new list.
+     * A relationship that has the concept as both source and target is visited once.
+     * The concept's relationships must not be changed while visiting.
+     * 
+     * @param concept The Archimate concept to visit relationships for
+     * @param direction One of RELATIONSHIPS_SOURCE, RELATIONSHIPS_TARGET or RELATIONSHIPS_ALL
+     * @param relationshipType If not null only relationships of this type are visited
+     * @param visitor Called for each relationship. Return false to stop visiting.
+     * @return False if the visitor stopped visiting, otherwise true
+     */
+    public static boolean visitRelationships(IArchimateConcept concept, int direction, EClass relationshipType, Predicate<IArchimateRelationship> visitor) {
+        if((direction & RELATIONSHIPS_SOURCE) != 0) {
+            List<IArchimateRelationship> list = concept.getSourceRelationships();
+            for(int i = 0; i < list.size(); i++) {
+                IArchimateRelationship relationship = list.get(i);
+                if((relationshipType == null || relationship.eClass() == relationshipType) && !visitor.test(relationship)) {
+                    return false;
+                }
+            }
+        }
+        
+        if((direction & RELATIONSHIPS_TARGET) != 0) {
+            List<IArchimateRelationship> list = concept.getTargetRelationships();
+            for(int i = 0; i < list.size(); i++) {
+                IArchimateRelationship relationship = list.get(i);
+                
+                // Already visited as a source relationship
+                if(direction == RELATIONSHIPS_ALL && relationship.getSource() == concept) {
+                    continue;
+                }
+                
+                if((relationshipType == null || relationship.eClass() == relationshipType) && !visitor.test(relationship)) {
+                    return false;
+                }
+            }
+        }
+        
+        return true;
     }
     
     /**
@@ -139,19 +191,8 @@ public class ArchimateModelUtils {
             return null;
         }
         
-        if(id.equals(model.getId())) {
-            return model;
-        }
-        
-        // This is an expensive iteration!
-        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-            EObject element = iter.next();
-            if(element instanceof IIdentifier && id.equals(((IIdentifier)element).getId())) {
-                return element;
-            }
-        }
-
-        return null;
+        // Use the model's ID index
+        return model.getObjectByID(id);
     }
 
     
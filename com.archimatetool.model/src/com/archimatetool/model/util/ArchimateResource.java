@@ -5,9 +5,19 @@
  */
 package com.archimatetool.model.util;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.util.ExtendedMetaData;
+import org.eclipse.emf.ecore.xmi.XMIException;
+import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.eclipse.emf.ecore.xmi.impl.XMLResourceImpl;
 
+import com.archimatetool.model.IArchimateModel;
+
 /**
  * <!-- begin-user-doc -->
  * The <b>Resource </b> associated with the package.
@@ -16,6 +26,18 @@ import org.eclipse.emf.ecore.xmi.impl.XMLResourceImpl;
  * @generated
  */
 public class ArchimateResource extends XMLResourceImpl {
+    
+    /**
+     * Load option to load the model with the streaming ArchimateModelReader instead of the EMF XML loader.
+     * Value is Boolean.TRUE or Boolean.FALSE
+     */
+    public static final String OPTION_USE_STREAMING_LOADER = "ARCHI_USE_STREAMING_LOADER"; //$NON-NLS-1$
+    
+    /**
+     * Rough estimate of the number of bytes of XML per object used to size the ID table
+     */
+    private static final int BYTES_PER_OBJECT = 100;
+    
     /**
      * Creates an instance of the resource.
      * <!-- begin-user-doc -->
@@ -27,4 +49,68 @@ public class ArchimateResource extends XMLResourceImpl {
         super(uri);
     }
 
+    /**
+     * <!-- begin-user-doc -->
+     * Use the streaming loader if the option is set
+     * <!-- end-user-doc -->
+     * @generated NOT
+     */
+    @Override
+    public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+        if(isOptionSet(options, OPTION_USE_STREAMING_LOADER)) {
+            doStreamingLoad(inputStream, options);
+        }
+        else {
+            super.doLoad(inputStream, options);
+        }
+    }
+    
+    /**
+     * Load the model with the ArchimateModelReader and add any errors to this Resource's errors.
+     * As with the EMF loader, an IOException is thrown if there are any errors.
+     */
+    private void doStreamingLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+        ExtendedMetaData extendedMetaData = (ExtendedMetaData)getOption(options, XMLResource.OPTION_EXTENDED_META_DATA);
+        String location = getURI() != null ? getURI().toString() : null;
+        ArchimateModelReader reader = new ArchimateModelReader(extendedMetaData, location, getInitialCapacity());
+        IArchimateModel model = reader.read(inputStream);
+        
+        if(model != null) {
+            getContents().add(model);
+        }
+        
+        getErrors().addAll(reader.getErrors());
+        
+        if(!getErrors().isEmpty()) {
+            Exception error = (Exception)getErrors().get(0);
+            if(error instanceof XMIException && ((XMIException)error).getWrappedException() != null) {
+                throw new IOWrappedException(((XMIException)error).getWrappedException());
+            }
+            throw new IOWrappedException(error);
+        }
+    }
+    
+    /**
+     * @return An estimate of the number of objects in the model from the length of the file, or 0 to use the default.
+     * InputStream#available() is not used as it is not the length of the stream and is small for a zip entry.
+     */
+    private int getInitialCapacity() {
+        if(getURI() != null && getURI().isFile()) {
+            long length = new File(getURI().toFileString()).length();
+            return (int)Math.min(Integer.MAX_VALUE, length / BYTES_PER_OBJECT);
+        }
+        return 0;
+    }
+    
+    private Object getOption(Map<?, ?> options, String key) {
+        if(options != null && options.containsKey(key)) {
+            return options.get(key);
+        }
+        return getDefaultLoadOptions().get(key);
+    }
+    
+    private boolean isOptionSet(Map<?, ?> options, String key) {
+        return Boolean.TRUE.equals(getOption(options, key));
+    }
+
 } //ArchimateResource
@@ -12,9 +12,11 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.input.SAXBuilder;
@@ -90,6 +92,26 @@ public class RelationshipsMatrix {
      * Mapping of relationships to key letters
      */
     private Map<EClass, Character> relationsValueMap = new LinkedHashMap<EClass, Character>();
+    
+    /**
+     * Relationship classes in the order of their bit in a relationships mask
+     */
+    private EClass[] relationshipClasses;
+    
+    /**
+     * Relationship mask bit of relationship classes indexed by classifier ID, or 0 if not a relationship class
+     */
+    private int[] relationshipMasks;
+    
+    /**
+     * Mask of valid relationships indexed by source and target classifier IDs
+     */
+    private int[][] validTable;
+
+    /**
+     * Mask of valid start relationships indexed by source classifier ID
+     */
+    private int[] validStartTable;
 
     private RelationshipsMatrix() {
         // Load Key letters file
@@ -97,6 +119,9 @@ public class RelationshipsMatrix {
         
         // Load Relationships file
         loadRelationships();
+        
+        // Compile into tables
+        createTables();
     }
     
     public Map<EClass, List<TargetMatrix>> getRelationshipsMatrix() {
@@ -108,53 +133,96 @@ public class RelationshipsMatrix {
     }
 
     boolean isValidRelationshipStart(EClass sourceType, EClass relationshipType) {
-        // Use "Relationship" as a generic super type
-        if(IArchimatePackage.eINSTANCE.getArchimateRelationship().isSuperTypeOf(sourceType)) {
-            sourceType = IArchimatePackage.eINSTANCE.getArchimateRelationship();
-        }
+        return isArchimateClass(sourceType) && (validStartTable[sourceType.getClassifierID()] & getRelationshipMask(relationshipType)) != 0;
+    }
+    
+    boolean isValidRelationship(EClass sourceType, EClass targetType, EClass relationshipType) {
+        return (getValidRelationshipsMask(sourceType, targetType) & getRelationshipMask(relationshipType)) != 0;
+    }
+    
+    /**
+     * @return All valid relationship types between sourceType and targetType in the order of ArchimateModelUtils.getRelationsClasses()
+     */
+    EClass[] getValidRelationships(EClass sourceType, EClass targetType) {
+        int mask = getValidRelationshipsMask(sourceType, targetType);
         
-        List<TargetMatrix> listMatrix = matrixMap.get(sourceType);
-        if(listMatrix != null) {
-            for(TargetMatrix targetMatrix : listMatrix) {
-                if(targetMatrix.getRelationships().contains(relationshipType)) {
-                    return true;
-                }
+        EClass[] result = new EClass[Integer.bitCount(mask)];
+        
+        for(int i = 0, j = 0; j < result.length; i++) {
+            if((mask & (1 << i)) != 0) {
+                result[j++] = relationshipClasses[i];
             }
         }
         
-        return false;
+        return result;
     }
     
-    boolean isValidRelationship(EClass sourceType, EClass targetType, EClass relationshipType) {
-        if(relationshipType == null) {
-            return false;
+    private int getValidRelationshipsMask(EClass sourceType, EClass targetType) {
+        if(!isArchimateClass(sourceType) || !isArchimateClass(targetType)) {
+            return 0;
         }
         
-        // relationshipType has to be a Relationship class
-        if(!IArchimatePackage.eINSTANCE.getArchimateRelationship().isSuperTypeOf(relationshipType)) {
-            return false;
-        }
+        return validTable[sourceType.getClassifierID()][targetType.getClassifierID()];
+    }
+    
+    private int getRelationshipMask(EClass relationshipType) {
+        return isArchimateClass(relationshipType) ? relationshipMasks[relationshipType.getClassifierID()] : 0;
+    }
+    
+    /**
+     * @return true if eClass is in the Archimate package so that its classifier ID can index the tables
+     */
+    private boolean isArchimateClass(EClass eClass) {
+        return eClass != null && eClass.getEPackage() == IArchimatePackage.eINSTANCE;
+    }
+    
+    /**
+     * Compile the matrix into tables of relationship masks indexed by classifier ID
+     */
+    private void createTables() {
+        int size = IArchimatePackage.eINSTANCE.getEClassifiers().size();
         
-        // Use "Relationship" as a generic super type
-        if(IArchimatePackage.eINSTANCE.getArchimateRelationship().isSuperTypeOf(sourceType)) {
-            sourceType = IArchimatePackage.eINSTANCE.getArchimateRelationship();
+        // One bit for each relationship class
+        relationshipClasses = ArchimateModelUtils.getRelationsClasses();
+        relationshipMasks = new int[size];
+        for(int i = 0; i < relationshipClasses.length; i++) {
+            relationshipMasks[relationshipClasses[i].getClassifierID()] = 1 << i;
         }
         
-        // Use "Relationship" as a generic super type
-        if(IArchimatePackage.eINSTANCE.getArchimateRelationship().isSuperTypeOf(targetType)) {
-            targetType = IArchimatePackage.eINSTANCE.getArchimateRelationship();
+        validTable = new int[size][size];
+        
+        for(Entry<EClass, List<TargetMatrix>> entry : matrixMap.entrySet()) {
+            int[] row = validTable[entry.getKey().getClassifierID()];
+            
+            for(TargetMatrix targetMatrix : entry.getValue()) {
+                for(EClass relationship : targetMatrix.getRelationships()) {
+                    row[targetMatrix.getTargetClass().getClassifierID()] |= getRelationshipMask(relationship);
+                }
+            }
         }
         
-        List<TargetMatrix> listMatrix = matrixMap.get(sourceType);
-        if(listMatrix != null) {
-            for(TargetMatrix targetMatrix : listMatrix) {
-                if(targetMatrix.getTargetClass() == targetType && targetMatrix.getRelationships().contains(relationshipType)) {
-                    return true;
+        // Use "Relationship" as a generic super type for source and target
+        EClass genericRelationship = IArchimatePackage.eINSTANCE.getArchimateRelationship();
+        int genericID = genericRelationship.getClassifierID();
+        
+        for(EClassifier eClassifier : IArchimatePackage.eINSTANCE.getEClassifiers()) {
+            if(eClassifier != genericRelationship && eClassifier instanceof EClass && genericRelationship.isSuperTypeOf((EClass)eClassifier)) {
+                int id = eClassifier.getClassifierID();
+                
+                for(int[] row : validTable) {
+                    row[id] = row[genericID];
                 }
+                
+                validTable[id] = validTable[genericID];
             }
         }
         
-        return false;
+        validStartTable = new int[size];
+        for(int i = 0; i < size; i++) {
+            for(int mask : validTable[i]) {
+                validStartTable[i] |= mask;
+            }
+        }
     }
     
     private void loadKeyLetters() {
@@ -62,6 +62,8 @@ public class Messages extends NLS {
 
     public static String ModelImporter_6;
 
+    public static String ModelImporter_7;
+
     public static String StatusDialog_0;
 
     public static String StatusDialog_1;
@@ -23,7 +23,6 @@ import org.eclipse.gef.commands.CompoundCommand;
 import org.eclipse.osgi.util.NLS;
 
 import com.archimatetool.editor.diagram.commands.DiagramCommandFactory;
-import com.archimatetool.editor.model.DiagramModelUtils;
 import com.archimatetool.editor.model.IArchiveManager;
 import com.archimatetool.editor.model.commands.EObjectFeatureCommand;
 import com.archimatetool.editor.model.commands.NonNotifyingCompoundCommand;
@@ -49,7 +48,6 @@ import com.archimatetool.model.IIdentifier;
 import com.archimatetool.model.INameable;
 import com.archimatetool.model.IProperties;
 import com.archimatetool.model.IProperty;
-import com.archimatetool.model.util.ArchimateModelUtils;
 import com.archimatetool.model.util.ArchimateResourceFactory;
 import com.archimatetool.modelimporter.StatusMessage.StatusMessageLevel;
 
@@ -70,6 +68,9 @@ public class ModelImporter {
     // Keep a cache of objects in the target model for speed
     private Map<String, IIdentifier> objectCache;
     
+    // New Diagram Model References that will need resolving to the target model
+    private List<IDiagramModelReference> diagramModelReferences;
+    
     // Status Messages
     private List<StatusMessage> statusMessages;
     
@@ -80,13 +81,20 @@ public class ModelImporter {
     }
 
     public void doImport(File importedFile, IArchimateModel targetModel) throws IOException, ImportException {
+        statusMessages = new ArrayList<>();
+        
+        long time = System.nanoTime();
+        long[] timings = new long[5];
+        
         importedModel = loadModel(importedFile);
+        time = timePhase(timings, 0, time);
 
         this.targetModel = targetModel;
         
+        // Index the target model once up front. New objects are added to this as they are created
         objectCache = createObjectIDCache();
-        
-        statusMessages = new ArrayList<>();
+        diagramModelReferences = new ArrayList<>();
+        time = timePhase(timings, 1, time);
         
         compoundCommand = new NonNotifyingCompoundCommand(Messages.ModelImporter_1);
         
@@ -114,6 +122,7 @@ public class ModelImporter {
                 new ViewImporter(this).importView((IDiagramModel)eObject);
             }
         }
+        time = timePhase(timings, 2, time);
         
         // Check view connection ends are valid if we have done some commands and even if update is off
         if(compoundCommand.canExecute()) {
@@ -123,12 +132,21 @@ public class ModelImporter {
         // Run Commands
         CommandStack stack = (CommandStack)targetModel.getAdapter(CommandStack.class);
         stack.execute(compoundCommand);
+        time = timePhase(timings, 3, time);
         
         // Resolve Diagram Model References *after* the commands have run
         resolveDiagramModelReferences();
+        timePhase(timings, 4, time);
+        
+        // Report the time taken if anything was imported
+        if(!statusMessages.isEmpty()) {
+            logMessage(StatusMessageLevel.INFO, NLS.bind(Messages.ModelImporter_7, new Object[] {
+                    timings[0], timings[1], timings[2], timings[3], timings[4] }));
+        }
         
         objectCache.clear();
         objectCache = null;
+        diagramModelReferences = null;
         importedModel = null;
         this.targetModel = null;
     }
@@ -170,6 +188,16 @@ public class ModelImporter {
         return statusMessages;
     }
     
+    /**
+     * Store the milliseconds since startTime in timings[phase]
+     * @return The time now
+     */
+    private long timePhase(long[] timings, int phase, long startTime) {
+        long now = System.nanoTime();
+        timings[phase] = (now - startTime) / 1000000;
+        return now;
+    }
+    
     /**
      * Load a model from file
      */
@@ -242,21 +270,18 @@ public class ModelImporter {
     /**
      * Resolve Diagram Model References *after* the import has happened.
      * New and Updated Diagram Model References will be pointing to the DM in the imported model.
+     * These are the references created in cloneObject() so only these are checked rather than the whole target model.
      */
     private void resolveDiagramModelReferences() throws ImportException {
-        for(Iterator<EObject> iter = targetModel.eAllContents(); iter.hasNext();) {
-            EObject eObject = iter.next();
-            if(eObject instanceof IDiagramModelReference) {
-                IDiagramModelReference ref = (IDiagramModelReference)eObject;
-                IDiagramModel dm = ref.getReferencedModel(); 
-                if(dm.getArchimateModel() == getImportedModel()) { // This could be the dm in the imported model
-                    EObject targetDM = ArchimateModelUtils.getObjectByID(targetModel, dm.getId()); // Use its id to find the target dm
-                    if(targetDM instanceof IDiagramModel) {
-                        ref.setReferencedModel((IDiagramModel)targetDM);
-                    }
-                    else {
-                        throw new ImportException("Could not get referenced diagram model"); //$NON-NLS-1$
-                    }
+        for(IDiagramModelReference ref : diagramModelReferences) {
+            IDiagramModel dm = ref.getReferencedModel(); 
+            if(dm != null && dm.getArchimateModel() == getImportedModel()) { // This could be the dm in the imported model
+                EObject targetDM = objectCache.get(dm.getId()); // Use its id to find the target dm
+                if(targetDM instanceof IDiagramModel && ((IDiagramModel)targetDM).getArchimateModel() == targetModel) {
+                    ref.setReferencedModel((IDiagramModel)targetDM);
+                }
+                else {
+                    throw new ImportException("Could not get referenced diagram model"); //$NON-NLS-1$
                 }
             }
         }
@@ -315,6 +340,10 @@ public class ModelImporter {
         
         objectCache.put(newObject.getId(), newObject);
         
+        if(newObject instanceof IDiagramModelReference) {
+            diagramModelReferences.add((IDiagramModelReference)newObject);
+        }
+        
         return (T)newObject;
     }
     
@@ -432,11 +461,26 @@ public class ModelImporter {
         
         @Override
         public void execute() {
-            for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
-                EObject eObject = iter.next();
+            // Visit each View once, indexing the first diagram component of each concept in the View
+            for(IDiagramModel dm : model.getDiagramModels()) {
+                Map<IArchimateConcept, IDiagramModelArchimateComponent> components = new HashMap<>();
+                List<IDiagramModelArchimateConnection> connections = new ArrayList<>();
+                
+                for(Iterator<EObject> iter = dm.eAllContents(); iter.hasNext();) {
+                    EObject eObject = iter.next();
+                    
+                    if(eObject instanceof IDiagramModelArchimateComponent) {
+                        IDiagramModelArchimateComponent component = (IDiagramModelArchimateComponent)eObject;
+                        components.putIfAbsent(component.getArchimateConcept(), component);
+                    }
+                    
+                    if(eObject instanceof IDiagramModelArchimateConnection) {
+                        connections.add((IDiagramModelArchimateConnection)eObject);
+                    }
+                }
                 
-                if(eObject instanceof IDiagramModelArchimateConnection) {
-                    addArchimateReconnectionCommand((IDiagramModelArchimateConnection)eObject);
+                for(IDiagramModelArchimateConnection connection : connections) {
+                    addArchimateReconnectionCommand(connection, components);
                 }
             }
             
@@ -452,16 +496,14 @@ public class ModelImporter {
         /**
          * Reconnect Archimate connections in case of relationship ends having changed
          */
-        private void addArchimateReconnectionCommand(IDiagramModelArchimateConnection connection) {
+        private void addArchimateReconnectionCommand(IDiagramModelArchimateConnection connection, Map<IArchimateConcept, IDiagramModelArchimateComponent> components) {
             IArchimateRelationship relationship = connection.getArchimateRelationship();
 
             // Is source object valid?
             if(((IDiagramModelArchimateComponent)connection.getSource()).getArchimateConcept() != relationship.getSource()) {
                 // Get the first instance of the new source in this view and connect to that
-                List<IDiagramModelArchimateComponent> list = DiagramModelUtils.findDiagramModelComponentsForArchimateConcept(connection.getDiagramModel(),
-                        relationship.getSource());
-                if(!list.isEmpty()) {
-                    IDiagramModelArchimateComponent matchingComponent = list.get(0);
+                IDiagramModelArchimateComponent matchingComponent = components.get(relationship.getSource());
+                if(matchingComponent != null) {
                     IConnectable oldSource = connection.getSource();
                     
                     add(new Command() {
@@ -488,9 +530,8 @@ public class ModelImporter {
             // Is target object valid?
             if(((IDiagramModelArchimateComponent)connection.getTarget()).getArchimateConcept() != relationship.getTarget()) {
                 // Get the first instance of the new source in this view and connect to that
-                List<IDiagramModelArchimateComponent> list = DiagramModelUtils.findDiagramModelComponentsForArchimateConcept(connection.getDiagramModel(), relationship.getTarget());
-                if(!list.isEmpty()) {
-                    IDiagramModelArchimateComponent matchingComponent = list.get(0);
+                IDiagramModelArchimateComponent matchingComponent = components.get(relationship.getTarget());
+                if(matchingComponent != null) {
                     IConnectable oldTarget = connection.getTarget();
                     
                     add(new Command() {
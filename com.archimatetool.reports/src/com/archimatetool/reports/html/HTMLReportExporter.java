@@ -8,14 +8,25 @@ package com.archimatetool.reports.html;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -23,6 +34,8 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.gef.commands.CommandStack;
+import org.eclipse.gef.commands.CommandStackEventListener;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
@@ -80,20 +93,62 @@ public class HTMLReportExporter {
     
     static final String PREFS_LAST_FOLDER = "Reports_LastFolder"; //$NON-NLS-1$
     
-    private IArchimateModel fModel;
+    /**
+     * Number of threads that render pages and write image files
+     */
+    static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    
+    /**
+     * Maximum number of rendered diagram images waiting to be written per thread so that memory use is bounded
+     */
+    static final int MAX_PENDING_IMAGES_PER_THREAD = 2;
     
     /**
-     * Map of new bounds for each digram for bounds offset
+     * Milliseconds between progress updates while waiting for tasks
      */
-    private Map<IDiagramModel, Rectangle> diagramBoundsMap = new HashMap<IDiagramModel, Rectangle>();
+    private static final long PROGRESS_INTERVAL = 100;
     
     /**
-     * Map of new bounds for child objects in images for hit areas
+     * Manifest value name of the bounds of a diagram image
      */
-    private Map<String, BoundsWithAbsolutePosition> childBoundsMap = new HashMap<String, BoundsWithAbsolutePosition>();
+    private static final String IMAGE_BOUNDS = "bounds"; //$NON-NLS-1$
+    
+    private IArchimateModel fModel;
     
     private IProgressMonitor progressMonitor;
     
+    /**
+     * If true only files that have changed since the last report are written
+     */
+    private boolean incremental;
+    
+    /**
+     * Fingerprints of the files in this report and in the last report
+     */
+    private ReportManifest manifest;
+    
+    /**
+     * Pages are rendered and files are written on these threads while diagram images are rendered on the calling thread
+     */
+    private ExecutorService executor;
+    private List<Future<?>> tasks;
+    private int threads = THREADS;
+    
+    /**
+     * Each thread has its own group file and "frame" template instance.
+     * A STGroup loads templates and imported groups lazily and caches lookups so it is not shared between threads.
+     */
+    private ThreadLocal<ST> frameTemplate;
+    
+    /**
+     * Set if the model is changed by a command while the report is being created
+     */
+    private volatile boolean modelChanged;
+    
+    private interface ReportTask {
+        void run() throws IOException;
+    }
+    
     static class CancelledException extends IOException {
         public CancelledException(String message) {
             super(message);
@@ -202,6 +257,23 @@ public class HTMLReportExporter {
         }
     }
     
+    /**
+     * Set the number of threads that render pages and write image files
+     */
+    void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+    
+    /**
+     * If set then a report that was created before in the target folder is updated.
+     * Pages are only written if their content has changed, diagram images are only rendered if their diagram,
+     * or the concepts and diagrams it references, have changed, and files that are no longer in the report are deleted.
+     * Changes to preferences that affect how diagrams are drawn are not detected.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+    
     public File createReport(File targetFolder, String indexFileName) throws IOException {
         return createReport(targetFolder, indexFileName, null);
     }
@@ -213,6 +285,15 @@ public class HTMLReportExporter {
             progressMonitor.beginTask(Messages.HTMLReportExporter_6, -1);
         }
         
+        // Load the manifest of the last report
+        manifest = new ReportManifest(targetFolder, new File(targetFolder, fModel.getId() + "/" + ReportManifest.MANIFEST_FILE_NAME)); //$NON-NLS-1$
+        if(incremental) {
+            manifest.load();
+        }
+        else {
+            manifest.delete();
+        }
+        
         // Copy HTML skeleton to target
         copyHTMLSkeleton(targetFolder);
         
@@ -236,27 +317,59 @@ public class HTMLReportExporter {
 
         // Instantiate templates files
         File mainFile = new File(ArchiReportsPlugin.INSTANCE.getTemplatesFolder(), "st/main.stg"); //$NON-NLS-1$
-        STGroupFile groupFile = new STGroupFile(mainFile.getAbsolutePath(), '^', '^');
-        ST stFrame = groupFile.getInstanceOf("frame"); //$NON-NLS-1$
-        
-        groupFile.registerRenderer(String.class, new StringRenderer());
-        
-        // Write model purpose and properties html
-        writeElement(new File(elementsFolder, "model.html"), stFrame, fModel); //$NON-NLS-1$
-        
-        // Write all folders
-        writeFolders(elementsFolder, stFrame, fModel.getFolders());
-        
-        // Write other graphical objects
-        writeGraphicalObjects(objectsFolder, stFrame);
+        frameTemplate = ThreadLocal.withInitial(() -> createGroupFile(mainFile).getInstanceOf("frame")); //$NON-NLS-1$
+        
+        executor = Executors.newFixedThreadPool(threads);
+        tasks = new ArrayList<>();
+        
+        // The progress dialog is modal so the model can't be edited in the UI while the worker threads read it.
+        // But events are dispatched while waiting for the threads so check that nothing else executed a command.
+        modelChanged = false;
+        CommandStack commandStack = (CommandStack)fModel.getAdapter(CommandStack.class);
+        CommandStackEventListener commandStackListener = event -> {
+            if(event.isPostChangeEvent()) {
+                modelChanged = true;
+            }
+        };
+        if(commandStack != null) {
+            commandStack.addCommandStackEventListener(commandStackListener);
+        }
         
-        // Write Diagrams and images
-        writeDiagrams(imagesFolder, viewsFolder, stFrame);
+        try {
+            // Write model purpose and properties html
+            writeElement(new File(elementsFolder, "model.html"), fModel); //$NON-NLS-1$
+            
+            // Write all folders
+            writeFolders(elementsFolder, fModel.getFolders());
+            
+            // Write other graphical objects
+            writeGraphicalObjects(objectsFolder);
+            
+            // Write Diagrams and images
+            writeDiagrams(imagesFolder, viewsFolder);
+            
+            // Wait for all pages and images to be written
+            for(Future<?> task : tasks) {
+                waitForTask(task);
+            }
+            
+            checkModelChanged();
+        }
+        finally {
+            executor.shutdownNow();
+            executor = null;
+            tasks = null;
+            frameTemplate = null;
+            
+            if(commandStack != null) {
+                commandStack.removeCommandStackEventListener(commandStackListener);
+            }
+        }
         
         setProgressSubTask(Messages.HTMLReportExporter_13, true);
         
         // Write root model.html frame
-        ST stModel = groupFile.getInstanceOf("modelreport"); //$NON-NLS-1$
+        ST stModel = createGroupFile(mainFile).getInstanceOf("modelreport"); //$NON-NLS-1$
         stModel.add("model", fModel); //$NON-NLS-1$
         stModel.add("strategyFolder", fModel.getFolder(FolderType.STRATEGY)); //$NON-NLS-1$
         stModel.add("businessFolder", fModel.getFolder(FolderType.BUSINESS)); //$NON-NLS-1$
@@ -269,9 +382,14 @@ public class HTMLReportExporter {
         stModel.add("viewsFolder", fModel.getFolder(FolderType.DIAGRAMS)); //$NON-NLS-1$
         
         File indexFile = new File(targetFolder, indexFileName);
-        try(OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(indexFile), "UTF8")) { //$NON-NLS-1$
-            writer.write(stModel.render());
+        writeFile(indexFile, stModel.render());
+        
+        // Remove files from the last report and save the manifest for the next one
+        if(incremental) {
+            manifest.deleteOrphans();
+            manifest.save();
         }
+        manifest = null;
         
         return indexFile;
     }
@@ -284,7 +402,7 @@ public class HTMLReportExporter {
         setProgressSubTask(Messages.HTMLReportExporter_9, true);
         
         File srcDir = new File(ArchiReportsPlugin.INSTANCE.getTemplatesFolder(), "html"); //$NON-NLS-1$
-        FileUtils.copyFolder(srcDir, targetFolder);
+        copyFolder(srcDir, targetFolder);
     }
     
     /**
@@ -297,38 +415,60 @@ public class HTMLReportExporter {
         // Main hints
         Bundle bundle = Platform.getBundle("com.archimatetool.help"); //$NON-NLS-1$
         URL url = FileLocator.resolve(bundle.getEntry("hints")); //$NON-NLS-1$
-        FileUtils.copyFolder(new File(url.getPath()), new File(targetFolder, "hints")); //$NON-NLS-1$
+        copyFolder(new File(url.getPath()), new File(targetFolder, "hints")); //$NON-NLS-1$
         
         // Canvas hints
         bundle = Platform.getBundle("com.archimatetool.canvas"); //$NON-NLS-1$
         url = FileLocator.resolve(bundle.getEntry("help/hints")); //$NON-NLS-1$
-        FileUtils.copyFolder(new File(url.getPath()), new File(targetFolder, "hints")); //$NON-NLS-1$
+        copyFolder(new File(url.getPath()), new File(targetFolder, "hints")); //$NON-NLS-1$
+    }
+    
+    /**
+     * Copy a folder. If the report is incremental only copy files that are not the same as the target files.
+     */
+    private void copyFolder(File srcFolder, File destFolder) throws IOException {
+        if(!incremental) {
+            FileUtils.copyFolder(srcFolder, destFolder);
+            return;
+        }
+        
+        destFolder.mkdirs();
+        
+        for(File srcFile : srcFolder.listFiles()) {
+            File destFile = new File(destFolder, srcFile.getName());
+            if(srcFile.isDirectory()) {
+                copyFolder(srcFile, destFile);
+            }
+            else if(!destFile.exists() || destFile.length() != srcFile.length() || destFile.lastModified() < srcFile.lastModified()) {
+                FileUtils.copyFile(srcFile, destFile, false);
+            }
+        }
     }
 
     /**
      * Write all folders
      */
-    private void writeFolders(File elementsFolder, ST stFrame, List<IFolder> folders) throws IOException {
+    private void writeFolders(File elementsFolder, List<IFolder> folders) {
     	for(IFolder folder : folders) {
-    		writeFolder(elementsFolder, stFrame, folder);
+    		writeFolder(elementsFolder, folder);
     	}
     }
     
     /**
      * Write a single folder
      */
-    private void writeFolder(File elementsFolder, ST stFrame, IFolder folder) throws IOException {
-    	writeElements(elementsFolder, stFrame, folder.getElements());
-    	writeFolders(elementsFolder, stFrame, folder.getFolders());
+    private void writeFolder(File elementsFolder, IFolder folder) {
+    	writeElements(elementsFolder, folder.getElements());
+    	writeFolders(elementsFolder, folder.getFolders());
     }
     
     /**
      * Write all elements
      */
-    private void writeElements(File elementsFolder, ST stFrame, List<EObject> list) throws IOException {
+    private void writeElements(File elementsFolder, List<EObject> list) {
         for(EObject object : list) {
             if(object instanceof IArchimateConcept) {
-                writeElement(new File(elementsFolder, ((IIdentifier) object).getId() + ".html"), stFrame, object); //$NON-NLS-1$
+                writeElement(new File(elementsFolder, ((IIdentifier) object).getId() + ".html"), object); //$NON-NLS-1$
             }
         }
     }
@@ -336,28 +476,55 @@ public class HTMLReportExporter {
     /**
      * Write a single element
      */
-    private void writeElement(File elementFile, ST stFrame, EObject component) throws IOException {
+    private void writeElement(File elementFile, EObject component) {
+        submitTask(() -> writePage(elementFile, component, null));
+    }
+    
+    /**
+     * Render the frame template for an element and write it to file.
+     * This is called on a worker thread and uses that thread's template instance.
+     * @param map Bounds of the child objects in a diagram image, or null
+     */
+    private void writePage(File file, EObject element, Map<String, BoundsWithAbsolutePosition> map) throws IOException {
+        ST stFrame = frameTemplate.get();
+        
         stFrame.remove("element"); //$NON-NLS-1$
-        //frame.remove("children");
-        stFrame.add("element", component); //$NON-NLS-1$
+        stFrame.add("element", element); //$NON-NLS-1$
         
-        try(OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(elementFile), "UTF8")) { //$NON-NLS-1$
-            writer.write(stFrame.render());
+        stFrame.remove("map"); //$NON-NLS-1$
+        if(map != null) {
+            stFrame.add("map", map); //$NON-NLS-1$
         }
-
-        updateProgress();
+        
+        writeFile(file, stFrame.render());
+    }
+    
+    /**
+     * Write a page unless it is the same as in the last report
+     */
+    private void writeFile(File file, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String fingerprint = ReportManifest.getFingerprint(bytes);
+        
+        if(!manifest.isUnchanged(file, fingerprint)) {
+            try(OutputStream out = new FileOutputStream(file)) {
+                out.write(bytes);
+            }
+        }
+        
+        manifest.put(file, fingerprint);
     }
     
     /**
      * Write graphical objects
      */
-    private void writeGraphicalObjects(File objectsFolder, ST stFrame) throws IOException {
+    private void writeGraphicalObjects(File objectsFolder) {
         for(IDiagramModel dm : fModel.getDiagramModels()) {
             for(Iterator<EObject> iter =  dm.eAllContents(); iter.hasNext();) {
                 EObject eObject = iter.next();
                 if(eObject instanceof IDiagramModelObject && !(eObject instanceof IDiagramModelArchimateObject) 
                         && !(eObject instanceof IDiagramModelReference)) {
-                    writeElement(new File(objectsFolder, ((IIdentifier) eObject).getId() + ".html"), stFrame, eObject); //$NON-NLS-1$
+                    writeElement(new File(objectsFolder, ((IIdentifier) eObject).getId() + ".html"), eObject); //$NON-NLS-1$
                 }
             }
         }
@@ -365,63 +532,36 @@ public class HTMLReportExporter {
 
     /**
      * Write diagrams
+     * Each diagram image is rendered on this thread (which should be the Display thread) and then the image file
+     * and the View's html file are written on worker threads.
      */
-    private void writeDiagrams(File imagesFolder, File viewsFolder, ST stFrame) throws IOException {
+    private void writeDiagrams(File imagesFolder, File viewsFolder) throws IOException {
         List<IDiagramModel> diagramModels = fModel.getDiagramModels();
         
         if(diagramModels.isEmpty()) {
             return;
         }
         
-        // Save images
-        saveImages(imagesFolder, diagramModels);
+        // Image files waiting to be written
+        Deque<Future<?>> pendingImages = new ArrayDeque<>();
         
-        setProgressSubTask(Messages.HTMLReportExporter_11, true);
-
-        // Create html files
-        for(IDiagramModel dm : diagramModels) {
-            // Add the necessary bounds in order to get correct absolute coordinates for the elements in the generated image
-            Rectangle bounds = diagramBoundsMap.get(dm);
-            
-            // process the children
-            for(IDiagramModelObject dmo: dm.getChildren() ) {
-                addNewBounds(dmo, bounds.x * -1, bounds.y * -1);
-            }
-
-            stFrame.remove("element"); //$NON-NLS-1$
-            stFrame.add("element", dm); //$NON-NLS-1$
-            
-            stFrame.remove("map"); //$NON-NLS-1$
-            stFrame.add("map", childBoundsMap); //$NON-NLS-1$
-            
-            File viewFile = new File(viewsFolder, dm.getId() + ".html"); //$NON-NLS-1$
-            try(OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(viewFile), "UTF8")) { //$NON-NLS-1$
-                writer.write(stFrame.render());
-            }
-            
-            updateProgress();
-        }
-    }
-    
-    /**
-     * Save diagram images
-     * @param diagramModels 
-     * @throws IOException 
-     */
-    private void saveImages(File imagesFolder, List<IDiagramModel> diagramModels) throws IOException {
         // Use this to generate unique name for image file
         Hashtable<IDiagramModel, String> nameTable = new Hashtable<IDiagramModel, String>();
         
         int nameCount = 1;
         int total = diagramModels.size();
+        
+        String settingsFingerprint = ReportManifest.getSettingsFingerprint();
         int i = 1;
         
         for(IDiagramModel dm : diagramModels) {
             setProgressSubTask(NLS.bind(Messages.HTMLReportExporter_4, i++, total), true);
-
-            ModelReferencedImage geoImage = DiagramUtils.createModelReferencedImage(dm, 1, 10);
-            Image image = geoImage.getImage();
             
+            // Don't get too far ahead of the image writers
+            while(pendingImages.size() >= threads * MAX_PENDING_IMAGES_PER_THREAD) {
+                waitForTask(pendingImages.removeFirst());
+            }
+
             // Generate file name
             String diagramName = dm.getId();
             if(StringUtils.isSet(diagramName)) {
@@ -441,21 +581,122 @@ public class HTMLReportExporter {
             }
 
             nameTable.put(dm, diagramName);
-
-            // Get and store the bounds of the top-left element in the figure to act as overall x,y offset
-            Rectangle bounds = geoImage.getBounds();
-            bounds.performScale(ImageFactory.getImageDeviceZoom() / 100); // Account for device zoom level
-            diagramBoundsMap.put(dm, bounds);
-
+            
+            File imageFile = new File(imagesFolder, diagramName);
+            String fingerprint = ReportManifest.getFingerprint(dm, ImageFactory.getImageDeviceZoom(), settingsFingerprint);
+            
+            // The bounds of the top-left element in the figure act as overall x,y offset
+            Rectangle bounds = fingerprint != null ? getUnchangedImageBounds(imageFile, fingerprint) : null;
+            
+            // Image has changed so render it
+            if(bounds == null) {
+                ModelReferencedImage geoImage = DiagramUtils.createModelReferencedImage(dm, 1, 10);
+                Image image = geoImage.getImage();
+                
+                bounds = geoImage.getBounds();
+                bounds.performScale(ImageFactory.getImageDeviceZoom() / 100); // Account for device zoom level
+                
+                ImageData imageData;
+                try {
+                    imageData = image.getImageData(ImageFactory.getImageDeviceZoom());
+                }
+                finally {
+                    image.dispose();
+                }
+                
+                // Write the image file
+                pendingImages.add(submitTask(() -> {
+                    ImageLoader loader = new ImageLoader();
+                    loader.data = new ImageData[] { imageData };
+                    loader.save(imageFile.getAbsolutePath(), SWT.IMAGE_PNG);
+                }));
+            }
+            
+            // An image that can't be re-used is kept in the manifest so that it's not deleted as an orphan
+            manifest.put(imageFile, fingerprint != null ? fingerprint : ""); //$NON-NLS-1$
+            manifest.putValue(imageFile, IMAGE_BOUNDS, bounds.x + "," + bounds.y + "," + bounds.width + "," + bounds.height); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            
+            // Add the necessary bounds in order to get correct absolute coordinates for the elements in the generated image
+            Map<String, BoundsWithAbsolutePosition> childBoundsMap = new HashMap<String, BoundsWithAbsolutePosition>();
+            for(IDiagramModelObject dmo: dm.getChildren() ) {
+                addNewBounds(childBoundsMap, dmo, bounds.x * -1, bounds.y * -1);
+            }
+            
+            // Write the html file
+            File viewFile = new File(viewsFolder, dm.getId() + ".html"); //$NON-NLS-1$
+            submitTask(() -> writePage(viewFile, dm, childBoundsMap));
+        }
+        
+        setProgressSubTask(Messages.HTMLReportExporter_11, true);
+    }
+    
+    /**
+     * @return The bounds of an image that is the same as in the last report, or null if it has changed
+     */
+    private Rectangle getUnchangedImageBounds(File imageFile, String fingerprint) {
+        String value = manifest.getOldValue(imageFile, IMAGE_BOUNDS);
+        
+        if(value != null && manifest.isUnchanged(imageFile, fingerprint)) {
+            String[] s = value.split(","); //$NON-NLS-1$
+            if(s.length == 4) {
+                try {
+                    return new Rectangle(Integer.parseInt(s[0]), Integer.parseInt(s[1]), Integer.parseInt(s[2]), Integer.parseInt(s[3]));
+                }
+                catch(NumberFormatException ex) {
+                }
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Submit a task to run on a worker thread
+     */
+    private Future<?> submitTask(ReportTask task) {
+        Future<?> future = executor.submit(() -> {
+            task.run();
+            return null;
+        });
+        tasks.add(future);
+        return future;
+    }
+    
+    /**
+     * Wait for a task to complete, updating progress while waiting
+     * @throws IOException if the task failed or the user cancelled
+     */
+    private void waitForTask(Future<?> task) throws IOException {
+        while(true) {
             try {
-                ImageLoader loader = new ImageLoader();
-                loader.data = new ImageData[] { image.getImageData(ImageFactory.getImageDeviceZoom()) };
-                File file = new File(imagesFolder, diagramName);
-                loader.save(file.getAbsolutePath(), SWT.IMAGE_PNG);
+                task.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+                return;
+            }
+            catch(TimeoutException ex) {
+                updateProgress();
             }
-            finally {
-                image.dispose();
+            catch(InterruptedException ex) {
+                throw new InterruptedIOException();
             }
+            catch(ExecutionException ex) {
+                checkModelChanged();
+                if(ex.getCause() instanceof IOException) {
+                    throw (IOException)ex.getCause();
+                }
+                throw new IOException(ex.getCause());
+            }
+        }
+    }
+    
+    private STGroupFile createGroupFile(File mainFile) {
+        STGroupFile groupFile = new STGroupFile(mainFile.getAbsolutePath(), '^', '^');
+        groupFile.registerRenderer(String.class, new StringRenderer());
+        return groupFile;
+    }
+    
+    private void checkModelChanged() throws IOException {
+        if(modelChanged) {
+            throw new IOException(Messages.HTMLReportExporter_15);
         }
     }
     
@@ -463,6 +704,8 @@ public class HTMLReportExporter {
         if(progressMonitor != null && PlatformUI.isWorkbenchRunning() && Display.getCurrent() != null) {
             while(Display.getCurrent().readAndDispatch());
             
+            checkModelChanged();
+            
             if(progressMonitor.isCanceled()) {
                 throw new CancelledException(Messages.HTMLReportExporter_14);
             }
@@ -535,7 +778,7 @@ public class HTMLReportExporter {
     /**
      * Add new bounds for each diagram object in relation to its parent offset x,y
      */
-    private void addNewBounds(IDiagramModelObject dmo, int offsetX, int offsetY) {
+    private void addNewBounds(Map<String, BoundsWithAbsolutePosition> childBoundsMap, IDiagramModelObject dmo, int offsetX, int offsetY) {
         // Add new bounds caled to device zoom
         BoundsWithAbsolutePosition newBounds = new BoundsWithAbsolutePosition(dmo.getBounds(), ImageFactory.getImageDeviceZoom() / 100);
         newBounds.setOffset(offsetX, offsetY); // Add offset
@@ -544,7 +787,7 @@ public class HTMLReportExporter {
         // Children
         if(dmo instanceof IDiagramModelContainer) {
             for(IDiagramModelObject child: ((IDiagramModelContainer)dmo).getChildren() ) {
-                addNewBounds(child, newBounds.getX1(), newBounds.getY1());
+                addNewBounds(childBoundsMap, child, newBounds.getX1(), newBounds.getY1());
             }
         }
     }
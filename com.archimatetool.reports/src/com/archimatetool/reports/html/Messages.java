@@ -25,6 +25,8 @@ public class Messages extends NLS {
 
     public static String HTMLReportExporter_14;
 
+    public static String HTMLReportExporter_15;
+
     public static String HTMLReportExporter_2;
 
     public static String HTMLReportExporter_3;
@@ -0,0 +1,278 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.reports.html;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.osgi.service.prefs.BackingStoreException;
+
+import com.archimatetool.editor.ArchiPlugin;
+import com.archimatetool.editor.ui.textrender.TextRenderer;
+import com.archimatetool.editor.utils.DigestUtils;
+import com.archimatetool.model.IArchimateConcept;
+import com.archimatetool.model.IArchimateModelObject;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IFeature;
+import com.archimatetool.model.IFeatures;
+import com.archimatetool.model.IIdentifier;
+import com.archimatetool.model.IProperties;
+import com.archimatetool.model.IProperty;
+
+
+/**
+ * Manifest of the files written to a HTML report and the fingerprints of their content
+ *
+ * The manifest of the previous report is loaded so that files whose fingerprint has not changed
+ * do not have to be written again, and files that are no longer in the report can be deleted.
+ *
+ * @author Phillip Beauvoir
+ */
+class ReportManifest {
+
+    static final String MANIFEST_FILE_NAME = "report-manifest.properties"; //$NON-NLS-1$
+
+    private File fRootFolder;
+    private File fManifestFile;
+
+    /**
+     * Entries of the previous report keyed by file path relative to the root folder
+     */
+    private Map<String, String> fOldEntries = new HashMap<>();
+
+    /**
+     * Entries of this report. These are added from worker threads.
+     */
+    private Map<String, String> fEntries = new ConcurrentHashMap<>();
+
+    /**
+     * @param rootFolder The root folder of the report. Files are keyed by their path relative to this.
+     * @param manifestFile The manifest file
+     */
+    ReportManifest(File rootFolder, File manifestFile) {
+        fRootFolder = rootFolder;
+        fManifestFile = manifestFile;
+    }
+
+    /**
+     * Load the manifest of the previous report, if there is one
+     */
+    void load() throws IOException {
+        if(!fManifestFile.exists()) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        try(InputStream in = new FileInputStream(fManifestFile)) {
+            properties.load(in);
+        }
+
+        for(String key : properties.stringPropertyNames()) {
+            fOldEntries.put(key, properties.getProperty(key));
+        }
+    }
+
+    /**
+     * Delete the manifest of a previous report so that it can't be used with files written without it
+     */
+    void delete() {
+        fManifestFile.delete();
+    }
+
+    /**
+     * Save the manifest of this report
+     */
+    void save() throws IOException {
+        Properties properties = new Properties();
+        properties.putAll(fEntries);
+
+        fManifestFile.getParentFile().mkdirs();
+        try(OutputStream out = new FileOutputStream(fManifestFile)) {
+            properties.store(out, null);
+        }
+    }
+
+    /**
+     * @return True if file exists and had the same fingerprint in the previous report
+     */
+    boolean isUnchanged(File file, String fingerprint) {
+        return fingerprint.equals(fOldEntries.get(getKey(file))) && file.exists();
+    }
+
+    /**
+     * Add the fingerprint of a file in this report
+     */
+    void put(File file, String fingerprint) {
+        fEntries.put(getKey(file), fingerprint);
+    }
+
+    /**
+     * Add a value that is stored with a file in this report
+     */
+    void putValue(File file, String name, String value) {
+        fEntries.put(getKey(file) + "#" + name, value); //$NON-NLS-1$
+    }
+
+    /**
+     * @return A value that was stored with a file in the previous report, or null
+     */
+    String getOldValue(File file, String name) {
+        return fOldEntries.get(getKey(file) + "#" + name); //$NON-NLS-1$
+    }
+
+    /**
+     * Delete the files of the previous report that are not in this report
+     */
+    void deleteOrphans() {
+        for(String key : fOldEntries.keySet()) {
+            if(!key.contains("#") && !fEntries.containsKey(key)) { //$NON-NLS-1$
+                new File(fRootFolder, key).delete();
+            }
+        }
+    }
+
+    private String getKey(File file) {
+        return fRootFolder.toPath().relativize(file.toPath()).toString().replace('\\', '/');
+    }
+
+    // ========================================= Fingerprints =========================================
+
+    /**
+     * @return The fingerprint of some content
+     */
+    static String getFingerprint(byte[] bytes) {
+        return DigestUtils.sha256Hex(bytes);
+    }
+
+    /**
+     * @return The fingerprint of the settings that diagram figures use, such as default colours and fonts
+     */
+    static String getSettingsFingerprint() {
+        StringBuilder sb = new StringBuilder();
+
+        try {
+            IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(ArchiPlugin.PLUGIN_ID);
+            String[] keys = preferences.keys();
+            Arrays.sort(keys);
+            for(String key : keys) {
+                sb.append(key).append('=').append(preferences.get(key, "")).append('\n'); //$NON-NLS-1$
+            }
+        }
+        catch(BackingStoreException ex) {
+            ex.printStackTrace();
+        }
+
+        return getFingerprint(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The fingerprint of the source of a diagram's image, or null if the image can't be re-used.
+     * This is made from the diagram and its contents, the objects that they reference and the settings that figures use.
+     * Label expressions can show values from anywhere in the model so an image of a diagram that uses them is never re-used.
+     */
+    static String getFingerprint(IDiagramModel dm, int zoom, String settingsFingerprint) {
+        if(hasLabelExpression(dm)) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(zoom).append('|').append(settingsFingerprint);
+
+        appendObject(sb, dm);
+        for(Iterator<EObject> iter = dm.eAllContents(); iter.hasNext();) {
+            appendObject(sb, iter.next());
+        }
+
+        return getFingerprint(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean hasLabelExpression(IDiagramModel dm) {
+        for(Iterator<EObject> iter = dm.eAllContents(); iter.hasNext();) {
+            EObject eObject = iter.next();
+            if(eObject instanceof IArchimateModelObject && TextRenderer.getDefault().hasFormatExpression((IArchimateModelObject)eObject)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Append an object's attributes and the objects it references. Contained objects are appended in turn by the caller.
+     */
+    private static void appendObject(StringBuilder sb, EObject eObject) {
+        sb.append('\n');
+        appendAttributes(sb, eObject);
+
+        for(EReference reference : eObject.eClass().getEAllReferences()) {
+            if(reference.isContainment() || reference.isContainer()) {
+                continue;
+            }
+
+            if(reference.isMany()) {
+                for(Object value : (List<?>)eObject.eGet(reference)) {
+                    appendReferencedObject(sb, value);
+                }
+            }
+            else {
+                appendReferencedObject(sb, eObject.eGet(reference));
+            }
+        }
+    }
+
+    private static void appendReferencedObject(StringBuilder sb, Object value) {
+        // The label and figure depend on the referenced concept or diagram and its properties and features
+        if(value instanceof IArchimateConcept || value instanceof IDiagramModel) {
+            sb.append('[');
+            appendAttributes(sb, (EObject)value);
+
+            for(IProperty property : ((IProperties)value).getProperties()) {
+                sb.append('|').append(property.getKey()).append('=').append(property.getValue());
+            }
+
+            for(IFeature feature : ((IFeatures)value).getFeatures()) {
+                sb.append('|').append(feature.getName()).append('=').append(feature.getValue());
+            }
+
+            // Relationship ends
+            if(value instanceof IArchimateRelationship) {
+                IArchimateRelationship relationship = (IArchimateRelationship)value;
+                sb.append('|').append(relationship.getSource() != null ? relationship.getSource().getName() : null);
+                sb.append('|').append(relationship.getTarget() != null ? relationship.getTarget().getName() : null);
+            }
+
+            sb.append(']');
+        }
+        // Connections and connection ends
+        else if(value instanceof IIdentifier) {
+            sb.append('[').append(((IIdentifier)value).getId()).append(']');
+        }
+    }
+
+    private static void appendAttributes(StringBuilder sb, EObject eObject) {
+        sb.append(eObject.eClass().getName());
+        for(EAttribute attribute : eObject.eClass().getEAllAttributes()) {
+            sb.append('|').append(eObject.eGet(attribute));
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.jdom2.Document;
 import org.jdom2.Element;
 
 import com.archimatetool.editor.model.IArchiveManager;
+import com.archimatetool.editor.utils.ZipFileCache;
 import com.archimatetool.editor.utils.ZipUtils;
 import com.archimatetool.jdom.JDOMUtils;
 import com.archimatetool.model.IArchimateModel;
@@ -128,6 +129,9 @@ public class SaveArchimateModelAsTemplateWizard extends Wizard {
     private void createZipFile(File zipFile) throws IOException {
         ZipOutputStream zOut = null;
         
+        // If we are replacing a template file it might be open
+        ZipFileCache.close(zipFile);
+        
         try {
             // Make sure parent folder exists
             File parent = zipFile.getParentFile();
@@ -24,6 +24,7 @@ import org.jdom2.Element;
 import com.archimatetool.editor.ui.IArchiImages;
 import com.archimatetool.editor.utils.FileUtils;
 import com.archimatetool.editor.utils.StringUtils;
+import com.archimatetool.editor.utils.ZipFileCache;
 import com.archimatetool.editor.utils.ZipUtils;
 import com.archimatetool.jdom.JDOMUtils;
 
@@ -214,6 +215,7 @@ public abstract class AbstractTemplate implements ITemplate, ITemplateXMLTags {
         zOut.close();
 
         // Delete and copy
+        ZipFileCache.close(fFile);
         fFile.delete();
         FileUtils.copyFile(tmpFile, fFile, false);
         tmpFile.delete();
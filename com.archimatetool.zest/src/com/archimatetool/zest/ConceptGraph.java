@@ -0,0 +1,207 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.zest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+
+import com.archimatetool.model.IArchimateConcept;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IFolder;
+
+
+/**
+ * Graph of the concepts of a model and the relationships between them
+ *
+ * Each concept has an int index. Relationships are also nodes as they can be connected to other relationships.
+ * The relationships of each node are held in compressed arrays of relationship indexes, one for relationships
+ * where the node is the source and one where it is the target. The graph is built when it is first used after
+ * the model's concepts or connections have changed.
+ *
+ * @author Phillip Beauvoir
+ */
+class ConceptGraph {
+
+    private IArchimateModel fModel;
+
+    private boolean fIsValid;
+
+    private IArchimateConcept[] fNodes;
+    private Map<IArchimateConcept, Integer> fIndex;
+
+    /**
+     * Index of the source and target node of each relationship node, or -1 if the node is not a relationship
+     */
+    private int[] fSources, fTargets;
+
+    /**
+     * Source relationships of node i are fOutEdges[fOutStart[i]] to fOutEdges[fOutStart[i + 1] - 1]
+     */
+    private int[] fOutStart, fOutEdges;
+
+    /**
+     * Target relationships of node i are fInEdges[fInStart[i]] to fInEdges[fInStart[i + 1] - 1]
+     */
+    private int[] fInStart, fInEdges;
+
+    ConceptGraph(IArchimateModel model) {
+        fModel = model;
+    }
+
+    IArchimateModel getModel() {
+        return fModel;
+    }
+
+    /**
+     * A model change. If concepts were added or removed or relationships were re-connected the graph is built again when next used.
+     */
+    void modelChanged(Notification msg) {
+        Object feature = msg.getFeature();
+
+        if(feature == IArchimatePackage.Literals.FOLDER__ELEMENTS
+                || feature == IArchimatePackage.Literals.FOLDER_CONTAINER__FOLDERS
+                || feature == IArchimatePackage.Literals.ARCHIMATE_RELATIONSHIP__SOURCE
+                || feature == IArchimatePackage.Literals.ARCHIMATE_RELATIONSHIP__TARGET) {
+            fIsValid = false;
+        }
+    }
+
+    /**
+     * @return The index of concept or -1 if it is not in the graph
+     */
+    int indexOf(IArchimateConcept concept) {
+        ensureBuilt();
+        Integer index = fIndex.get(concept);
+        return index != null ? index : -1;
+    }
+
+    int size() {
+        ensureBuilt();
+        return fNodes.length;
+    }
+
+    IArchimateConcept getConcept(int node) {
+        return fNodes[node];
+    }
+
+    int getSource(int relationship) {
+        return fSources[relationship];
+    }
+
+    int getTarget(int relationship) {
+        return fTargets[relationship];
+    }
+
+    int getOutStart(int node) {
+        return fOutStart[node];
+    }
+
+    int getOutEnd(int node) {
+        return fOutStart[node + 1];
+    }
+
+    int getOutEdge(int i) {
+        return fOutEdges[i];
+    }
+
+    int getInStart(int node) {
+        return fInStart[node];
+    }
+
+    int getInEnd(int node) {
+        return fInStart[node + 1];
+    }
+
+    int getInEdge(int i) {
+        return fInEdges[i];
+    }
+
+    private void ensureBuilt() {
+        if(!fIsValid) {
+            build();
+            fIsValid = true;
+        }
+    }
+
+    private void build() {
+        List<IArchimateConcept> concepts = new ArrayList<>();
+        for(IFolder folder : fModel.getFolders()) {
+            addConcepts(folder, concepts);
+        }
+
+        int size = concepts.size();
+
+        fNodes = concepts.toArray(new IArchimateConcept[size]);
+        fIndex = new HashMap<>(size * 2);
+        for(int i = 0; i < size; i++) {
+            fIndex.put(fNodes[i], i);
+        }
+
+        fSources = new int[size];
+        fTargets = new int[size];
+        fOutStart = new int[size + 1];
+        fInStart = new int[size + 1];
+
+        // Count the relationships of each node
+        int edgeCount = 0;
+        for(int i = 0; i < size; i++) {
+            fSources[i] = fTargets[i] = -1;
+
+            if(fNodes[i] instanceof IArchimateRelationship) {
+                IArchimateRelationship relationship = (IArchimateRelationship)fNodes[i];
+                Integer source = fIndex.get(relationship.getSource());
+                Integer target = fIndex.get(relationship.getTarget());
+
+                // Both ends must be in the model
+                if(source != null && target != null) {
+                    fSources[i] = source;
+                    fTargets[i] = target;
+                    fOutStart[source + 1]++;
+                    fInStart[target + 1]++;
+                    edgeCount++;
+                }
+            }
+        }
+
+        for(int i = 0; i < size; i++) {
+            fOutStart[i + 1] += fOutStart[i];
+            fInStart[i + 1] += fInStart[i];
+        }
+
+        // Fill the relationships of each node in model order
+        fOutEdges = new int[edgeCount];
+        fInEdges = new int[edgeCount];
+        int[] outNext = new int[size];
+        int[] inNext = new int[size];
+
+        for(int i = 0; i < size; i++) {
+            if(fSources[i] != -1) {
+                int source = fSources[i];
+                int target = fTargets[i];
+                fOutEdges[fOutStart[source] + outNext[source]++] = i;
+                fInEdges[fInStart[target] + inNext[target]++] = i;
+            }
+        }
+    }
+
+    private void addConcepts(IFolder folder, List<IArchimateConcept> concepts) {
+        for(Object object : folder.getElements()) {
+            if(object instanceof IArchimateConcept) {
+                concepts.add((IArchimateConcept)object);
+            }
+        }
+
+        for(IFolder child : folder.getFolders()) {
+            addConcepts(child, concepts);
+        }
+    }
+}
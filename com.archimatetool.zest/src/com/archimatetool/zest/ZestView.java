@@ -31,6 +31,7 @@ import org.eclipse.jface.viewers.ISelectionChangedListener;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CLabel;
 import org.eclipse.swt.layout.GridData;
@@ -206,9 +207,9 @@ implements IZestView, ISelectionListener {
     }
     
     void refresh() {
+        getViewer().refresh();
         updateActions();
         updateLabel();
-        getViewer().refresh();
     }
     
     /**
@@ -223,7 +224,8 @@ implements IZestView, ISelectionListener {
        	String relationshipName = getRelationshipFilterName(getContentProvider().getRelationshipFilter());
 
         fLabel.setText(text + " (" + Messages.ZestView_5 + ": " + viewPointName + ", " + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-                    Messages.ZestView_9 + ": " + elementName + ", " + Messages.ZestView_6 + ": " + relationshipName + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                    Messages.ZestView_9 + ": " + elementName + ", " + Messages.ZestView_6 + ": " + relationshipName + ")" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                    + (getContentProvider().isTruncated() ? " " + NLS.bind(Messages.ZestView_36, ZestViewerContentProvider.MAX_CONCEPTS) : "")); //$NON-NLS-1$ //$NON-NLS-2$
         fLabel.setImage(ArchiLabelProvider.INSTANCE.getImage(fDrillDownManager.getCurrentConcept()));
     }
 
@@ -868,6 +870,8 @@ implements IZestView, ISelectionListener {
     
     @Override
     protected void eCoreChanged(Notification msg) {
+        getContentProvider().modelChanged(msg);
+        
         switch(msg.getEventType()) {
             case Notification.ADD:
             case Notification.ADD_MANY:
@@ -893,6 +897,10 @@ implements IZestView, ISelectionListener {
     
     @Override
     protected void doRefreshFromNotifications(List<Notification> notifications) {
+        for(Notification msg : notifications) {
+            getContentProvider().modelChanged(msg);
+        }
+        
         refresh();
         super.doRefreshFromNotifications(notifications);
     }
@@ -5,17 +5,20 @@
  */
 package com.archimatetool.zest;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.zest.core.viewers.IGraphContentProvider;
 
 import com.archimatetool.model.IArchimateConcept;
 import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimateModelObject;
 import com.archimatetool.model.IArchimateRelationship;
-import com.archimatetool.model.util.ArchimateModelUtils;
 import com.archimatetool.model.viewpoints.IViewpoint;
 import com.archimatetool.model.viewpoints.ViewpointManager;
 
@@ -30,6 +33,11 @@ public class ZestViewerContentProvider implements IGraphContentProvider {
 	final static int DIR_BOTH = 1;
 	final static int DIR_IN = 2;
 	final static int DIR_OUT = 3;
+	
+	/**
+	 * Maximum number of concepts that are visited
+	 */
+	final static int MAX_CONCEPTS = 500;
     
     private int fDepth = 0;
     private IViewpoint fViewpoint = ViewpointManager.NONE_VIEWPOINT;
@@ -37,6 +45,11 @@ public class ZestViewerContentProvider implements IGraphContentProvider {
     private EClass fRelationshipClass;
     private int fDirection = DIR_BOTH;
     
+    private int fMaxConcepts = MAX_CONCEPTS;
+    private boolean fIsTruncated;
+    
+    private ConceptGraph fGraph;
+    
     public void setViewpointFilter(IViewpoint vp) {
         assert(vp != null);
         fViewpoint = vp;
@@ -80,16 +93,43 @@ public class ZestViewerContentProvider implements IGraphContentProvider {
         return fDepth;
     }
     
+    void setMaxConcepts(int maxConcepts) {
+        fMaxConcepts = maxConcepts;
+    }
+    
+    /**
+     * @return true if not all concepts were visited for the last input because there were more than the maximum number
+     */
+    public boolean isTruncated() {
+        return fIsTruncated;
+    }
+    
+    /**
+     * A model change
+     */
+    public void modelChanged(Notification msg) {
+        if(fGraph != null) {
+            fGraph.modelChanged(msg);
+        }
+    }
+    
     @Override
     public void dispose() {
+        fGraph = null;
     }
 
     @Override
     public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+        // Don't keep the graph of a different model
+        if(fGraph != null && (!(newInput instanceof IArchimateModelObject) || ((IArchimateModelObject)newInput).getArchimateModel() != fGraph.getModel())) {
+            fGraph = null;
+        }
     }
     
     @Override
     public Object[] getElements(Object inputElement) {
+        fIsTruncated = false;
+        
         if(inputElement instanceof IArchimateConcept) {
             IArchimateConcept archimateConcept = (IArchimateConcept)inputElement;
             
@@ -105,9 +145,7 @@ public class ZestViewerContentProvider implements IGraphContentProvider {
 
             // Element - Get its relationships
             if(archimateConcept instanceof IArchimateElement) {
-                List<IArchimateRelationship> mainList = new ArrayList<IArchimateRelationship>();
-                getRelations(mainList, new ArrayList<IArchimateConcept>(), archimateConcept, 0);
-                return mainList.toArray();
+                return getRelations(archimateConcept).toArray();
             }
         }
         
@@ -115,42 +153,105 @@ public class ZestViewerContentProvider implements IGraphContentProvider {
     }
     
     /**
-     * Get all relations from source and target of concept and add to list, no more than DEPTH
+     * Get all relations from source and target of concept and of the concepts connected to it, no more than DEPTH.
+     * The concepts are visited breadth first in the model's concept graph.
      */
-    private void getRelations(List<IArchimateRelationship> mainList, List<IArchimateConcept> checkList, IArchimateConcept concept, int count) {
-        if(checkList.contains(concept)) {
-            return;
-        }
-        
-        checkList.add(concept);
+    private Set<IArchimateRelationship> getRelations(IArchimateConcept concept) {
+        Set<IArchimateRelationship> mainList = new LinkedHashSet<IArchimateRelationship>();
         
-        if(count > fDepth) {
-            return;
+        ConceptGraph graph = getGraph(concept.getArchimateModel());
+        int start = graph.indexOf(concept);
+        if(start == -1) {
+            return mainList;
         }
         
-        count++;
+        // Queue of visited nodes and their depth
+        int[] queue = new int[Math.min(graph.size(), fMaxConcepts)];
+        int[] depths = new int[queue.length];
+        BitSet visited = new BitSet(graph.size());
         
-        List<IArchimateRelationship> allRelationships = ArchimateModelUtils.getAllRelationshipsForConcept(concept);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited.set(start);
         
-        for(IArchimateRelationship relationship : allRelationships) {
-            IArchimateConcept other = relationship.getSource().equals(concept) ? relationship.getTarget() : relationship.getSource();
-            int direction = relationship.getSource().equals(concept) ? DIR_OUT : DIR_IN;
-
-            if(!mainList.contains(relationship) && fViewpoint.isAllowedConcept(other.eClass()) && !isFilteredByRelationship(relationship)) {
-                if(direction == fDirection || fDirection == DIR_BOTH) {
-                    // If the other concept is an element and is filtered
-                    if(other instanceof IArchimateElement && !isFilteredByElement((IArchimateElement)other)) {
-                        mainList.add(relationship);
-                    }
+        while(head < tail) {
+            int node = queue[head];
+            int depth = depths[head++];
+            
+            if(depth > fDepth) {
+                break;
+            }
+            
+            if(fDirection != DIR_IN) {
+                for(int i = graph.getOutStart(node); i < graph.getOutEnd(node); i++) {
+                    int relationship = graph.getOutEdge(i);
+                    tail = visitRelationship(graph, mainList, relationship, graph.getTarget(relationship), visited, queue, depths, tail, depth + 1);
                 }
             }
-
-            if(fViewpoint.isAllowedConcept(other.eClass()) && !isFilteredByRelationship(relationship)) {
-                if(direction == fDirection || fDirection == DIR_BOTH) {
-                    getRelations(mainList, checkList, other, count);
+            
+            if(fDirection != DIR_OUT) {
+                for(int i = graph.getInStart(node); i < graph.getInEnd(node); i++) {
+                    int relationship = graph.getInEdge(i);
+                    
+                    // Already visited as a source relationship
+                    if(fDirection == DIR_BOTH && graph.getSource(relationship) == node) {
+                        continue;
+                    }
+                    
+                    tail = visitRelationship(graph, mainList, relationship, graph.getSource(relationship), visited, queue, depths, tail, depth + 1);
                 }
             }
         }
+        
+        return mainList;
+    }
+    
+    /**
+     * Add a relationship to the list if it is not filtered and queue the concept at its other end if it has not been visited
+     * @return The new tail of the queue
+     */
+    private int visitRelationship(ConceptGraph graph, Set<IArchimateRelationship> mainList, int relationship, int otherNode,
+                                  BitSet visited, int[] queue, int[] depths, int tail, int depth) {
+        
+        IArchimateConcept relation = graph.getConcept(relationship);
+        if(fRelationshipClass != null && relation.eClass() != fRelationshipClass) {
+            return tail;
+        }
+        
+        IArchimateConcept other = graph.getConcept(otherNode);
+        if(!fViewpoint.isAllowedConcept(other.eClass())) {
+            return tail;
+        }
+        
+        if(!visited.get(otherNode)) {
+            // Too many concepts so leave out the relationship
+            if(tail == queue.length) {
+                fIsTruncated = true;
+                return tail;
+            }
+            
+            visited.set(otherNode);
+            queue[tail] = otherNode;
+            depths[tail++] = depth;
+        }
+        
+        // If the other concept is an element and is filtered
+        if(other instanceof IArchimateElement && !isFilteredByElement((IArchimateElement)other)) {
+            mainList.add((IArchimateRelationship)relation);
+        }
+        
+        return tail;
+    }
+    
+    /**
+     * @return The concept graph of model
+     */
+    private ConceptGraph getGraph(IArchimateModel model) {
+        if(fGraph == null || fGraph.getModel() != model) {
+            fGraph = new ConceptGraph(model);
+        }
+        return fGraph;
     }
     
     @Override
@@ -176,11 +277,4 @@ public class ZestViewerContentProvider implements IGraphContentProvider {
         return fElementClass != element.eClass();
     }
 
-	private boolean isFilteredByRelationship(IArchimateRelationship relation) {
-		if(fRelationshipClass == null){
-			return false;
-		}
-		return fRelationshipClass != relation.eClass();
-	}
-
 }
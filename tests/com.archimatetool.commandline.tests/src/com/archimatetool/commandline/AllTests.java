@@ -17,6 +17,7 @@ public class AllTests {
     public static junit.framework.Test suite() {
 		TestSuite suite = new TestSuite("com.archimatetool.commandline");
 
+        suite.addTest(BatchRunnerTests.suite());
         suite.addTest(CreateEmptyModelProviderTests.suite());
 		suite.addTest(CommandLineStateTests.suite());
         suite.addTest(LoadModelFromFileProviderTests.suite());
@@ -0,0 +1,118 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.commandline;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.junit.After;
+import org.junit.Test;
+
+import com.archimatetool.editor.utils.FileUtils;
+import com.archimatetool.tests.TestUtils;
+
+import junit.framework.JUnit4TestAdapter;
+
+
+@SuppressWarnings("nls")
+public class BatchRunnerTests {
+    
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(BatchRunnerTests.class);
+    }
+    
+    private File folder;
+    
+    @After
+    public void runOnceAfterEachTest() throws IOException {
+        if(folder != null) {
+            FileUtils.deleteFolder(folder);
+        }
+    }
+    
+    @Test
+    public void readManifest() throws IOException {
+        folder = TestUtils.createTempFolder("batch");
+        File modelsFolder = new File(folder, "models");
+        modelsFolder.mkdirs();
+        
+        File model1 = new File(modelsFolder, "b.archimate");
+        File model2 = new File(modelsFolder, "a.archimate");
+        File other = new File(modelsFolder, "other.txt");
+        for(File file : new File[] { model1, model2, other }) {
+            file.createNewFile();
+        }
+        
+        File manifest = new File(folder, "manifest.txt");
+        Files.write(manifest.toPath(), Arrays.asList(
+                "# Comment",
+                "",
+                "models/b.archimate",
+                "models/*.archimate"), StandardCharsets.UTF_8);
+        
+        List<File> files = BatchRunner.readManifest(manifest);
+        
+        // In listed order, patterns sorted and no duplicates
+        assertEquals(2, files.size());
+        assertEquals(model1.getCanonicalFile(), files.get(0).getCanonicalFile());
+        assertEquals(model2.getCanonicalFile(), files.get(1).getCanonicalFile());
+    }
+    
+    @Test
+    public void getModelArgs() {
+        Options options = new Options();
+        options.addOption(Option.builder().longOpt("loadModel").hasArg().build());
+        options.addOption(Option.builder().longOpt(BatchRunner.OPTION_BATCH).hasArg().build());
+        options.addOption(Option.builder().longOpt(BatchRunner.OPTION_BATCH_THREADS).hasArg().build());
+        options.addOption(Option.builder().longOpt("html.createReport").hasArg().build());
+        
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--batch", "manifest.txt",
+                "--batchThreads", "2",
+                "--html.createReport", "out/{model}/html"));
+        
+        BatchRunner runner = new BatchRunner(Collections.emptyList(), options, args, false);
+        
+        File file = new File("models", "Archisurance.archimate");
+        
+        assertEquals(Arrays.asList(
+                "--loadModel", file.getPath(),
+                "--html.createReport", "out/Archisurance/html"), runner.getModelArgs(file));
+    }
+    
+    @Test
+    public void getModelArgs_OptionsWithEquals() {
+        Options options = new Options();
+        options.addOption(Option.builder().longOpt("loadModel").hasArg().build());
+        options.addOption(Option.builder().longOpt(BatchRunner.OPTION_BATCH).hasArg().build());
+        options.addOption(Option.builder().longOpt(BatchRunner.OPTION_BATCH_THREADS).hasArg().build());
+        options.addOption(Option.builder().longOpt("html.createReport").hasArg().build());
+        
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--batch=manifest.txt",
+                "--batchThreads=2",
+                "--loadModel=other.archimate",
+                "--html.createReport=out/{model}/html"));
+        
+        BatchRunner runner = new BatchRunner(Collections.emptyList(), options, args, false);
+        
+        File file = new File("models", "Archisurance.archimate");
+        
+        assertEquals(Arrays.asList(
+                "--loadModel", file.getPath(),
+                "--html.createReport=out/Archisurance/html"), runner.getModelArgs(file));
+    }
+}
@@ -9,18 +9,27 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.archimatetool.model.FolderType;
 import com.archimatetool.model.IArchimateConcept;
 import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IFolder;
 import com.archimatetool.model.IProperty;
+import com.archimatetool.tests.TestUtils;
 
 import junit.framework.JUnit4TestAdapter;
 
@@ -237,5 +246,104 @@ public class CSVExporterTests {
         exporter.setFilePrefix("12345-");
         assertEquals("12345-properties.csv", exporter.createPropertiesFileName());
     }
+    
+    @Test
+    public void testCreateFileNamesWithGzip() {
+        exporter.setGzip(true);
+        assertEquals("elements.csv.gz", exporter.createElementsFileName());
+        assertEquals("relations.csv.gz", exporter.createRelationsFileName());
+        assertEquals("properties.csv.gz", exporter.createPropertiesFileName());
+    }
+    
+    @Test
+    public void testExport() throws Exception {
+        IArchimateModel model = createModel();
+        exporter = new CSVExporter(model);
+        
+        File folder = TestUtils.createTempFolder("csv");
+        exporter.export(folder);
+        
+        assertEquals(4, Files.readAllLines(new File(folder, "elements.csv").toPath()).size());
+        assertEquals(2, Files.readAllLines(new File(folder, "relations.csv").toPath()).size());
+        
+        List<String> lines = Files.readAllLines(new File(folder, "properties.csv").toPath());
+        assertEquals(4, lines.size());
+        assertEquals("\"0a9d34ab\",\"modelKey\",\"modelValue\"", lines.get(1));
+        assertEquals("\"e1\",\"key\",\"value\"", lines.get(2));
+        assertEquals("\"r1\",\"Directed\",\"false\"", lines.get(3));
+    }
+    
+    @Test
+    public void testExport_PropertiesInModelContentOrder() throws Exception {
+        IArchimateModel model = createModel();
+        
+        // Add an element in a sub-folder of the folder of element "e1"
+        IFolder subFolder = IArchimateFactory.eINSTANCE.createFolder();
+        model.getFolder(FolderType.BUSINESS).getFolders().add(subFolder);
+        
+        IArchimateElement element3 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element3.setId("e3");
+        element3.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("key3", "value3"));
+        subFolder.getElements().add(element3);
+        
+        exporter = new CSVExporter(model);
+        
+        File folder = TestUtils.createTempFolder("csv");
+        exporter.export(folder);
+        
+        // The elements in a sub-folder are written before those in the parent folder as in the model's contents
+        List<String> lines = Files.readAllLines(new File(folder, "properties.csv").toPath());
+        assertEquals(5, lines.size());
+        assertEquals("\"0a9d34ab\",\"modelKey\",\"modelValue\"", lines.get(1));
+        assertEquals("\"e3\",\"key3\",\"value3\"", lines.get(2));
+        assertEquals("\"e1\",\"key\",\"value\"", lines.get(3));
+        assertEquals("\"r1\",\"Directed\",\"false\"", lines.get(4));
+        
+        // The element in the sub-folder is also in elements.csv
+        lines = Files.readAllLines(new File(folder, "elements.csv").toPath());
+        assertEquals(5, lines.size());
+    }
+    
+    @Test
+    public void testExportWithGzip() throws Exception {
+        IArchimateModel model = createModel();
+        exporter = new CSVExporter(model);
+        exporter.setGzip(true);
+        
+        File folder = TestUtils.createTempFolder("csv");
+        exporter.export(folder);
+        
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(new File(folder, "elements.csv.gz"))), "UTF-8"))) {
+            assertEquals("\"ID\",\"Type\",\"Name\",\"Documentation\"", reader.readLine());
+            assertEquals("\"0a9d34ab\",\"ArchimateModel\",\"The Main Model\",\"\"", reader.readLine());
+        }
+        
+        assertTrue(new File(folder, "relations.csv.gz").exists());
+        assertTrue(new File(folder, "properties.csv.gz").exists());
+    }
+    
+    private IArchimateModel createModel() {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        model.setId("0a9d34ab");
+        model.setName("The Main Model");
+        model.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("modelKey", "modelValue"));
+        
+        IArchimateElement element1 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element1.setId("e1");
+        element1.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("key", "value"));
+        model.getDefaultFolderForObject(element1).getElements().add(element1);
+        
+        IArchimateElement element2 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        element2.setId("e2");
+        model.getDefaultFolderForObject(element2).getElements().add(element2);
+        
+        IArchimateRelationship relation = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relation.setId("r1");
+        relation.connect(element1, element2);
+        model.getDefaultFolderForObject(relation).getElements().add(relation);
+        
+        return model;
+    }
 
 }
@@ -13,7 +13,11 @@ import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.eclipse.gef.commands.CommandStack;
 import org.junit.Before;
@@ -233,6 +237,37 @@ public class CSVImporterTests {
         assertEquals(7, importer.newProperties.size());
     }
 
+    @Test
+    public void testSniffDelimiter() throws Exception {
+        assertEquals(',', importer.sniffDelimiter(new BufferedReader(new StringReader("\"ID\",\"Type\",\"Name\",\"Documentation\""))));
+        assertEquals(';', importer.sniffDelimiter(new BufferedReader(new StringReader("\"ID\";\"Type\";\"Name\";\"Documentation\""))));
+        assertEquals('\t', importer.sniffDelimiter(new BufferedReader(new StringReader("ID\tType\tName\tDocumentation"))));
+        
+        // Delimiters in quotes and after the first record are ignored
+        assertEquals(';', importer.sniffDelimiter(new BufferedReader(new StringReader("\"I,D\";\"Ty,,pe\"\r\na,b,c,d,e"))));
+        
+        // Default
+        assertEquals(',', importer.sniffDelimiter(new BufferedReader(new StringReader(""))));
+        
+        // Reader is reset
+        BufferedReader reader = new BufferedReader(new StringReader("a;b"));
+        importer.sniffDelimiter(reader);
+        assertEquals("a;b", reader.readLine());
+    }
+    
+    @Test
+    public void testImportElements_SemicolonDelimiter() throws Exception {
+        File file = TestUtils.createTempFile(".csv");
+        Files.write(file.toPath(), ("\"ID\";\"Type\";\"Name\";\"Documentation\"\r\n" +
+                                    "\"id1\";\"BusinessActor\";\"Actor, with comma\";\"\"\r\n").getBytes(StandardCharsets.UTF_8));
+        
+        importer.importElements(file);
+        
+        IArchimateConcept concept = importer.newConcepts.get("id1");
+        assertEquals(IArchimatePackage.eINSTANCE.getBusinessActor(), concept.eClass());
+        assertEquals("Actor, with comma", concept.getName());
+    }
+    
     @Test
     public void testIsElementsFileName() {
         assertFalse(CSVImporter.isElementsFileName(new File("relations.csv")));
@@ -0,0 +1,90 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.diagram.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.gef.commands.Command;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelConnection;
+import com.archimatetool.model.IDiagramModelGroup;
+import com.archimatetool.model.IDiagramModelObject;
+
+import junit.framework.JUnit4TestAdapter;
+
+
+public class DiagramCommandFactoryTests {
+
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(DiagramCommandFactoryTests.class);
+    }
+
+    private IDiagramModel dm;
+    private IDiagramModelGroup group;
+    private IDiagramModelObject child1, child2, child3, note1, note2, note3;
+    private IDiagramModelConnection connection1, connection2;
+
+    @Before
+    public void runBeforeEachTest() {
+        dm = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+
+        note1 = IArchimateFactory.eINSTANCE.createDiagramModelNote();
+        group = IArchimateFactory.eINSTANCE.createDiagramModelGroup();
+        note2 = IArchimateFactory.eINSTANCE.createDiagramModelNote();
+        note3 = IArchimateFactory.eINSTANCE.createDiagramModelNote();
+        dm.getChildren().addAll(Arrays.asList(note1, group, note2, note3));
+
+        child1 = IArchimateFactory.eINSTANCE.createDiagramModelNote();
+        child2 = IArchimateFactory.eINSTANCE.createDiagramModelNote();
+        child3 = IArchimateFactory.eINSTANCE.createDiagramModelNote();
+        group.getChildren().addAll(Arrays.asList(child1, child2, child3));
+
+        // Connection from a child of the group to an object outside the group
+        connection1 = IArchimateFactory.eINSTANCE.createDiagramModelConnection();
+        connection1.connect(child2, note2);
+
+        // Connection between objects that are not deleted
+        connection2 = IArchimateFactory.eINSTANCE.createDiagramModelConnection();
+        connection2.connect(note1, note2);
+    }
+
+    @Test
+    public void createDeleteDiagramObjectsCommand() {
+        List<IDiagramModelObject> dmChildren = new ArrayList<>(dm.getChildren());
+        List<IDiagramModelObject> groupChildren = new ArrayList<>(group.getChildren());
+
+        Command cmd = DiagramCommandFactory.createDeleteDiagramObjectsCommand(Arrays.asList(group, note3));
+        assertTrue(cmd.canExecute());
+
+        cmd.execute();
+        assertEquals(Arrays.asList(note1, note2), dm.getChildren());
+        assertTrue(group.getChildren().isEmpty());
+
+        // Connection to a child of a deleted object is deleted
+        assertFalse(note2.getTargetConnections().contains(connection1));
+        assertTrue(note2.getTargetConnections().contains(connection2));
+
+        cmd.undo();
+        assertEquals(dmChildren, dm.getChildren());
+        assertEquals(groupChildren, group.getChildren());
+        assertSame(child2, connection1.getSource());
+        assertTrue(note2.getTargetConnections().contains(connection1));
+
+        cmd.redo();
+        assertEquals(Arrays.asList(note1, note2), dm.getChildren());
+    }
+}
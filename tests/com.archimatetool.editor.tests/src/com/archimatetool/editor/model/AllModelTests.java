@@ -13,6 +13,7 @@ import com.archimatetool.editor.model.compatibility.handlers.OutlineOpacityHandl
 import com.archimatetool.editor.model.impl.ArchiveManagerTests;
 import com.archimatetool.editor.model.impl.ByteArrayStorageTests;
 import com.archimatetool.editor.model.impl.EditorModelManagerTests;
+import com.archimatetool.editor.model.impl.ModelChangeTrackerTests;
 
 import junit.framework.TestSuite;
 
@@ -43,6 +44,7 @@ public class AllModelTests {
         suite.addTest(ArchiveManagerTests.suite());
         suite.addTest(ByteArrayStorageTests.suite());
 		suite.addTest(EditorModelManagerTests.suite());
+		suite.addTest(ModelChangeTrackerTests.suite());
 		
 		return suite;
 	}
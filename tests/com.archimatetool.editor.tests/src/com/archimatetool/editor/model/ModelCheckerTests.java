@@ -6,10 +6,12 @@
 package com.archimatetool.editor.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
@@ -59,6 +61,50 @@ public class ModelCheckerTests {
         assertTrue(modelChecker.checkAll());
     }
     
+    @Test
+    public void checkAll_SplitBetweenTasks() {
+        // More objects than are checked by one task
+        for(int i = 0; i < 200; i++) {
+            IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+            IDiagramModelArchimateObject dmo = tm.createDiagramModelArchimateObjectAndAddToModel(element);
+            model.getDefaultDiagramModel().getChildren().add(dmo);
+        }
+        
+        assertTrue(modelChecker.checkAll());
+        
+        IArchimateElement element = (IArchimateElement)model.getFolder(FolderType.BUSINESS).getElements().get(150);
+        element.setId(null);
+        IDiagramModelArchimateObject dmo = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        model.getDefaultDiagramModel().getChildren().add(dmo);
+        
+        assertFalse(modelChecker.checkAll());
+        List<String> messages = modelChecker.getErrorMessages();
+        assertEquals(2, messages.size());
+        
+        // Messages are in model order
+        assertTrue(messages.get(0).startsWith("No identifier set on"));
+        assertTrue(messages.get(1).startsWith("Diagram Element has missing referenced ArchiMate element"));
+    }
+    
+    @Test
+    public void checkObjects() {
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        IDiagramModelArchimateObject dmo = tm.createDiagramModelArchimateObjectAndAddToModel(element);
+        model.getDefaultDiagramModel().getChildren().add(dmo);
+        
+        IArchimateElement element2 = (IArchimateElement)tm.createModelElementAndAddToModel(IArchimatePackage.eINSTANCE.getBusinessRole());
+        element2.setId(null);
+        
+        assertTrue(modelChecker.checkObjects(Arrays.asList(element, dmo)));
+        
+        assertFalse(modelChecker.checkObjects(Arrays.asList(element, dmo, element2)));
+        assertEquals(1, modelChecker.getErrorMessages().size());
+        
+        // Objects not in the model are ignored
+        model.getFolder(FolderType.BUSINESS).getElements().remove(element2);
+        assertTrue(modelChecker.checkObjects(Arrays.asList(element2)));
+    }
+    
     @Test
     public void checkFolderStructure() {
         List<String> messages = modelChecker.checkFolderStructure();
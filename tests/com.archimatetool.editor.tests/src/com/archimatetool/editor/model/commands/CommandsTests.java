@@ -14,8 +14,13 @@ import static org.junit.Assert.assertTrue;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.util.EContentAdapter;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CompoundCommand;
@@ -24,6 +29,7 @@ import org.junit.Test;
 
 import com.archimatetool.editor.model.IEditorModelManager;
 import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IArchimatePackage;
 import com.archimatetool.model.IArchimateRelationship;
@@ -119,6 +125,87 @@ public class CommandsTests {
         assertEquals(11, parent.getElements().indexOf(relationship));
     }
     
+    @Test
+    public void testRemoveListObjectsCommand_UndoNonAdjacentObjectsInManyLists() {
+        IFolder folder1 = IArchimateFactory.eINSTANCE.createFolder();
+        IFolder folder2 = IArchimateFactory.eINSTANCE.createFolder();
+        
+        List<EObject> objects1 = new ArrayList<>();
+        List<EObject> objects2 = new ArrayList<>();
+        for(int i = 0; i < 8; i++) {
+            objects1.add(IArchimateFactory.eINSTANCE.createBusinessActor());
+            objects2.add(IArchimateFactory.eINSTANCE.createBusinessRole());
+        }
+        folder1.getElements().addAll(objects1);
+        folder2.getElements().addAll(objects2);
+        
+        // Runs of one and more objects, including the first and last objects
+        CompoundCommand compoundCmd = new CompoundCommand();
+        compoundCmd.add(new RemoveListObjectsCommand<EObject>(null, folder1.getElements(),
+                Arrays.asList(objects1.get(7), objects1.get(0), objects1.get(3), objects1.get(4), objects1.get(5))));
+        compoundCmd.add(new RemoveListObjectsCommand<EObject>(null, folder2.getElements(),
+                Arrays.asList(objects2.get(1), objects2.get(6))));
+        
+        compoundCmd.execute();
+        assertEquals(Arrays.asList(objects1.get(1), objects1.get(2), objects1.get(6)), folder1.getElements());
+        assertEquals(6, folder2.getElements().size());
+        assertFalse(folder2.getElements().contains(objects2.get(1)));
+        assertFalse(folder2.getElements().contains(objects2.get(6)));
+        
+        compoundCmd.undo();
+        assertEquals(objects1, folder1.getElements());
+        assertEquals(objects2, folder2.getElements());
+        
+        compoundCmd.redo();
+        assertEquals(3, folder1.getElements().size());
+        assertEquals(6, folder2.getElements().size());
+    }
+    
+    @Test
+    public void testDeleteArchimateConceptsCommand() {
+        IArchimateRelationship relationship = (IArchimateRelationship)tm.getObjectByID("670aa5ed");
+        assertNotNull(relationship);
+        
+        IFolder parent = (IFolder)relationship.eContainer();
+        List<EObject> before = new ArrayList<>(parent.getElements());
+        
+        IArchimateRelationship first = (IArchimateRelationship)parent.getElements().get(0);
+        IArchimateRelationship second = (IArchimateRelationship)parent.getElements().get(1);
+        
+        final int[] notifications = new int[1];
+        parent.eAdapters().add(new AdapterImpl() {
+            @Override
+            public void notifyChanged(Notification msg) {
+                notifications[0]++;
+                if(notifications[0] == 1) {
+                    assertEquals(Notification.REMOVE_MANY, msg.getEventType());
+                }
+                else if(notifications[0] == 2) {
+                    assertEquals(Notification.ADD_MANY, msg.getEventType());
+                }
+            }
+        });
+        
+        DeleteArchimateConceptsCommand cmd = new DeleteArchimateConceptsCommand(parent, Arrays.asList(relationship, first, second));
+        cmd.execute();
+        
+        // One notification for all
+        assertEquals(1, notifications[0]);
+        
+        assertEquals(before.size() - 3, parent.getElements().size());
+        assertNull(relationship.eContainer());
+        assertFalse(relationship.getSource().getSourceRelationships().contains(relationship));
+        assertFalse(relationship.getTarget().getTargetRelationships().contains(relationship));
+        
+        // One notification for the adjacent first and second and one for relationship
+        cmd.undo();
+        assertEquals(3, notifications[0]);
+        
+        assertEquals(before, parent.getElements());
+        assertTrue(relationship.getSource().getSourceRelationships().contains(relationship));
+        assertTrue(relationship.getTarget().getTargetRelationships().contains(relationship));
+    }
+    
     @Test
     public void testDeleteFolderCommand() {
         IFolder folder = (IFolder)tm.getObjectByID("403e5717");
@@ -12,14 +12,20 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
 import org.junit.Test;
 
 import com.archimatetool.editor.TestSupport;
+import com.archimatetool.editor.model.compatibility.handlers.FixDefaultSizesHandler;
+import com.archimatetool.editor.model.compatibility.handlers.OutlineOpacityHandler;
+import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IDiagramModelObject;
 import com.archimatetool.model.util.ArchimateResourceFactory;
+import com.archimatetool.testingtools.ArchimateTestModel;
 
 import junit.framework.JUnit4TestAdapter;
 
@@ -129,6 +135,34 @@ public class ModelCompatibilityTests {
         assertTrue(mc.isCatastrophicException(diagnostic));
     }
     
+    @Test
+    public void testFixObjects_OnlyApplicableHandlers() throws CompatibilityHandlerException {
+        ArchimateTestModel tm = new ArchimateTestModel();
+        IArchimateModel model = tm.createNewModel();
+        model.setVersion("4.0.1");
+        
+        IDiagramModelObject dmo = tm.createDiagramModelArchimateObjectAndAddToModel(IArchimateFactory.eINSTANCE.createBusinessActor());
+        dmo.setAlpha(100);
+        dmo.setBounds(10, 10, -1, -1);
+        model.getDefaultDiagramModel().getChildren().add(dmo);
+        
+        resource = ArchimateResourceFactory.createNewResource(file1);
+        resource.getContents().add(model);
+        mc = new ModelCompatibility(resource);
+        
+        OutlineOpacityHandler outlineOpacityHandler = new OutlineOpacityHandler();
+        FixDefaultSizesHandler fixDefaultSizesHandler = new FixDefaultSizesHandler();
+        mc.fixObjects(Arrays.asList(outlineOpacityHandler, fixDefaultSizesHandler));
+        
+        // Outline Opacity applies to version 4.0.1
+        assertEquals(100, dmo.getLineAlpha());
+        assertTrue(mc.getHandlerTimes().containsKey(OutlineOpacityHandler.class.getName()));
+        
+        // Fix Default Sizes does not
+        assertEquals(-1, dmo.getBounds().getWidth());
+        assertFalse(mc.getHandlerTimes().containsKey(FixDefaultSizesHandler.class.getName()));
+    }
+    
     private void createResource(File file) {
         resource = ArchimateResourceFactory.createNewResource(file);
         mc = new ModelCompatibility(resource);
@@ -5,6 +5,7 @@
  */
 package com.archimatetool.editor.model.impl;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -16,6 +17,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.swt.graphics.Image;
@@ -24,6 +26,9 @@ import org.junit.Test;
 
 import com.archimatetool.editor.TestSupport;
 import com.archimatetool.editor.model.IArchiveManager;
+import com.archimatetool.editor.preferences.IPreferenceConstants;
+import com.archimatetool.editor.preferences.Preferences;
+import com.archimatetool.editor.utils.ZipFileCache;
 import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IDiagramModel;
@@ -190,6 +195,73 @@ public class ArchiveManagerTests {
         file.delete();
     }
     
+    @Test
+    public void testSaveModel_ReplacesFileAndLeavesNoTempFile() throws IOException {
+        File folder = TestUtils.createTempFolder("saveModel");
+        for(File f : folder.listFiles()) {
+            f.delete();
+        }
+        
+        File file = new File(folder, "test.archimate");
+        model.setFile(file);
+        
+        // Save as xml
+        archiveManager.saveModel();
+        assertTrue(file.exists());
+        assertEquals(1, folder.listFiles().length);
+        
+        // Save over the existing file as an archive file
+        IDiagramModelImage dmImage = IArchimateFactory.eINSTANCE.createDiagramModelImage();
+        dm.getChildren().add(dmImage);
+        archiveManager.loadImagesFromModelFile(TestSupport.TEST_MODEL_FILE_ZIPPED);
+        String imagePath = archiveManager.getLoadedImagePaths().get(0);
+        dmImage.setImagePath(imagePath);
+        
+        archiveManager.saveModel();
+        assertTrue(IArchiveManager.FACTORY.isArchiveFile(file));
+        assertEquals(1, folder.listFiles().length);
+        
+        // Images were written
+        IArchiveManager archiveManager2 = IArchiveManager.FACTORY.createArchiveManager(model);
+        assertTrue(archiveManager2.loadImagesFromModelFile(file));
+        assertEquals(1, archiveManager2.getLoadedImagePaths().size());
+        assertArrayEquals(archiveManager.getBytesFromEntry(imagePath), archiveManager2.getBytesFromEntry(imagePath));
+    }
+    
+    @Test
+    public void testSaveModel_FailsIfImageLoadedOnDemandCannotBeRead() throws IOException {
+        File folder = TestUtils.createTempFolder("saveModel");
+        for(File f : folder.listFiles()) {
+            f.delete();
+        }
+        
+        File file = new File(folder, "test.archimate");
+        Files.copy(TestSupport.TEST_MODEL_FILE_ZIPPED.toPath(), file.toPath());
+        model.setFile(file);
+        
+        // Load the images on demand
+        Preferences.STORE.setValue(IPreferenceConstants.LOAD_IMAGES_ON_DEMAND, true);
+        try {
+            archiveManager.loadImages();
+        }
+        finally {
+            Preferences.STORE.setToDefault(IPreferenceConstants.LOAD_IMAGES_ON_DEMAND);
+        }
+        
+        IDiagramModelImage dmImage = IArchimateFactory.eINSTANCE.createDiagramModelImage();
+        dmImage.setImagePath(archiveManager.getLoadedImagePaths().get(0));
+        dm.getChildren().add(dmImage);
+        
+        // The model file is deleted while the model is open
+        ZipFileCache.close(file);
+        file.delete();
+        
+        // Saving fails rather than writing a file without the image
+        assertThrows(IOException.class, () -> archiveManager.saveModel());
+        assertFalse(file.exists());
+        assertEquals(0, folder.listFiles().length);
+    }
+    
     @Test
     public void testSaveModel_ResourceSame() throws IOException {
         File file = TestUtils.createTempFile(".archimate");
@@ -5,6 +5,7 @@
  */
 package com.archimatetool.editor.model.impl;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -14,7 +15,12 @@ import static org.junit.Assert.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import junit.framework.JUnit4TestAdapter;
 
@@ -22,6 +28,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.archimatetool.editor.TestSupport;
+import com.archimatetool.tests.TestUtils;
 
 
 @SuppressWarnings("nls")
@@ -152,6 +159,90 @@ public class ByteArrayStorageTests {
         // entry2 should reference original bytes1
         assertEquals(bytes1, storage.getEntry(entry2));
     }
+    
+    @Test
+    public void addByteContentEntry_WithDigest() throws Exception {
+        byte[] bytes = storage.getBytesFromFile(img1File);
+        String digest = ByteArrayStorage.getDigest(bytes);
+        assertNull(storage.getKeyForDigest(digest));
+        
+        storage.addByteContentEntry(entry1, bytes, digest);
+        assertEquals(bytes, storage.getEntry(entry1));
+        assertEquals(entry1, storage.getKeyForDigest(digest));
+        assertEquals(entry1, storage.getKey(bytes));
+    }
+    
+    @Test
+    public void getKey_SameContentDifferentArray() throws Exception {
+        byte[] bytes1 = storage.getBytesFromFile(img1File);
+        storage.addByteContentEntry(entry1, bytes1);
+        
+        assertEquals(entry1, storage.getKey(storage.getBytesFromFile(img2File)));
+        assertNull(storage.getKey(new byte[] { 1, 2, 3 }));
+    }
+    
+    @Test
+    public void removeEntry_KeyMovesToOtherEntryWithSameContent() throws Exception {
+        storage.addFileContentEntry(entry1, img1File);
+        storage.addFileContentEntry(entry2, img2File);
+        byte[] bytes = storage.getEntry(entry1);
+        
+        storage.removeEntry(entry1);
+        assertEquals(entry2, storage.getKey(bytes));
+        
+        storage.removeEntry(entry2);
+        assertNull(storage.getKey(bytes));
+    }
+    
+    @Test
+    public void addByteContentEntry_ReplaceContent() throws Exception {
+        byte[] bytes1 = storage.getBytesFromFile(img1File);
+        storage.addByteContentEntry(entry1, bytes1);
+        
+        byte[] bytes2 = new byte[] { 1, 2, 3 };
+        storage.addByteContentEntry(entry1, bytes2);
+        
+        assertEquals(bytes2, storage.getEntry(entry1));
+        assertEquals(entry1, storage.getKey(bytes2));
+        assertNull(storage.getKey(bytes1));
+    }
+    
+    @Test
+    public void addLazyArchiveEntry() throws Exception {
+        File zipFile = TestUtils.createTempFile(".zip");
+        writeZipFile(zipFile, entry1, storage.getBytesFromFile(img1File));
+        
+        try(ZipFile zip = new ZipFile(zipFile)) {
+            storage.addLazyArchiveEntry(entry1, zipFile, zip.getInputStream(zip.getEntry(entry1)));
+        }
+        
+        assertTrue(storage.hasEntry(entry1));
+        assertEquals(imgfileByteSize, storage.getEntrySize(entry1));
+        
+        // Bytes are read from the archive file
+        byte[] bytes = storage.getBytesFromFile(img1File);
+        assertArrayEquals(bytes, storage.getEntry(entry1));
+        assertEquals(entry1, storage.getKey(bytes));
+        
+        // Same content is re-used
+        storage.addByteContentEntry(entry2, bytes);
+        assertArrayEquals(bytes, storage.getEntry(entry2));
+        
+        // Saving to another file reads lazy entries into memory
+        storage.loadLazyEntries(TestUtils.createTempFile(".zip"), Collections.singleton(entry1));
+        zipFile.delete();
+        
+        assertArrayEquals(bytes, storage.getEntry(entry1));
+        assertArrayEquals(bytes, storage.getEntry(entry2));
+    }
+    
+    private void writeZipFile(File file, String entryName, byte[] bytes) throws Exception {
+        try(ZipOutputStream zOut = new ZipOutputStream(new FileOutputStream(file))) {
+            zOut.putNextEntry(new ZipEntry(entryName));
+            zOut.write(bytes);
+            zOut.closeEntry();
+        }
+    }
 
     
 }
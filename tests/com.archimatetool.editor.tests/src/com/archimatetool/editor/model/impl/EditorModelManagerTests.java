@@ -10,11 +10,22 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.beans.PropertyChangeEvent;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CommandStack;
+import org.eclipse.swt.widgets.Display;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -161,6 +172,50 @@ public class EditorModelManagerTests {
         assertEquals(1, editorModelManager.getModels().size());
     }
     
+    @Test
+    public void loadModelAsync_File() throws Exception {
+        File file = TestData.TEST_MODEL_FILE_ARCHISURANCE;
+        
+        IArchimateModel model = waitFor(editorModelManager.loadModelAsync(file, null));
+        assertNotNull(model);
+        
+        // File
+        assertEquals(file, model.getFile());
+        
+        // Has a Command Stack
+        assertTrue(model.getAdapter(CommandStack.class) instanceof CommandStack);
+
+        // Has an Archive Manager
+        assertTrue(model.getAdapter(IArchiveManager.class) instanceof IArchiveManager);
+        
+        // Is registered
+        assertEquals(1, editorModelManager.getModels().size());
+        assertTrue(editorModelManager.getModels().contains(model));
+        
+        // Do it again, should be the same
+        assertEquals(model, waitFor(editorModelManager.loadModelAsync(file, null)));
+        assertEquals(model, editorModelManager.loadModel(file));
+        assertEquals(1, editorModelManager.getModels().size());
+    }
+    
+    @Test
+    public void loadModelAsync_Cancelled() throws Exception {
+        IProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+        
+        CompletableFuture<IArchimateModel> future = editorModelManager.loadModelAsync(TestData.TEST_MODEL_FILE_ARCHISURANCE, monitor);
+        
+        try {
+            waitFor(future);
+            fail("Should have been cancelled");
+        }
+        catch(CancellationException ex) {
+        }
+        
+        assertTrue(future.isCancelled());
+        assertEquals(0, editorModelManager.getModels().size());
+    }
+    
     @Test
     public void isModelLoaded_File() {
         File file = TestData.TEST_MODEL_FILE_ARCHISURANCE;
@@ -211,4 +266,49 @@ public class EditorModelManagerTests {
         boolean result = editorModelManager.saveModel(model);
         assertTrue(result);
     }
+    
+    @Test
+    public void firePropertyChange_NestedEcoreEventsStartAndEnd() {
+        IArchimateModel model = editorModelManager.createNewModel();
+        
+        List<PropertyChangeEvent> events = new ArrayList<>();
+        editorModelManager.addPropertyChangeListener(events::add);
+        
+        editorModelManager.firePropertyChange(this, IEditorModelManager.PROPERTY_ECORE_EVENTS_START, false, true);
+        editorModelManager.firePropertyChange(this, IEditorModelManager.PROPERTY_ECORE_EVENTS_START, false, true);
+        model.setName("one");
+        editorModelManager.firePropertyChange(this, IEditorModelManager.PROPERTY_ECORE_EVENTS_END, false, true);
+        model.setName("two");
+        editorModelManager.firePropertyChange(this, IEditorModelManager.PROPERTY_ECORE_EVENTS_END, false, true);
+        
+        // One start and end around the outermost batch and each Ecore event is still sent
+        assertEquals(4, events.size());
+        assertEquals(IEditorModelManager.PROPERTY_ECORE_EVENTS_START, events.get(0).getPropertyName());
+        assertEquals(IEditorModelManager.PROPERTY_ECORE_EVENT, events.get(1).getPropertyName());
+        assertEquals("one", ((Notification)events.get(1).getNewValue()).getNewValue());
+        assertEquals(IEditorModelManager.PROPERTY_ECORE_EVENT, events.get(2).getPropertyName());
+        assertEquals("two", ((Notification)events.get(2).getNewValue()).getNewValue());
+        assertEquals(IEditorModelManager.PROPERTY_ECORE_EVENTS_END, events.get(3).getPropertyName());
+        
+        // Not nested
+        events.clear();
+        editorModelManager.firePropertyChange(this, IEditorModelManager.PROPERTY_ECORE_EVENTS_START, false, true);
+        editorModelManager.firePropertyChange(this, IEditorModelManager.PROPERTY_ECORE_EVENTS_END, false, true);
+        assertEquals(2, events.size());
+    }
+    
+    /**
+     * Wait for a future that might be completed on the UI thread
+     */
+    private IArchimateModel waitFor(CompletableFuture<IArchimateModel> future) throws InterruptedException {
+        Display display = Display.getCurrent();
+        
+        while(!future.isDone()) {
+            if(display == null || !display.readAndDispatch()) {
+                Thread.sleep(10);
+            }
+        }
+        
+        return future.join();
+    }
 }
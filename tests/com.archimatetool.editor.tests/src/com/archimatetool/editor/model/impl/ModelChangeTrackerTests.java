@@ -0,0 +1,97 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.model.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IAssociationRelationship;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.testingtools.ArchimateTestModel;
+
+import junit.framework.JUnit4TestAdapter;
+
+
+@SuppressWarnings("nls")
+public class ModelChangeTrackerTests {
+    
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(ModelChangeTrackerTests.class);
+    }
+    
+    private ArchimateTestModel tm;
+    private IArchimateModel model;
+    private ModelChangeTracker tracker;
+    
+    @Before
+    public void runOnceBeforeEachTest() {
+        tm = new ArchimateTestModel();
+        model = tm.createNewModel();
+        tracker = new ModelChangeTracker(model);
+    }
+    
+    @After
+    public void runOnceAfterEachTest() {
+        tracker.dispose();
+    }
+    
+    @Test
+    public void testChangedAndAddedObjects() {
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        IDiagramModelArchimateObject dmo = tm.createDiagramModelArchimateObjectAndAddToModel(element);
+        model.getDefaultDiagramModel().getChildren().add(dmo);
+        
+        Set<EObject> changed = tracker.getChangedObjects();
+        assertTrue(changed.contains(element));
+        assertTrue(changed.contains(dmo));
+        
+        tracker.reset();
+        assertTrue(tracker.getChangedObjects().isEmpty());
+        
+        element.setName("Renamed");
+        assertEquals(1, tracker.getChangedObjects().size());
+        assertTrue(tracker.getChangedObjects().contains(element));
+    }
+    
+    @Test
+    public void testRemovedObjectReferences() {
+        IArchimateElement source = IArchimateFactory.eINSTANCE.createBusinessActor();
+        IArchimateElement target = IArchimateFactory.eINSTANCE.createBusinessRole();
+        IAssociationRelationship relationship = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relationship.connect(source, target);
+        model.getFolder(FolderType.BUSINESS).getElements().add(source);
+        model.getFolder(FolderType.BUSINESS).getElements().add(target);
+        model.getFolder(FolderType.RELATIONS).getElements().add(relationship);
+        
+        tracker.reset();
+        
+        // The relationship is left orphaned
+        model.getFolder(FolderType.BUSINESS).getElements().remove(source);
+        
+        Set<EObject> changed = tracker.getChangedObjects();
+        assertTrue(changed.contains(relationship));
+        assertFalse(changed.contains(target));
+    }
+    
+    @Test
+    public void testDispose() {
+        tracker.dispose();
+        model.setName("Renamed");
+        assertTrue(tracker.getChangedObjects().isEmpty());
+    }
+}
@@ -13,6 +13,7 @@ public class AllPropertySectionsTests {
     public static junit.framework.Test suite() {
         TestSuite suite = new TestSuite("com.archimatetool.editor.propertysections");
 
+        suite.addTest(PropertiesDictionaryTests.suite());
         suite.addTest(PropertiesLabelProviderTests.suite());
         
         return suite;
@@ -0,0 +1,127 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.propertysections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.emf.ecore.EClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimatePackage;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.IProperty;
+import com.archimatetool.testingtools.ArchimateTestModel;
+
+import junit.framework.JUnit4TestAdapter;
+
+
+@SuppressWarnings("nls")
+public class PropertiesDictionaryTests {
+    
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(PropertiesDictionaryTests.class);
+    }
+    
+    private ArchimateTestModel tm;
+    private IArchimateModel model;
+    private IArchimateElement element1, element2;
+    
+    @Before
+    public void runOnceBeforeEachTest() {
+        tm = new ArchimateTestModel();
+        model = tm.createNewModel();
+        
+        EClass eClass = IArchimatePackage.eINSTANCE.getBusinessActor();
+        element1 = (IArchimateElement)tm.createModelElementAndAddToModel(eClass);
+        element2 = (IArchimateElement)tm.createModelElementAndAddToModel(eClass);
+        
+        element1.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("b", "value2"));
+        element1.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("A", "value1"));
+        element2.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("b", "value1"));
+        model.getProperties().add(IArchimateFactory.eINSTANCE.createProperty(" ", "value3"));
+    }
+    
+    @Test
+    public void getInstance() {
+        PropertiesDictionary dictionary = PropertiesDictionary.getInstance(model);
+        assertSame(dictionary, PropertiesDictionary.getInstance(model));
+    }
+    
+    @Test
+    public void getSortedKeys() {
+        PropertiesDictionary dictionary = PropertiesDictionary.getInstance(model);
+        assertArrayEquals(new String[] { "A", "b" }, dictionary.getSortedKeys());
+        assertEquals(3, dictionary.getKeys().size());
+    }
+    
+    @Test
+    public void getSortedValues() {
+        PropertiesDictionary dictionary = PropertiesDictionary.getInstance(model);
+        assertArrayEquals(new String[] { "value1", "value2" }, dictionary.getSortedValues("b"));
+        assertArrayEquals(new String[] { "value1" }, dictionary.getSortedValues("A"));
+        assertEquals(0, dictionary.getSortedValues("bogus").length);
+    }
+    
+    @Test
+    public void getUsageCount() {
+        PropertiesDictionary dictionary = PropertiesDictionary.getInstance(model);
+        assertEquals(2, dictionary.getUsageCount("b"));
+        assertEquals(1, dictionary.getUsageCount("b", "value1"));
+        assertEquals(0, dictionary.getUsageCount("bogus"));
+    }
+    
+    @Test
+    public void keyAndValueChanged() {
+        PropertiesDictionary dictionary = PropertiesDictionary.getInstance(model);
+        
+        IProperty property = element1.getProperties().get(0);
+        property.setKey("c");
+        assertArrayEquals(new String[] { "A", "b", "c" }, dictionary.getSortedKeys());
+        assertEquals(1, dictionary.getUsageCount("b"));
+        assertArrayEquals(new String[] { "value1" }, dictionary.getSortedValues("b"));
+        
+        property.setValue("value4");
+        assertArrayEquals(new String[] { "value4" }, dictionary.getSortedValues("c"));
+        
+        // A property with no key is added when it is given one
+        IProperty property2 = IArchimateFactory.eINSTANCE.createProperty();
+        element2.getProperties().add(property2);
+        property2.setKey("d");
+        assertEquals(1, dictionary.getUsageCount("d"));
+    }
+    
+    @Test
+    public void objectsAddedAndRemoved() {
+        PropertiesDictionary dictionary = PropertiesDictionary.getInstance(model);
+        
+        ((IFolder)element1.eContainer()).getElements().remove(element1);
+        assertArrayEquals(new String[] { "b" }, dictionary.getSortedKeys());
+        assertEquals(1, dictionary.getUsageCount("b"));
+        
+        model.getDefaultFolderForObject(element1).getElements().add(element1);
+        assertArrayEquals(new String[] { "A", "b" }, dictionary.getSortedKeys());
+        assertEquals(2, dictionary.getUsageCount("b"));
+        
+        element2.getProperties().clear();
+        assertEquals(1, dictionary.getUsageCount("b"));
+    }
+    
+    @Test
+    public void getProperties() {
+        PropertiesDictionary dictionary = PropertiesDictionary.getInstance(model);
+        
+        assertEquals(2, dictionary.getProperties("b").size());
+        assertTrue(dictionary.getProperties("b").contains(element2.getProperties().get(0)));
+        assertTrue(dictionary.getProperties("bogus").isEmpty());
+    }
+}
@@ -8,6 +8,7 @@ package com.archimatetool.editor.ui;
 import junit.framework.TestSuite;
 
 import com.archimatetool.editor.ui.factory.AllUIFactoryTests;
+import com.archimatetool.editor.ui.findreplace.FindReplaceMatcherTests;
 import com.archimatetool.editor.ui.textrender.AllTextRenderTests;
 
 @SuppressWarnings("nls")
@@ -24,6 +25,9 @@ public class AllUITests {
         // factory
         suite.addTest(AllUIFactoryTests.suite());
         
+        // findreplace
+        suite.addTest(FindReplaceMatcherTests.suite());
+        
         // textrender
         suite.addTest(AllTextRenderTests.suite());
 
@@ -32,6 +32,15 @@ public abstract class AbstractFindReplaceProviderTests {
         assertTrue(provider.canFind("Hello"));
     }
     
+    @Test
+    public void testCanFind_Regex() {
+        provider.setParameter(IFindReplaceProvider.PARAM_REGEX, true);
+        assertTrue(provider.canFind("Hello.*"));
+        assertFalse(provider.canFind("Hello("));
+        provider.setParameter(IFindReplaceProvider.PARAM_REGEX, false);
+        assertTrue(provider.canFind("Hello("));
+    }
+    
     @Test
     public void testCanFindAll() {
         assertFalse(provider.canFindAll(""));
@@ -106,15 +115,12 @@ public abstract class AbstractFindReplaceProviderTests {
     }
     
     @Test
-    public void testGetSearchStringPattern() {
-        String searchString = "Hello ( C \\ *. World";
-        
-        assertEquals("(?i:(?s).*\\Q" + searchString + "\\E.*)", provider.getSearchStringPattern(searchString));
-        
+    public void testGetReplacedString_WholeWordAndRegex() {
         provider.setParameter(IFindReplaceProvider.PARAM_WHOLE_WORD, true);
-        assertEquals("(?i:(?s).*\\b\\Q" + searchString + "\\E\\b.*)", provider.getSearchStringPattern(searchString));
+        assertEquals("Actor Roles", provider.getReplacedString("Role Roles", "Role", "Actor"));
         
-        provider.setParameter(IFindReplaceProvider.PARAM_CASE_SENSITIVE, true);
-        assertEquals("(?s).*\\b\\Q" + searchString + "\\E\\b.*", provider.getSearchStringPattern(searchString));
+        provider.setParameter(IFindReplaceProvider.PARAM_WHOLE_WORD, false);
+        provider.setParameter(IFindReplaceProvider.PARAM_REGEX, true);
+        assertEquals("Actor-1", provider.getReplacedString("Actor 1", "(\\w+) (\\d)", "$1-$2"));
     }
 }
@@ -0,0 +1,97 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.ui.findreplace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+
+import junit.framework.JUnit4TestAdapter;
+
+
+@SuppressWarnings("nls")
+public class FindReplaceMatcherTests {
+
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(FindReplaceMatcherTests.class);
+    }
+
+    @Test
+    public void testMatches() {
+        FindReplaceMatcher matcher = new FindReplaceMatcher("world", IFindReplaceProvider.PARAM_NONE);
+        assertTrue(matcher.matches("Hello World"));
+        assertTrue(matcher.matches("Hello\nWorld"));
+        assertFalse(matcher.matches("Hello"));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void testMatches_CaseSensitive() {
+        FindReplaceMatcher matcher = new FindReplaceMatcher("world", IFindReplaceProvider.PARAM_CASE_SENSITIVE);
+        assertFalse(matcher.matches("Hello World"));
+        assertTrue(matcher.matches("Hello world"));
+    }
+
+    @Test
+    public void testMatches_WholeWord() {
+        FindReplaceMatcher matcher = new FindReplaceMatcher("World", IFindReplaceProvider.PARAM_WHOLE_WORD);
+        assertTrue(matcher.matches("Hello World"));
+        assertFalse(matcher.matches("Hello Worlds"));
+    }
+
+    @Test
+    public void testMatches_RegexCharactersAreLiteral() {
+        FindReplaceMatcher matcher = new FindReplaceMatcher("(copy)*", IFindReplaceProvider.PARAM_NONE);
+        assertTrue(matcher.matches("Actor (copy)*"));
+        assertFalse(matcher.matches("Actor copy"));
+    }
+
+    @Test
+    public void testMatches_Regex() {
+        FindReplaceMatcher matcher = new FindReplaceMatcher("Actor \\d+", IFindReplaceProvider.PARAM_REGEX);
+        assertTrue(matcher.matches("Business actor 12"));
+        assertFalse(matcher.matches("Business Actor"));
+
+        matcher = new FindReplaceMatcher("a|b", IFindReplaceProvider.PARAM_REGEX | IFindReplaceProvider.PARAM_WHOLE_WORD);
+        assertTrue(matcher.matches("x b"));
+        assertFalse(matcher.matches("ab"));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testInvalidRegex() {
+        new FindReplaceMatcher("(", IFindReplaceProvider.PARAM_REGEX);
+    }
+
+    @Test
+    public void testReplace() {
+        FindReplaceMatcher matcher = new FindReplaceMatcher("o", IFindReplaceProvider.PARAM_NONE);
+        assertEquals("Hellz Wzrld", matcher.replace("Hello World", "z"));
+        assertEquals("Hell$1 W$1rld", matcher.replace("Hello World", "$1"));
+        assertNull(matcher.replace(null, "z"));
+    }
+
+    @Test
+    public void testReplace_Regex() {
+        FindReplaceMatcher matcher = new FindReplaceMatcher("(\\w+) (\\w+)", IFindReplaceProvider.PARAM_REGEX);
+        assertEquals("World Hello", matcher.replace("Hello World", "$2 $1"));
+
+        // Bad group reference
+        assertEquals("Hello World", matcher.replace("Hello World", "$3"));
+    }
+
+    @Test
+    public void testIsFor() {
+        FindReplaceMatcher matcher = new FindReplaceMatcher("o", IFindReplaceProvider.PARAM_CASE_SENSITIVE);
+        assertTrue(matcher.isFor("o", IFindReplaceProvider.PARAM_CASE_SENSITIVE | IFindReplaceProvider.PARAM_FORWARD));
+        assertFalse(matcher.isFor("o", IFindReplaceProvider.PARAM_NONE));
+        assertFalse(matcher.isFor("O", IFindReplaceProvider.PARAM_CASE_SENSITIVE));
+    }
+}
@@ -8,8 +8,10 @@ package com.archimatetool.editor.ui.textrender;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import org.eclipse.emf.ecore.EObject;
 import org.junit.Test;
 
 import com.archimatetool.model.FolderType;
@@ -166,6 +168,72 @@ public class TextRendererTests {
         assertEquals("Concept Name Concept Documentation v1", result);
     }
     
+    // ============================= Re-used Results Tests =========================================
+    
+    @Test
+    public void render_ResultReusedUntilValuesChange() {
+        IDiagramModelArchimateObject dmo = createDiagramModelObject();
+        IProperty property = addProperty(dmo.getArchimateConcept(), "p1", "v1");
+        
+        String expression = "${name} ${property:p1}";
+        String result = textRenderer.render(dmo, expression);
+        assertEquals("Concept Name v1", result);
+        assertSame(result, textRenderer.render(dmo, expression));
+        
+        dmo.getArchimateConcept().setName("New Name");
+        assertEquals("New Name v1", textRenderer.render(dmo, expression));
+        
+        property.setValue("v2");
+        assertEquals("New Name v2", textRenderer.render(dmo, expression));
+        
+        dmo.getArchimateConcept().getProperties().remove(property);
+        assertEquals("New Name ", textRenderer.render(dmo, expression));
+        
+        IArchimateConcept concept = IArchimateFactory.eINSTANCE.createBusinessRole();
+        concept.setName("Role");
+        dmo.setArchimateConcept(concept);
+        assertEquals("Role ", textRenderer.render(dmo, expression));
+        
+        assertEquals("Role", textRenderer.render(dmo, "${name}"));
+    }
+    
+    @Test
+    public void render_ResultNotReusedForRenderedExpressions() {
+        IDiagramModelArchimateObject dmo = createDiagramModelObject();
+        dmo.getArchimateConcept().setName("${documentation}");
+        assertEquals("Concept Documentation", textRenderer.render(dmo, "${name}"));
+        
+        dmo.getArchimateConcept().setDocumentation("New Documentation");
+        assertEquals("New Documentation", textRenderer.render(dmo, "${name}"));
+    }
+    
+    @Test
+    public void render_SnapshotDoesNotReferenceModelObjects() {
+        IDiagramModelArchimateObject dmo = createDiagramModelObject();
+        addProperty(dmo.getArchimateConcept(), "p1", "v1");
+        
+        LabelExpression expression = new LabelExpression("${name} ${property:p1} ${viewpoint}");
+        Object[] inputs = expression.getInputs(dmo);
+        
+        for(Object input : inputs) {
+            assertFalse(input instanceof EObject);
+        }
+        
+        assertTrue(expression.isSameInputs(dmo, inputs));
+        
+        dmo.getArchimateConcept().setName("New Name");
+        assertFalse(expression.isSameInputs(dmo, inputs));
+    }
+    
+    @Test
+    public void render_ResultNotReusedForPrefixedExpressions() {
+        IDiagramModelArchimateObject dmo = createDiagramModelObject();
+        assertEquals("Model Name", textRenderer.render(dmo, "$model{name}"));
+        
+        dmo.getArchimateModel().setName("New Name");
+        assertEquals("New Name", textRenderer.render(dmo, "$model{name}"));
+    }
+    
     // ============================= Property Expression Tests =========================================
     
     @Test
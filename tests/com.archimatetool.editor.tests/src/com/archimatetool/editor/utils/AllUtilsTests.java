@@ -14,9 +14,11 @@ public class AllUtilsTests {
 		TestSuite suite = new TestSuite("com.archimatetool.editor.utils");
 		
         // utils
+        suite.addTest(DigestUtilsTests.suite());
         suite.addTest(FileUtilsTests.suite());
         suite.addTest(HTMLUtilsTests.suite());
         suite.addTest(StringUtilsTests.suite());
+        suite.addTest(ZipFileCacheTests.suite());
         suite.addTest(ZipUtilsTests.suite());
 
         return suite;
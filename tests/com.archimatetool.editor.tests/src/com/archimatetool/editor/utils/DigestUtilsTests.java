@@ -0,0 +1,51 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.junit.Test;
+
+import com.archimatetool.tests.TestUtils;
+
+
+/**
+ * @author Phillip Beauvoir
+ */
+@SuppressWarnings("nls")
+public class DigestUtilsTests {
+
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(DigestUtilsTests.class);
+    }
+
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @Test
+    public void testSha256Hex_Bytes() {
+        assertEquals(ABC_SHA256, DigestUtils.sha256Hex("abc".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void testSha256Hex_File() throws Exception {
+        File file = new File(TestUtils.createTempFolder("digest"), "abc.txt");
+        Files.write(file.toPath(), "abc".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(ABC_SHA256, DigestUtils.sha256Hex(file));
+        FileUtils.deleteFolder(TestUtils.TMP_FOLDER);
+    }
+
+    @Test
+    public void testToHexString() {
+        assertEquals("", DigestUtils.toHexString(new byte[0]));
+        assertEquals("000fa0ff", DigestUtils.toHexString(new byte[] { 0, 15, (byte)0xA0, (byte)0xFF }));
+    }
+}
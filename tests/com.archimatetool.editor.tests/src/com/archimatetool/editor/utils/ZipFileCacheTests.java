@@ -0,0 +1,155 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.archimatetool.tests.TestUtils;
+
+
+/**
+ * @author Phillip Beauvoir
+ */
+@SuppressWarnings("nls")
+public class ZipFileCacheTests {
+
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(ZipFileCacheTests.class);
+    }
+    
+    @After
+    public void runAfterEachTest() throws IOException {
+        ZipFileCache.closeAll();
+        FileUtils.deleteFolder(TestUtils.TMP_FOLDER);
+    }
+
+    @Test
+    public void read() throws IOException {
+        File file = createZipFile("entry", "Hello");
+        
+        assertEquals("Hello", ZipUtils.extractZipEntry(file, "entry"));
+        assertNull(ZipUtils.extractZipEntry(file, "bogus"));
+        assertEquals(1, ZipFileCache.size());
+    }
+    
+    @Test
+    public void read_SameZipFileIsReused() throws IOException {
+        File file = createZipFile("entry", "Hello");
+        
+        ZipFile zipFile1 = ZipFileCache.read(file, zipFile -> zipFile);
+        ZipFile zipFile2 = ZipFileCache.read(file, zipFile -> zipFile);
+        assertSame(zipFile1, zipFile2);
+    }
+    
+    @Test
+    public void read_ModifiedFileIsOpenedAgain() throws IOException {
+        File file = createZipFile("entry", "Hello");
+        ZipFile zipFile1 = ZipFileCache.read(file, zipFile -> zipFile);
+        
+        file.setLastModified(file.lastModified() + 2000);
+        
+        ZipFile zipFile2 = ZipFileCache.read(file, zipFile -> zipFile);
+        assertNotSame(zipFile1, zipFile2);
+        assertEquals(1, ZipFileCache.size());
+    }
+    
+    @Test
+    public void close_FileCanBeReplaced() throws IOException {
+        File file = createZipFile("entry", "Hello");
+        assertEquals("Hello", ZipUtils.extractZipEntry(file, "entry"));
+        
+        ZipFileCache.close(file);
+        assertEquals(0, ZipFileCache.size());
+        
+        writeZipFile(file, "entry", "Hello World");
+        assertEquals("Hello World", ZipUtils.extractZipEntry(file, "entry"));
+    }
+    
+    @Test
+    public void read_OldestZipFilesAreClosed() throws IOException {
+        File firstFile = createZipFile("entry", "0");
+        ZipFile firstZipFile = ZipFileCache.read(firstFile, zipFile -> zipFile);
+        
+        for(int i = 1; i <= ZipFileCache.MAX_OPEN_FILES; i++) {
+            File file = createZipFile("entry", "" + i);
+            assertEquals("" + i, ZipUtils.extractZipEntry(file, "entry"));
+        }
+        
+        assertEquals(ZipFileCache.MAX_OPEN_FILES, ZipFileCache.size());
+        assertNotSame(firstZipFile, ZipFileCache.read(firstFile, zipFile -> zipFile));
+    }
+    
+    @Test
+    public void getInputStream_ZipFileIsClosedWhenStreamIsClosed() throws IOException {
+        File file = createZipFile("entry", "Hello");
+        
+        InputStream in = ZipFileCache.getInputStream(file, "entry");
+        assertNotNull(in);
+        
+        // Still open for the stream
+        ZipFileCache.close(file);
+        assertEquals(0, ZipFileCache.size());
+        assertEquals('H', in.read());
+        in.close();
+        
+        assertNull(ZipFileCache.getInputStream(file, "bogus"));
+    }
+    
+    @Test
+    public void getInputStream_ZipFileIsReleasedWhenStreamIsReadToEnd() throws IOException {
+        File file = createZipFile("entry", "Hello");
+        ZipFile zipFile = ZipFileCache.read(file, z -> z);
+        
+        InputStream in = ZipFileCache.getInputStream(file, "entry");
+        while(in.read() != -1) {
+        }
+        
+        // Not closed but read to the end so the zip file is closed
+        ZipFileCache.close(file);
+        try {
+            zipFile.size();
+            fail("Zip file should be closed");
+        }
+        catch(IllegalStateException ex) {
+        }
+    }
+    
+    @Test
+    public void getEntryIgnoreCase() throws IOException {
+        File file = createZipFile("Entry.txt", "Hello");
+        assertEquals("Hello", ZipUtils.extractZipEntry(file, "entry.TXT"));
+    }
+
+    private File createZipFile(String entryName, String text) throws IOException {
+        File file = TestUtils.createTempFile(".zip");
+        writeZipFile(file, entryName, text);
+        return file;
+    }
+    
+    private void writeZipFile(File file, String entryName, String text) throws IOException {
+        try(ZipOutputStream zOut = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            ZipUtils.addStringToZip(text, entryName, zOut);
+        }
+    }
+}
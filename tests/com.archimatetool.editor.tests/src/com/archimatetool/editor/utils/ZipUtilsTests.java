@@ -14,6 +14,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.zip.ZipOutputStream;
 
@@ -62,6 +64,7 @@ public class ZipUtilsTests {
     
     @After
     public void runAfterEachTest() throws IOException {
+        ZipFileCache.closeAll();
         FileUtils.deleteFolder(TestUtils.TMP_FOLDER);
     }
 
@@ -188,6 +191,24 @@ public class ZipUtilsTests {
         assertFalse(result);
     }    
     
+    @Test
+    public void testHasZipEntry_NotZipFile() throws IOException {
+        File file = TestUtils.createTempFile(".txt");
+        Files.write(file.toPath(), "Not a zip file".getBytes(StandardCharsets.UTF_8));
+        assertFalse(ZipUtils.hasZipEntry(file, "entry"));
+        assertTrue(ZipUtils.getZipFileEntryNames(file).isEmpty());
+    }
+    
+    @Test
+    public void testExtractZipEntry_Charset() throws IOException {
+        File file = TestUtils.createTempFile(".zip");
+        try(ZipOutputStream zOut = new ZipOutputStream(new FileOutputStream(file), StandardCharsets.ISO_8859_1)) {
+            ZipUtils.addStringToZip("Caf\u00e9", "caf\u00e9.txt", zOut, StandardCharsets.ISO_8859_1);
+        }
+        
+        assertEquals("Caf\u00e9", ZipUtils.extractZipEntry(file, "caf\u00e9.txt", StandardCharsets.ISO_8859_1));
+    }
+    
     @Test
     public void testExtractZipEntry_String() throws IOException {
         String entry = "space dir/aFile.txt";
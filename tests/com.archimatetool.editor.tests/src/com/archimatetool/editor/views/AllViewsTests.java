@@ -10,6 +10,8 @@ import junit.framework.TestSuite;
 import com.archimatetool.editor.views.tree.TreeModelViewerDragDropHandlerTests;
 import com.archimatetool.editor.views.tree.TreeModelViewerFindReplaceProviderTests;
 import com.archimatetool.editor.views.tree.commands.DeleteCommandHandlerTests;
+import com.archimatetool.editor.views.tree.search.SearchFilterTests;
+import com.archimatetool.editor.views.tree.search.SearchIndexTests;
 
 @SuppressWarnings("nls")
 public class AllViewsTests {
@@ -23,6 +25,10 @@ public class AllViewsTests {
 
         // views.tree.commands
         suite.addTest(DeleteCommandHandlerTests.suite());
+        
+        // views.tree.search
+        suite.addTest(SearchFilterTests.suite());
+        suite.addTest(SearchIndexTests.suite());
 
         return suite;
 	}
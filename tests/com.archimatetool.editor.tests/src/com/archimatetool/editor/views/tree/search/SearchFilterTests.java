@@ -0,0 +1,112 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.views.tree.search;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.archimatetool.editor.model.IEditorModelManager;
+import com.archimatetool.editor.views.tree.TreeModelViewer;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IFolder;
+
+import junit.framework.JUnit4TestAdapter;
+
+
+@SuppressWarnings("nls")
+public class SearchFilterTests {
+
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(SearchFilterTests.class);
+    }
+
+    private IArchimateModel model;
+    private IArchimateElement element1, element2;
+    private TreeModelViewer treeViewer;
+    private SearchFilter filter;
+
+    @Before
+    public void runOnceBeforeEachTest() throws Exception {
+        model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+
+        element1 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element1.setName("Find Me");
+        model.getDefaultFolderForObject(element1).getElements().add(element1);
+
+        element2 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element2.setName("Other");
+        model.getDefaultFolderForObject(element2).getElements().add(element2);
+
+        IEditorModelManager.INSTANCE.registerModel(model);
+
+        treeViewer = new TreeModelViewer(new Shell(), SWT.NONE);
+        treeViewer.setInput(IEditorModelManager.INSTANCE);
+
+        filter = new SearchFilter(treeViewer);
+        treeViewer.addFilter(filter);
+        filter.setFilterOnName(true);
+        filter.setSearchText("find me");
+        dispatchEvents();
+    }
+
+    @After
+    public void runOnceAfterEachTest() throws Exception {
+        filter.dispose();
+        treeViewer.getControl().getShell().dispose();
+        IEditorModelManager.INSTANCE.closeModel(model);
+    }
+
+    @Test
+    public void testSelect() {
+        assertTrue(filter.select(treeViewer, null, element1));
+        assertFalse(filter.select(treeViewer, null, element2));
+        assertNotNull(treeViewer.testFindItem(element1));
+        assertNull(treeViewer.testFindItem(element2));
+    }
+
+    @Test
+    public void testSelect_ElementRenamed() {
+        element1.setName("Not Now");
+        element2.setName("Find Me Now");
+        dispatchEvents();
+
+        assertFalse(filter.select(treeViewer, null, element1));
+        assertTrue(filter.select(treeViewer, null, element2));
+
+        // The tree is refreshed for the new results
+        assertNull(treeViewer.testFindItem(element1));
+        assertNotNull(treeViewer.testFindItem(element2));
+    }
+
+    @Test
+    public void testSelect_ElementAdded() {
+        IArchimateElement element3 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        element3.setName("Find Me Too");
+        IFolder folder = model.getDefaultFolderForObject(element3);
+        folder.getElements().add(element3);
+        dispatchEvents();
+
+        assertTrue(filter.select(treeViewer, null, element3));
+        assertTrue(filter.select(treeViewer, null, folder));
+        assertNotNull(treeViewer.testFindItem(element3));
+    }
+
+    private void dispatchEvents() {
+        while(Display.getCurrent().readAndDispatch());
+    }
+}
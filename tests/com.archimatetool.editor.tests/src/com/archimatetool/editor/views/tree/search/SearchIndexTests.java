@@ -0,0 +1,184 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.editor.views.tree.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IDiagramModelNote;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.IProperty;
+
+import junit.framework.JUnit4TestAdapter;
+
+
+@SuppressWarnings("nls")
+public class SearchIndexTests {
+
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(SearchIndexTests.class);
+    }
+
+    private IArchimateModel model;
+    private IArchimateElement element;
+    private SearchIndex index;
+    private int changeCount;
+
+    @Before
+    public void runOnceBeforeEachTest() {
+        model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        model.setName("Model");
+
+        element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element.setName("Business Actor\nTwo");
+        element.setDocumentation("Some Documentation");
+        element.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("key", "Value"));
+        model.getDefaultFolderForObject(element).getElements().add(element);
+
+        index = new SearchIndex(model, () -> changeCount++);
+    }
+
+    @After
+    public void runOnceAfterEachTest() {
+        index.dispose();
+    }
+
+    @Test
+    public void testGetObjects() {
+        // Model, top level folders and element
+        assertEquals(1 + model.getFolders().size() + 1, index.getObjects().size());
+        assertTrue(index.getObjects().contains(model));
+        assertTrue(index.getObjects().contains(element));
+    }
+
+    @Test
+    public void testFind_Name() {
+        assertEquals(Collections.singleton(element), find("actor two"));
+        assertEquals(Collections.singleton(element), find("actor"));
+        assertTrue(find("documentation").isEmpty());
+        assertTrue(find("zzz").isEmpty());
+    }
+
+    @Test
+    public void testFind_ShortText() {
+        Set<EObject> found = find("ac");
+        assertTrue(found.contains(element));
+        assertFalse(found.contains(model.getFolder(FolderType.APPLICATION)));
+        
+        found = find("ca");
+        assertFalse(found.contains(element));
+        assertTrue(found.contains(model.getFolder(FolderType.APPLICATION)));
+    }
+
+    @Test
+    public void testFind_Documentation() {
+        assertTrue(index.find("documentation", false, false, Collections.emptyList()).isEmpty());
+        assertEquals(Collections.singleton(element), index.find("documentation", false, true, Collections.emptyList()));
+    }
+
+    @Test
+    public void testFind_PropertyValue() {
+        assertTrue(index.find("value", false, false, Arrays.asList("other")).isEmpty());
+        assertEquals(Collections.singleton(element), index.find("value", false, false, Arrays.asList("key")));
+    }
+
+    @Test
+    public void testFindPropertyKeys() {
+        assertEquals(Collections.singleton(element), index.findPropertyKeys(Arrays.asList("key", "other")));
+        assertTrue(index.findPropertyKeys(Arrays.asList("other")).isEmpty());
+    }
+
+    @Test
+    public void testIndexUpdated_Name() {
+        element.setName("Renamed");
+        assertEquals(1, changeCount);
+        assertTrue(find("actor").isEmpty());
+        assertEquals(Collections.singleton(element), find("renamed"));
+    }
+
+    @Test
+    public void testIndexUpdated_Property() {
+        IProperty property = element.getProperties().get(0);
+        property.setValue("Changed");
+        assertTrue(index.find("value", false, false, Arrays.asList("key")).isEmpty());
+        assertEquals(Collections.singleton(element), index.find("changed", false, false, Arrays.asList("key")));
+
+        property.setKey("newKey");
+        assertTrue(index.findPropertyKeys(Arrays.asList("key")).isEmpty());
+        assertEquals(Collections.singleton(element), index.findPropertyKeys(Arrays.asList("newKey")));
+
+        element.getProperties().clear();
+        assertTrue(index.findPropertyKeys(Arrays.asList("newKey")).isEmpty());
+    }
+
+    @Test
+    public void testIndexUpdated_AddAndRemove() {
+        IFolder folder = IArchimateFactory.eINSTANCE.createFolder();
+        folder.setName("Sub Folder");
+        IArchimateElement element2 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        element2.setName("Business Role");
+        folder.getElements().add(element2);
+
+        model.getFolder(FolderType.BUSINESS).getFolders().add(folder);
+        assertEquals(Collections.singleton(element2), find("role"));
+        assertEquals(Collections.singleton(folder), find("sub folder"));
+
+        model.getFolder(FolderType.BUSINESS).getFolders().remove(folder);
+        assertTrue(find("role").isEmpty());
+        assertTrue(find("sub folder").isEmpty());
+        assertFalse(index.getObjects().contains(element2));
+    }
+
+    @Test
+    public void testIndexUpdated_Move() {
+        IFolder folder = IArchimateFactory.eINSTANCE.createFolder();
+        model.getFolder(FolderType.BUSINESS).getFolders().add(folder);
+
+        folder.getElements().add(element);
+        assertEquals(Collections.singleton(element), find("actor"));
+    }
+
+    @Test
+    public void testDiagramContentsNotIndexed() {
+        IArchimateDiagramModel dm = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        dm.setName("Diagram One");
+        IDiagramModelNote note = IArchimateFactory.eINSTANCE.createDiagramModelNote();
+        note.setName("A Note");
+        dm.getChildren().add(note);
+        model.getDefaultFolderForObject(dm).getElements().add(dm);
+
+        assertEquals(Collections.singleton(dm), find("diagram one"));
+        assertTrue(find("note").isEmpty());
+    }
+
+    @Test
+    public void testDispose() {
+        index.dispose();
+        element.setName("Renamed");
+        assertEquals(0, changeCount);
+        assertTrue(index.getObjects().isEmpty());
+    }
+
+    private Set<EObject> find(String text) {
+        return index.find(text, true, false, Collections.emptyList());
+    }
+}
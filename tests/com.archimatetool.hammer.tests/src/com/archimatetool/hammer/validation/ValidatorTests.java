@@ -12,13 +12,26 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.archimatetool.hammer.ArchiHammerPlugin;
+import com.archimatetool.hammer.preferences.IPreferenceConstants;
+import com.archimatetool.hammer.validation.issues.IIssue;
 import com.archimatetool.hammer.validation.issues.IIssueCategory;
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IFolder;
 import com.archimatetool.testingtools.ArchimateTestModel;
 import com.archimatetool.tests.TestData;
 
@@ -58,6 +71,92 @@ public class ValidatorTests {
         }
     }
     
+    @Test
+    public void testValidateIncremental() throws IOException {
+        IArchimateModel model = new ArchimateTestModel(TestData.TEST_MODEL_FILE_ARCHISURANCE).loadModel();
+        
+        Validator validator = new Validator(model);
+        validator.setIncremental(true);
+        assertTrue(validator.isIncremental());
+        validator.validate();
+        
+        // Add a duplicate unused element
+        IArchimateElement existing = validator.getArchimateElements().get(0);
+        IArchimateElement element = (IArchimateElement)IArchimateFactory.eINSTANCE.create(existing.eClass());
+        element.setName(existing.getName());
+        model.getDefaultFolderForObject(element).getElements().add(element);
+        
+        // Delete a view
+        IDiagramModel dm = model.getDiagramModels().get(0);
+        ((IFolder)dm.eContainer()).getElements().remove(dm);
+        
+        // Add an empty view
+        model.getFolder(FolderType.DIAGRAMS).getElements().add(IArchimateFactory.eINSTANCE.createArchimateDiagramModel());
+        
+        // Incremental result should be the same as a full validation
+        List<Object> incrementalResult = validator.validate();
+        List<Object> fullResult = new Validator(model).validate();
+        assertEquals(getIssueStrings(fullResult), getIssueStrings(incrementalResult));
+        
+        validator.dispose();
+        assertFalse(validator.isIncremental());
+    }
+    
+    @Test
+    public void testValidateIncremental_RelatedObjectsAndPreferences() throws IOException {
+        IArchimateModel model = new ArchimateTestModel(TestData.TEST_MODEL_FILE_ARCHISURANCE).loadModel();
+        
+        Validator validator = new Validator(model);
+        validator.setIncremental(true);
+        validator.validate();
+        
+        // Add an unused element to a view so that it is no longer unused
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        model.getDefaultFolderForObject(element).getElements().add(element);
+        validator.validate();
+        
+        IArchimateDiagramModel dm = validator.getArchimateViews().get(0);
+        IDiagramModelArchimateObject dmo = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        dmo.setArchimateElement(element);
+        dmo.setBounds(0, 0, 120, 55);
+        dm.getChildren().add(dmo);
+        
+        // Move it
+        dmo.setBounds(10, 10, 120, 55);
+        
+        List<Object> incrementalResult = validator.validate();
+        List<Object> fullResult = new Validator(model).validate();
+        assertEquals(getIssueStrings(fullResult), getIssueStrings(incrementalResult));
+        
+        // Changing a preference means a full validation
+        IPreferenceStore store = ArchiHammerPlugin.INSTANCE.getPreferenceStore();
+        boolean value = store.getBoolean(IPreferenceConstants.PREFS_HAMMER_CHECK_UNUSED_ELEMENTS);
+        store.setValue(IPreferenceConstants.PREFS_HAMMER_CHECK_UNUSED_ELEMENTS, !value);
+        store.setValue(IPreferenceConstants.PREFS_HAMMER_CHECK_UNUSED_ELEMENTS, value);
+        
+        dm.getChildren().remove(dmo);
+        incrementalResult = validator.validate();
+        fullResult = new Validator(model).validate();
+        assertEquals(getIssueStrings(fullResult), getIssueStrings(incrementalResult));
+        
+        validator.dispose();
+    }
+    
+    private List<String> getIssueStrings(List<Object> result) {
+        List<String> list = new ArrayList<>();
+        
+        for(Object object : result) {
+            if(object instanceof IIssueCategory) {
+                for(IIssue issue : ((IIssueCategory)object).getIssues()) {
+                    list.add(((IIssueCategory)object).getName() + issue.getName() + issue.getDescription() + issue.getObject());
+                }
+            }
+        }
+        
+        Collections.sort(list);
+        return list;
+    }
+    
     @Test
     public void testGetArchimateElements() {
         assertEquals(120, validator.getArchimateElements().size());
@@ -56,6 +56,40 @@ public class DuplicateElementCheckerTests {
         assertSame(e2, issues.get(1).getObject());
     }
     
+    @Test
+    public void testDifferentTypesSameNamesAreNotDuplicates() {
+        List<IArchimateElement> elements = new ArrayList<IArchimateElement>();
+        
+        IArchimateElement e1 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        e1.setName("fido");
+        elements.add(e1);
+        
+        IArchimateElement e2 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        e2.setName("fido");
+        elements.add(e2);
+        
+        IArchimateElement e3 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        elements.add(e3);
+        
+        IArchimateElement e4 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        e4.setName("fido");
+        elements.add(e4);
+        
+        IArchimateElement e5 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        e5.setName("fido");
+        elements.add(e5);
+        
+        DuplicateElementChecker checker = new DuplicateElementChecker(elements);
+        
+        // Duplicates are reported in the order that they appear
+        List<IIssue> issues = checker.getIssues();
+        assertEquals(4, issues.size());
+        assertSame(e1, issues.get(0).getObject());
+        assertSame(e5, issues.get(1).getObject());
+        assertSame(e2, issues.get(2).getObject());
+        assertSame(e4, issues.get(3).getObject());
+    }
+    
     @Test
     public void testJunctionsAllowedSameNames() {
         List<IArchimateElement> elements = new ArrayList<IArchimateElement>();
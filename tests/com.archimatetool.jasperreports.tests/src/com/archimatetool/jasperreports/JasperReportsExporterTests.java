@@ -25,6 +25,7 @@ import com.archimatetool.tests.TestUtils;
 import junit.framework.JUnit4TestAdapter;
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
 
 
 @SuppressWarnings("nls")
@@ -39,6 +40,7 @@ public class JasperReportsExporterTests {
     
     private static File exportFolder;
     private static File tmpFolder;
+    private static File cacheFolder;
     private static String exportFileName = "archi";
     private static File mainTemplateFile = TestSupport.CUSTOM_REPORT_MAIN_FILE;
     private static String reportTitle = "Title";
@@ -55,9 +57,11 @@ public class JasperReportsExporterTests {
         exportFolder = TestUtils.createTempFolder("export");
         tmpFolder = new File(exportFolder, "tmp");
         tmpFolder.mkdirs();
+        cacheFolder = new File(TestUtils.TMP_FOLDER, "jasper-cache");
         
-        // Create exporter
+        // Create exporter and don't use the user's cache of compiled reports
         exporter = new JasperReportsExporter(model, exportFolder, exportFileName, mainTemplateFile, reportTitle, null, 0);
+        exporter.setCompiledReportsFolder(cacheFolder);
         
         // Set up diagrams and Jasper Print once (expensive operation)
         exporter.writeDiagrams(tmpFolder);
@@ -67,6 +71,7 @@ public class JasperReportsExporterTests {
     @AfterClass
     public static void runOnceAfterAllTests() throws IOException {
         // Clean up
+        exporter.cleanupVirtualizer();
         FileUtils.deleteFolder(TestUtils.TMP_FOLDER);
     }
     
@@ -147,4 +152,40 @@ public class JasperReportsExporterTests {
     public void testJasperPrint() {
         assertEquals("main_report", jasperPrint.getName());
     }
+    
+    @Test
+    public void testCompileReport_IsCached() throws Exception {
+        FileUtils.deleteFolder(cacheFolder);
+        
+        JasperReport report = exporter.compileReport(mainTemplateFile);
+        assertEquals(1, cacheFolder.listFiles().length);
+        
+        // Loaded from the cache
+        JasperReport cachedReport = exporter.compileReport(mainTemplateFile);
+        assertEquals(report.getName(), cachedReport.getName());
+        assertEquals(1, cacheFolder.listFiles().length);
+    }
+    
+    @Test
+    public void testPruneCompiledReports() throws Exception {
+        FileUtils.deleteFolder(cacheFolder);
+        cacheFolder.mkdirs();
+        
+        int count = JasperReportsExporter.MAX_COMPILED_REPORTS + 5;
+        long time = System.currentTimeMillis() - count * 1000;
+        
+        for(int i = 0; i < count; i++) {
+            File file = new File(cacheFolder, i + ".jasper");
+            file.createNewFile();
+            file.setLastModified(time + i * 1000);
+        }
+        
+        exporter.pruneCompiledReports();
+        assertEquals(JasperReportsExporter.MAX_COMPILED_REPORTS, cacheFolder.listFiles().length);
+        
+        // The least recently used were deleted
+        for(int i = 0; i < count; i++) {
+            assertEquals(i >= 5, new File(cacheFolder, i + ".jasper").exists());
+        }
+    }
 }
@@ -26,9 +26,11 @@ import com.archimatetool.model.impl.FolderTests;
 import com.archimatetool.model.impl.MetadataTests;
 import com.archimatetool.model.impl.FeaturesEListTests;
 import com.archimatetool.model.impl.PropertyTests;
+import com.archimatetool.model.impl.RelationshipsEListTests;
 import com.archimatetool.model.impl.SketchModelActorTests;
 import com.archimatetool.model.impl.SketchModelStickyTests;
 import com.archimatetool.model.impl.SketchModelTests;
+import com.archimatetool.model.util.ArchimateModelReaderTests;
 import com.archimatetool.model.util.ArchimateModelUtilsTests;
 import com.archimatetool.model.util.ArchimateResourceFactoryTests;
 import com.archimatetool.model.util.RelationshipsMatrixTests;
@@ -62,6 +64,7 @@ public class AllTests {
         suite.addTest(MetadataTests.suite());
         suite.addTest(FeaturesEListTests.suite());
         suite.addTest(PropertyTests.suite());
+        suite.addTest(RelationshipsEListTests.suite());
         
         suite.addTest(SketchModelTests.suite());
         suite.addTest(SketchModelActorTests.suite());
@@ -71,6 +74,7 @@ public class AllTests {
         suite.addTest(AllArchimateRelationshipTypeTests.suite());
         
         // util
+        suite.addTest(ArchimateModelReaderTests.suite());
         suite.addTest(ArchimateModelUtilsTests.suite());
         suite.addTest(ArchimateResourceFactoryTests.suite());
         suite.addTest(UUIDFactoryTests.suite());
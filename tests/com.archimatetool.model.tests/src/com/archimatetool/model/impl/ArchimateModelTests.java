@@ -13,6 +13,7 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.Iterator;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EObject;
@@ -20,9 +21,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelGroup;
+import com.archimatetool.model.IDiagramModelReference;
 import com.archimatetool.model.IFolder;
+import com.archimatetool.model.IIdentifier;
 import com.archimatetool.model.util.IModelContentListener;
 
 import junit.framework.JUnit4TestAdapter;
@@ -261,6 +266,133 @@ public class ArchimateModelTests {
         assertEquals(4, list.size());
     }
     
+    @Test
+    public void getObjectByID() {
+        model.setDefaults();
+        
+        assertNull(model.getObjectByID(null));
+        assertNull(model.getObjectByID("unknown"));
+        assertSame(model, model.getObjectByID(model.getId()));
+        
+        IFolder folder = model.getFolder(FolderType.BUSINESS);
+        assertSame(folder, model.getObjectByID(folder.getId()));
+        
+        // Add
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        folder.getElements().add(element);
+        assertSame(element, model.getObjectByID(element.getId()));
+        
+        // Add child objects with parent
+        IFolder subFolder = IArchimateFactory.eINSTANCE.createFolder();
+        IArchimateElement element2 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        subFolder.getElements().add(element2);
+        folder.getFolders().add(subFolder);
+        assertSame(subFolder, model.getObjectByID(subFolder.getId()));
+        assertSame(element2, model.getObjectByID(element2.getId()));
+        
+        // Change ID
+        String oldID = element.getId();
+        element.setId("newID");
+        assertNull(model.getObjectByID(oldID));
+        assertSame(element, model.getObjectByID("newID"));
+        
+        // Move
+        model.getFolder(FolderType.OTHER).getFolders().add(subFolder);
+        assertSame(subFolder, model.getObjectByID(subFolder.getId()));
+        assertSame(element2, model.getObjectByID(element2.getId()));
+        
+        // Remove
+        folder.getElements().remove(element);
+        assertNull(model.getObjectByID("newID"));
+        model.getFolder(FolderType.OTHER).getFolders().clear();
+        assertNull(model.getObjectByID(subFolder.getId()));
+        assertNull(model.getObjectByID(element2.getId()));
+        
+        // Disposed
+        model.dispose();
+        assertNull(model.getObjectByID(folder.getId()));
+    }
+    
+    @Test
+    public void getObjectByID_DuplicateIDs() {
+        model.setDefaults();
+        
+        IArchimateElement element1 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element1.setId("duplicate");
+        model.getFolder(FolderType.BUSINESS).getElements().add(element1);
+        assertSame(element1, model.getObjectByID("duplicate"));
+        
+        // The first object in the model's contents is found whether it was added before or after the index was created
+        IArchimateElement element2 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element2.setId("duplicate");
+        model.getFolder(FolderType.STRATEGY).getElements().add(element2);
+        assertSame(getFirstObjectWithID("duplicate"), model.getObjectByID("duplicate"));
+        
+        // Remove one and the other is found
+        IArchimateElement first = (IArchimateElement)model.getObjectByID("duplicate");
+        IArchimateElement other = first == element1 ? element2 : element1;
+        ((IFolder)first.eContainer()).getElements().remove(first);
+        assertSame(other, model.getObjectByID("duplicate"));
+        
+        // Change the ID of the other one
+        other.setId("unique");
+        assertNull(model.getObjectByID("duplicate"));
+        assertSame(other, model.getObjectByID("unique"));
+    }
+    
+    private EObject getFirstObjectWithID(String id) {
+        for(Iterator<EObject> iter = model.eAllContents(); iter.hasNext();) {
+            EObject eObject = iter.next();
+            if(eObject instanceof IIdentifier && id.equals(((IIdentifier)eObject).getId())) {
+                return eObject;
+            }
+        }
+        return null;
+    }
+    
+    @Test
+    public void getDiagramModelReferences() {
+        model.setDefaults();
+        IFolder folder = model.getFolder(FolderType.DIAGRAMS);
+        
+        IDiagramModel dm1 = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        IDiagramModel dm2 = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        folder.getElements().add(dm1);
+        folder.getElements().add(dm2);
+        
+        IDiagramModelReference ref1 = IArchimateFactory.eINSTANCE.createDiagramModelReference();
+        ref1.setReferencedModel(dm1);
+        dm2.getChildren().add(ref1);
+        
+        assertTrue(model.getDiagramModelReferences(null).isEmpty());
+        assertEquals(1, model.getDiagramModelReferences(dm1).size());
+        assertSame(ref1, model.getDiagramModelReferences(dm1).get(0));
+        assertTrue(model.getDiagramModelReferences(dm2).isEmpty());
+        
+        // Add a reference in a group
+        IDiagramModelGroup group = IArchimateFactory.eINSTANCE.createDiagramModelGroup();
+        IDiagramModelReference ref2 = IArchimateFactory.eINSTANCE.createDiagramModelReference();
+        ref2.setReferencedModel(dm1);
+        group.getChildren().add(ref2);
+        dm2.getChildren().add(group);
+        assertEquals(2, model.getDiagramModelReferences(dm1).size());
+        
+        // Change the referenced model
+        ref1.setReferencedModel(dm2);
+        assertEquals(1, model.getDiagramModelReferences(dm1).size());
+        assertSame(ref1, model.getDiagramModelReferences(dm2).get(0));
+        
+        // Remove the diagram model containing the references
+        folder.getElements().remove(dm2);
+        assertTrue(model.getDiagramModelReferences(dm1).isEmpty());
+        assertTrue(model.getDiagramModelReferences(dm2).isEmpty());
+        
+        // Undo
+        folder.getElements().add(dm2);
+        assertEquals(1, model.getDiagramModelReferences(dm1).size());
+        assertEquals(1, model.getDiagramModelReferences(dm2).size());
+    }
+    
     @Test
     public void getName() {
         CommonTests.testGetName(model);
@@ -6,6 +6,12 @@
 package com.archimatetool.model.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -13,6 +19,7 @@ import com.archimatetool.model.IArchimateElement;
 import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IDiagramModel;
+import com.archimatetool.model.IDiagramModelArchimateComponent;
 import com.archimatetool.model.IDiagramModelArchimateConnection;
 import com.archimatetool.model.IDiagramModelArchimateObject;
 import com.archimatetool.model.IDiagramModelGroup;
@@ -71,6 +78,7 @@ public class DiagramModelExtraTests {
         assertEquals(0, e2.getReferencingDiagramObjects().size());
         assertEquals(0, e3.getReferencingDiagramObjects().size());
         assertEquals(0, dmo3a.getArchimateElement().getReferencingDiagramObjects().size());
+        assertFalse(e1.hasReferencingDiagramComponents());
         
         // But internally is more
         assertEquals(1, e1.diagramObjects.size());
@@ -81,6 +89,7 @@ public class DiagramModelExtraTests {
         // Add dmo1 to dm, should be same
         dm.getChildren().add(dmo1);
         assertEquals(1, e1.getReferencingDiagramObjects().size());
+        assertTrue(e1.hasReferencingDiagramComponents());
         assertEquals(1, e1.diagramObjects.size());
         
         // Add dmo2 to parent 1, should be same
@@ -91,6 +100,10 @@ public class DiagramModelExtraTests {
         // Add dmo3 to parent 2, dmo3 and dmo3a should be same
         parent2.getChildren().add(dmo3);
         assertEquals(1, e3.getReferencingDiagramObjects().size());
+        List<IDiagramModelArchimateComponent> visited = new ArrayList<>();
+        e3.forEachReferencingDiagramComponent(visited::add);
+        assertEquals(1, visited.size());
+        assertSame(dmo3, visited.get(0));
         assertEquals(1, dmo3a.getArchimateElement().getReferencingDiagramObjects().size());
         assertEquals(2, e3.diagramObjects.size());
         assertEquals(2, ((ArchimateElement)dmo3a.getArchimateElement()).diagramObjects.size());
@@ -0,0 +1,111 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateRelationship;
+
+import junit.framework.JUnit4TestAdapter;
+
+public class RelationshipsEListTests {
+    
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(RelationshipsEListTests.class);
+    }
+    
+    private RelationshipsEList list;
+    private IArchimateRelationship relation1, relation2, relation3;
+
+    @Before
+    public void runBeforeEachTest() {
+        list = new RelationshipsEList();
+        relation1 = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relation2 = IArchimateFactory.eINSTANCE.createFlowRelationship();
+        relation3 = IArchimateFactory.eINSTANCE.createServingRelationship();
+    }
+
+    @Test
+    public void testAdd_IsUnique() {
+        assertTrue(list.add(relation1));
+        assertFalse(list.add(relation1));
+        assertEquals(1, list.size());
+        assertTrue(list.contains(relation1));
+        assertFalse(list.contains(relation2));
+    }
+    
+    @Test
+    public void testAddAll_KeepsOrder() {
+        list.add(relation2);
+        list.addAll(Arrays.asList(relation1, relation2, relation3));
+        
+        assertEquals(3, list.size());
+        assertSame(relation2, list.get(0));
+        assertSame(relation1, list.get(1));
+        assertSame(relation3, list.get(2));
+        assertEquals(2, list.indexOf(relation3));
+    }
+    
+    @Test
+    public void testRemove() {
+        list.addAll(Arrays.asList(relation1, relation2, relation3));
+        
+        assertTrue(list.remove(relation2));
+        assertFalse(list.contains(relation2));
+        assertEquals(-1, list.indexOf(relation2));
+        assertFalse(list.remove(relation2));
+        
+        list.remove(0);
+        assertFalse(list.contains(relation1));
+        assertTrue(list.contains(relation3));
+    }
+    
+    @Test
+    public void testSet() {
+        list.addAll(Arrays.asList(relation1, relation2));
+        
+        list.set(0, relation3);
+        assertFalse(list.contains(relation1));
+        assertTrue(list.contains(relation3));
+    }
+    
+    @Test
+    public void testClear() {
+        list.addAll(Arrays.asList(relation1, relation2));
+        list.clear();
+        
+        assertFalse(list.contains(relation1));
+        assertFalse(list.contains(relation2));
+        assertTrue(list.add(relation1));
+    }
+    
+    @Test
+    public void testClone() {
+        list.add(relation1);
+        
+        RelationshipsEList clone = (RelationshipsEList)list.clone();
+        clone.add(relation2);
+        
+        assertTrue(clone.contains(relation1));
+        assertTrue(clone.contains(relation2));
+        assertFalse(list.contains(relation2));
+    }
+    
+    @Test
+    public void testConceptUsesList() {
+        assertTrue(IArchimateFactory.eINSTANCE.createBusinessActor().getSourceRelationships() instanceof RelationshipsEList);
+        assertTrue(IArchimateFactory.eINSTANCE.createBusinessActor().getTargetRelationships() instanceof RelationshipsEList);
+    }
+}
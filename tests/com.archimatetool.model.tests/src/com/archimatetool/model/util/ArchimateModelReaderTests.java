@@ -0,0 +1,254 @@
+/**
+ * This program and the accompanying materials
+ * are made available under the terms of the License
+ * which accompanies this distribution in the file LICENSE.txt
+ */
+package com.archimatetool.model.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.FeatureNotFoundException;
+import org.eclipse.emf.ecore.xmi.UnresolvedReferenceException;
+import org.junit.Test;
+
+import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateDiagramModel;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
+import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IDiagramModelArchimateConnection;
+import com.archimatetool.model.IDiagramModelArchimateObject;
+import com.archimatetool.model.IDiagramModelBendpoint;
+import com.archimatetool.model.IDiagramModelGroup;
+import com.archimatetool.model.IDiagramModelNote;
+import com.archimatetool.model.IDiagramModelReference;
+import com.archimatetool.model.IFolder;
+import com.archimatetool.model.TestSupport;
+
+import junit.framework.JUnit4TestAdapter;
+
+
+/**
+ * ArchimateModelReader Tests
+ *
+ * The streaming loader must create a model that is identical to the one created by the EMF loader
+ *
+ * @author Phillip Beauvoir
+ */
+@SuppressWarnings("nls")
+public class ArchimateModelReaderTests {
+
+    public static junit.framework.Test suite() {
+        return new JUnit4TestAdapter(ArchimateModelReaderTests.class);
+    }
+
+    @Test
+    public void testRoundTrip_Archisurance() throws IOException {
+        assertSameAsEMFLoader(TestSupport.TEST_MODEL_FILE_ARCHISURANCE);
+    }
+
+    @Test
+    public void testRoundTrip_AllFeatures() throws IOException {
+        File file = TestSupport.saveModel(createModelWithAllFeatures());
+        assertSameAsEMFLoader(file);
+    }
+
+    @Test
+    public void testReferencesAreResolved() throws IOException {
+        IArchimateModel model = loadModelWithStreamingLoader(TestSupport.saveModel(createModelWithAllFeatures()));
+
+        IArchimateDiagramModel dm = (IArchimateDiagramModel)model.getDiagramModels().get(0);
+        IDiagramModelArchimateObject dmo1 = (IDiagramModelArchimateObject)dm.getChildren().get(0);
+        IDiagramModelArchimateObject dmo2 = (IDiagramModelArchimateObject)dm.getChildren().get(1);
+        IDiagramModelArchimateConnection conn = (IDiagramModelArchimateConnection)dmo1.getSourceConnections().get(0);
+
+        assertSame(dmo1, conn.getSource());
+        assertSame(dmo2, conn.getTarget());
+        assertSame(conn, dmo2.getTargetConnections().get(0));
+
+        IArchimateRelationship relation = conn.getArchimateRelationship();
+        assertSame(dmo1.getArchimateElement(), relation.getSource());
+        assertSame(dmo2.getArchimateElement(), relation.getTarget());
+        assertTrue(relation.getSource().getSourceRelationships().contains(relation));
+        assertTrue(relation.getTarget().getTargetRelationships().contains(relation));
+
+        IDiagramModelReference ref = (IDiagramModelReference)dm.getChildren().get(2);
+        assertSame(model.getDiagramModels().get(1), ref.getReferencedModel());
+    }
+
+    @Test
+    public void testUnknownFeatureIsNotCatastrophic() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<archimate:model xmlns:archimate=\"http://www.archimatetool.com/archimate\" name=\"Test\" id=\"1\" bogus=\"true\">\n" +
+                "  <something>bogus element</something>\n" +
+                "  <folder name=\"Business\" id=\"2\" type=\"business\"/>\n" +
+                "</archimate:model>";
+
+        ArchimateModelReader reader = new ArchimateModelReader(null, null, 0);
+        IArchimateModel model = reader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertNotNull(model);
+        assertEquals("Test", model.getName());
+        assertEquals(FolderType.BUSINESS, model.getFolders().get(0).getType());
+
+        assertEquals(2, reader.getErrors().size());
+        assertTrue(reader.getErrors().get(0) instanceof FeatureNotFoundException);
+        assertTrue(reader.getErrors().get(1) instanceof FeatureNotFoundException);
+    }
+
+    @Test
+    public void testUnresolvedReference() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<archimate:model xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns:archimate=\"http://www.archimatetool.com/archimate\" name=\"Test\" id=\"1\">\n" +
+                "  <folder name=\"Relations\" id=\"2\" type=\"relations\">\n" +
+                "    <element xsi:type=\"archimate:AssociationRelationship\" id=\"3\" source=\"4\" target=\"5\"/>\n" +
+                "  </folder>\n" +
+                "</archimate:model>";
+
+        ArchimateModelReader reader = new ArchimateModelReader(null, null, 0);
+        reader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, reader.getErrors().size());
+        assertTrue(reader.getErrors().get(0) instanceof UnresolvedReferenceException);
+    }
+
+    @Test
+    public void testBadXML() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<archimate:model xmlns:archimate=\"http://www.archimatetool.com/archimate\" name=\"Test\" id=\"1\">\n" +
+                "  <folder name=\"Business\" id=\"2\" type=\"business\">\n";
+
+        ArchimateModelReader reader = new ArchimateModelReader(null, null, 0);
+        assertNull(reader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+        assertFalse(reader.getErrors().isEmpty());
+    }
+
+    @Test
+    public void testResourceLoadOption() throws IOException {
+        Resource resource = ArchimateResourceFactory.createNewResource(TestSupport.TEST_MODEL_FILE_ARCHISURANCE);
+        resource.load(createStreamingLoadOptions());
+        assertTrue(resource.getContents().get(0) instanceof IArchimateModel);
+        assertTrue(resource.getErrors().isEmpty());
+    }
+
+    // ===================================================================================
+
+    private void assertSameAsEMFLoader(File file) throws IOException {
+        IArchimateModel emfModel = TestSupport.loadModel(file);
+        IArchimateModel streamedModel = loadModelWithStreamingLoader(file);
+
+        if(!EcoreUtil.equals(emfModel, streamedModel)) {
+            fail("Streamed model is not the same as the EMF loaded model: " + file);
+        }
+    }
+
+    private IArchimateModel loadModelWithStreamingLoader(File file) throws IOException {
+        Resource resource = ArchimateResourceFactory.createNewResource(file);
+        resource.load(createStreamingLoadOptions());
+        return (IArchimateModel)resource.getContents().get(0);
+    }
+
+    private Map<Object, Object> createStreamingLoadOptions() {
+        Map<Object, Object> options = new HashMap<>();
+        options.put(ArchimateResource.OPTION_USE_STREAMING_LOADER, Boolean.TRUE);
+        return options;
+    }
+
+    private IArchimateModel createModelWithAllFeatures() {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        model.setName("All Features");
+        model.setPurpose("Purpose with \"quotes\" & <markup>\nand a new line");
+        model.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("key", "value"));
+        model.getFeatures().putString("feature", "value");
+
+        // One of each element and relation type
+        for(EClass eClass : ArchimateModelUtils.getAllArchimateClasses()) {
+            IArchimateElement element = (IArchimateElement)IArchimateFactory.eINSTANCE.create(eClass);
+            element.setName(eClass.getName());
+            element.setDocumentation("Documentation for " + eClass.getName());
+            element.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("type", eClass.getName()));
+            model.getDefaultFolderForObject(element).getElements().add(element);
+        }
+
+        IArchimateElement actor = IArchimateFactory.eINSTANCE.createBusinessActor();
+        IArchimateElement role = IArchimateFactory.eINSTANCE.createBusinessRole();
+        model.getDefaultFolderForObject(actor).getElements().add(actor);
+        model.getDefaultFolderForObject(role).getElements().add(role);
+
+        IArchimateRelationship relation = IArchimateFactory.eINSTANCE.createAssignmentRelationship();
+        relation.connect(actor, role);
+        model.getDefaultFolderForObject(relation).getElements().add(relation);
+
+        // Relation to relation
+        IArchimateRelationship relation2 = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relation2.connect(actor, relation);
+        model.getDefaultFolderForObject(relation2).getElements().add(relation2);
+
+        // Sub-folder
+        IFolder folder = IArchimateFactory.eINSTANCE.createFolder();
+        folder.setName("Sub-folder");
+        folder.getProperties().add(IArchimateFactory.eINSTANCE.createProperty("key", "value"));
+        model.getFolder(FolderType.BUSINESS).getFolders().add(folder);
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessObject();
+        folder.getElements().add(element);
+
+        // Views
+        IArchimateDiagramModel dm1 = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        model.getFolder(FolderType.DIAGRAMS).getElements().add(dm1);
+        IArchimateDiagramModel dm2 = IArchimateFactory.eINSTANCE.createArchimateDiagramModel();
+        model.getFolder(FolderType.DIAGRAMS).getElements().add(dm2);
+
+        IDiagramModelArchimateObject dmo1 = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        dmo1.setArchimateElement(actor);
+        dmo1.setBounds(10, 10, 120, 55);
+        dm1.getChildren().add(dmo1);
+
+        IDiagramModelArchimateObject dmo2 = IArchimateFactory.eINSTANCE.createDiagramModelArchimateObject();
+        dmo2.setArchimateElement(role);
+        dmo2.setBounds(200, 10, 120, 55);
+        dmo2.setFillColor("#ff0000");
+        dm1.getChildren().add(dmo2);
+
+        IDiagramModelArchimateConnection conn = IArchimateFactory.eINSTANCE.createDiagramModelArchimateConnection();
+        conn.setArchimateRelationship(relation);
+        conn.connect(dmo1, dmo2);
+        IDiagramModelBendpoint bp = IArchimateFactory.eINSTANCE.createDiagramModelBendpoint();
+        bp.setStartX(10);
+        bp.setEndY(20);
+        conn.getBendpoints().add(bp);
+
+        IDiagramModelReference ref = IArchimateFactory.eINSTANCE.createDiagramModelReference();
+        ref.setReferencedModel(dm2);
+        ref.setBounds(10, 100, 120, 55);
+        dm1.getChildren().add(ref);
+
+        IDiagramModelGroup group = IArchimateFactory.eINSTANCE.createDiagramModelGroup();
+        group.setBounds(10, 200, 400, 200);
+        dm2.getChildren().add(group);
+
+        IDiagramModelNote note = IArchimateFactory.eINSTANCE.createDiagramModelNote();
+        note.setContent("Note\ncontent");
+        note.setBounds(10, 10, 100, 100);
+        group.getChildren().add(note);
+
+        return model;
+    }
+}
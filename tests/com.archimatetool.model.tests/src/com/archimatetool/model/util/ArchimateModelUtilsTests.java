@@ -7,6 +7,10 @@ package com.archimatetool.model.util;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.junit.Test;
@@ -76,6 +80,45 @@ public class ArchimateModelUtilsTests {
         // How much more can we test this...?
     }
     
+    @Test
+    public void testVisitRelationships() {
+        IArchimateElement element1 = IArchimateFactory.eINSTANCE.createBusinessActor();
+        IArchimateElement element2 = IArchimateFactory.eINSTANCE.createBusinessRole();
+        
+        IArchimateRelationship relation1 = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relation1.connect(element1, element2);
+        IArchimateRelationship relation2 = IArchimateFactory.eINSTANCE.createAssignmentRelationship();
+        relation2.connect(element2, element1);
+        IArchimateRelationship relation3 = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relation3.connect(element1, element1);
+        
+        List<IArchimateRelationship> list = new ArrayList<>();
+        
+        // Source
+        assertTrue(ArchimateModelUtils.visitRelationships(element1, ArchimateModelUtils.RELATIONSHIPS_SOURCE, null, list::add));
+        assertEquals(Arrays.asList(relation1, relation3), list);
+        
+        // Target
+        list.clear();
+        ArchimateModelUtils.visitRelationships(element1, ArchimateModelUtils.RELATIONSHIPS_TARGET, null, list::add);
+        assertEquals(Arrays.asList(relation2, relation3), list);
+        
+        // All, self relation is visited once
+        list.clear();
+        ArchimateModelUtils.visitRelationships(element1, ArchimateModelUtils.RELATIONSHIPS_ALL, null, list::add);
+        assertEquals(Arrays.asList(relation1, relation3, relation2), list);
+        
+        // Filtered by type
+        list.clear();
+        ArchimateModelUtils.visitRelationships(element1, ArchimateModelUtils.RELATIONSHIPS_ALL, IArchimatePackage.eINSTANCE.getAssignmentRelationship(), list::add);
+        assertEquals(Arrays.asList(relation2), list);
+        
+        // Stop visiting
+        list.clear();
+        assertFalse(ArchimateModelUtils.visitRelationships(element1, ArchimateModelUtils.RELATIONSHIPS_ALL, null, r -> list.add(r) && false));
+        assertEquals(Arrays.asList(relation1), list);
+    }
+    
     @Test
     public void testGetAllRelationshipsForConcept_NotNull() {
         IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
@@ -5,13 +5,18 @@
  */
 package com.archimatetool.model.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
 import org.junit.Test;
 
 import com.archimatetool.model.IArchimateElement;
@@ -130,4 +135,70 @@ public class RelationshipsMatrixTests {
         // Not OK from Junction to relation
         assertFalse(matrix.isValidRelationship(objectClass, relationClass, relationshipType));
     }
+    
+    @Test
+    public void testTablesAreSameAsRelationshipsMatrix() {
+        List<EClass> eClasses = new ArrayList<>();
+        for(EClassifier eClassifier : IArchimatePackage.eINSTANCE.getEClassifiers()) {
+            if(eClassifier instanceof EClass) {
+                eClasses.add((EClass)eClassifier);
+            }
+        }
+        eClasses.add(null);
+        
+        for(EClass sourceClass : eClasses) {
+            for(EClass relationship : eClasses) {
+                assertEquals(isValidRelationshipStartInMatrix(sourceClass, relationship), matrix.isValidRelationshipStart(sourceClass, relationship));
+            }
+            
+            for(EClass targetClass : eClasses) {
+                List<EClass> expected = new ArrayList<>();
+                
+                for(EClass relationship : eClasses) {
+                    boolean valid = isValidRelationshipInMatrix(sourceClass, targetClass, relationship);
+                    assertEquals(valid, matrix.isValidRelationship(sourceClass, targetClass, relationship));
+                    if(valid) {
+                        expected.add(relationship);
+                    }
+                }
+                
+                assertEquals(new HashSet<>(expected), new HashSet<>(Arrays.asList(matrix.getValidRelationships(sourceClass, targetClass))));
+            }
+        }
+    }
+    
+    // Look up the relationships matrix directly
+    
+    private EClass toGenericType(EClass eClass) {
+        EClass relationshipClass = IArchimatePackage.eINSTANCE.getArchimateRelationship();
+        return eClass != null && relationshipClass.isSuperTypeOf(eClass) ? relationshipClass : eClass;
+    }
+    
+    private boolean isValidRelationshipStartInMatrix(EClass sourceClass, EClass relationship) {
+        List<TargetMatrix> listMatrix = matrix.getRelationshipsMatrix().get(toGenericType(sourceClass));
+        if(listMatrix != null) {
+            for(TargetMatrix targetMatrix : listMatrix) {
+                if(targetMatrix.getRelationships().contains(relationship)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private boolean isValidRelationshipInMatrix(EClass sourceClass, EClass targetClass, EClass relationship) {
+        if(relationship == null || !IArchimatePackage.eINSTANCE.getArchimateRelationship().isSuperTypeOf(relationship)) {
+            return false;
+        }
+        
+        List<TargetMatrix> listMatrix = matrix.getRelationshipsMatrix().get(toGenericType(sourceClass));
+        if(listMatrix != null) {
+            for(TargetMatrix targetMatrix : listMatrix) {
+                if(targetMatrix.getTargetClass() == toGenericType(targetClass) && targetMatrix.getRelationships().contains(relationship)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 } 
@@ -8,15 +8,26 @@ package com.archimatetool.modelimporter;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
 
 import org.junit.Test;
 
+import com.archimatetool.editor.model.IArchiveManager;
 import com.archimatetool.model.FolderType;
+import com.archimatetool.model.IArchimateDiagramModel;
 import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IArchimateRelationship;
+import com.archimatetool.model.IDiagramModelReference;
 import com.archimatetool.model.IFolder;
+import com.archimatetool.modelimporter.StatusMessage.StatusMessageLevel;
 import com.archimatetool.testingtools.ArchimateTestModel;
+import com.archimatetool.tests.TestUtils;
 
 import junit.framework.JUnit4TestAdapter;
 
@@ -206,5 +217,38 @@ public class ModelImporterTests {
         IFolder viewsFolder = model.getFolder(FolderType.DIAGRAMS);
         assertEquals(2, viewsFolder.getElements().size());
     }
+    
+    @Test
+    public void doImport_ResolvesDiagramModelReferences() throws Exception {
+        // Imported model with a View that references another View
+        ArchimateTestModel importedTestModel = new ArchimateTestModel();
+        IArchimateModel importedModel = importedTestModel.createNewModel();
+        IArchimateDiagramModel dm1 = (IArchimateDiagramModel)importedModel.getDiagramModels().get(0);
+        IArchimateDiagramModel dm2 = importedTestModel.addNewArchimateDiagramModel();
+        IDiagramModelReference ref = IArchimateFactory.eINSTANCE.createDiagramModelReference();
+        ref.setReferencedModel(dm2);
+        dm1.getChildren().add(ref);
+        
+        File file = TestUtils.createTempFile(".archimate");
+        importedModel.setFile(file);
+        ((IArchiveManager)importedModel.getAdapter(IArchiveManager.class)).saveModel();
+        
+        ModelImporter importer = new ModelImporter();
+        IArchimateModel model = new ArchimateTestModel().createNewModel();
+        importer.doImport(file, model);
+        
+        IArchimateDiagramModel targetDM1 = (IArchimateDiagramModel)model.getObjectByID(dm1.getId());
+        IArchimateDiagramModel targetDM2 = (IArchimateDiagramModel)model.getObjectByID(dm2.getId());
+        IDiagramModelReference targetRef = (IDiagramModelReference)targetDM1.getChildren().get(0);
+        assertSame(targetDM2, targetRef.getReferencedModel());
+        
+        // Last status message has the timings
+        List<StatusMessage> messages = importer.getStatusMessages();
+        StatusMessage lastMessage = messages.get(messages.size() - 1);
+        assertEquals(StatusMessageLevel.INFO, lastMessage.getLevel());
+        assertTrue(lastMessage.getMessage().contains("ms"));
+        
+        file.delete();
+    }
 
 }
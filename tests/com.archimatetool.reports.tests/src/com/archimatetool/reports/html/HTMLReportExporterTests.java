@@ -5,17 +5,25 @@
  */
 package com.archimatetool.reports.html;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Iterator;
 
 import org.eclipse.emf.ecore.EObject;
 import org.junit.Test;
 
+import com.archimatetool.editor.ui.textrender.TextRenderer;
 import com.archimatetool.editor.utils.FileUtils;
 import com.archimatetool.model.IArchimateConcept;
+import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
 import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IDiagramModel;
 import com.archimatetool.model.IDiagramModelArchimateObject;
@@ -78,6 +86,9 @@ public class HTMLReportExporterTests {
         assertTrue(new File(targetFolder, "js").exists());
         assertTrue(new File(targetFolder, "lib").exists());
         
+        // The manifest is only written for incremental reports
+        assertFalse(new File(modelFolder, ReportManifest.MANIFEST_FILE_NAME).exists());
+        
         // Check element and view files created
         assertTrue(new File(elementsFolder, "model.html").exists());
         
@@ -106,5 +117,103 @@ public class HTMLReportExporterTests {
         // Clean up
         FileUtils.deleteFolder(TestUtils.TMP_FOLDER);
     }
+    
+    @Test
+    public void testCreateReport_ParallelSameAsSingleThread() throws Exception {
+        ArchimateTestModel tm = new ArchimateTestModel(TestData.TEST_MODEL_FILE);
+        IArchimateModel model = tm.loadModel();
+        
+        HTMLReportExporter exporter = new HTMLReportExporter(model);
+        
+        exporter.setThreads(1);
+        File singleFolder = TestUtils.createTempFolder("archi-html-report-single");
+        exporter.createReport(singleFolder, "index.html");
+        
+        exporter.setThreads(4);
+        File parallelFolder = TestUtils.createTempFolder("archi-html-report-parallel");
+        exporter.createReport(parallelFolder, "index.html");
+        
+        assertSameFiles(singleFolder, parallelFolder);
+        
+        // Clean up
+        FileUtils.deleteFolder(TestUtils.TMP_FOLDER);
+    }
+    
+    private void assertSameFiles(File expectedFolder, File actualFolder) throws Exception {
+        String[] expectedNames = expectedFolder.list();
+        String[] actualNames = actualFolder.list();
+        Arrays.sort(expectedNames);
+        Arrays.sort(actualNames);
+        assertArrayEquals(expectedNames, actualNames);
+        
+        for(String name : expectedNames) {
+            File expected = new File(expectedFolder, name);
+            File actual = new File(actualFolder, name);
+            if(expected.isDirectory()) {
+                assertSameFiles(expected, actual);
+            }
+            else {
+                assertArrayEquals(actual.getPath(), Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+            }
+        }
+    }
+    
+    @Test
+    public void testCreateReport_Incremental() throws Exception {
+        ArchimateTestModel tm = new ArchimateTestModel(TestData.TEST_MODEL_FILE);
+        IArchimateModel model = tm.loadModel();
+        
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        element.setName("Actor");
+        model.getDefaultFolderForObject(element).getElements().add(element);
+        
+        HTMLReportExporter exporter = new HTMLReportExporter(model);
+        exporter.setIncremental(true);
+        
+        File targetFolder = TestUtils.createTempFolder("archi-html-report");
+        exporter.createReport(targetFolder, "index.html");
+        
+        File modelFolder = new File(targetFolder, model.getId());
+        assertTrue(new File(modelFolder, ReportManifest.MANIFEST_FILE_NAME).exists());
+        
+        File elementFile = new File(modelFolder, "elements/" + element.getId() + ".html");
+        File modelFile = new File(modelFolder, "elements/model.html");
+        File imageFile = new File(modelFolder, "images/" + model.getDiagramModels().get(0).getId() + ".png");
+        assertTrue(elementFile.exists());
+        
+        long time = 1000000000000L;
+        for(File file : new File[] { elementFile, modelFile, imageFile }) {
+            file.setLastModified(time);
+        }
+        
+        // Nothing changed so files are not written
+        exporter.createReport(targetFolder, "index.html");
+        assertEquals(time, elementFile.lastModified());
+        assertEquals(time, modelFile.lastModified());
+        assertEquals(time, imageFile.lastModified());
+        
+        // Changed element page is written, image of View without the element is not
+        element.setName("Changed");
+        exporter.createReport(targetFolder, "index.html");
+        assertNotEquals(time, elementFile.lastModified());
+        assertEquals(time, imageFile.lastModified());
+        
+        // Image of a View with a label expression is always written
+        IDiagramModelObject dmo = model.getDiagramModels().get(0).getChildren().get(0);
+        dmo.getFeatures().putString(TextRenderer.FEATURE_NAME, "${name}");
+        exporter.createReport(targetFolder, "index.html");
+        imageFile.setLastModified(time);
+        exporter.createReport(targetFolder, "index.html");
+        assertNotEquals(time, imageFile.lastModified());
+        assertTrue(imageFile.exists());
+        
+        // Deleted element's page is deleted
+        model.getDefaultFolderForObject(element).getElements().remove(element);
+        exporter.createReport(targetFolder, "index.html");
+        assertFalse(elementFile.exists());
+        
+        // Clean up
+        FileUtils.deleteFolder(TestUtils.TMP_FOLDER);
+    }
 
 }
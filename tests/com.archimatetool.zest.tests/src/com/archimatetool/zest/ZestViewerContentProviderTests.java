@@ -14,6 +14,8 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import com.archimatetool.model.IArchimateElement;
+import com.archimatetool.model.IArchimateFactory;
+import com.archimatetool.model.IArchimateModel;
 import com.archimatetool.model.IArchimatePackage;
 import com.archimatetool.model.IArchimateRelationship;
 import com.archimatetool.model.viewpoints.IViewpoint;
@@ -147,4 +149,100 @@ public class ZestViewerContentProviderTests {
         assertEquals(expected, destination);
     }
     
+    @Test
+    public void testGetElements_Depth() {
+        ZestViewerContentProvider provider = new ZestViewerContentProvider();
+        IArchimateModel model = createModel();
+        IArchimateElement[] elements = createChain(model, 4);
+        
+        assertEquals(1, provider.getElements(elements[0]).length);
+        provider.setDepth(1);
+        assertEquals(2, provider.getElements(elements[0]).length);
+        provider.setDepth(2);
+        assertEquals(3, provider.getElements(elements[0]).length);
+        assertEquals(3, provider.getElements(elements[1]).length);
+    }
+    
+    @Test
+    public void testGetElements_Direction() {
+        ZestViewerContentProvider provider = new ZestViewerContentProvider();
+        provider.setDepth(5);
+        IArchimateModel model = createModel();
+        IArchimateElement[] elements = createChain(model, 4);
+        
+        provider.setDirection(ZestViewerContentProvider.DIR_OUT);
+        assertEquals(2, provider.getElements(elements[1]).length);
+        provider.setDirection(ZestViewerContentProvider.DIR_IN);
+        assertEquals(1, provider.getElements(elements[1]).length);
+    }
+    
+    @Test
+    public void testGetElements_Truncated() {
+        ZestViewerContentProvider provider = new ZestViewerContentProvider();
+        provider.setMaxConcepts(5);
+        IArchimateModel model = createModel();
+        
+        IArchimateElement hub = createElement(model);
+        for(int i = 0; i < 10; i++) {
+            createRelationship(model, hub, createElement(model));
+        }
+        
+        assertEquals(4, provider.getElements(hub).length);
+        assertTrue(provider.isTruncated());
+        
+        provider.setMaxConcepts(ZestViewerContentProvider.MAX_CONCEPTS);
+        assertEquals(10, provider.getElements(hub).length);
+        assertFalse(provider.isTruncated());
+    }
+    
+    @Test
+    public void testGetElements_ModelChanged() {
+        ZestViewerContentProvider provider = new ZestViewerContentProvider();
+        IArchimateModel model = createModel();
+        model.addModelContentListener(provider::modelChanged);
+        IArchimateElement[] elements = createChain(model, 2);
+        
+        assertEquals(1, provider.getElements(elements[0]).length);
+        
+        IArchimateRelationship relationship = createRelationship(model, elements[0], createElement(model));
+        assertEquals(2, provider.getElements(elements[0]).length);
+        
+        relationship.setTarget(elements[0]);
+        relationship.setSource(createElement(model));
+        assertEquals(2, provider.getElements(elements[0]).length);
+        
+        model.getDefaultFolderForObject(relationship).getElements().remove(relationship);
+        assertEquals(1, provider.getElements(elements[0]).length);
+    }
+    
+    private IArchimateModel createModel() {
+        IArchimateModel model = IArchimateFactory.eINSTANCE.createArchimateModel();
+        model.setDefaults();
+        return model;
+    }
+    
+    private IArchimateElement[] createChain(IArchimateModel model, int length) {
+        IArchimateElement[] elements = new IArchimateElement[length];
+        for(int i = 0; i < length; i++) {
+            elements[i] = createElement(model);
+            if(i > 0) {
+                createRelationship(model, elements[i - 1], elements[i]);
+            }
+        }
+        return elements;
+    }
+    
+    private IArchimateElement createElement(IArchimateModel model) {
+        IArchimateElement element = IArchimateFactory.eINSTANCE.createBusinessActor();
+        model.getDefaultFolderForObject(element).getElements().add(element);
+        return element;
+    }
+    
+    private IArchimateRelationship createRelationship(IArchimateModel model, IArchimateElement source, IArchimateElement target) {
+        IArchimateRelationship relationship = IArchimateFactory.eINSTANCE.createAssociationRelationship();
+        relationship.connect(source, target);
+        model.getDefaultFolderForObject(relationship).getElements().add(relationship);
+        return relationship;
+    }
+    
 }